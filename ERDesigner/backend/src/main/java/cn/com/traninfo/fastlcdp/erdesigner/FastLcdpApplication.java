@@ -8,7 +8,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * FastLCDP应用程序启动类
  */
 @SpringBootApplication
-@MapperScan("cn.com.traninfo.fastlcdp.erdesigner.entity")
+@MapperScan({"cn.com.traninfo.fastlcdp.erdesigner.entity", "cn.com.traninfo.fastlcdp.erdesigner.mapper"})
 public class FastLcdpApplication {
     public static void main(String[] args) {
         SpringApplication.run(FastLcdpApplication.class, args);
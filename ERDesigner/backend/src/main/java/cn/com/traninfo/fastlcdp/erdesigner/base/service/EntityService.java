@@ -4,25 +4,36 @@ import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import java.io.Serializable;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * 通用实体服务类，提供MyBatis Plus的增删改查功能
+ * 泛型类无法按实体类型自动装配Mapper，由 MyBatisPlusConfig 按实体类型声明Bean
  * @param <T> 实体类型
  */
-@Service
 public class EntityService<T> {
     
     private static final Logger logger = LoggerFactory.getLogger(EntityService.class);
 
-    private BaseMapper<T> baseMapper;
+    private final BaseMapper<T> baseMapper;
+
+    public EntityService(BaseMapper<T> baseMapper) {
+        this.baseMapper = baseMapper;
+    }
 
     /**
      * 保存或更新实体（根据主键判断）
@@ -59,6 +70,62 @@ public class EntityService<T> {
         }
     }
 
+    /**
+     * JDBC批量插入记录
+     * 使用BATCH执行器的SqlSession，每 batchSize 条调用一次 flushStatements，
+     * 在已有事务中执行时复用事务连接，由外层事务统一提交
+     * @param entityList 实体对象集合
+     * @param sqlSessionFactory SqlSession工厂
+     * @param mapperClass 实体对应的Mapper接口
+     * @param batchSize 每批条数
+     * @return 每批实际影响的行数
+     */
+    public List<Integer> saveBatch(Collection<T> entityList, SqlSessionFactory sqlSessionFactory,
+                                   Class<? extends BaseMapper<T>> mapperClass, int batchSize) {
+        if (CollectionUtils.isEmpty(entityList)) {
+            return Collections.emptyList();
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批次大小必须大于0: " + batchSize);
+        }
+        List<Integer> chunkCounts = new ArrayList<>((entityList.size() + batchSize - 1) / batchSize);
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            try {
+                BaseMapper<T> mapper = sqlSession.getMapper(mapperClass);
+                int pending = 0;
+                for (T entity : entityList) {
+                    mapper.insert(entity);
+                    if (++pending == batchSize) {
+                        chunkCounts.add(affectedRows(sqlSession.flushStatements()));
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    chunkCounts.add(affectedRows(sqlSession.flushStatements()));
+                }
+                sqlSession.commit();
+                return chunkCounts;
+            } catch (Exception e) {
+                sqlSession.rollback();
+                logger.error("JDBC批量插入实体失败，已完成 {} 批: {}", chunkCounts.size(), e.getMessage(), e);
+                throw new RuntimeException("JDBC批量插入实体失败", e);
+            }
+        }
+    }
+
+    /**
+     * 汇总一次flush的影响行数，驱动返回 SUCCESS_NO_INFO 时按1行计
+     */
+    private int affectedRows(List<BatchResult> batchResults) {
+        int rows = 0;
+        for (BatchResult batchResult : batchResults) {
+            for (int updateCount : batchResult.getUpdateCounts()) {
+                rows += updateCount == Statement.SUCCESS_NO_INFO ? 1 : updateCount;
+            }
+        }
+        return rows;
+    }
+
     /**
      * 根据条件更新记录
      * @param updateWrapper 更新条件
@@ -74,6 +141,22 @@ public class EntityService<T> {
         }
     }
 
+    /**
+     * 根据ID更新记录
+     * 实体带有版本号时由乐观锁插件追加版本条件，版本不匹配时返回false
+     * @param entity 实体对象
+     * @return 是否成功
+     */
+    @Transactional
+    public boolean updateById(T entity) {
+        try {
+            return SqlHelper.retBool(baseMapper.updateById(entity));
+        } catch (Exception e) {
+            logger.error("根据ID更新实体失败: {}", e.getMessage(), e);
+            throw new RuntimeException("根据ID更新实体失败", e);
+        }
+    }
+
     /**
      * 根据实体ID删除记录
      * @param entity 实体ID
@@ -7,7 +7,6 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import java.io.Serializable;
@@ -15,12 +14,20 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
-@Service
+/**
+ * 通用查询服务类
+ * 泛型类无法按实体类型自动装配Mapper，由 MyBatisPlusConfig 按实体类型声明Bean
+ * @param <T> 实体类型
+ */
 public class SearchService<T> {
 
     private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
 
-    private BaseMapper<T> baseMapper;
+    private final BaseMapper<T> baseMapper;
+
+    public SearchService(BaseMapper<T> baseMapper) {
+        this.baseMapper = baseMapper;
+    }
 
     /**
      * 查询所有记录
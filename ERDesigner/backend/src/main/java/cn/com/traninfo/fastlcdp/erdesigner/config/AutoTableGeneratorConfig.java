@@ -1,5 +1,6 @@
 package cn.com.traninfo.fastlcdp.erdesigner.config;
 
+import cn.com.traninfo.fastlcdp.erdesigner.service.TableCatalogCache;
 import com.baomidou.mybatisplus.annotation.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +38,9 @@ public class AutoTableGeneratorConfig implements ApplicationListener<Application
     @Autowired
     private DatabaseConfig databaseConfig;
 
+    @Autowired
+    private TableCatalogCache tableCatalogCache;
+
     private static final String ENTITY_PACKAGE = "cn.com.traninfo.fastlcdp.entity";
 
     @Override
@@ -79,6 +83,8 @@ public class AutoTableGeneratorConfig implements ApplicationListener<Application
                 }
             }
         }
+        // 扫描期间缓存只用于判断，建表完成后统一失效
+        tableCatalogCache.invalidate();
     }
 
     /**
@@ -111,32 +117,17 @@ public class AutoTableGeneratorConfig implements ApplicationListener<Application
     }
 
     /**
-     * 检查表是否存在
+     * 检查表是否存在，所有实体共用一次表名目录查询
      */
     private boolean isTableExists(String tableName) {
         try {
-            String sql = getTableExistsSql(tableName);
-            Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
-            return count != null && count > 0;
+            return tableCatalogCache.exists(tableName);
         } catch (Exception e) {
             log.warn("检查表存在性失败: {}", tableName, e);
             return false;
         }
     }
 
-    /**
-     * 获取检查表存在性的SQL
-     */
-    private String getTableExistsSql(String tableName) {
-        return switch (databaseConfig.getType()) {
-            case H2 -> "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = '" + tableName.toUpperCase() + "'";
-            case MYSQL -> "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = '" + tableName + "'";
-            case POSTGRESQL -> "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = '" + tableName + "'";
-            case ORACLE -> "SELECT COUNT(*) FROM user_tables WHERE table_name = '" + tableName.toUpperCase() + "'";
-            case SQLSERVER -> "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = '" + tableName + "'";
-        };
-    }
-
     /**
      * 生成创建表的SQL语句
      */
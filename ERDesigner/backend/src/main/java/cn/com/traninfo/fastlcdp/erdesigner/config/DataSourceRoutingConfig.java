@@ -0,0 +1,134 @@
+package cn.com.traninfo.fastlcdp.erdesigner.config;
+
+import cn.com.traninfo.fastlcdp.erdesigner.service.DataSourceRouter;
+import cn.com.traninfo.fastlcdp.erdesigner.util.MessageUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 数据源路由配置
+ * 请求带有 dataSourceId 参数或 X-DataSource-Id 请求头时，把处理线程绑定到该数据源，
+ * 建表、执行和反向工程都在该数据源上进行；数据源不存在时返回400。
+ * 切换数据源等于让服务端在登记的目标库上执行语句，只有拥有 database.routing.route-role 角色（默认 ADMIN）的调用方可以指定，
+ * 其他调用方返回403；不指定时使用默认数据源。
+ * 数据源管理接口会让服务端连接任意地址，启用方法级安全，只允许 ADMIN 角色调用。
+ * 角色通过 spring.security.user.roles 配置
+ */
+@Configuration
+@EnableMethodSecurity
+public class DataSourceRoutingConfig implements WebMvcConfigurer {
+
+    public static final String PARAM_NAME = "dataSourceId";
+
+    public static final String HEADER_NAME = "X-DataSource-Id";
+
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+
+    @Autowired
+    private MessageUtils messageUtils;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 允许指定数据源的角色，不带 ROLE_ 前缀
+     */
+    @Value("${database.routing.route-role:ADMIN}")
+    private String routeRole;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RoutingInterceptor())
+                .addPathPatterns("/api/**")
+                .excludePathPatterns("/api/datasources/**", "/api/jobs/**");
+    }
+
+    /**
+     * 每次分派时绑定，请求结束或转入异步处理时解除绑定
+     */
+    private class RoutingInterceptor implements AsyncHandlerInterceptor {
+
+        private static final String BOUND_ATTRIBUTE = RoutingInterceptor.class.getName() + ".BOUND";
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+            String value = request.getParameter(PARAM_NAME);
+            if (!StringUtils.hasText(value)) {
+                value = request.getHeader(HEADER_NAME);
+            }
+            if (!StringUtils.hasText(value)) {
+                return true;
+            }
+            if (!mayRoute()) {
+                return reject(response, HttpStatus.FORBIDDEN, messageUtils.getMessage("datasource.route.forbidden", routeRole));
+            }
+            try {
+                dataSourceRouter.bind(Long.valueOf(value.trim()));
+            } catch (NumberFormatException e) {
+                return reject(response, HttpStatus.BAD_REQUEST, messageUtils.getMessage("datasource.route.invalid", value));
+            } catch (RuntimeException e) {
+                return reject(response, HttpStatus.BAD_REQUEST, messageUtils.getMessage("datasource.route.failed", e.getMessage()));
+            }
+            request.setAttribute(BOUND_ATTRIBUTE, Boolean.TRUE);
+            return true;
+        }
+
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            unbind(request);
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+            unbind(request);
+        }
+
+        private void unbind(HttpServletRequest request) {
+            if (request.getAttribute(BOUND_ATTRIBUTE) != null) {
+                request.removeAttribute(BOUND_ATTRIBUTE);
+                dataSourceRouter.unbind();
+            }
+        }
+
+        /**
+         * 当前认证用户是否拥有指定数据源所需的角色
+         */
+        private boolean mayRoute() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !authentication.isAuthenticated()) {
+                return false;
+            }
+            String authority = "ROLE_" + routeRole;
+            return authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .anyMatch(authority::equals);
+        }
+
+        private boolean reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+            response.setStatus(status.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getWriter(), Map.of("success", false, "message", message));
+            return false;
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package cn.com.traninfo.fastlcdp.erdesigner.config;
 
+import cn.com.traninfo.fastlcdp.erdesigner.base.service.EntityService;
+import cn.com.traninfo.fastlcdp.erdesigner.base.service.SearchService;
+import cn.com.traninfo.fastlcdp.erdesigner.entity.MetadataEntity;
+import cn.com.traninfo.fastlcdp.erdesigner.mapper.MetadataMapper;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.OptimisticLockerInnerInterceptor;
 import org.apache.ibatis.reflection.MetaObject;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.stereotype.Component;
 
@@ -13,6 +20,32 @@ import java.time.LocalDateTime;
 @Configuration
 public class MyBatisPlusConfig {
 
+    /**
+     * 插件配置：乐观锁（BaseEntity.version）
+     */
+    @Bean
+    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(new OptimisticLockerInnerInterceptor());
+        return interceptor;
+    }
+
+    /**
+     * 元数据写服务，读写 metadata 表
+     */
+    @Bean
+    public EntityService<MetadataEntity> metadataEntityService(MetadataMapper metadataMapper) {
+        return new EntityService<>(metadataMapper);
+    }
+
+    /**
+     * 元数据查询服务
+     */
+    @Bean
+    public SearchService<MetadataEntity> metadataSearchService(MetadataMapper metadataMapper) {
+        return new SearchService<>(metadataMapper);
+    }
+
     /**
      * 自动填充处理器
      */
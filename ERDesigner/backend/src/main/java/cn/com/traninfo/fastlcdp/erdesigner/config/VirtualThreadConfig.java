@@ -0,0 +1,38 @@
+package cn.com.traninfo.fastlcdp.erdesigner.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 虚拟线程执行模式
+ * 开启 spring.threads.virtual.enabled 后，Spring Boot 会把任务执行器切换为虚拟线程，但不会处理Undertow；
+ * 这里把Undertow的Servlet请求和异步请求分派到虚拟线程上，阻塞在JDBC上的请求不再占用固定数量的工作线程。
+ * 实际并发仍受数据库连接池大小限制
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService servletVirtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-virtual-", 1).factory());
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowVirtualThreadCustomizer(
+            ExecutorService servletVirtualThreadExecutor) {
+        log.info("Undertow Servlet请求在虚拟线程上执行");
+        return factory -> factory.addDeploymentInfoCustomizers(deploymentInfo -> {
+            deploymentInfo.setExecutor(servletVirtualThreadExecutor);
+            deploymentInfo.setAsyncExecutor(servletVirtualThreadExecutor);
+        });
+    }
+}
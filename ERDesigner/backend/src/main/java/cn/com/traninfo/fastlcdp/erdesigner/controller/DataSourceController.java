@@ -0,0 +1,223 @@
+package cn.com.traninfo.fastlcdp.erdesigner.controller;
+
+import cn.com.traninfo.fastlcdp.erdesigner.entity.ConnectionEntity;
+import cn.com.traninfo.fastlcdp.erdesigner.mapper.ConnectionMapper;
+import cn.com.traninfo.fastlcdp.erdesigner.service.DataSourcePasswordCipher;
+import cn.com.traninfo.fastlcdp.erdesigner.service.DataSourceRouter;
+import cn.com.traninfo.fastlcdp.erdesigner.util.JdbcUrlValidator;
+import cn.com.traninfo.fastlcdp.erdesigner.util.MessageUtils;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据源管理API
+ * 登记目标数据库的连接信息（meta_connection），其他接口通过 dataSourceId 参数或 X-DataSource-Id 请求头指定目标数据源。
+ * 连接登记与保存的模式元数据分开存放，名称唯一。登记的地址由服务端直接连接，所有接口只对 ADMIN 角色开放
+ */
+@Slf4j
+@Tag(name = "Data Sources", description = "${api.datasource.tag.description}")
+@PreAuthorize("hasRole('ADMIN')")
+@RestController
+@RequestMapping("/api/datasources")
+public class DataSourceController {
+
+    @Autowired
+    private ConnectionMapper connectionMapper;
+
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+
+    @Autowired
+    private DataSourcePasswordCipher dataSourcePasswordCipher;
+
+    @Autowired
+    private MessageUtils messageUtils;
+
+    /**
+     * 数据源列表，不返回密码
+     */
+    @Operation(summary = "${api.datasource.list.summary}", description = "${api.datasource.list.desc}")
+    @GetMapping
+    public ResponseEntity<?> listDataSources() {
+        List<ConnectionEntity> dataSources = connectionMapper.selectList(
+                new QueryWrapper<ConnectionEntity>().orderByAsc("name"));
+        return ResponseEntity.ok(Map.of("success", true, "dataSources", dataSources));
+    }
+
+    /**
+     * 查询数据源
+     */
+    @Operation(summary = "${api.datasource.get.summary}", description = "${api.datasource.get.desc}")
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getDataSource(
+            @Parameter(description = "${api.datasource.param.id}")
+            @PathVariable Long id) {
+        ConnectionEntity dataSource = connectionMapper.selectById(id);
+        if (dataSource == null) {
+            return notFound(id);
+        }
+        return ResponseEntity.ok(Map.of("success", true, "dataSource", dataSource));
+    }
+
+    /**
+     * 登记数据源，连接池在第一次使用时创建
+     */
+    @Operation(summary = "${api.datasource.register.summary}", description = "${api.datasource.register.desc}")
+    @PostMapping
+    public ResponseEntity<?> registerDataSource(@RequestBody ConnectionEntity dataSource) {
+        if (!StringUtils.hasText(dataSource.getName())) {
+            return badRequest(messageUtils.getMessage("datasource.name.required"));
+        }
+        if (!StringUtils.hasText(dataSource.getUrl())) {
+            return badRequest(messageUtils.getMessage("datasource.url.required"));
+        }
+        try {
+            dataSource.setDriverClassName(JdbcUrlValidator.validate(dataSource.getDbType(), dataSource.getUrl()).getDriverClassName());
+        } catch (IllegalArgumentException e) {
+            return badRequest(messageUtils.getMessage("datasource.url.rejected", e.getMessage()));
+        }
+        if (connectionMapper.exists(new QueryWrapper<ConnectionEntity>().eq("name", dataSource.getName()))) {
+            return nameExists(dataSource.getName());
+        }
+        try {
+            dataSource.setPassword(dataSourcePasswordCipher.encrypt(dataSource.getPassword()));
+        } catch (IllegalStateException e) {
+            return credentialKeyMissing(e);
+        }
+        dataSource.setId(null);
+        try {
+            connectionMapper.insert(dataSource);
+        } catch (DuplicateKeyException e) {
+            // 并发登记同名数据源时由唯一索引拒绝
+            return nameExists(dataSource.getName());
+        }
+        log.info("登记数据源: {} ({})", dataSource.getName(), dataSource.getId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("success", true,
+                "message", messageUtils.getMessage("datasource.registered"), "dataSource", dataSource));
+    }
+
+    /**
+     * 修改数据源，未提供的字段保持不变，已创建的连接池关闭后按新配置重建
+     */
+    @Operation(summary = "${api.datasource.update.summary}", description = "${api.datasource.update.desc}")
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateDataSource(
+            @Parameter(description = "${api.datasource.param.id}")
+            @PathVariable Long id,
+            @RequestBody ConnectionEntity dataSource) {
+        ConnectionEntity existing = connectionMapper.selectById(id);
+        if (existing == null) {
+            return notFound(id);
+        }
+        // 按修改后的有效配置校验，未提供的字段沿用原值
+        String dbType = dataSource.getDbType() != null ? dataSource.getDbType() : existing.getDbType();
+        String url = dataSource.getUrl() != null ? dataSource.getUrl() : existing.getUrl();
+        if (dataSource.getDbType() != null || dataSource.getUrl() != null) {
+            try {
+                dataSource.setDriverClassName(JdbcUrlValidator.validate(dbType, url).getDriverClassName());
+            } catch (IllegalArgumentException e) {
+                return badRequest(messageUtils.getMessage("datasource.url.rejected", e.getMessage()));
+            }
+        }
+        try {
+            dataSource.setPassword(dataSourcePasswordCipher.encrypt(dataSource.getPassword()));
+        } catch (IllegalStateException e) {
+            return credentialKeyMissing(e);
+        }
+        dataSource.setId(id);
+        dataSource.setVersion(existing.getVersion());
+        try {
+            connectionMapper.updateById(dataSource);
+        } catch (DuplicateKeyException e) {
+            return nameExists(dataSource.getName());
+        }
+        dataSourceRouter.evict(id);
+        log.info("修改数据源: {} ({})", existing.getName(), id);
+        return ResponseEntity.ok(Map.of("success", true,
+                "message", messageUtils.getMessage("datasource.updated"), "dataSource", connectionMapper.selectById(id)));
+    }
+
+    /**
+     * 注销数据源，删除连接登记（包括加密的密码）并关闭连接池；保存的模式元数据不受影响
+     */
+    @Operation(summary = "${api.datasource.unregister.summary}", description = "${api.datasource.unregister.desc}")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> unregisterDataSource(
+            @Parameter(description = "${api.datasource.param.id}")
+            @PathVariable Long id) {
+        ConnectionEntity existing = connectionMapper.selectById(id);
+        if (existing == null) {
+            return notFound(id);
+        }
+        connectionMapper.purgeById(id);
+        dataSourceRouter.evict(id);
+        log.info("注销数据源: {} ({})", existing.getName(), id);
+        return ResponseEntity.ok(Map.of("success", true, "message", messageUtils.getMessage("datasource.unregistered")));
+    }
+
+    /**
+     * 测试数据源连接
+     */
+    @Operation(summary = "${api.datasource.test.summary}", description = "${api.datasource.test.desc}")
+    @PostMapping("/{id}/test")
+    public ResponseEntity<?> testDataSource(
+            @Parameter(description = "${api.datasource.param.id}")
+            @PathVariable Long id) {
+        try {
+            String product = dataSourceRouter.runOn(id, () -> dataSourceRouter.current().getJdbcTemplate()
+                    .execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+                            + " " + connection.getMetaData().getDatabaseProductVersion()));
+            return ResponseEntity.ok(Map.of("success", true,
+                    "message", messageUtils.getMessage("datasource.test.success"), "database", product));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.warn("数据源连接测试失败: {} - {}", id, e.getMessage());
+            return ResponseEntity.ok(Map.of("success", false,
+                    "message", messageUtils.getMessage("datasource.test.failed", e.getMessage())));
+        }
+    }
+
+    /**
+     * 连接池状态
+     */
+    @Operation(summary = "${api.datasource.pools.summary}", description = "${api.datasource.pools.desc}")
+    @GetMapping("/pools")
+    public ResponseEntity<?> getPools() {
+        return ResponseEntity.ok(Map.of("success", true, "routing", dataSourceRouter.getStatistics()));
+    }
+
+    private ResponseEntity<?> notFound(Long id) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "message", messageUtils.getMessage("datasource.not.found", String.valueOf(id))));
+    }
+
+    private ResponseEntity<?> nameExists(String name) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success", false,
+                "message", messageUtils.getMessage("datasource.name.exists", name)));
+    }
+
+    private ResponseEntity<?> credentialKeyMissing(IllegalStateException e) {
+        log.error("无法加密数据源密码: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("success", false, "message", messageUtils.getMessage("datasource.credential.key.missing")));
+    }
+
+    private ResponseEntity<?> badRequest(String message) {
+        return ResponseEntity.badRequest().body(Map.of("success", false, "message", message));
+    }
+}
@@ -3,19 +3,30 @@ package cn.com.traninfo.fastlcdp.erdesigner.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
-import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import cn.com.traninfo.fastlcdp.erdesigner.service.TableGeneratorService;
 import cn.com.traninfo.fastlcdp.erdesigner.service.DatabaseExecutorService;
 import cn.com.traninfo.fastlcdp.erdesigner.service.SqlGeneratorService;
 import cn.com.traninfo.fastlcdp.erdesigner.service.MetadataService;
+import cn.com.traninfo.fastlcdp.erdesigner.service.DatabaseIntrospectionService;
+import cn.com.traninfo.fastlcdp.erdesigner.service.SchemaJobService;
+import cn.com.traninfo.fastlcdp.erdesigner.util.MessageUtils;
+import cn.com.traninfo.fastlcdp.erdesigner.model.SchemaJob;
 import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
 import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
 import cn.com.traninfo.fastlcdp.erdesigner.dto.TableRequest;
@@ -41,6 +52,12 @@ public class DatabaseManagementController {
     private SqlGeneratorService sqlGeneratorService;
     @Autowired
     private MetadataService metadataService;
+    @Autowired
+    private DatabaseIntrospectionService databaseIntrospectionService;
+    @Autowired
+    private SchemaJobService schemaJobService;
+    @Autowired
+    private MessageUtils messageUtils;
 
     /**
      * 创建表（字段、索引、关联一并创建）
@@ -227,11 +244,8 @@ public class DatabaseManagementController {
             @Parameter(description = "${api.import.param.file}")
             @RequestParam("file") MultipartFile file) {
         // 解析XML文件并生成数据库表
-        try {
-            File tempFile = File.createTempFile("import_db_", ".xml");
-            file.transferTo(tempFile);
-            TableGeneratorService.GenerationResult result = tableGeneratorService.generateFromFile(tempFile);
-            tempFile.delete();
+        try (InputStream inputStream = file.getInputStream()) {
+            TableGeneratorService.GenerationResult result = tableGeneratorService.generateFromStream(inputStream, file.getSize());
             return ResponseEntity.ok(Map.of(
                 "success", result.isSuccess(),
                 "message", result.getMessage(),
@@ -242,6 +256,26 @@ public class DatabaseManagementController {
         }
     }
 
+    /**
+     * 异步导入数据库结构，立即返回任务ID，进度通过 /api/jobs/{jobId} 查询。
+     * 任务在请求结束后才执行，上传内容整份读入内存；大型XML应使用 /api/table-generator/generate 以请求体流式上传
+     */
+    @Operation(summary = "${api.import.async.summary}", description = "${api.import.async.desc}")
+    @PostMapping("/import/async")
+    public ResponseEntity<?> importDatabaseAsync(
+            @Parameter(description = "${api.import.param.file}")
+            @RequestParam("file") MultipartFile file) {
+        try {
+            SchemaJob job = schemaJobService.submit("import", file.getOriginalFilename(), file.getBytes());
+            return ResponseEntity.accepted().body(Map.of("success", true, "jobId", job.getId(), "job", job.toStatus()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("success", false, "message", messageUtils.getMessage("job.queue.full")));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
     /**
      * 导出数据库结构
      */
@@ -259,6 +293,50 @@ public class DatabaseManagementController {
         }
     }
 
+    /**
+     * 以文本文件形式流式下载数据库结构SQL
+     */
+    @Operation(summary = "${api.export.download.summary}", description = "${api.export.download.desc}")
+    @GetMapping("/export/download")
+    public ResponseEntity<?> downloadDatabase(
+            @Parameter(description = "${api.export.param.dbName}")
+            @RequestParam String dbName) {
+        // 从元数据加载模式后边生成边写出
+        try {
+            DatabaseSchema schema = metadataService.getSchemaDefinition(dbName);
+            if (schema == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success", false, "message", "Schema not found: " + dbName));
+            }
+            StreamingResponseBody body = outputStream -> sqlGeneratorService.writeFullSchemaSql(schema, outputStream);
+            return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(dbName + ".sql", StandardCharsets.UTF_8)
+                    .build().toString())
+                .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * 从当前连接的数据库反向读取表结构
+     */
+    @Operation(summary = "${api.introspect.summary}", description = "${api.introspect.desc}")
+    @GetMapping("/introspect")
+    public ResponseEntity<?> introspectDatabase(
+            @Parameter(description = "${api.introspect.param.catalog}")
+            @RequestParam(required = false) String catalog,
+            @Parameter(description = "${api.introspect.param.schema}")
+            @RequestParam(required = false) String schema) {
+        try {
+            DatabaseSchema databaseSchema = databaseIntrospectionService.introspect(catalog, schema);
+            return ResponseEntity.ok(Map.of("success", true, "schema", databaseSchema));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
     /**
      * 查表（支持条件查询）
      */
@@ -297,7 +375,7 @@ public class DatabaseManagementController {
         // 返回数据库-表-字段树形结构
         List<Map<String, Object>> tree = new java.util.ArrayList<>();
         // TODO: 遍历所有数据库和表，组装树结构
-        // 可用 metadataService.findAllMetadata()
+        // 可用 metadataService.listSchemaNames() 与 getSchemaDefinition()
         // ...
         return ResponseEntity.ok(tree);
     }
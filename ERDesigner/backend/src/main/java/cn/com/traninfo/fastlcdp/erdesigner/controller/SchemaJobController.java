@@ -0,0 +1,98 @@
+package cn.com.traninfo.fastlcdp.erdesigner.controller;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.SchemaJob;
+import cn.com.traninfo.fastlcdp.erdesigner.service.SchemaJobService;
+import cn.com.traninfo.fastlcdp.erdesigner.util.MessageUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 异步建表任务API
+ * 任务由 /api/table-generator/generate/async 或 /api/database-management/import/async 提交
+ */
+@Tag(name = "Schema Jobs", description = "${api.job.tag.description}")
+@RestController
+@RequestMapping("/api/jobs")
+public class SchemaJobController {
+
+    @Autowired
+    private SchemaJobService schemaJobService;
+
+    @Autowired
+    private MessageUtils messageUtils;
+
+    /**
+     * 任务列表
+     */
+    @Operation(summary = "${api.job.list.summary}", description = "${api.job.list.desc}")
+    @GetMapping
+    public ResponseEntity<?> listJobs() {
+        List<Map<String, Object>> jobs = schemaJobService.listJobs().stream().map(SchemaJob::toStatus).toList();
+        return ResponseEntity.ok(Map.of("success", true, "jobs", jobs));
+    }
+
+    /**
+     * 查询任务进度
+     */
+    @Operation(summary = "${api.job.get.summary}", description = "${api.job.get.desc}")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(
+            @Parameter(description = "${api.job.param.jobId}")
+            @PathVariable String jobId) {
+        SchemaJob job = schemaJobService.getJob(jobId);
+        if (job == null) {
+            return notFound(jobId);
+        }
+        return ResponseEntity.ok(Map.of("success", true, "job", job.toStatus()));
+    }
+
+    /**
+     * 以SSE订阅任务进度
+     */
+    @Operation(summary = "${api.job.stream.summary}", description = "${api.job.stream.desc}")
+    @GetMapping(value = "/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamJob(
+            @Parameter(description = "${api.job.param.jobId}")
+            @PathVariable String jobId) {
+        SchemaJob job = schemaJobService.getJob(jobId);
+        if (job == null) {
+            return notFound(jobId);
+        }
+        return ResponseEntity.ok(schemaJobService.stream(job));
+    }
+
+    /**
+     * 取消任务
+     */
+    @Operation(summary = "${api.job.cancel.summary}", description = "${api.job.cancel.desc}")
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<?> cancelJob(
+            @Parameter(description = "${api.job.param.jobId}")
+            @PathVariable String jobId) {
+        SchemaJob job = schemaJobService.getJob(jobId);
+        if (job == null) {
+            return notFound(jobId);
+        }
+        if (!schemaJobService.cancel(jobId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success", false,
+                    "message", messageUtils.getMessage("job.already.finished"), "job", job.toStatus()));
+        }
+        return ResponseEntity.accepted().body(Map.of("success", true,
+                "message", messageUtils.getMessage("job.cancel.requested"), "job", job.toStatus()));
+    }
+
+    private ResponseEntity<?> notFound(String jobId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "message", messageUtils.getMessage("job.not.found", jobId)));
+    }
+}
@@ -1,26 +1,45 @@
 package cn.com.traninfo.fastlcdp.erdesigner.controller;
 
 import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
-import cn.com.traninfo.fastlcdp.erdesigner.entity.MetadataEntity;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import cn.com.traninfo.fastlcdp.erdesigner.model.SchemaJob;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.service.DataSourceRouter;
+import cn.com.traninfo.fastlcdp.erdesigner.service.DdlEventBus;
+import cn.com.traninfo.fastlcdp.erdesigner.service.MetadataMigrationService;
 import cn.com.traninfo.fastlcdp.erdesigner.service.MetadataService;
+import cn.com.traninfo.fastlcdp.erdesigner.service.ParsedSchemaCache;
+import cn.com.traninfo.fastlcdp.erdesigner.service.SchemaDiffService;
+import cn.com.traninfo.fastlcdp.erdesigner.service.SchemaJobService;
+import cn.com.traninfo.fastlcdp.erdesigner.service.SqlArchiveWriter;
 import cn.com.traninfo.fastlcdp.erdesigner.service.SqlGeneratorService;
+import cn.com.traninfo.fastlcdp.erdesigner.service.TableCatalogCache;
 import cn.com.traninfo.fastlcdp.erdesigner.service.TableGeneratorService;
+import cn.com.traninfo.fastlcdp.erdesigner.service.XmlParserService;
+import cn.com.traninfo.fastlcdp.erdesigner.util.XmlSchemaValidator;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import cn.com.traninfo.fastlcdp.erdesigner.util.MessageUtils;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 表生成器控制器
@@ -42,6 +61,36 @@ public class TableGeneratorController {
     @Autowired
     private MetadataService metadataService;
     
+    @Autowired
+    private MetadataMigrationService metadataMigrationService;
+    
+    @Autowired
+    private ParsedSchemaCache parsedSchemaCache;
+    
+    @Autowired
+    private XmlParserService xmlParserService;
+    
+    @Autowired
+    private XmlSchemaValidator xmlSchemaValidator;
+    
+    @Autowired
+    private SqlArchiveWriter sqlArchiveWriter;
+    
+    @Autowired
+    private TableCatalogCache tableCatalogCache;
+    
+    @Autowired
+    private SchemaDiffService schemaDiffService;
+    
+    @Autowired
+    private SchemaJobService schemaJobService;
+    
+    @Autowired
+    private DdlEventBus ddlEventBus;
+    
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+    
     @Autowired
     private DatabaseConfig databaseConfig;
     
@@ -50,7 +99,8 @@ public class TableGeneratorController {
     
     @PostMapping("/generate")
     public ResponseEntity<Map<String, Object>> generateTables(
-            @RequestParam("file") MultipartFile file) {
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "executionId", required = false) String executionId) {
         Map<String, Object> response = new HashMap<>();
         
         try {
@@ -67,28 +117,23 @@ public class TableGeneratorController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // 保存临时文件
-            Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"));
-            Path tempFile = tempDir.resolve("table_definition_" + System.currentTimeMillis() + ".xml");
-            Files.copy(file.getInputStream(), tempFile);
-            
-            try {
+            // 直接从上传流解析，不落临时文件
+            try (InputStream inputStream = file.getInputStream()) {
                 // 生成数据库表
-                TableGeneratorService.GenerationResult result = tableGeneratorService.generateFromFile(tempFile.toFile());
+                TableGeneratorService.GenerationResult result = tableGeneratorService.generateFromStream(inputStream, file.getSize(), executionId);
                 
                 response.put("success", result.isSuccess());
                 response.put("message", result.getMessage());
+                if (result.getExecutionId() != null) {
+                    response.put("executionId", result.getExecutionId());
+                }
                 
                 if (result.getSchema() != null) {
                     response.put("databaseName", result.getSchema().getName());
-                    response.put("tableCount", result.getSchema().getTables().size());
+                    response.put("tableCount", result.getTableCount());
                 }
                 
                 return ResponseEntity.ok(response);
-                
-            } finally {
-                // 清理临时文件
-                Files.deleteIfExists(tempFile);
             }
             
         } catch (IOException e) {
@@ -104,6 +149,122 @@ public class TableGeneratorController {
         }
     }
     
+    /**
+     * 以请求体直接上传XML生成数据库表
+     * Content-Type 为 application/xml 或 text/xml 时匹配本接口，不经过multipart解析，
+     * 内容不会因超过 file-size-threshold 而写入临时文件，也不产生整份内存副本；
+     * 超过解析阈值或长度未知（分块传输）的请求体直接流式解析。适合大型XML，例如：
+     * curl -H 'Content-Type: application/xml' --data-binary @schema.xml .../api/table-generator/generate
+     * 
+     * @param request 请求，请求体为XML内容
+     * @param executionId 执行ID
+     * @return 生成结果
+     */
+    @PostMapping(value = "/generate", consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE})
+    public ResponseEntity<Map<String, Object>> generateTablesFromBody(
+            HttpServletRequest request,
+            @RequestParam(value = "executionId", required = false) String executionId) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            if (request.getContentLengthLong() == 0) {
+                response.put("success", false);
+                response.put("message", messageUtils.getMessage("file.empty"));
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            // 请求体由容器负责关闭
+            TableGeneratorService.GenerationResult result = tableGeneratorService.generateFromStream(
+                    request.getInputStream(), request.getContentLengthLong(), executionId);
+            
+            response.put("success", result.isSuccess());
+            response.put("message", result.getMessage());
+            if (result.getExecutionId() != null) {
+                response.put("executionId", result.getExecutionId());
+            }
+            if (result.getSchema() != null) {
+                response.put("databaseName", result.getSchema().getName());
+                response.put("tableCount", result.getTableCount());
+            }
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (IOException e) {
+            log.error(messageUtils.getMessage("file.process.failed"), e);
+            response.put("success", false);
+            response.put("message", messageUtils.getMessage("file.process.failed") + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        } catch (Exception e) {
+            log.error(messageUtils.getMessage("table.generate.failed"), e);
+            response.put("success", false);
+            response.put("message", messageUtils.getMessage("api.generate.failed") + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    /**
+     * 异步生成数据库表
+     * 上传内容读取后立即返回任务ID，解析和建表在任务线程池中执行，进度通过 /api/jobs/{jobId} 查询或订阅。
+     * 任务在请求结束后才执行，上传内容必须整份读入内存（排队数受 schema.job.queue-capacity 限制）；
+     * 大型XML应使用以请求体上传的同步 /generate 接口
+     * 
+     * @param file XML文件
+     * @return 任务信息
+     */
+    @PostMapping("/generate/async")
+    public ResponseEntity<Map<String, Object>> generateTablesAsync(
+            @RequestParam("file") MultipartFile file) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            // 验证文件
+            if (file.isEmpty()) {
+                response.put("success", false);
+                response.put("message", messageUtils.getMessage("file.empty"));
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            if (!file.getOriginalFilename().toLowerCase().endsWith(".xml")) {
+                response.put("success", false);
+                response.put("message", messageUtils.getMessage("file.invalid.format"));
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            // 请求结束后上传内容即失效，任务持有读取到的字节
+            SchemaJob job = schemaJobService.submit("generate", file.getOriginalFilename(), file.getBytes());
+            
+            response.put("success", true);
+            response.put("jobId", job.getId());
+            response.put("job", job.toStatus());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            
+        } catch (RejectedExecutionException e) {
+            response.put("success", false);
+            response.put("message", messageUtils.getMessage("job.queue.full"));
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        } catch (IOException e) {
+            log.error(messageUtils.getMessage("file.process.failed"), e);
+            response.put("success", false);
+            response.put("message", messageUtils.getMessage("file.process.failed") + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    /**
+     * 订阅DDL执行事件（Server-Sent Events）
+     * 每条语句执行后推送 statement 事件（表名、语句类型、耗时、影响行数、错误信息），
+     * 执行开始和结束时分别推送 started 和 finished 事件。客户端可先生成执行ID并订阅，
+     * 再以同一ID调用 /generate；不指定执行ID时推送所有执行的事件
+     * 
+     * @param executionId 执行ID
+     * @return 事件流
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDdlEvents(
+            @RequestParam(value = "executionId", required = false) String executionId) {
+        return ddlEventBus.stream(executionId);
+    }
+    
     @PostMapping("/preview")
     public ResponseEntity<Map<String, Object>> previewSql(
             @RequestParam("file") MultipartFile file) {
@@ -123,14 +284,10 @@ public class TableGeneratorController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // 保存临时文件
-            Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"));
-            Path tempFile = tempDir.resolve("preview_" + System.currentTimeMillis() + ".xml");
-            Files.copy(file.getInputStream(), tempFile);
-            
-            try {
+            // 直接从上传流解析，不落临时文件
+            try (InputStream inputStream = file.getInputStream()) {
                 // 预览SQL
-                TableGeneratorService.SqlPreviewResult result = tableGeneratorService.previewSql(tempFile.toFile());
+                TableGeneratorService.SqlPreviewResult result = tableGeneratorService.previewSql(inputStream, file.getSize());
                 
                 response.put("success", result.isSuccess());
                 response.put("message", result.getMessage());
@@ -142,10 +299,6 @@ public class TableGeneratorController {
                 }
                 
                 return ResponseEntity.ok(response);
-                
-            } finally {
-                // 清理临时文件
-                Files.deleteIfExists(tempFile);
             }
             
         } catch (IOException e) {
@@ -161,6 +314,119 @@ public class TableGeneratorController {
         }
     }
     
+    /**
+     * 校验XML文件
+     * 直接读取上传流，XSD校验与解析一次完成
+     * 
+     * @param file XML文件
+     * @return 校验结果
+     */
+    @PostMapping("/validate")
+    public ResponseEntity<Map<String, Object>> validateXml(@RequestParam("file") MultipartFile file) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            // 验证文件
+            if (file.isEmpty()) {
+                response.put("success", false);
+                response.put("message", messageUtils.getMessage("file.empty"));
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            if (!file.getOriginalFilename().toLowerCase().endsWith(".xml")) {
+                response.put("success", false);
+                response.put("message", messageUtils.getMessage("file.invalid.format"));
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            TableGeneratorService.ValidationResult result;
+            try (InputStream inputStream = file.getInputStream()) {
+                result = tableGeneratorService.validateXml(inputStream);
+            }
+            
+            response.put("success", true);
+            response.put("valid", result.isValid());
+            response.put("message", result.getMessage());
+            response.put("errors", result.getErrors());
+            response.put("warnings", result.getWarnings());
+            
+            if (result.getSchema() != null) {
+                response.put("databaseName", result.getSchema().getName());
+                response.put("tableCount", result.getSchema().getTables().size());
+            }
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (IOException e) {
+            log.error(messageUtils.getMessage("file.process.failed"), e);
+            response.put("success", false);
+            response.put("message", messageUtils.getMessage("file.process.failed") + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    /**
+     * 与已保存的元数据比较，生成增量迁移SQL
+     * 只输出变化的字段、索引和外键对应的 ALTER 语句，不重建整个模式
+     * 
+     * @param file 目标模式XML文件
+     * @param databaseType 数据库类型，为空时使用当前配置的数据库
+     * @return 迁移SQL
+     */
+    @PostMapping("/diff")
+    public ResponseEntity<Map<String, Object>> diffSchema(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "databaseType", required = false) String databaseType) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            // 验证文件
+            if (file.isEmpty()) {
+                response.put("success", false);
+                response.put("message", messageUtils.getMessage("file.empty"));
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            if (!file.getOriginalFilename().toLowerCase().endsWith(".xml")) {
+                response.put("success", false);
+                response.put("message", messageUtils.getMessage("file.invalid.format"));
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            // 与其他上传接口一致：小文件走解析缓存，大文件直接从请求体解析
+            DatabaseSchema schema;
+            try (InputStream inputStream = file.getInputStream()) {
+                schema = xmlParserService.parseUpload(inputStream, file.getSize());
+            }
+            
+            List<DdlStatement> statements = schemaDiffService.diffAgainstStored(schema, databaseType);
+            
+            response.put("success", true);
+            response.put("databaseName", schema.getName());
+            response.put("statementCount", statements.size());
+            response.put("sql", schemaDiffService.toSql(statements));
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            // 数据库类型不支持、目标数据库无法执行的变更、未命名外键变化等都属于请求问题
+            log.warn("拒绝生成迁移SQL: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", messageUtils.getMessage("schema.diff.rejected", e.getMessage()));
+            return ResponseEntity.badRequest().body(response);
+        } catch (IOException e) {
+            log.error(messageUtils.getMessage("file.process.failed"), e);
+            response.put("success", false);
+            response.put("message", messageUtils.getMessage("file.process.failed") + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        } catch (Exception e) {
+            log.error("生成迁移SQL失败", e);
+            response.put("success", false);
+            response.put("message", messageUtils.getMessage("schema.diff.failed", e.getMessage()));
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getStatus() {
         Map<String, Object> response = new HashMap<>();
@@ -169,8 +435,16 @@ public class TableGeneratorController {
             response.put("status", "running");
             response.put("message", messageUtils.getMessage("system.status.running"));
             response.put("timestamp", System.currentTimeMillis());
-            response.put("databaseType", databaseConfig.getType());
+            response.put("databaseType", dataSourceRouter.currentType());
+            response.put("dataSourceId", dataSourceRouter.currentDataSourceId());
             response.put("metadataStorageEnabled", databaseConfig.isMetadataStorageEnabled());
+            response.put("parsedSchemaCache", parsedSchemaCache.getStatistics());
+            response.put("unmarshallerPool", xmlParserService.getUnmarshallerPool().getStatistics());
+            response.put("validatorPool", xmlSchemaValidator.getPoolStatistics());
+            response.put("sqlArchive", sqlArchiveWriter.getStatistics());
+            response.put("tableCatalog", tableCatalogCache.getStatistics());
+            response.put("ddlEvents", ddlEventBus.getStatistics());
+            response.put("dataSourceRouting", dataSourceRouter.getStatistics());
             
             return ResponseEntity.ok(response);
             
@@ -206,23 +480,15 @@ public class TableGeneratorController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // 保存临时文件
-            Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"));
-            Path tempFile = tempDir.resolve("metadata_" + System.currentTimeMillis() + ".xml");
-            Files.copy(file.getInputStream(), tempFile);
-            
-            try {
+            // 直接从上传流解析，不落临时文件
+            try (InputStream inputStream = file.getInputStream()) {
                 // 保存元数据
-                metadataService.saveSchemaFromXml(tempFile.toFile());
+                metadataService.saveSchemaFromStream(inputStream, file.getSize());
                 
                 response.put("success", true);
                 response.put("message", "元数据保存成功");
                 
                 return ResponseEntity.ok(response);
-                
-            } finally {
-                // 清理临时文件
-                Files.deleteIfExists(tempFile);
             }
             
         } catch (IOException e) {
@@ -239,20 +505,20 @@ public class TableGeneratorController {
     }
     
     /**
-     * 查询所有元数据
+     * 查询所有已保存的模式
      * 
-     * @return 元数据列表
+     * @return 模式名列表
      */
     @GetMapping("/metadata/list")
     public ResponseEntity<Map<String, Object>> listMetadata() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            List<MetadataEntity> metadataList = metadataService.findAllMetadata();
+            List<String> schemaNames = metadataService.listSchemaNames();
             
             response.put("success", true);
-            response.put("data", metadataList);
-            response.put("count", metadataList.size());
+            response.put("data", schemaNames);
+            response.put("count", schemaNames.size());
             
             return ResponseEntity.ok(response);
             
@@ -265,21 +531,26 @@ public class TableGeneratorController {
     }
     
     /**
-     * 根据模式名查询元数据
+     * 根据模式名查询模式定义
      * 
      * @param schemaName 模式名
-     * @return 元数据列表
+     * @return 模式定义
      */
     @GetMapping("/metadata/schema/{schemaName}")
     public ResponseEntity<Map<String, Object>> getMetadataBySchema(@PathVariable String schemaName) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            List<MetadataEntity> metadataList = metadataService.findBySchemaName(schemaName);
+            DatabaseSchema schema = metadataService.getSchemaDefinition(schemaName);
+            if (schema == null) {
+                response.put("success", false);
+                response.put("message", "模式定义不存在: " + schemaName);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
             
             response.put("success", true);
-            response.put("data", metadataList);
-            response.put("count", metadataList.size());
+            response.put("data", schema);
+            response.put("count", schema.getTables().size());
             
             return ResponseEntity.ok(response);
             
@@ -317,6 +588,66 @@ public class TableGeneratorController {
         }
     }
     
+    /**
+     * 将旧 metadata 表中的元数据迁移到规范化元数据仓库
+     * 
+     * @return 迁移结果
+     */
+    @PostMapping("/metadata/migrate")
+    public ResponseEntity<Map<String, Object>> migrateMetadata() {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            List<String> migrated = metadataMigrationService.migrateLegacyMetadata();
+            
+            response.put("success", true);
+            response.put("message", "元数据迁移成功");
+            response.put("data", migrated);
+            response.put("count", migrated.size());
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("迁移元数据失败", e);
+            response.put("success", false);
+            response.put("message", "迁移失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    /**
+     * 查询单张表定义
+     * 
+     * @param schemaName 模式名
+     * @param tableName 表名
+     * @return 表定义
+     */
+    @GetMapping("/metadata/schema/{schemaName}/table/{tableName}")
+    public ResponseEntity<Map<String, Object>> getTableDefinition(@PathVariable String schemaName,
+                                                                  @PathVariable String tableName) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            TableDefinition table = metadataService.getTableDefinition(schemaName, tableName);
+            if (table == null) {
+                response.put("success", false);
+                response.put("message", "表定义不存在: " + schemaName + "." + tableName);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+            
+            response.put("success", true);
+            response.put("data", table);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("查询表定义失败", e);
+            response.put("success", false);
+            response.put("message", "查询失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
     /**
      * 生成特定数据库类型的SQL
      * 
@@ -344,14 +675,10 @@ public class TableGeneratorController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // 保存临时文件
-            Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"));
-            Path tempFile = tempDir.resolve("sql_gen_" + System.currentTimeMillis() + ".xml");
-            Files.copy(file.getInputStream(), tempFile);
-            
-            try {
+            // 直接从上传流解析，不落临时文件
+            try (InputStream inputStream = file.getInputStream()) {
                 // 生成SQL
-                String sql = sqlGeneratorService.generateSqlForDatabase(tempFile.toFile(), databaseType);
+                String sql = sqlGeneratorService.generateSqlForDatabase(inputStream, file.getSize(), databaseType);
                 
                 response.put("success", true);
                 response.put("sql", sql);
@@ -359,10 +686,6 @@ public class TableGeneratorController {
                 response.put("message", "SQL生成成功");
                 
                 return ResponseEntity.ok(response);
-                
-            } finally {
-                // 清理临时文件
-                Files.deleteIfExists(tempFile);
             }
             
         } catch (IOException e) {
@@ -378,6 +701,61 @@ public class TableGeneratorController {
         }
     }
     
+    /**
+     * 以文本文件形式流式下载特定数据库类型的SQL
+     * SQL边生成边写入响应体，不在内存中保留完整脚本
+     * 
+     * @param file XML文件
+     * @param databaseType 数据库类型
+     * @return SQL文件流
+     */
+    @PostMapping("/generate/sql/{databaseType}/download")
+    public ResponseEntity<?> downloadSqlForDatabase(
+            @RequestParam("file") MultipartFile file,
+            @PathVariable String databaseType) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            // 验证文件
+            if (file.isEmpty()) {
+                response.put("success", false);
+                response.put("message", messageUtils.getMessage("file.empty"));
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            if (!file.getOriginalFilename().toLowerCase().endsWith(".xml")) {
+                response.put("success", false);
+                response.put("message", messageUtils.getMessage("file.invalid.format"));
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            // 上传内容在请求线程内解析完毕，响应体只依赖解析结果；小文件走解析缓存
+            DatabaseSchema schema;
+            try (InputStream inputStream = file.getInputStream()) {
+                schema = xmlParserService.parseUpload(inputStream, file.getSize());
+            }
+            
+            StreamingResponseBody body = outputStream -> sqlGeneratorService.writeSqlForDatabase(schema, databaseType, outputStream);
+            return ResponseEntity.ok()
+                    .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(schema.getName() + "_" + databaseType.toLowerCase() + ".sql", StandardCharsets.UTF_8)
+                            .build().toString())
+                    .body(body);
+            
+        } catch (IOException e) {
+            log.error(messageUtils.getMessage("file.process.failed"), e);
+            response.put("success", false);
+            response.put("message", messageUtils.getMessage("file.process.failed") + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        } catch (Exception e) {
+            log.error("SQL生成失败", e);
+            response.put("success", false);
+            response.put("message", "生成失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
     /**
      * 获取支持的数据库类型
      * 
@@ -392,7 +770,7 @@ public class TableGeneratorController {
             
             response.put("success", true);
             response.put("types", supportedTypes);
-            response.put("currentType", databaseConfig.getType());
+            response.put("currentType", dataSourceRouter.currentType());
             
             return ResponseEntity.ok(response);
             
@@ -8,6 +8,10 @@ import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -16,8 +20,49 @@ import java.util.stream.Collectors;
  */
 public abstract class AbstractDatabaseDialect implements DatabaseDialect {
     
+    /**
+     * 标识符转义缓存上限，超过后整体清空，避免无限增长
+     */
+    private static final int IDENTIFIER_CACHE_LIMIT = 4096;
+    
+    /**
+     * 模型中出现的类型名，用于预计算固定的类型片段
+     */
+    private static final String[] KNOWN_TYPES = {
+            "INTEGER", "LONG", "DECIMAL", "BOOLEAN", "CHAR", "STRING", "TEXT", "BINARY", "BLOB", "DATETIME", "JSON",
+            "VARCHAR", "LONGTEXT", "MEDIUMTEXT", "TINYTEXT", "INT", "BIGINT", "TINYINT", "SMALLINT", "NUMERIC",
+            "FLOAT", "DOUBLE", "BOOL", "DATE", "TIME", "TIMESTAMP", "YEAR", "LONGBLOB", "MEDIUMBLOB", "TINYBLOB"
+    };
+    
+    private final Map<String, String> escapedIdentifiers = new ConcurrentHashMap<>();
+    
+    private volatile Templates templates;
+    
+    @Override
+    public boolean supportsBatchDdl() {
+        return true;
+    }
+    
     @Override
     public String escapeIdentifier(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        String escaped = escapedIdentifiers.get(identifier);
+        if (escaped == null) {
+            escaped = quoteIdentifier(identifier);
+            if (escapedIdentifiers.size() >= IDENTIFIER_CACHE_LIMIT) {
+                escapedIdentifiers.clear();
+            }
+            escapedIdentifiers.put(identifier, escaped);
+        }
+        return escaped;
+    }
+    
+    /**
+     * 为标识符加引号，结果由 escapeIdentifier 缓存
+     */
+    protected String quoteIdentifier(String identifier) {
         if (!StringUtils.hasText(identifier)) {
             return identifier;
         }
@@ -25,6 +70,50 @@ public abstract class AbstractDatabaseDialect implements DatabaseDialect {
         return quote + identifier + quote;
     }
     
+    /**
+     * 字段类型片段
+     * 不受长度、精度、主键类型影响的类型直接取预计算结果，其余类型仍由 generateFieldType 拼接
+     */
+    protected final String fieldTypeFragment(FieldDefinition field) {
+        if (field.getType() != null) {
+            String fragment = getTemplates().fixedTypes.get(field.getType());
+            if (fragment != null) {
+                return fragment;
+            }
+        }
+        return generateFieldType(field);
+    }
+    
+    /**
+     * 自增关键字片段（含前导空格）
+     */
+    protected final String autoIncrementFragment() {
+        return getTemplates().autoIncrement;
+    }
+    
+    /**
+     * 追加 DEFAULT 子句，当前时间函数使用预计算的片段
+     */
+    protected final void appendDefaultValue(StringBuilder sql, String defaultValue) {
+        if (defaultValue.equalsIgnoreCase("CURRENT_TIMESTAMP") || defaultValue.equalsIgnoreCase("NOW()")) {
+            sql.append(getTemplates().defaultCurrentTimestamp);
+        } else if (defaultValue.startsWith("'") && defaultValue.endsWith("'")) {
+            sql.append(" DEFAULT ").append(defaultValue);
+        } else {
+            sql.append(" DEFAULT ").append(escapeStringValue(defaultValue));
+        }
+    }
+    
+    private Templates getTemplates() {
+        Templates current = templates;
+        if (current == null) {
+            // 构建结果是确定的，并发时重复构建也无妨
+            current = new Templates(this);
+            templates = current;
+        }
+        return current;
+    }
+    
     @Override
     public String escapeStringValue(String value) {
         if (value == null) {
@@ -35,13 +124,13 @@ public abstract class AbstractDatabaseDialect implements DatabaseDialect {
     
     @Override
     public String generateFieldDefinition(FieldDefinition field) {
-        StringBuilder sql = new StringBuilder();
+        StringBuilder sql = new StringBuilder(64);
         
         // 字段名
         sql.append(escapeIdentifier(field.getName()));
         
         // 字段类型
-        sql.append(" ").append(generateFieldType(field));
+        sql.append(" ").append(fieldTypeFragment(field));
         
         // 是否允许为空
         if (field.getNullable() != null && !field.getNullable()) {
@@ -50,25 +139,17 @@ public abstract class AbstractDatabaseDialect implements DatabaseDialect {
         
         // 默认值
         if (StringUtils.hasText(field.getDefaultValue())) {
-            sql.append(" DEFAULT ");
-            if (field.getDefaultValue().equalsIgnoreCase("CURRENT_TIMESTAMP") ||
-                field.getDefaultValue().equalsIgnoreCase("NOW()")) {
-                sql.append(getCurrentTimestampFunction());
-            } else if (field.getDefaultValue().startsWith("'") && field.getDefaultValue().endsWith("'")) {
-                sql.append(field.getDefaultValue());
-            } else {
-                sql.append(escapeStringValue(field.getDefaultValue()));
-            }
+            appendDefaultValue(sql, field.getDefaultValue());
         }
         
         // 处理主键类型
         if (field.getPrimaryKey() == PrimaryKeyTypeEnum.AUTO_INCREMENT) {
-            sql.append(" ").append(getAutoIncrementKeyword());
+            sql.append(autoIncrementFragment());
         }
         
         // 兼容旧的自增字段
         if (PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(field.getPrimaryKey())) {
-            sql.append(" ").append(getAutoIncrementKeyword());
+            sql.append(autoIncrementFragment());
         }
         
         // 注释
@@ -189,6 +270,63 @@ public abstract class AbstractDatabaseDialect implements DatabaseDialect {
         return sql.toString();
     }
     
+    @Override
+    public String generateAddForeignKeySql(String tableName, RelationDefinition relation) {
+        return "ALTER TABLE " + escapeIdentifier(tableName) + " ADD " + generateForeignKeyConstraint(relation);
+    }
+    
+    @Override
+    public String generateDropForeignKeySql(String tableName, String constraintName) {
+        return "ALTER TABLE " + escapeIdentifier(tableName) + " DROP CONSTRAINT " + escapeIdentifier(constraintName);
+    }
+    
+    @Override
+    public String generateDropIndexSql(String tableName, String indexName) {
+        return "DROP INDEX " + escapeIdentifier(indexName);
+    }
+    
+    @Override
+    public String generateAddColumnSql(String tableName, FieldDefinition field) {
+        return "ALTER TABLE " + escapeIdentifier(tableName) + " ADD COLUMN " + generateFieldDefinition(field);
+    }
+    
+    @Override
+    public String generateModifyColumnSql(String tableName, FieldDefinition field) {
+        return "ALTER TABLE " + escapeIdentifier(tableName) + " ALTER COLUMN " + generateFieldDefinition(field);
+    }
+    
+    @Override
+    public List<String> generateModifyColumnStatements(String tableName, FieldDefinition current, FieldDefinition target) {
+        return List.of(generateModifyColumnSql(tableName, target));
+    }
+    
+    /**
+     * 字段类型片段是否变化
+     */
+    protected final boolean typeChanged(FieldDefinition current, FieldDefinition target) {
+        return !fieldTypeFragment(current).equals(fieldTypeFragment(target));
+    }
+    
+    /**
+     * 默认值是否变化，空白默认值视为没有默认值
+     */
+    protected static boolean defaultChanged(FieldDefinition current, FieldDefinition target) {
+        return !Objects.equals(defaultValueOf(current), defaultValueOf(target));
+    }
+    
+    protected static boolean isNotNull(FieldDefinition field) {
+        return field.getNullable() != null && !field.getNullable();
+    }
+    
+    private static String defaultValueOf(FieldDefinition field) {
+        return StringUtils.hasText(field.getDefaultValue()) ? field.getDefaultValue() : null;
+    }
+    
+    @Override
+    public String generateDropColumnSql(String tableName, String columnName) {
+        return "ALTER TABLE " + escapeIdentifier(tableName) + " DROP COLUMN " + escapeIdentifier(columnName);
+    }
+    
     @Override
     public String generateCreateTableSql(TableDefinition table) {
         StringBuilder sql = new StringBuilder();
@@ -251,6 +389,16 @@ public abstract class AbstractDatabaseDialect implements DatabaseDialect {
         return "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = " + escapeStringValue(tableName);
     }
     
+    @Override
+    public String generateListTablesSql() {
+        return "SELECT table_name FROM information_schema.tables";
+    }
+    
+    @Override
+    public String generateDatabaseInfoSql() {
+        return "SELECT VERSION(), DATABASE()";
+    }
+    
     @Override
     public String generateDescribeTableSql(String tableName) {
         return "DESCRIBE " + escapeIdentifier(tableName);
@@ -285,4 +433,37 @@ public abstract class AbstractDatabaseDialect implements DatabaseDialect {
         
         return options.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * 方言的预计算片段，依赖子类的关键字方法，因此在首次使用时构建
+     */
+    private static final class Templates {
+        private final Map<String, String> fixedTypes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private final String autoIncrement;
+        private final String defaultCurrentTimestamp;
+        
+        private Templates(AbstractDatabaseDialect dialect) {
+            for (String type : KNOWN_TYPES) {
+                String plain = dialect.generateFieldType(probe(type, null, null, null, PrimaryKeyTypeEnum.NONE));
+                String sized = dialect.generateFieldType(probe(type, 37, 17, 3, PrimaryKeyTypeEnum.AUTO_INCREMENT));
+                String large = dialect.generateFieldType(probe(type, 9000, 38, 10, PrimaryKeyTypeEnum.AUTO_INCREMENT));
+                if (plain.equals(sized) && plain.equals(large)) {
+                    fixedTypes.put(type, plain);
+                }
+            }
+            this.autoIncrement = " " + dialect.getAutoIncrementKeyword();
+            this.defaultCurrentTimestamp = " DEFAULT " + dialect.getCurrentTimestampFunction();
+        }
+        
+        private static FieldDefinition probe(String type, Integer length, Integer precision, Integer scale,
+                                             PrimaryKeyTypeEnum primaryKey) {
+            FieldDefinition field = new FieldDefinition();
+            field.setType(type);
+            field.setLength(length);
+            field.setPrecision(precision);
+            field.setScale(scale);
+            field.setPrimaryKey(primaryKey);
+            return field;
+        }
+    }
+}
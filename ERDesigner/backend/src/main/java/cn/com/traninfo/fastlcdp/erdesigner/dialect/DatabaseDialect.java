@@ -23,6 +23,11 @@ public interface DatabaseDialect {
      */
     boolean supportsIfNotExists();
     
+    /**
+     * 是否支持通过JDBC批处理（addBatch/executeBatch）执行DDL
+     */
+    boolean supportsBatchDdl();
+    
     /**
      * 获取自增关键字
      */
@@ -78,6 +83,45 @@ public interface DatabaseDialect {
      */
     String generateForeignKeyConstraint(RelationDefinition relation);
     
+    /**
+     * 生成为已有表追加外键约束的SQL（ALTER TABLE ... ADD CONSTRAINT）
+     */
+    String generateAddForeignKeySql(String tableName, RelationDefinition relation);
+    
+    /**
+     * 生成删除外键约束的SQL
+     */
+    String generateDropForeignKeySql(String tableName, String constraintName);
+    
+    /**
+     * 生成删除索引的SQL
+     */
+    String generateDropIndexSql(String tableName, String indexName);
+    
+    /**
+     * 生成为已有表添加字段的SQL
+     */
+    String generateAddColumnSql(String tableName, FieldDefinition field);
+    
+    /**
+     * 生成修改已有字段类型、可空性和默认值的SQL
+     */
+    String generateModifyColumnSql(String tableName, FieldDefinition field);
+    
+    /**
+     * 生成把已有字段从当前定义修改为目标定义的语句，只修改发生变化的属性
+     * 
+     * @param current 字段当前定义，未知时为 null，此时按目标定义完整修改
+     * @param target 字段目标定义
+     * @return 按执行顺序排列的语句，每条单独执行
+     */
+    List<String> generateModifyColumnStatements(String tableName, FieldDefinition current, FieldDefinition target);
+    
+    /**
+     * 生成删除字段的SQL
+     */
+    String generateDropColumnSql(String tableName, String columnName);
+    
     /**
      * 生成创建表的SQL语句
      */
@@ -93,6 +137,16 @@ public interface DatabaseDialect {
      */
     String generateTableExistsSql(String tableName);
     
+    /**
+     * 生成一次性列出当前模式下所有表名的SQL语句，结果集只有表名一列
+     */
+    String generateListTablesSql();
+    
+    /**
+     * 生成查询数据库版本和当前数据库名的SQL语句，结果集依次为版本、数据库名两列
+     */
+    String generateDatabaseInfoSql();
+    
     /**
      * 生成获取表结构的SQL语句
      */
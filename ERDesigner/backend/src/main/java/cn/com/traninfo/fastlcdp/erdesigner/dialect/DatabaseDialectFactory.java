@@ -3,6 +3,9 @@ package cn.com.traninfo.fastlcdp.erdesigner.dialect;
 import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
  * 数据库方言工厂类
  */
@@ -10,22 +13,26 @@ import org.springframework.stereotype.Component;
 public class DatabaseDialectFactory {
     
     /**
-     * 根据数据库类型获取对应的方言实现
+     * 方言无状态，每种数据库只保留一个实例，其内部的转义和类型片段缓存可被所有调用方复用
+     */
+    private static final Map<DatabaseConfig.DatabaseType, DatabaseDialect> DIALECTS = new EnumMap<>(DatabaseConfig.DatabaseType.class);
+    
+    static {
+        DIALECTS.put(DatabaseConfig.DatabaseType.H2, new H2Dialect());
+        DIALECTS.put(DatabaseConfig.DatabaseType.MYSQL, new MySQLDialect());
+        DIALECTS.put(DatabaseConfig.DatabaseType.POSTGRESQL, new PostgreSQLDialect());
+        DIALECTS.put(DatabaseConfig.DatabaseType.ORACLE, new OracleDialect());
+        DIALECTS.put(DatabaseConfig.DatabaseType.SQLSERVER, new SqlServerDialect());
+    }
+    
+    /**
+     * 根据数据库类型获取对应的方言实现（共享单例）
      */
     public static DatabaseDialect createDialect(DatabaseConfig.DatabaseType databaseType) {
-        switch (databaseType) {
-            case H2:
-                return new H2Dialect();
-            case MYSQL:
-                return new MySQLDialect();
-            case POSTGRESQL:
-                return new PostgreSQLDialect();
-            case ORACLE:
-                return new OracleDialect();
-            case SQLSERVER:
-                return new SqlServerDialect();
-            default:
-                throw new IllegalArgumentException("Unsupported database type: " + databaseType);
+        DatabaseDialect dialect = databaseType != null ? DIALECTS.get(databaseType) : null;
+        if (dialect == null) {
+            throw new IllegalArgumentException("Unsupported database type: " + databaseType);
         }
+        return dialect;
     }
-}
\ No newline at end of file
+}
@@ -173,7 +173,18 @@ public class H2Dialect extends AbstractDatabaseDialect {
     
     @Override
     public String generateTableExistsSql(String tableName) {
-        return "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = " + escapeStringValue(tableName.toUpperCase());
+        // 建表时标识符带引号会保留大小写，未加引号时H2转为大写，两种情况都要能查到
+        return "SELECT COUNT(*) FROM information_schema.tables WHERE UPPER(table_name) = " + escapeStringValue(tableName.toUpperCase());
+    }
+    
+    @Override
+    public String generateListTablesSql() {
+        return "SELECT table_name FROM information_schema.tables WHERE table_schema <> 'INFORMATION_SCHEMA'";
+    }
+    
+    @Override
+    public String generateDatabaseInfoSql() {
+        return "SELECT H2VERSION(), DATABASE()";
     }
     
     @Override
@@ -201,17 +212,17 @@ public class H2Dialect extends AbstractDatabaseDialect {
     
     @Override
     public String generateFieldDefinition(FieldDefinition field) {
-        StringBuilder sql = new StringBuilder();
+        StringBuilder sql = new StringBuilder(64);
         
         // 字段名
         sql.append(escapeIdentifier(field.getName()));
         
         // 字段类型
-        sql.append(" ").append(generateFieldType(field));
+        sql.append(" ").append(fieldTypeFragment(field));
         
         // 自增（H2中AUTO_INCREMENT要在类型后面）
         if (PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(field.getPrimaryKey())) {
-            sql.append(" ").append(getAutoIncrementKeyword());
+            sql.append(autoIncrementFragment());
         }
         
         // 是否允许为空
@@ -221,15 +232,7 @@ public class H2Dialect extends AbstractDatabaseDialect {
         
         // 默认值
         if (StringUtils.hasText(field.getDefaultValue())) {
-            sql.append(" DEFAULT ");
-            if (field.getDefaultValue().equalsIgnoreCase("CURRENT_TIMESTAMP") ||
-                field.getDefaultValue().equalsIgnoreCase("NOW()")) {
-                sql.append(getCurrentTimestampFunction());
-            } else if (field.getDefaultValue().startsWith("'") && field.getDefaultValue().endsWith("'")) {
-                sql.append(field.getDefaultValue());
-            } else {
-                sql.append(escapeStringValue(field.getDefaultValue()));
-            }
+            appendDefaultValue(sql, field.getDefaultValue());
         }
         
         // 注释
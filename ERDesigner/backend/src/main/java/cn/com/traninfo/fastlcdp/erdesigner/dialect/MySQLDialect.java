@@ -376,11 +376,31 @@ public class MySQLDialect extends AbstractDatabaseDialect {
         return sql.toString();
     }
     
+    @Override
+    public String generateDropForeignKeySql(String tableName, String constraintName) {
+        return "ALTER TABLE " + escapeIdentifier(tableName) + " DROP FOREIGN KEY " + escapeIdentifier(constraintName);
+    }
+    
+    @Override
+    public String generateDropIndexSql(String tableName, String indexName) {
+        return "DROP INDEX " + escapeIdentifier(indexName) + " ON " + escapeIdentifier(tableName);
+    }
+    
+    @Override
+    public String generateModifyColumnSql(String tableName, FieldDefinition field) {
+        return "ALTER TABLE " + escapeIdentifier(tableName) + " MODIFY COLUMN " + generateFieldDefinition(field);
+    }
+    
     @Override
     public String generateTableExistsSql(String tableName) {
         return "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = " + escapeStringValue(tableName);
     }
     
+    @Override
+    public String generateListTablesSql() {
+        return "SELECT table_name FROM information_schema.tables WHERE table_schema = DATABASE()";
+    }
+    
     @Override
     public String generateDescribeTableSql(String tableName) {
         return super.generateDescribeTableSql(tableName);
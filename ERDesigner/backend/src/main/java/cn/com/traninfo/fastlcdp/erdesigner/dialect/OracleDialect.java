@@ -7,6 +7,7 @@ import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
 import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,6 +26,11 @@ public class OracleDialect extends AbstractDatabaseDialect {
         return false; // Oracle不支持IF NOT EXISTS
     }
     
+    @Override
+    public boolean supportsBatchDdl() {
+        return false; // Oracle驱动批处理中的DDL每条仍单独提交，且失败位置不可靠
+    }
+    
     @Override
     public String getAutoIncrementKeyword() {
         return "GENERATED BY DEFAULT AS IDENTITY";
@@ -221,6 +227,16 @@ public class OracleDialect extends AbstractDatabaseDialect {
         return "SELECT COUNT(*) FROM user_tables WHERE table_name = " + escapeStringValue(tableName.toUpperCase());
     }
     
+    @Override
+    public String generateListTablesSql() {
+        return "SELECT table_name FROM user_tables";
+    }
+    
+    @Override
+    public String generateDatabaseInfoSql() {
+        return "SELECT banner, SYS_CONTEXT('USERENV', 'DB_NAME') FROM v$version WHERE ROWNUM = 1";
+    }
+    
     @Override
     public String generateDescribeTableSql(String tableName) {
         return "SELECT column_name, data_type, nullable, data_default FROM user_tab_columns WHERE table_name = " + escapeStringValue(tableName.toUpperCase()) + " ORDER BY column_id";
@@ -300,19 +316,79 @@ public class OracleDialect extends AbstractDatabaseDialect {
         return sql.toString();
     }
     
+    @Override
+    public String generateAddColumnSql(String tableName, FieldDefinition field) {
+        return "ALTER TABLE " + escapeIdentifier(tableName) + " ADD (" + generateFieldDefinition(field) + ")";
+    }
+    
+    @Override
+    public String generateModifyColumnSql(String tableName, FieldDefinition field) {
+        return generateModifyColumnStatements(tableName, null, field).get(0);
+    }
+    
+    /**
+     * Oracle的MODIFY只能写出变化的属性：重复声明已有的 NOT NULL/NULL 会报 ORA-01442/ORA-01451，
+     * IDENTITY 列只能 DROP IDENTITY，不能把普通字段改为 IDENTITY（ORA-30673）
+     */
+    @Override
+    public List<String> generateModifyColumnStatements(String tableName, FieldDefinition current, FieldDefinition target) {
+        String table = escapeIdentifier(tableName);
+        String column = escapeIdentifier(target.getName());
+        boolean identity = PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(target.getPrimaryKey());
+        List<String> statements = new ArrayList<>(2);
+        if (current != null) {
+            boolean currentIdentity = PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(current.getPrimaryKey());
+            if (identity && !currentIdentity) {
+                throw new UnsupportedOperationException("Oracle cannot convert existing column " + tableName + "."
+                        + target.getName() + " to an identity column");
+            }
+            if (currentIdentity && !identity) {
+                statements.add("ALTER TABLE " + table + " MODIFY " + column + " DROP IDENTITY");
+            }
+        }
+        
+        StringBuilder sql = new StringBuilder("ALTER TABLE ").append(table).append(" MODIFY (").append(column);
+        int length = sql.length();
+        if (current == null || typeChanged(current, target)) {
+            sql.append(" ").append(fieldTypeFragment(target));
+        }
+        if (current == null || defaultChanged(current, target)) {
+            if (StringUtils.hasText(target.getDefaultValue()) && !identity) {
+                appendDefaultValue(sql, target.getDefaultValue());
+            } else if (current != null) {
+                sql.append(" DEFAULT NULL");
+            }
+        }
+        if (current == null) {
+            if (isNotNull(target)) {
+                sql.append(" NOT NULL");
+            }
+        } else if (isNotNull(current) != isNotNull(target)) {
+            sql.append(isNotNull(target) ? " NOT NULL" : " NULL");
+        }
+        if (sql.length() > length || statements.isEmpty()) {
+            if (sql.length() == length) {
+                // 没有其他变化时重申类型，语句仍然有效
+                sql.append(" ").append(fieldTypeFragment(target));
+            }
+            statements.add(sql.append(")").toString());
+        }
+        return statements;
+    }
+    
     @Override
     public String generateFieldDefinition(FieldDefinition field) {
-        StringBuilder sql = new StringBuilder();
+        StringBuilder sql = new StringBuilder(64);
         
         // 字段名
         sql.append(escapeIdentifier(field.getName()));
         
         // 字段类型
-        sql.append(" ").append(generateFieldType(field));
+        sql.append(" ").append(fieldTypeFragment(field));
         
         // 自增（Oracle使用IDENTITY列）
         if (PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(field.getPrimaryKey())) {
-            sql.append(" ").append(getAutoIncrementKeyword());
+            sql.append(autoIncrementFragment());
         }
         
         // 是否允许为空
@@ -323,15 +399,7 @@ public class OracleDialect extends AbstractDatabaseDialect {
         // 默认值
         if (StringUtils.hasText(field.getDefaultValue()) && 
             (!PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(field.getPrimaryKey()))) {
-            sql.append(" DEFAULT ");
-            if (field.getDefaultValue().equalsIgnoreCase("CURRENT_TIMESTAMP") ||
-                field.getDefaultValue().equalsIgnoreCase("NOW()")) {
-                sql.append(getCurrentTimestampFunction());
-            } else if (field.getDefaultValue().startsWith("'") && field.getDefaultValue().endsWith("'")) {
-                sql.append(field.getDefaultValue());
-            } else {
-                sql.append(escapeStringValue(field.getDefaultValue()));
-            }
+            appendDefaultValue(sql, field.getDefaultValue());
         }
         
         return sql.toString();
@@ -4,8 +4,12 @@ import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
 import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
 import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
 import cn.com.traninfo.fastlcdp.erdesigner.model.IndexDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.util.SchemaCopyUtils;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * PostgreSQL数据库方言实现
  */
@@ -200,13 +204,13 @@ public class PostgreSQLDialect extends AbstractDatabaseDialect {
     
     @Override
     public String generateFieldDefinition(FieldDefinition field) {
-        StringBuilder sql = new StringBuilder();
+        StringBuilder sql = new StringBuilder(64);
         
         // 字段名
         sql.append(escapeIdentifier(field.getName()));
         
         // 字段类型
-        sql.append(" ").append(generateFieldType(field));
+        sql.append(" ").append(fieldTypeFragment(field));
         
         // 序列主键的默认值
         if (field.getPrimaryKey() == PrimaryKeyTypeEnum.SEQUENCE) {
@@ -221,25 +225,17 @@ public class PostgreSQLDialect extends AbstractDatabaseDialect {
         
         // 默认值（非序列字段）
         if (StringUtils.hasText(field.getDefaultValue()) && field.getPrimaryKey() != PrimaryKeyTypeEnum.SEQUENCE) {
-            sql.append(" DEFAULT ");
-            if (field.getDefaultValue().equalsIgnoreCase("CURRENT_TIMESTAMP") ||
-                field.getDefaultValue().equalsIgnoreCase("NOW()")) {
-                sql.append(getCurrentTimestampFunction());
-            } else if (field.getDefaultValue().startsWith("'") && field.getDefaultValue().endsWith("'")) {
-                sql.append(field.getDefaultValue());
-            } else {
-                sql.append(escapeStringValue(field.getDefaultValue()));
-            }
+            appendDefaultValue(sql, field.getDefaultValue());
         }
         
         // 处理主键类型
         if (field.getPrimaryKey() == PrimaryKeyTypeEnum.AUTO_INCREMENT) {
-            sql.append(" ").append(getAutoIncrementKeyword());
+            sql.append(autoIncrementFragment());
         }
         
         // 兼容旧的自增字段
         if (PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(field.getPrimaryKey())) {
-            sql.append(" ").append(getAutoIncrementKeyword());
+            sql.append(autoIncrementFragment());
         }
         
         // 注释
@@ -250,9 +246,108 @@ public class PostgreSQLDialect extends AbstractDatabaseDialect {
         return sql.toString();
     }
     
+    @Override
+    public String generateAddColumnSql(String tableName, FieldDefinition field) {
+        // 字段定义中的注释以 -- 形式输出，会吞掉同一行后续内容，单行ALTER语句中去掉
+        FieldDefinition definition = SchemaCopyUtils.copy(field);
+        definition.setComment(null);
+        return "ALTER TABLE " + escapeIdentifier(tableName) + " ADD COLUMN " + generateFieldDefinition(definition);
+    }
+    
+    @Override
+    public String generateModifyColumnSql(String tableName, FieldDefinition field) {
+        return generateModifyColumnStatements(tableName, null, field).get(0);
+    }
+    
+    /**
+     * PostgreSQL需要分别修改类型、可空性和默认值，合并为一条 ALTER TABLE。
+     * SERIAL 系列只是建表时的简写，ALTER COLUMN TYPE 使用对应的整数类型；
+     * 已有字段改为自增时以 ADD GENERATED BY DEFAULT AS IDENTITY 实现，单独执行
+     */
+    @Override
+    public List<String> generateModifyColumnStatements(String tableName, FieldDefinition current, FieldDefinition target) {
+        String table = escapeIdentifier(tableName);
+        String column = escapeIdentifier(target.getName());
+        boolean autoIncrement = PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(target.getPrimaryKey());
+        boolean currentAutoIncrement = current != null && PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(current.getPrimaryKey());
+        boolean identityAdded = current != null && autoIncrement && !currentAutoIncrement;
+        boolean identityRemoved = currentAutoIncrement && !autoIncrement;
+        boolean sequence = target.getPrimaryKey() == PrimaryKeyTypeEnum.SEQUENCE;
+        
+        List<String> statements = new ArrayList<>(3);
+        if (identityRemoved) {
+            // 以 SERIAL 创建的字段没有 IDENTITY 属性，其序列默认值在下面的默认值处理中去掉
+            statements.add("ALTER TABLE " + table + " ALTER COLUMN " + column + " DROP IDENTITY IF EXISTS");
+        }
+        
+        List<String> actions = new ArrayList<>(3);
+        if (current == null || !columnType(current).equals(columnType(target))) {
+            actions.add("ALTER COLUMN " + column + " TYPE " + columnType(target));
+        }
+        // IDENTITY 列必须非空
+        boolean notNull = isNotNull(target) || autoIncrement;
+        if (current == null || (isNotNull(current) || currentAutoIncrement) != notNull) {
+            actions.add("ALTER COLUMN " + column + (notNull ? " SET NOT NULL" : " DROP NOT NULL"));
+        }
+        boolean defaultAffected = current == null || defaultChanged(current, target) || identityAdded || identityRemoved
+                || (current.getPrimaryKey() == PrimaryKeyTypeEnum.SEQUENCE) != sequence;
+        // 自增字段的默认值由序列或IDENTITY维护，只在新增IDENTITY前去掉原有默认值
+        if (defaultAffected && (!autoIncrement || identityAdded)) {
+            StringBuilder action = new StringBuilder("ALTER COLUMN ").append(column);
+            if (sequence) {
+                action.append(" SET DEFAULT nextval('seq_").append(target.getName()).append("')");
+            } else if (StringUtils.hasText(target.getDefaultValue()) && !autoIncrement) {
+                action.append(" SET");
+                appendDefaultValue(action, target.getDefaultValue());
+            } else {
+                action.append(" DROP DEFAULT");
+            }
+            actions.add(action.toString());
+        }
+        if (!actions.isEmpty()) {
+            statements.add("ALTER TABLE " + table + " " + String.join(", ", actions));
+        }
+        
+        if (identityAdded) {
+            statements.add("ALTER TABLE " + table + " ALTER COLUMN " + column + " ADD GENERATED BY DEFAULT AS IDENTITY");
+        }
+        if (statements.isEmpty()) {
+            // 没有可修改的属性时重申类型，语句仍然有效
+            statements.add("ALTER TABLE " + table + " ALTER COLUMN " + column + " TYPE " + columnType(target));
+        }
+        return statements;
+    }
+    
+    /**
+     * ALTER COLUMN TYPE 使用的类型：SERIAL、BIGSERIAL、SMALLSERIAL 换成对应的整数类型
+     */
+    private String columnType(FieldDefinition field) {
+        String type = fieldTypeFragment(field);
+        switch (type) {
+            case "SERIAL":
+                return "INTEGER";
+            case "BIGSERIAL":
+                return "BIGINT";
+            case "SMALLSERIAL":
+                return "SMALLINT";
+            default:
+                return type;
+        }
+    }
+    
     @Override
     public String generateTableExistsSql(String tableName) {
-        return "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = 'public' AND table_name = " + escapeStringValue(tableName);
+        return "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = current_schema() AND table_name = " + escapeStringValue(tableName);
+    }
+    
+    @Override
+    public String generateListTablesSql() {
+        return "SELECT table_name FROM information_schema.tables WHERE table_schema = current_schema()";
+    }
+    
+    @Override
+    public String generateDatabaseInfoSql() {
+        return "SELECT version(), current_database()";
     }
     
     @Override
@@ -7,6 +7,7 @@ import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
 import cn.com.traninfo.fastlcdp.erdesigner.model.RelationDefinition;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -241,7 +242,17 @@ public class SqlServerDialect extends AbstractDatabaseDialect {
     
     @Override
     public String generateTableExistsSql(String tableName) {
-        return "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = " + escapeStringValue(tableName);
+        return "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = SCHEMA_NAME() AND TABLE_NAME = " + escapeStringValue(tableName);
+    }
+    
+    @Override
+    public String generateListTablesSql() {
+        return "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = SCHEMA_NAME()";
+    }
+    
+    @Override
+    public String generateDatabaseInfoSql() {
+        return "SELECT @@VERSION, DB_NAME()";
     }
     
     @Override
@@ -318,26 +329,91 @@ public class SqlServerDialect extends AbstractDatabaseDialect {
     }
     
     @Override
-    public String escapeIdentifier(String identifier) {
-        if (identifier == null) {
-            return null;
+    public String generateDropIndexSql(String tableName, String indexName) {
+        return "DROP INDEX " + escapeIdentifier(indexName) + " ON " + escapeIdentifier(tableName);
+    }
+    
+    @Override
+    public String generateAddColumnSql(String tableName, FieldDefinition field) {
+        // SQL Server的ADD子句不带COLUMN关键字
+        return "ALTER TABLE " + escapeIdentifier(tableName) + " ADD " + generateFieldDefinition(field);
+    }
+    
+    @Override
+    public String generateModifyColumnSql(String tableName, FieldDefinition field) {
+        return String.join(";\n", generateModifyColumnStatements(tableName, null, field));
+    }
+    
+    /**
+     * ALTER COLUMN只能修改类型和可空性，默认值属于约束：先按系统视图查出并删除原默认值约束，
+     * 修改字段后再以 ADD DEFAULT ... FOR 重建。默认值约束存在时无法修改字段类型，因此类型变化时同样先删除。
+     * 现有字段不能增加或去掉IDENTITY属性
+     */
+    @Override
+    public List<String> generateModifyColumnStatements(String tableName, FieldDefinition current, FieldDefinition target) {
+        boolean autoIncrement = PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(target.getPrimaryKey());
+        if (current != null && PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(current.getPrimaryKey()) != autoIncrement) {
+            throw new UnsupportedOperationException("SQL Server cannot add or remove IDENTITY on existing column: "
+                    + tableName + "." + target.getName());
+        }
+        String table = escapeIdentifier(tableName);
+        String column = escapeIdentifier(target.getName());
+        boolean typeChanged = current == null || typeChanged(current, target);
+        boolean nullabilityChanged = current == null || isNotNull(current) != isNotNull(target);
+        boolean defaultChanged = current == null || defaultChanged(current, target);
+        boolean hadDefault = current == null || StringUtils.hasText(current.getDefaultValue());
+        
+        List<String> statements = new ArrayList<>(3);
+        if (defaultChanged || (typeChanged && hadDefault)) {
+            statements.add(generateDropDefaultConstraintSql(tableName, target.getName()));
         }
+        if (typeChanged || nullabilityChanged) {
+            statements.add("ALTER TABLE " + table + " ALTER COLUMN " + column + " " + fieldTypeFragment(target)
+                    + (isNotNull(target) ? " NOT NULL" : " NULL"));
+        }
+        if ((defaultChanged || typeChanged) && StringUtils.hasText(target.getDefaultValue()) && !autoIncrement) {
+            StringBuilder sql = new StringBuilder("ALTER TABLE ").append(table).append(" ADD");
+            appendDefaultValue(sql, target.getDefaultValue());
+            sql.append(" FOR ").append(column);
+            statements.add(sql.toString());
+        }
+        return statements;
+    }
+    
+    /**
+     * 删除字段上的默认值约束，约束名由系统生成，需要动态查找；不存在时不做任何操作。
+     * 语句包在 sp_executesql 中执行，变量不会与同一批次中的其他语句冲突
+     */
+    private String generateDropDefaultConstraintSql(String tableName, String columnName) {
+        String batch = "DECLARE @sql NVARCHAR(MAX); "
+                + "SELECT @sql = N'ALTER TABLE " + escapeIdentifier(tableName).replace("'", "''")
+                + " DROP CONSTRAINT ' + QUOTENAME(dc.name) "
+                + "FROM sys.default_constraints dc "
+                + "JOIN sys.columns c ON c.object_id = dc.parent_object_id AND c.column_id = dc.parent_column_id "
+                + "WHERE dc.parent_object_id = OBJECT_ID(N'" + escapeIdentifier(tableName).replace("'", "''") + "') "
+                + "AND c.name = N'" + columnName.replace("'", "''") + "'; "
+                + "IF @sql IS NOT NULL EXEC sp_executesql @sql";
+        return "EXEC sp_executesql N'" + batch.replace("'", "''") + "'";
+    }
+    
+    @Override
+    protected String quoteIdentifier(String identifier) {
         return "[" + identifier.replace("]", "]]") + "]";
     }
     
     @Override
     public String generateFieldDefinition(FieldDefinition field) {
-        StringBuilder sql = new StringBuilder();
+        StringBuilder sql = new StringBuilder(64);
         
         // 字段名
         sql.append(escapeIdentifier(field.getName()));
         
         // 字段类型
-        sql.append(" ").append(generateFieldType(field));
+        sql.append(" ").append(fieldTypeFragment(field));
         
         // 自增（SQL Server使用IDENTITY）
         if (PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(field.getPrimaryKey())) {
-            sql.append(" ").append(getAutoIncrementKeyword());
+            sql.append(autoIncrementFragment());
         }
         
         // 是否允许为空
@@ -348,15 +424,7 @@ public class SqlServerDialect extends AbstractDatabaseDialect {
         // 默认值
         if (StringUtils.hasText(field.getDefaultValue()) && 
             (!PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(field.getPrimaryKey()))) {
-            sql.append(" DEFAULT ");
-            if (field.getDefaultValue().equalsIgnoreCase("CURRENT_TIMESTAMP") ||
-                field.getDefaultValue().equalsIgnoreCase("NOW()")) {
-                sql.append(getCurrentTimestampFunction());
-            } else if (field.getDefaultValue().startsWith("'") && field.getDefaultValue().endsWith("'")) {
-                sql.append(field.getDefaultValue());
-            } else {
-                sql.append(escapeStringValue(field.getDefaultValue()));
-            }
+            appendDefaultValue(sql, field.getDefaultValue());
         }
         
         return sql.toString();
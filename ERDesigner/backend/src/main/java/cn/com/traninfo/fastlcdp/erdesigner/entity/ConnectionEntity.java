@@ -0,0 +1,51 @@
+package cn.com.traninfo.fastlcdp.erdesigner.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * 数据源连接登记，作为建表、执行和反向工程的目标，由 DataSourceRouter 按ID路由
+ * 与保存模式元数据的 meta_datasource 分开存放，名称唯一
+ */
+@Data
+@TableName("meta_connection")
+public class ConnectionEntity extends BaseEntity {
+
+    @TableField("name")
+    private String name;
+
+    @TableField("description")
+    private String description;
+
+    /**
+     * 数据库类型（H2、MYSQL、POSTGRESQL、ORACLE、SQLSERVER），为空时按连接地址推断
+     */
+    @TableField("db_type")
+    private String dbType;
+
+    @TableField("url")
+    private String url;
+
+    @TableField("username")
+    private String username;
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @TableField("password")
+    private String password;
+
+    /**
+     * 驱动类名，由数据库类型决定，不接受请求指定
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @TableField("driver_class_name")
+    private String driverClassName;
+
+    /**
+     * 连接池最大连接数，为空时使用 database.routing.default-max-pool-size
+     */
+    @TableField("max_pool_size")
+    private Integer maxPoolSize;
+
+}
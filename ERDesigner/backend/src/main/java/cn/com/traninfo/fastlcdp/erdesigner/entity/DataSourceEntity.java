@@ -6,9 +6,10 @@ import lombok.Data;
 
 /**
  * 数据库元数据，用于保存XML中的元数据到数据库
+ * 每个模式一行，名称唯一；连接信息登记在 meta_connection（ConnectionEntity）中
  */
 @Data
-@TableName("datasource")
+@TableName("meta_datasource")
 public class DataSourceEntity extends BaseEntity {
 
     @TableField("name")
@@ -26,5 +27,7 @@ public class DataSourceEntity extends BaseEntity {
     @TableField("description")
     private String description;
 
-}
+    @TableField("schema_version")
+    private String schemaVersion;
 
+}
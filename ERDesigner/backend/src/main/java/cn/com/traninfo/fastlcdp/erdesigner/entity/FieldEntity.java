@@ -10,7 +10,7 @@ import lombok.Data;
  * 字段元数据，用于保存XML中的元数据到数据库
  */
 @Data
-@TableName("field")
+@TableName("meta_field")
 public class FieldEntity extends BaseEntity {
 
     @TableField("table_id")
@@ -25,12 +25,21 @@ public class FieldEntity extends BaseEntity {
     @TableField("length")
     private Integer length;
 
-    @TableField("precision")
+    @TableField("field_precision")
     private Integer precision;
 
+    @TableField("scale")
+    private Integer scale;
+
     @TableField("nullable")
     private Boolean nullable;
 
+    @TableField("primary_key_type")
+    private String primaryKeyType;
+
+    @TableField("unique_field")
+    private Boolean uniqueField;
+
     @TableField("default_value")
     private String defaultValue;
 
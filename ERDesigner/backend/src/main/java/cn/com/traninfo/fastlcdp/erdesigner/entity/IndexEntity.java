@@ -10,7 +10,7 @@ import lombok.Data;
  * 索引元数据，用于保存XML中的元数据到数据库
  */
 @Data
-@TableName("index")
+@TableName("meta_index")
 public class IndexEntity extends BaseEntity {
 
     @TableField("table_id")
@@ -28,6 +28,9 @@ public class IndexEntity extends BaseEntity {
     @TableField("unique_index")
     private Boolean uniqueIndex;
 
+    @TableField("column_names")
+    private String columnNames;
+
     @TableField("comment")
     private String comment;
 
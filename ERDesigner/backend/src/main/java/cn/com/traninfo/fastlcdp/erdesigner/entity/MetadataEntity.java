@@ -63,6 +63,7 @@ public class MetadataEntity extends BaseEntity {
     // 构造函数
     public MetadataEntity() {
         this.setCreatedTime(LocalDateTime.now());
+        this.setVersion(0L);
     }
 
     public MetadataEntity(String schemaName, String tableName) {
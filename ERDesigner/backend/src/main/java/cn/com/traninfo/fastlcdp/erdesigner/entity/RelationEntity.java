@@ -10,7 +10,7 @@ import lombok.Data;
  * 关系元数据，用于保存XML中的元数据到数据库
  */
 @Data
-@TableName("relation")
+@TableName("meta_relation")
 public class RelationEntity extends BaseEntity {
 
     @TableField("table_id")
@@ -22,6 +22,9 @@ public class RelationEntity extends BaseEntity {
     @TableField("type")
     private String type;
 
+    @TableField("column_name")
+    private String columnName;
+
     @TableField("reference_table")
     private String referenceTable;
 
@@ -10,7 +10,7 @@ import lombok.Data;
  * 表元数据，用于保存XML中的元数据到数据库
  */
 @Data
-@TableName("table")
+@TableName("meta_table")
 public class TableEntity extends BaseEntity {
 
     @TableField("database_id")
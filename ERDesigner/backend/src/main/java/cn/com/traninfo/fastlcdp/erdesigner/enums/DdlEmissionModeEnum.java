@@ -0,0 +1,16 @@
+package cn.com.traninfo.fastlcdp.erdesigner.enums;
+
+public enum DdlEmissionModeEnum {
+
+    /**
+     * 外键（MySQL还包括索引）内联在建表语句中(默认)
+     */
+    INLINE,
+
+    /**
+     * 先输出所有建表语句，再输出索引，最后以 ALTER TABLE 添加外键约束，
+     * 建表顺序不再受引用关系约束
+     */
+    TWO_PHASE
+
+}
@@ -0,0 +1,32 @@
+package cn.com.traninfo.fastlcdp.erdesigner.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum DdlEventTypeEnum {
+
+    /**
+     * 一次DDL执行开始
+     */
+    EXECUTION_STARTED("started"),
+
+    /**
+     * 单条语句执行完成（成功或失败）
+     */
+    STATEMENT("statement"),
+
+    /**
+     * 一次DDL执行结束，附带语句数、失败数和总耗时
+     */
+    EXECUTION_FINISHED("finished");
+
+    /**
+     * SSE事件名
+     */
+    private final String eventName;
+
+    DdlEventTypeEnum(String eventName) {
+        this.eventName = eventName;
+    }
+
+}
@@ -0,0 +1,67 @@
+package cn.com.traninfo.fastlcdp.erdesigner.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum DdlStatementTypeEnum {
+
+    /**
+     * 创建数据库，部分数据库不允许在事务或批处理中执行，始终单独执行
+     */
+    CREATE_DATABASE(false),
+
+    /**
+     * 创建表
+     */
+    CREATE_TABLE(true),
+
+    /**
+     * 创建索引
+     */
+    CREATE_INDEX(true),
+
+    /**
+     * 添加外键约束
+     */
+    ADD_FOREIGN_KEY(true),
+
+    /**
+     * 添加、修改或删除字段
+     */
+    ALTER_TABLE(true),
+
+    /**
+     * 删除表
+     */
+    DROP_TABLE(true),
+
+    /**
+     * 删除索引
+     */
+    DROP_INDEX(true),
+
+    /**
+     * 删除外键约束
+     */
+    DROP_FOREIGN_KEY(true),
+
+    /**
+     * 创建序列
+     */
+    CREATE_SEQUENCE(true),
+
+    /**
+     * 其他语句
+     */
+    OTHER(true);
+
+    /**
+     * 是否可以放入JDBC批处理
+     */
+    private final boolean batchable;
+
+    DdlStatementTypeEnum(boolean batchable) {
+        this.batchable = batchable;
+    }
+
+}
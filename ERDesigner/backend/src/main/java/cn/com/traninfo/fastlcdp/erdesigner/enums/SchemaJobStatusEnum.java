@@ -0,0 +1,41 @@
+package cn.com.traninfo.fastlcdp.erdesigner.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum SchemaJobStatusEnum {
+
+    /**
+     * 已提交，等待执行线程
+     */
+    PENDING(false),
+
+    /**
+     * 执行中
+     */
+    RUNNING(false),
+
+    /**
+     * 执行成功
+     */
+    SUCCEEDED(true),
+
+    /**
+     * 执行失败
+     */
+    FAILED(true),
+
+    /**
+     * 已取消，取消前已执行的DDL不会回滚
+     */
+    CANCELLED(true);
+
+    /**
+     * 是否为终止状态
+     */
+    private final boolean finished;
+
+    SchemaJobStatusEnum(boolean finished) {
+        this.finished = finished;
+    }
+}
@@ -0,0 +1,20 @@
+package cn.com.traninfo.fastlcdp.erdesigner.mapper;
+
+import cn.com.traninfo.fastlcdp.erdesigner.entity.ConnectionEntity;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 数据源连接Mapper
+ */
+@Mapper
+public interface ConnectionMapper extends BaseMapper<ConnectionEntity> {
+
+    /**
+     * 物理删除连接登记，连同加密的密码一起移除，名称可以重新登记
+     */
+    @Delete("DELETE FROM meta_connection WHERE id = #{id}")
+    int purgeById(@Param("id") Long id);
+}
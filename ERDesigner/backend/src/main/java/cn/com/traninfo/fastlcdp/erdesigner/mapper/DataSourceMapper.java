@@ -0,0 +1,20 @@
+package cn.com.traninfo.fastlcdp.erdesigner.mapper;
+
+import cn.com.traninfo.fastlcdp.erdesigner.entity.DataSourceEntity;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 数据源元数据Mapper
+ */
+@Mapper
+public interface DataSourceMapper extends BaseMapper<DataSourceEntity> {
+
+    /**
+     * 物理删除模式根记录，需先删除其下的表、字段、索引、关系
+     */
+    @Delete("DELETE FROM meta_datasource WHERE id = #{id}")
+    int purgeById(@Param("id") Long id);
+}
@@ -0,0 +1,29 @@
+package cn.com.traninfo.fastlcdp.erdesigner.mapper;
+
+import cn.com.traninfo.fastlcdp.erdesigner.entity.FieldEntity;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+
+/**
+ * 字段元数据Mapper
+ */
+@Mapper
+public interface FieldMapper extends BaseMapper<FieldEntity> {
+
+    /**
+     * 物理删除数据源下所有表的字段（包括已逻辑删除的行）
+     */
+    @Delete("DELETE FROM meta_field WHERE table_id IN (SELECT id FROM meta_table WHERE database_id = #{databaseId})")
+    int purgeByDatabaseId(@Param("databaseId") Long databaseId);
+
+    /**
+     * 按ID物理删除字段
+     */
+    @Delete("<script>DELETE FROM meta_field WHERE id IN "
+            + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    int purgeByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,12 @@
+package cn.com.traninfo.fastlcdp.erdesigner.mapper;
+
+import cn.com.traninfo.fastlcdp.erdesigner.entity.MetadataEntity;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 元数据Mapper
+ */
+@Mapper
+public interface MetadataMapper extends BaseMapper<MetadataEntity> {
+}
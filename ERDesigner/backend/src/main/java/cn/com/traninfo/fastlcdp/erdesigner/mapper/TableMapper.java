@@ -0,0 +1,29 @@
+package cn.com.traninfo.fastlcdp.erdesigner.mapper;
+
+import cn.com.traninfo.fastlcdp.erdesigner.entity.TableEntity;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+
+/**
+ * 表元数据Mapper
+ */
+@Mapper
+public interface TableMapper extends BaseMapper<TableEntity> {
+
+    /**
+     * 物理删除数据源下的所有表（包括已逻辑删除的行），需先删除字段、索引、关系
+     */
+    @Delete("DELETE FROM meta_table WHERE database_id = #{databaseId}")
+    int purgeByDatabaseId(@Param("databaseId") Long databaseId);
+
+    /**
+     * 按ID物理删除表
+     */
+    @Delete("<script>DELETE FROM meta_table WHERE id IN "
+            + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    int purgeByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,80 @@
+package cn.com.traninfo.fastlcdp.erdesigner.model;
+
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlEventTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DDL执行事件
+ * 由 DdlEventBus 发布，以SSE推送给订阅方；字段只读，发布后不再修改
+ */
+@Getter
+@AllArgsConstructor
+public class DdlEvent {
+
+    /**
+     * 执行ID，同一次建表过程（含调度器的并发连接）共用
+     */
+    private final String executionId;
+
+    /**
+     * 全局递增序号
+     */
+    private final long sequence;
+
+    /**
+     * 事件类型
+     */
+    private final DdlEventTypeEnum type;
+
+    /**
+     * 语句目标对象名（表名、表名.索引名等）
+     */
+    private final String target;
+
+    /**
+     * 语句类型
+     */
+    private final DdlStatementTypeEnum statementType;
+
+    /**
+     * 是否成功
+     */
+    private final boolean success;
+
+    /**
+     * 影响行数（JDBC更新计数），执行结束事件中为累计值
+     */
+    private final long updateCount;
+
+    /**
+     * 耗时（微秒），批处理中为批次耗时的平均值，执行结束事件中为总耗时
+     */
+    private final long elapsedMicros;
+
+    /**
+     * 所属批次序号，0表示单独执行
+     */
+    private final int batchNumber;
+
+    /**
+     * 已执行语句数，仅执行结束事件
+     */
+    private final int statementCount;
+
+    /**
+     * 失败语句数，仅执行结束事件
+     */
+    private final int failedCount;
+
+    /**
+     * 错误信息
+     */
+    private final String errorMessage;
+
+    /**
+     * 事件时间（毫秒时间戳）
+     */
+    private final long timestamp;
+}
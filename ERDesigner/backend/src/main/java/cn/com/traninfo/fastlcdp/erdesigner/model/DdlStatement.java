@@ -0,0 +1,30 @@
+package cn.com.traninfo.fastlcdp.erdesigner.model;
+
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 待执行的DDL语句
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DdlStatement {
+
+    /**
+     * 语句类型
+     */
+    private DdlStatementTypeEnum type;
+
+    /**
+     * 目标对象名（表名、索引名等）
+     */
+    private String target;
+
+    /**
+     * SQL语句
+     */
+    private String sql;
+}
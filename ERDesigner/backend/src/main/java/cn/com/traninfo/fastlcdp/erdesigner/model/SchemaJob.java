@@ -0,0 +1,150 @@
+package cn.com.traninfo.fastlcdp.erdesigner.model;
+
+import cn.com.traninfo.fastlcdp.erdesigner.enums.SchemaJobStatusEnum;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步建表任务
+ * 进度按表统计：已解析、已生成DDL、已执行；计数由执行线程更新，查询线程只读
+ */
+@Getter
+public class SchemaJob {
+
+    private final String id;
+
+    /**
+     * 任务来源，如 generate、import
+     */
+    private final String source;
+
+    /**
+     * 上传文件名
+     */
+    private final String fileName;
+
+    /**
+     * 目标数据源ID，为null时使用主数据源
+     */
+    private final Long dataSourceId;
+
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile LocalDateTime startedAt;
+
+    private volatile LocalDateTime finishedAt;
+
+    private volatile SchemaJobStatusEnum status = SchemaJobStatusEnum.PENDING;
+
+    private volatile String message;
+
+    private volatile String databaseName;
+
+    /**
+     * 当前处理的表
+     */
+    private volatile String currentTable;
+
+    private volatile int totalTables = -1;
+
+    private volatile int totalStatements = -1;
+
+    private final AtomicInteger parsedTables = new AtomicInteger();
+
+    private final AtomicInteger generatedTables = new AtomicInteger();
+
+    private final AtomicInteger executedTables = new AtomicInteger();
+
+    private final AtomicInteger executedStatements = new AtomicInteger();
+
+    private volatile boolean cancelRequested;
+
+    private volatile Future<?> future;
+
+    public SchemaJob(String id, String source, String fileName, Long dataSourceId) {
+        this.id = id;
+        this.source = source;
+        this.fileName = fileName;
+        this.dataSourceId = dataSourceId;
+    }
+
+    public void attach(Future<?> future) {
+        this.future = future;
+    }
+
+    public void start() {
+        startedAt = LocalDateTime.now();
+        status = SchemaJobStatusEnum.RUNNING;
+    }
+
+    public void finish(SchemaJobStatusEnum finalStatus, String finalMessage) {
+        message = finalMessage;
+        currentTable = null;
+        finishedAt = LocalDateTime.now();
+        status = finalStatus;
+    }
+
+    /**
+     * 请求取消，执行线程在表与语句段之间检查该标记
+     *
+     * @return 任务已结束时返回false
+     */
+    public boolean requestCancel() {
+        if (status.isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        Future<?> current = future;
+        if (current != null && status == SchemaJobStatusEnum.PENDING) {
+            // 尚未开始的任务直接从队列中移除
+            current.cancel(false);
+        }
+        return true;
+    }
+
+    public void setDatabaseName(String databaseName) {
+        this.databaseName = databaseName;
+    }
+
+    public void setCurrentTable(String currentTable) {
+        this.currentTable = currentTable;
+    }
+
+    public void setTotalTables(int totalTables) {
+        this.totalTables = totalTables;
+    }
+
+    public void setTotalStatements(int totalStatements) {
+        this.totalStatements = totalStatements;
+    }
+
+    /**
+     * 任务状态快照，用于接口返回
+     */
+    public Map<String, Object> toStatus() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("jobId", id);
+        result.put("source", source);
+        result.put("fileName", fileName);
+        result.put("dataSourceId", dataSourceId);
+        result.put("status", status);
+        result.put("message", message);
+        result.put("databaseName", databaseName);
+        result.put("currentTable", currentTable);
+        result.put("totalTables", totalTables);
+        result.put("parsedTables", parsedTables.get());
+        result.put("generatedTables", generatedTables.get());
+        result.put("executedTables", executedTables.get());
+        result.put("totalStatements", totalStatements);
+        result.put("executedStatements", executedStatements.get());
+        result.put("submittedAt", submittedAt);
+        result.put("startedAt", startedAt);
+        result.put("finishedAt", finishedAt);
+        return result;
+    }
+}
@@ -0,0 +1,942 @@
+package cn.com.traninfo.fastlcdp.erdesigner.repository;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import cn.com.traninfo.fastlcdp.erdesigner.entity.*;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.*;
+import cn.com.traninfo.fastlcdp.erdesigner.mapper.*;
+import cn.com.traninfo.fastlcdp.erdesigner.model.*;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 规范化元数据仓库
+ * 基于 meta_datasource / meta_table / meta_field / meta_index / meta_relation 五张表存取模式定义，
+ * 子表通过外键关联父表，并按查询路径建立覆盖索引，单表查询走索引点查。
+ * 模式按名称唯一，删除为物理删除；数据源连接登记在独立的 meta_connection 表中，与模式互不影响
+ */
+@Repository
+public class MetadataRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetadataRepository.class);
+
+    public static final String DATASOURCE_TABLE = "meta_datasource";
+    public static final String TABLE_TABLE = "meta_table";
+    public static final String FIELD_TABLE = "meta_field";
+    public static final String INDEX_TABLE = "meta_index";
+    public static final String RELATION_TABLE = "meta_relation";
+    public static final String CONNECTION_TABLE = "meta_connection";
+
+    /**
+     * 按ID批量物理删除时每条语句的ID数，不超过 Oracle IN 列表上限
+     */
+    private static final int PURGE_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private DataSourceMapper dataSourceMapper;
+
+    @Autowired
+    private TableMapper tableMapper;
+
+    @Autowired
+    private FieldMapper fieldMapper;
+
+    @Autowired
+    private IndexMapper indexMapper;
+
+    @Autowired
+    private RelationMapper relationMapper;
+
+    @Autowired
+    private DatabaseConfig databaseConfig;
+
+    @Value("${metadata.batch-size:1000}")
+    private int batchSize = 1000;
+
+    // ==================== 写入 ====================
+
+    /**
+     * 保存模式定义
+     * 同名数据源已存在时复用其ID，旧的表、字段、索引、关系被新行整体替换，
+     * 旧行物理删除，反复保存不会在子表中累积已删除的行
+     */
+    @Transactional
+    public void saveSchema(DatabaseSchema schema) {
+        logger.info("保存模式定义到元数据仓库: {}", schema.getName());
+
+        DataSourceEntity dataSource = findDataSource(schema.getName());
+        if (dataSource == null) {
+            dataSource = new DataSourceEntity();
+            copySchemaToDataSource(schema, dataSource);
+            dataSourceMapper.insert(dataSource);
+        } else {
+            copySchemaToDataSource(schema, dataSource);
+            dataSourceMapper.updateById(dataSource);
+            purgeChildren(dataSource.getId());
+        }
+
+        List<TableDefinition> tables = schema.getTables() != null ? schema.getTables() : Collections.emptyList();
+
+        // 预分配表ID，使继承关系可以在一次遍历中写入
+        Map<String, Long> tableIds = new HashMap<>();
+        for (TableDefinition table : tables) {
+            tableIds.put(table.getName(), IdWorker.getId());
+        }
+
+        List<TableEntity> tableEntities = new ArrayList<>(tables.size());
+        List<FieldEntity> fieldEntities = new ArrayList<>();
+        List<IndexEntity> indexEntities = new ArrayList<>();
+        List<RelationEntity> relationEntities = new ArrayList<>();
+
+        for (TableDefinition table : tables) {
+            Long tableId = tableIds.get(table.getName());
+            tableEntities.add(toTableEntity(table, tableId, dataSource.getId(), tableIds));
+            if (table.getFields() != null) {
+                for (FieldDefinition field : table.getFields()) {
+                    fieldEntities.add(toFieldEntity(field, tableId));
+                }
+            }
+            if (table.getIndexes() != null) {
+                for (IndexDefinition index : table.getIndexes()) {
+                    indexEntities.add(toIndexEntity(index, tableId));
+                }
+            }
+            if (table.getRelations() != null) {
+                for (RelationDefinition relation : table.getRelations()) {
+                    relationEntities.add(toRelationEntity(relation, tableId));
+                }
+            }
+        }
+
+        // 父表先于子表写入，满足 extends_table 外键
+        if (!tableEntities.isEmpty()) {
+            tableMapper.insert(orderParentsFirst(tableEntities), batchSize);
+        }
+        if (!fieldEntities.isEmpty()) {
+            fieldMapper.insert(fieldEntities, batchSize);
+        }
+        if (!indexEntities.isEmpty()) {
+            indexMapper.insert(indexEntities, batchSize);
+        }
+        if (!relationEntities.isEmpty()) {
+            relationMapper.insert(relationEntities, batchSize);
+        }
+
+        logger.info("模式定义保存完成: {}，表 {} 张，字段 {} 个，索引 {} 个，关系 {} 个", schema.getName(),
+                tableEntities.size(), fieldEntities.size(), indexEntities.size(), relationEntities.size());
+    }
+
+    /**
+     * 增量保存模式定义
+     * 表按名称、字段和索引按 (表, 名称)、关系按 (表, 名称) 与已存储的行比对，未命名的关系以 本表字段->引用表 区分；
+     * 只对变化的行执行插入、更新、物理删除，未变化的表保留原ID。
+     * 更新带 version 条件，版本冲突时抛出异常并整体回滚；模式尚未保存时所有行都作为新增写入
+     */
+    @Transactional
+    public SaveStatistics saveSchemaIncremental(DatabaseSchema schema) {
+        logger.info("增量保存模式定义到元数据仓库: {}", schema.getName());
+        SaveStatistics statistics = new SaveStatistics(0, 0, 0);
+
+        DataSourceEntity incomingDataSource = new DataSourceEntity();
+        copySchemaToDataSource(schema, incomingDataSource);
+        DataSourceEntity dataSource = findDataSource(schema.getName());
+        List<TableEntity> storedTables;
+        List<FieldEntity> storedFields;
+        List<IndexEntity> storedIndexes;
+        List<RelationEntity> storedRelations;
+        if (dataSource == null) {
+            dataSource = incomingDataSource;
+            dataSourceMapper.insert(dataSource);
+            statistics.inserted++;
+            storedTables = Collections.emptyList();
+            storedFields = Collections.emptyList();
+            storedIndexes = Collections.emptyList();
+            storedRelations = Collections.emptyList();
+        } else {
+            Map<String, Object> values = dataSourceColumns(incomingDataSource);
+            if (!values.equals(dataSourceColumns(dataSource))) {
+                update(dataSourceMapper, dataSource, values, schema.getName());
+                statistics.updated++;
+            }
+            String tableIdSql = tableIdSubQuery(dataSource.getId());
+            storedTables = tableMapper.selectList(new QueryWrapper<TableEntity>()
+                    .eq("database_id", dataSource.getId()).orderByAsc("id"));
+            storedFields = fieldMapper.selectList(new QueryWrapper<FieldEntity>().inSql("table_id", tableIdSql));
+            storedIndexes = indexMapper.selectList(new QueryWrapper<IndexEntity>().inSql("table_id", tableIdSql));
+            storedRelations = relationMapper.selectList(new QueryWrapper<RelationEntity>().inSql("table_id", tableIdSql));
+        }
+
+        // 已存储的表沿用原ID，新表预分配ID，继承关系和子行都按最终ID比对
+        List<TableDefinition> tables = schema.getTables() != null ? schema.getTables() : Collections.emptyList();
+        Map<String, Long> storedTableIds = new HashMap<>();
+        for (TableEntity stored : storedTables) {
+            storedTableIds.putIfAbsent(stored.getName(), stored.getId());
+        }
+        Map<String, Long> tableIds = new HashMap<>();
+        for (TableDefinition table : tables) {
+            tableIds.computeIfAbsent(table.getName(), name -> {
+                Long storedId = storedTableIds.get(name);
+                return storedId != null ? storedId : IdWorker.getId();
+            });
+        }
+
+        List<TableEntity> tableEntities = new ArrayList<>(tables.size());
+        List<FieldEntity> fieldEntities = new ArrayList<>();
+        List<IndexEntity> indexEntities = new ArrayList<>();
+        List<RelationEntity> relationEntities = new ArrayList<>();
+        for (TableDefinition table : tables) {
+            Long tableId = tableIds.get(table.getName());
+            tableEntities.add(toTableEntity(table, tableId, dataSource.getId(), tableIds));
+            if (table.getFields() != null) {
+                for (FieldDefinition field : table.getFields()) {
+                    fieldEntities.add(toFieldEntity(field, tableId));
+                }
+            }
+            if (table.getIndexes() != null) {
+                for (IndexDefinition index : table.getIndexes()) {
+                    indexEntities.add(toIndexEntity(index, tableId));
+                }
+            }
+            if (table.getRelations() != null) {
+                for (RelationDefinition relation : table.getRelations()) {
+                    relationEntities.add(toRelationEntity(relation, tableId));
+                }
+            }
+        }
+
+        Merge<TableEntity> tableMerge = merge(storedTables, tableEntities, TableEntity::getName, this::tableColumns);
+        Merge<FieldEntity> fieldMerge = merge(storedFields, fieldEntities,
+                field -> field.getTableId() + "#" + field.getName(), this::fieldColumns);
+        Merge<IndexEntity> indexMerge = merge(storedIndexes, indexEntities,
+                index -> index.getTableId() + "#" + index.getName(), this::indexColumns);
+        Merge<RelationEntity> relationMerge = merge(storedRelations, relationEntities,
+                MetadataRepository::relationKey, this::relationColumns);
+
+        // 新表先写入（父表在前），已有表再更新，子行引用的表此时都已存在
+        if (!tableMerge.inserts.isEmpty()) {
+            tableMapper.insert(orderParentsFirst(tableMerge.inserts), batchSize);
+        }
+        apply(tableMapper, tableMerge, TableEntity::getName);
+        applyChildren(fieldMapper, fieldMerge, fieldMapper::purgeByIds, FieldEntity::getName);
+        applyChildren(indexMapper, indexMerge, indexMapper::purgeByIds, IndexEntity::getName);
+        applyChildren(relationMapper, relationMerge, relationMapper::purgeByIds, MetadataRepository::relationKey);
+
+        // 被移除的表先解除相互之间的继承引用，再物理删除
+        List<Long> removedTableIds = tableMerge.deletes.stream().map(TableEntity::getId).collect(Collectors.toList());
+        for (List<Long> chunk : chunks(removedTableIds)) {
+            tableMapper.update(null, new UpdateWrapper<TableEntity>().in("id", chunk).set("extends_table", null));
+            tableMapper.purgeByIds(chunk);
+        }
+
+        for (Merge<?> merge : List.of(tableMerge, fieldMerge, indexMerge, relationMerge)) {
+            statistics.inserted += merge.inserts.size();
+            statistics.updated += merge.updates.size();
+            statistics.deleted += merge.deletes.size();
+        }
+        logger.info("增量保存完成: {}，新增 {} 行，更新 {} 行，删除 {} 行", schema.getName(),
+                statistics.getInserted(), statistics.getUpdated(), statistics.getDeleted());
+        return statistics;
+    }
+
+    /**
+     * 增量保存统计，按元数据仓库中的行计数
+     */
+    @Getter
+    public static class SaveStatistics {
+        private int inserted;
+        private int updated;
+        private int deleted;
+
+        public SaveStatistics(int inserted, int updated, int deleted) {
+            this.inserted = inserted;
+            this.updated = updated;
+            this.deleted = deleted;
+        }
+    }
+
+    /**
+     * 一类行的比对结果：待插入的新行、待更新的已存储行及其新列值、待删除的已存储行
+     */
+    private static class Merge<E extends BaseEntity> {
+        private final List<E> inserts = new ArrayList<>();
+        private final List<Map.Entry<E, Map<String, Object>>> updates = new ArrayList<>();
+        private final List<E> deletes = new ArrayList<>();
+    }
+
+    /**
+     * 按比对键配对已存储的行和新行，同一键下的重复行按顺序配对，多余的已存储行删除
+     */
+    private <E extends BaseEntity> Merge<E> merge(List<E> stored, List<E> incoming,
+                                                  Function<E, String> key, Function<E, Map<String, Object>> columns) {
+        Map<String, Deque<E>> storedByKey = new HashMap<>();
+        for (E row : stored) {
+            storedByKey.computeIfAbsent(key.apply(row), k -> new ArrayDeque<>()).add(row);
+        }
+        Merge<E> merge = new Merge<>();
+        for (E row : incoming) {
+            Deque<E> candidates = storedByKey.get(key.apply(row));
+            E match = candidates != null ? candidates.poll() : null;
+            if (match == null) {
+                merge.inserts.add(row);
+                continue;
+            }
+            Map<String, Object> values = columns.apply(row);
+            if (!values.equals(columns.apply(match))) {
+                merge.updates.add(Map.entry(match, values));
+            }
+        }
+        storedByKey.values().forEach(merge.deletes::addAll);
+        return merge;
+    }
+
+    private <E extends BaseEntity> void apply(BaseMapper<E> mapper, Merge<E> merge, Function<E, String> description) {
+        for (Map.Entry<E, Map<String, Object>> update : merge.updates) {
+            update(mapper, update.getKey(), update.getValue(), description.apply(update.getKey()));
+        }
+    }
+
+    private <E extends BaseEntity> void applyChildren(BaseMapper<E> mapper, Merge<E> merge,
+                                                      Function<Collection<Long>, Integer> purge,
+                                                      Function<E, String> description) {
+        for (List<Long> chunk : chunks(merge.deletes.stream().map(BaseEntity::getId).collect(Collectors.toList()))) {
+            purge.apply(chunk);
+        }
+        apply(mapper, merge, description);
+        if (!merge.inserts.isEmpty()) {
+            mapper.insert(merge.inserts, batchSize);
+        }
+    }
+
+    /**
+     * 带 version 条件更新全部内容列（包括置空），未命中时说明行已被并发修改
+     */
+    private <E extends BaseEntity> void update(BaseMapper<E> mapper, E stored, Map<String, Object> values, String description) {
+        UpdateWrapper<E> wrapper = new UpdateWrapper<E>().eq("id", stored.getId());
+        if (stored.getVersion() == null) {
+            wrapper.isNull("version");
+        } else {
+            wrapper.eq("version", stored.getVersion());
+        }
+        values.forEach(wrapper::set);
+        wrapper.set("version", stored.getVersion() == null ? 1L : stored.getVersion() + 1);
+        wrapper.set("updated_time", LocalDateTime.now());
+        if (mapper.update(null, wrapper) == 0) {
+            throw new RuntimeException("元数据已被并发修改: " + description);
+        }
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += PURGE_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + PURGE_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 关系的比对键：有名称时按名称，未命名时按 本表字段->引用表
+     */
+    private static String relationKey(RelationEntity relation) {
+        return relation.getTableId() + "#" + (StringUtils.hasText(relation.getName())
+                ? relation.getName() : relation.getColumnName() + "->" + relation.getReferenceTable());
+    }
+
+    /**
+     * 删除模式定义
+     * 物理删除，名称唯一约束下同名模式可以重新保存
+     */
+    @Transactional
+    public void deleteSchema(String schemaName) {
+        DataSourceEntity dataSource = findDataSource(schemaName);
+        if (dataSource == null) {
+            return;
+        }
+        purgeChildren(dataSource.getId());
+        dataSourceMapper.purgeById(dataSource.getId());
+    }
+
+    private void purgeChildren(Long dataSourceId) {
+        fieldMapper.purgeByDatabaseId(dataSourceId);
+        indexMapper.purgeByDatabaseId(dataSourceId);
+        relationMapper.purgeByDatabaseId(dataSourceId);
+        tableMapper.purgeByDatabaseId(dataSourceId);
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 检查模式是否存在
+     */
+    public boolean schemaExists(String schemaName) {
+        return dataSourceMapper.exists(new QueryWrapper<DataSourceEntity>().eq("name", schemaName));
+    }
+
+    /**
+     * 查询所有已保存的模式名
+     */
+    public List<String> listSchemaNames() {
+        return dataSourceMapper.selectList(new QueryWrapper<DataSourceEntity>().select("name").orderByAsc("name"))
+                .stream()
+                .map(DataSourceEntity::getName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 加载整个模式定义
+     * 无论表的数量多少，固定发出5条查询
+     */
+    public DatabaseSchema loadSchema(String schemaName) {
+        DataSourceEntity dataSource = findDataSource(schemaName);
+        if (dataSource == null) {
+            return null;
+        }
+
+        List<TableEntity> tableEntities = tableMapper.selectList(new QueryWrapper<TableEntity>()
+                .eq("database_id", dataSource.getId())
+                .orderByAsc("id"));
+
+        String tableIdSql = tableIdSubQuery(dataSource.getId());
+        Map<Long, List<FieldEntity>> fieldsByTable = fieldMapper.selectList(new QueryWrapper<FieldEntity>()
+                        .inSql("table_id", tableIdSql).orderByAsc("id"))
+                .stream().collect(Collectors.groupingBy(FieldEntity::getTableId));
+        Map<Long, List<IndexEntity>> indexesByTable = indexMapper.selectList(new QueryWrapper<IndexEntity>()
+                        .inSql("table_id", tableIdSql).orderByAsc("id"))
+                .stream().collect(Collectors.groupingBy(IndexEntity::getTableId));
+        Map<Long, List<RelationEntity>> relationsByTable = relationMapper.selectList(new QueryWrapper<RelationEntity>()
+                        .inSql("table_id", tableIdSql).orderByAsc("id"))
+                .stream().collect(Collectors.groupingBy(RelationEntity::getTableId));
+
+        Map<Long, String> tableNames = tableEntities.stream()
+                .collect(Collectors.toMap(TableEntity::getId, TableEntity::getName));
+
+        DatabaseSchema schema = toSchema(dataSource);
+        List<TableDefinition> tables = new ArrayList<>(tableEntities.size());
+        for (TableEntity tableEntity : tableEntities) {
+            tables.add(toTableDefinition(tableEntity, tableNames::get,
+                    fieldsByTable.getOrDefault(tableEntity.getId(), Collections.emptyList()),
+                    indexesByTable.getOrDefault(tableEntity.getId(), Collections.emptyList()),
+                    relationsByTable.getOrDefault(tableEntity.getId(), Collections.emptyList())));
+        }
+        schema.setTables(tables);
+        return schema;
+    }
+
+    /**
+     * 加载单张表定义
+     * 每一步都命中 (database_id, name) 或 (table_id) 索引
+     */
+    public TableDefinition loadTable(String schemaName, String tableName) {
+        DataSourceEntity dataSource = findDataSource(schemaName);
+        if (dataSource == null) {
+            return null;
+        }
+
+        TableEntity tableEntity = tableMapper.selectOne(new QueryWrapper<TableEntity>()
+                .eq("database_id", dataSource.getId())
+                .eq("name", tableName));
+        if (tableEntity == null) {
+            return null;
+        }
+
+        Long tableId = tableEntity.getId();
+        List<FieldEntity> fields = fieldMapper.selectList(new QueryWrapper<FieldEntity>()
+                .eq("table_id", tableId).orderByAsc("id"));
+        List<IndexEntity> indexes = indexMapper.selectList(new QueryWrapper<IndexEntity>()
+                .eq("table_id", tableId).orderByAsc("id"));
+        List<RelationEntity> relations = relationMapper.selectList(new QueryWrapper<RelationEntity>()
+                .eq("table_id", tableId).orderByAsc("id"));
+
+        Function<Long, String> parentName = id -> {
+            TableEntity parent = tableMapper.selectById(id);
+            return parent != null ? parent.getName() : null;
+        };
+        return toTableDefinition(tableEntity, parentName, fields, indexes, relations);
+    }
+
+    private DataSourceEntity findDataSource(String schemaName) {
+        return dataSourceMapper.selectOne(new QueryWrapper<DataSourceEntity>().eq("name", schemaName));
+    }
+
+    private String tableIdSubQuery(Long dataSourceId) {
+        return "SELECT id FROM " + TABLE_TABLE + " WHERE database_id = " + dataSourceId + " AND is_deleted = 0";
+    }
+
+    // ==================== 模型与实体转换 ====================
+
+    private void copySchemaToDataSource(DatabaseSchema schema, DataSourceEntity dataSource) {
+        dataSource.setName(schema.getName());
+        dataSource.setCharset(schema.getCharset());
+        dataSource.setCollation(schema.getCollation());
+        dataSource.setEngine(schema.getEngine());
+        dataSource.setDescription(schema.getComment());
+        dataSource.setSchemaVersion(schema.getVersion());
+    }
+
+    // ==================== 内容列（用于增量比对和更新） ====================
+
+    private Map<String, Object> dataSourceColumns(DataSourceEntity entity) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("charset", entity.getCharset());
+        columns.put("collation", entity.getCollation());
+        columns.put("engine", entity.getEngine());
+        columns.put("description", entity.getDescription());
+        columns.put("schema_version", entity.getSchemaVersion());
+        return columns;
+    }
+
+    private Map<String, Object> tableColumns(TableEntity entity) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("extends_table", entity.getExtendsTableId());
+        columns.put("type", entity.getType());
+        columns.put("engine", entity.getEngine());
+        columns.put("charset", entity.getCharset());
+        columns.put("comment", entity.getComment());
+        return columns;
+    }
+
+    private Map<String, Object> fieldColumns(FieldEntity entity) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("type", entity.getType());
+        columns.put("length", entity.getLength());
+        columns.put("field_precision", entity.getPrecision());
+        columns.put("scale", entity.getScale());
+        columns.put("nullable", entity.getNullable());
+        columns.put("primary_key_type", entity.getPrimaryKeyType());
+        columns.put("unique_field", entity.getUniqueField());
+        columns.put("default_value", entity.getDefaultValue());
+        columns.put("comment", entity.getComment());
+        return columns;
+    }
+
+    private Map<String, Object> indexColumns(IndexEntity entity) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("type", entity.getType());
+        columns.put("method", entity.getMethod());
+        columns.put("unique_index", entity.getUniqueIndex());
+        columns.put("column_names", entity.getColumnNames());
+        columns.put("comment", entity.getComment());
+        return columns;
+    }
+
+    private Map<String, Object> relationColumns(RelationEntity entity) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("type", entity.getType());
+        columns.put("column_name", entity.getColumnName());
+        columns.put("reference_table", entity.getReferenceTable());
+        columns.put("reference_field", entity.getReferenceField());
+        columns.put("on_delete", entity.getOnDelete());
+        columns.put("on_update", entity.getOnUpdate());
+        columns.put("comment", entity.getComment());
+        return columns;
+    }
+
+    private DatabaseSchema toSchema(DataSourceEntity dataSource) {
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName(dataSource.getName());
+        schema.setVersion(dataSource.getSchemaVersion());
+        schema.setCharset(dataSource.getCharset());
+        schema.setCollation(dataSource.getCollation());
+        schema.setEngine(dataSource.getEngine());
+        schema.setComment(dataSource.getDescription());
+        return schema;
+    }
+
+    private TableEntity toTableEntity(TableDefinition table, Long tableId, Long dataSourceId, Map<String, Long> tableIds) {
+        TableEntity entity = new TableEntity();
+        entity.setId(tableId);
+        entity.setDatabaseId(dataSourceId);
+        entity.setName(table.getName());
+        entity.setType(table.getType() != null ? table.getType().name() : null);
+        entity.setEngine(table.getEngine());
+        entity.setCharset(table.getCharset());
+        entity.setComment(table.getComment());
+        if (StringUtils.hasText(table.getExtendsTable())) {
+            entity.setExtendsTableId(tableIds.get(table.getExtendsTable()));
+        }
+        return entity;
+    }
+
+    private FieldEntity toFieldEntity(FieldDefinition field, Long tableId) {
+        FieldEntity entity = new FieldEntity();
+        entity.setId(IdWorker.getId());
+        entity.setTableId(tableId);
+        entity.setName(field.getName());
+        entity.setType(field.getType());
+        entity.setLength(field.getLength());
+        entity.setPrecision(field.getPrecision());
+        entity.setScale(field.getScale());
+        entity.setNullable(field.getNullable());
+        entity.setPrimaryKeyType(field.getPrimaryKey() != null ? field.getPrimaryKey().name() : null);
+        entity.setUniqueField(field.getUnique());
+        entity.setDefaultValue(field.getDefaultValue());
+        entity.setComment(field.getComment());
+        return entity;
+    }
+
+    private IndexEntity toIndexEntity(IndexDefinition index, Long tableId) {
+        IndexEntity entity = new IndexEntity();
+        entity.setId(IdWorker.getId());
+        entity.setTableId(tableId);
+        entity.setName(index.getName());
+        entity.setType(index.getType() != null ? index.getType().name() : null);
+        entity.setMethod(index.getMethod() != null ? index.getMethod().name() : null);
+        entity.setUniqueIndex(index.getType() == IndexTypeEnum.UNIQUE);
+        entity.setColumnNames(encodeIndexColumns(index.getColumns()));
+        entity.setComment(index.getComment());
+        return entity;
+    }
+
+    private RelationEntity toRelationEntity(RelationDefinition relation, Long tableId) {
+        RelationEntity entity = new RelationEntity();
+        entity.setId(IdWorker.getId());
+        entity.setTableId(tableId);
+        entity.setName(relation.getName());
+        entity.setType(relation.getType() != null ? relation.getType().name() : null);
+        entity.setColumnName(relation.getColumn());
+        entity.setReferenceTable(relation.getReferenceTable());
+        entity.setReferenceField(relation.getReferenceColumn());
+        entity.setOnDelete(relation.getOnDelete() != null ? relation.getOnDelete().name() : null);
+        entity.setOnUpdate(relation.getOnUpdate() != null ? relation.getOnUpdate().name() : null);
+        entity.setComment(relation.getComment());
+        return entity;
+    }
+
+    private TableDefinition toTableDefinition(TableEntity entity, Function<Long, String> tableNameById,
+                                              List<FieldEntity> fieldEntities,
+                                              List<IndexEntity> indexEntities,
+                                              List<RelationEntity> relationEntities) {
+        TableDefinition table = new TableDefinition();
+        table.setName(entity.getName());
+        if (entity.getType() != null) {
+            table.setType(TableTypeEnum.valueOf(entity.getType()));
+        }
+        table.setEngine(entity.getEngine());
+        table.setCharset(entity.getCharset());
+        table.setComment(entity.getComment());
+        if (entity.getExtendsTableId() != null) {
+            table.setExtendsTable(tableNameById.apply(entity.getExtendsTableId()));
+        }
+
+        List<FieldDefinition> fields = new ArrayList<>(fieldEntities.size());
+        for (FieldEntity fieldEntity : fieldEntities) {
+            FieldDefinition field = new FieldDefinition();
+            field.setName(fieldEntity.getName());
+            field.setType(fieldEntity.getType());
+            field.setLength(fieldEntity.getLength());
+            field.setPrecision(fieldEntity.getPrecision());
+            field.setScale(fieldEntity.getScale());
+            field.setNullable(fieldEntity.getNullable());
+            field.setPrimaryKey(fieldEntity.getPrimaryKeyType() != null
+                    ? PrimaryKeyTypeEnum.valueOf(fieldEntity.getPrimaryKeyType()) : PrimaryKeyTypeEnum.NONE);
+            field.setUnique(Boolean.TRUE.equals(fieldEntity.getUniqueField()));
+            field.setDefaultValue(fieldEntity.getDefaultValue());
+            field.setComment(fieldEntity.getComment());
+            fields.add(field);
+        }
+        table.setFields(fields);
+
+        List<IndexDefinition> indexes = new ArrayList<>(indexEntities.size());
+        for (IndexEntity indexEntity : indexEntities) {
+            IndexDefinition index = new IndexDefinition();
+            index.setName(indexEntity.getName());
+            if (indexEntity.getType() != null) {
+                index.setType(IndexTypeEnum.valueOf(indexEntity.getType()));
+            }
+            if (indexEntity.getMethod() != null) {
+                index.setMethod(IndexMethodEnum.valueOf(indexEntity.getMethod()));
+            }
+            index.setColumns(decodeIndexColumns(indexEntity.getColumnNames()));
+            index.setComment(indexEntity.getComment());
+            indexes.add(index);
+        }
+        table.setIndexes(indexes);
+
+        List<RelationDefinition> relations = new ArrayList<>(relationEntities.size());
+        for (RelationEntity relationEntity : relationEntities) {
+            RelationDefinition relation = new RelationDefinition();
+            relation.setName(relationEntity.getName());
+            if (relationEntity.getType() != null) {
+                relation.setType(RelationTypeEnum.valueOf(relationEntity.getType()));
+            }
+            relation.setColumn(relationEntity.getColumnName());
+            relation.setReferenceTable(relationEntity.getReferenceTable());
+            relation.setReferenceColumn(relationEntity.getReferenceField());
+            if (relationEntity.getOnDelete() != null) {
+                relation.setOnDelete(RelationActionEnum.valueOf(relationEntity.getOnDelete()));
+            }
+            if (relationEntity.getOnUpdate() != null) {
+                relation.setOnUpdate(RelationActionEnum.valueOf(relationEntity.getOnUpdate()));
+            }
+            relation.setComment(relationEntity.getComment());
+            relations.add(relation);
+        }
+        table.setRelations(relations);
+
+        return table;
+    }
+
+    /**
+     * 索引列编码为逗号分隔字符串，如 "name(20),created_time DESC"
+     */
+    static String encodeIndexColumns(List<IndexColumnDefinition> columns) {
+        if (columns == null || columns.isEmpty()) {
+            return null;
+        }
+        StringBuilder encoded = new StringBuilder();
+        for (IndexColumnDefinition column : columns) {
+            if (encoded.length() > 0) {
+                encoded.append(',');
+            }
+            encoded.append(column.getName());
+            if (column.getLength() != null) {
+                encoded.append('(').append(column.getLength()).append(')');
+            }
+            if (column.getOrder() == IndexSortOrderEnum.DESC) {
+                encoded.append(" DESC");
+            }
+        }
+        return encoded.toString();
+    }
+
+    static List<IndexColumnDefinition> decodeIndexColumns(String encoded) {
+        List<IndexColumnDefinition> columns = new ArrayList<>();
+        if (!StringUtils.hasText(encoded)) {
+            return columns;
+        }
+        for (String part : encoded.split(",")) {
+            String token = part.trim();
+            IndexColumnDefinition column = new IndexColumnDefinition();
+            if (token.endsWith(" DESC")) {
+                column.setOrder(IndexSortOrderEnum.DESC);
+                token = token.substring(0, token.length() - " DESC".length()).trim();
+            }
+            int lengthStart = token.indexOf('(');
+            if (lengthStart > 0 && token.endsWith(")")) {
+                column.setLength(Integer.valueOf(token.substring(lengthStart + 1, token.length() - 1)));
+                token = token.substring(0, lengthStart);
+            }
+            column.setName(token);
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * 将表实体排序为父表在前
+     */
+    private List<TableEntity> orderParentsFirst(List<TableEntity> tables) {
+        Map<Long, TableEntity> byId = new LinkedHashMap<>();
+        for (TableEntity table : tables) {
+            byId.put(table.getId(), table);
+        }
+        List<TableEntity> ordered = new ArrayList<>(tables.size());
+        Set<Long> visited = new HashSet<>();
+        for (TableEntity table : tables) {
+            appendWithParents(table, byId, visited, ordered);
+        }
+        return ordered;
+    }
+
+    private void appendWithParents(TableEntity table, Map<Long, TableEntity> byId, Set<Long> visited, List<TableEntity> ordered) {
+        // 先标记再递归，继承循环时不会死循环
+        if (!visited.add(table.getId())) {
+            return;
+        }
+        TableEntity parent = table.getExtendsTableId() != null ? byId.get(table.getExtendsTableId()) : null;
+        if (parent != null) {
+            appendWithParents(parent, byId, visited, ordered);
+        }
+        ordered.add(table);
+    }
+
+    // ==================== 存储表结构 ====================
+
+    /**
+     * 生成元数据仓库表的DDL语句
+     */
+    public String generateDDL() {
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(databaseConfig.getType());
+        StringBuilder ddl = new StringBuilder();
+        for (TableDefinition table : getStoreTableDefinitions()) {
+            ddl.append(dialect.generateCreateTableSql(table)).append(";\n");
+            for (IndexDefinition index : table.getIndexes()) {
+                ddl.append(dialect.generateCreateIndexSql(table.getName(), index)).append(";\n");
+            }
+            ddl.append("\n");
+        }
+        return ddl.toString();
+    }
+
+    /**
+     * 元数据仓库表定义，按外键依赖顺序排列
+     * 索引均包含 is_deleted 列，逻辑删除过滤可直接在索引内完成；
+     * 父表继承外键不级联，避免自引用表上出现多条级联路径。
+     * 模式和连接的名称由唯一索引保证，并发登记同名记录时由数据库拒绝
+     */
+    public List<TableDefinition> getStoreTableDefinitions() {
+        List<TableDefinition> tables = new ArrayList<>();
+
+        TableDefinition dataSource = storeTable(DATASOURCE_TABLE, "数据源元数据");
+        dataSource.getFields().add(column("name", "STRING", 100, false, "数据源名称"));
+        dataSource.getFields().add(column("charset", "STRING", 50, true, "字符集"));
+        dataSource.getFields().add(column("collation", "STRING", 50, true, "排序规则"));
+        dataSource.getFields().add(column("engine", "STRING", 50, true, "存储引擎"));
+        dataSource.getFields().add(column("description", "STRING", 500, true, "描述"));
+        dataSource.getFields().add(column("schema_version", "STRING", 50, true, "模式版本"));
+        dataSource.getIndexes().add(uniqueIndex("uk_meta_datasource_name", "tenant_id", "name"));
+        tables.add(dataSource);
+
+        TableDefinition table = storeTable(TABLE_TABLE, "表元数据");
+        table.getFields().add(column("database_id", "LONG", null, false, "数据源ID"));
+        table.getFields().add(column("extends_table", "LONG", null, true, "继承的父表ID"));
+        table.getFields().add(column("name", "STRING", 100, false, "表名称"));
+        table.getFields().add(column("type", "STRING", 20, true, "表类型"));
+        table.getFields().add(column("engine", "STRING", 50, true, "存储引擎"));
+        table.getFields().add(column("charset", "STRING", 50, true, "字符集"));
+        table.getFields().add(column("comment", "STRING", 500, true, "注释"));
+        table.getIndexes().add(index("idx_meta_table_database", "database_id", "name", "is_deleted"));
+        table.getIndexes().add(index("idx_meta_table_extends", "extends_table"));
+        table.getRelations().add(foreignKey("fk_meta_table_database", "database_id", DATASOURCE_TABLE, RelationActionEnum.CASCADE));
+        table.getRelations().add(foreignKey("fk_meta_table_extends", "extends_table", TABLE_TABLE, null));
+        tables.add(table);
+
+        TableDefinition field = storeTable(FIELD_TABLE, "字段元数据");
+        field.getFields().add(column("table_id", "LONG", null, false, "表ID"));
+        field.getFields().add(column("name", "STRING", 100, false, "字段名称"));
+        field.getFields().add(column("type", "STRING", 50, true, "字段类型"));
+        field.getFields().add(column("length", "INTEGER", null, true, "字段长度"));
+        field.getFields().add(column("field_precision", "INTEGER", null, true, "精度"));
+        field.getFields().add(column("scale", "INTEGER", null, true, "小数位数"));
+        field.getFields().add(column("nullable", "BOOLEAN", null, true, "是否可空"));
+        field.getFields().add(column("primary_key_type", "STRING", 20, true, "主键类型"));
+        field.getFields().add(column("unique_field", "BOOLEAN", null, true, "是否唯一"));
+        field.getFields().add(column("default_value", "STRING", 255, true, "默认值"));
+        field.getFields().add(column("comment", "STRING", 500, true, "注释"));
+        field.getIndexes().add(index("idx_meta_field_table", "table_id", "is_deleted", "name"));
+        field.getRelations().add(foreignKey("fk_meta_field_table", "table_id", TABLE_TABLE, RelationActionEnum.CASCADE));
+        tables.add(field);
+
+        TableDefinition index = storeTable(INDEX_TABLE, "索引元数据");
+        index.getFields().add(column("table_id", "LONG", null, false, "表ID"));
+        index.getFields().add(column("name", "STRING", 100, false, "索引名称"));
+        index.getFields().add(column("type", "STRING", 20, true, "索引类型"));
+        index.getFields().add(column("method", "STRING", 20, true, "索引方法"));
+        index.getFields().add(column("unique_index", "BOOLEAN", null, true, "是否唯一索引"));
+        index.getFields().add(column("column_names", "STRING", 1000, true, "索引列"));
+        index.getFields().add(column("comment", "STRING", 500, true, "注释"));
+        index.getIndexes().add(index("idx_meta_index_table", "table_id", "is_deleted", "name"));
+        index.getRelations().add(foreignKey("fk_meta_index_table", "table_id", TABLE_TABLE, RelationActionEnum.CASCADE));
+        tables.add(index);
+
+        TableDefinition relation = storeTable(RELATION_TABLE, "关系元数据");
+        relation.getFields().add(column("table_id", "LONG", null, false, "表ID"));
+        relation.getFields().add(column("name", "STRING", 100, true, "外键名称"));
+        relation.getFields().add(column("type", "STRING", 20, true, "关联类型"));
+        relation.getFields().add(column("column_name", "STRING", 100, true, "本表字段"));
+        relation.getFields().add(column("reference_table", "STRING", 100, true, "引用表"));
+        relation.getFields().add(column("reference_field", "STRING", 100, true, "引用字段"));
+        relation.getFields().add(column("on_delete", "STRING", 20, true, "删除动作"));
+        relation.getFields().add(column("on_update", "STRING", 20, true, "更新动作"));
+        relation.getFields().add(column("comment", "STRING", 500, true, "注释"));
+        relation.getIndexes().add(index("idx_meta_relation_table", "table_id", "is_deleted", "name"));
+        relation.getRelations().add(foreignKey("fk_meta_relation_table", "table_id", TABLE_TABLE, RelationActionEnum.CASCADE));
+        tables.add(relation);
+
+        TableDefinition connection = storeTable(CONNECTION_TABLE, "数据源连接");
+        connection.getFields().add(column("name", "STRING", 100, false, "连接名称"));
+        connection.getFields().add(column("description", "STRING", 500, true, "描述"));
+        connection.getFields().add(column("db_type", "STRING", 20, true, "数据库类型"));
+        connection.getFields().add(column("url", "STRING", 500, true, "JDBC连接地址"));
+        connection.getFields().add(column("username", "STRING", 100, true, "用户名"));
+        connection.getFields().add(column("password", "STRING", 200, true, "密码"));
+        connection.getFields().add(column("driver_class_name", "STRING", 200, true, "驱动类名"));
+        connection.getFields().add(column("max_pool_size", "INTEGER", null, true, "连接池最大连接数"));
+        connection.getIndexes().add(uniqueIndex("uk_meta_connection_name", "tenant_id", "name"));
+        tables.add(connection);
+
+        return tables;
+    }
+
+    /**
+     * 创建带 BaseEntity 公共列的表定义
+     */
+    private TableDefinition storeTable(String name, String comment) {
+        TableDefinition table = new TableDefinition();
+        table.setName(name);
+        table.setComment(comment);
+
+        FieldDefinition id = column("id", "LONG", null, false, "主键ID");
+        id.setPrimaryKey(PrimaryKeyTypeEnum.SINGLE);
+        table.getFields().add(id);
+        table.getFields().add(column("created_by", "LONG", null, true, "创建人"));
+        table.getFields().add(column("updated_by", "LONG", null, true, "更新人"));
+        table.getFields().add(column("created_time", "TIMESTAMP", null, true, "创建时间"));
+        table.getFields().add(column("updated_time", "TIMESTAMP", null, true, "更新时间"));
+        FieldDefinition isDeleted = column("is_deleted", "INTEGER", null, false, "逻辑删除");
+        isDeleted.setDefaultValue("0");
+        table.getFields().add(isDeleted);
+        table.getFields().add(column("version", "LONG", null, true, "乐观锁版本"));
+        FieldDefinition tenantId = column("tenant_id", "LONG", null, false, "租户ID");
+        tenantId.setDefaultValue("0");
+        table.getFields().add(tenantId);
+        table.getFields().add(column("project_id", "LONG", null, true, "项目ID"));
+        return table;
+    }
+
+    private FieldDefinition column(String name, String type, Integer length, boolean nullable, String comment) {
+        FieldDefinition field = new FieldDefinition();
+        field.setName(name);
+        field.setType(type);
+        field.setLength(length);
+        field.setNullable(nullable);
+        field.setComment(comment);
+        return field;
+    }
+
+    private IndexDefinition uniqueIndex(String name, String... columnNames) {
+        IndexDefinition index = index(name, columnNames);
+        index.setType(IndexTypeEnum.UNIQUE);
+        return index;
+    }
+
+    private IndexDefinition index(String name, String... columnNames) {
+        IndexDefinition index = new IndexDefinition();
+        index.setName(name);
+        index.setType(IndexTypeEnum.NORMAL);
+        List<IndexColumnDefinition> columns = new ArrayList<>(columnNames.length);
+        for (String columnName : columnNames) {
+            IndexColumnDefinition column = new IndexColumnDefinition();
+            column.setName(columnName);
+            columns.add(column);
+        }
+        index.setColumns(columns);
+        return index;
+    }
+
+    private RelationDefinition foreignKey(String name, String column, String referenceTable, RelationActionEnum onDelete) {
+        RelationDefinition relation = new RelationDefinition();
+        relation.setName(name);
+        relation.setColumn(column);
+        relation.setReferenceTable(referenceTable);
+        relation.setReferenceColumn("id");
+        relation.setOnDelete(onDelete);
+        relation.setOnUpdate(null);
+        return relation;
+    }
+}
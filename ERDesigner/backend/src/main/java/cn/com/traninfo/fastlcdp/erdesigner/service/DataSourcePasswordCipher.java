@@ -0,0 +1,107 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 数据源密码加解密
+ * 密码以 AES-GCM 加密后保存在 meta_datasource 中，只在创建连接池时解密。
+ * 密钥由 database.routing.credential-key 配置经 SHA-256 派生，未配置时不能保存密码；
+ * 没有加密前缀的旧记录按明文读取
+ */
+@Slf4j
+@Component
+public class DataSourcePasswordCipher {
+
+    static final String PREFIX = "{aes-gcm}";
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int TAG_BITS = 128;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * 密码加密密钥，建议通过环境变量提供
+     */
+    @Value("${database.routing.credential-key:}")
+    private String credentialKey;
+
+    private volatile SecretKeySpec key;
+
+    /**
+     * 加密密码，空密码原样返回
+     *
+     * @param password 明文密码
+     * @return 带加密前缀的密文
+     * @throws IllegalStateException 未配置加密密钥
+     */
+    public String encrypt(String password) {
+        if (!StringUtils.hasLength(password)) {
+            return password;
+        }
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, getKey(), new GCMParameterSpec(TAG_BITS, iv));
+            byte[] encrypted = cipher.doFinal(password.getBytes(StandardCharsets.UTF_8));
+            return PREFIX + Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("数据源密码加密失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 解密密码，没有加密前缀的旧记录原样返回
+     *
+     * @param stored 保存的密码
+     * @return 明文密码
+     * @throws IllegalStateException 未配置加密密钥
+     */
+    public String decrypt(String stored) {
+        if (!StringUtils.hasLength(stored)) {
+            return stored;
+        }
+        if (!stored.startsWith(PREFIX)) {
+            log.warn("数据源密码以明文保存，重新保存数据源后加密");
+            return stored;
+        }
+        try {
+            byte[] data = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, getKey(), new GCMParameterSpec(TAG_BITS, data, 0, IV_LENGTH));
+            return new String(cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new RuntimeException("数据源密码解密失败，请检查 database.routing.credential-key 配置", e);
+        }
+    }
+
+    private SecretKeySpec getKey() throws GeneralSecurityException {
+        SecretKeySpec current = key;
+        if (current == null) {
+            if (!StringUtils.hasText(credentialKey)) {
+                throw new IllegalStateException("未配置 database.routing.credential-key，无法保存或读取数据源密码");
+            }
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(credentialKey.getBytes(StandardCharsets.UTF_8));
+            current = new SecretKeySpec(digest, "AES");
+            key = current;
+        }
+        return current;
+    }
+}
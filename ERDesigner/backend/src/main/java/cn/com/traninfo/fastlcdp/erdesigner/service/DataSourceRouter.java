@@ -0,0 +1,496 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.entity.ConnectionEntity;
+import cn.com.traninfo.fastlcdp.erdesigner.mapper.ConnectionMapper;
+import cn.com.traninfo.fastlcdp.erdesigner.util.JdbcUrlValidator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 数据源路由
+ * 按 meta_connection 中登记的数据源ID把建表、执行、反向工程路由到各自的连接池：
+ * 连接池在第一次使用时创建，大小按数据源单独配置，空闲超时后关闭，下次使用时重新创建。
+ * 未指定数据源时使用应用的主数据源，元数据存储始终使用主数据源
+ */
+@Slf4j
+@Component
+public class DataSourceRouter {
+
+    private static final ThreadLocal<Route> CURRENT_ROUTE = new ThreadLocal<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DatabaseConfig databaseConfig;
+
+    @Autowired
+    private ConnectionMapper connectionMapper;
+
+    @Autowired
+    private DataSourcePasswordCipher dataSourcePasswordCipher;
+
+    /**
+     * 数据源未配置连接池大小时使用的最大连接数
+     */
+    @Value("${database.routing.default-max-pool-size:5}")
+    private int defaultMaxPoolSize = 5;
+
+    /**
+     * 获取连接的超时时间（毫秒）
+     */
+    @Value("${database.routing.connection-timeout-ms:30000}")
+    private long connectionTimeoutMs = 30000;
+
+    /**
+     * 连接池空闲多久后关闭（分钟）
+     */
+    @Value("${database.routing.idle-timeout-minutes:10}")
+    private long idleTimeoutMinutes = 10;
+
+    /**
+     * 空闲连接池检查间隔（秒）
+     */
+    @Value("${database.routing.eviction-interval-seconds:60}")
+    private long evictionIntervalSeconds = 60;
+
+    private final Map<Long, Route> routes = new ConcurrentHashMap<>();
+
+    /**
+     * 创建、占用、释放和回收路由时持有，持有期间不做网络I/O
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicLong created = new AtomicLong();
+
+    private final AtomicLong evicted = new AtomicLong();
+
+    private volatile Route defaultRoute;
+
+    private volatile ScheduledExecutorService evictor;
+
+    @PreDestroy
+    public void shutdown() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        List<Route> closing;
+        lock.lock();
+        try {
+            closing = new ArrayList<>(routes.values());
+            routes.clear();
+        } finally {
+            lock.unlock();
+        }
+        closing.forEach(Route::close);
+    }
+
+    /**
+     * 当前线程的路由，未绑定数据源时返回主数据源
+     */
+    public Route current() {
+        Route route = CURRENT_ROUTE.get();
+        return route != null ? route : getDefaultRoute();
+    }
+
+    /**
+     * 当前线程绑定的数据源ID，使用主数据源时返回null
+     */
+    public Long currentDataSourceId() {
+        Route route = CURRENT_ROUTE.get();
+        return route != null ? route.id : null;
+    }
+
+    /**
+     * 当前路由的数据库类型，决定生成SQL使用的方言
+     */
+    public DatabaseConfig.DatabaseType currentType() {
+        return current().databaseType;
+    }
+
+    /**
+     * 在指定数据源上运行，期间本线程（及经 propagate 包装的任务）的数据库操作都使用该数据源
+     *
+     * @param dataSourceId 数据源ID，为null时使用主数据源
+     * @param action 执行内容
+     * @return 执行结果
+     * @throws IllegalArgumentException 数据源不存在或未配置连接地址
+     */
+    public <T> T runOn(Long dataSourceId, Supplier<T> action) {
+        Route route = dataSourceId != null ? acquire(dataSourceId) : getDefaultRoute();
+        Route previous = CURRENT_ROUTE.get();
+        CURRENT_ROUTE.set(route);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+            release(route);
+        }
+    }
+
+    /**
+     * 把当前线程绑定到数据源，必须与 unbind 成对调用
+     *
+     * @param dataSourceId 数据源ID
+     * @throws IllegalArgumentException 数据源不存在或未配置连接地址
+     */
+    public void bind(Long dataSourceId) {
+        Route route = acquire(dataSourceId);
+        Route previous = CURRENT_ROUTE.get();
+        CURRENT_ROUTE.set(route);
+        release(previous);
+    }
+
+    /**
+     * 解除当前线程的数据源绑定
+     */
+    public void unbind() {
+        Route route = CURRENT_ROUTE.get();
+        CURRENT_ROUTE.remove();
+        release(route);
+    }
+
+    /**
+     * 把当前路由带到其他线程上运行的任务中，调用方需等待任务结束后再离开当前路由
+     *
+     * @param task 任务
+     * @return 包装后的任务，使用主数据源时原样返回
+     */
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        Route route = CURRENT_ROUTE.get();
+        if (route == null) {
+            return task;
+        }
+        return () -> {
+            Route previous = CURRENT_ROUTE.get();
+            CURRENT_ROUTE.set(route);
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * 关闭数据源的连接池，数据源修改或删除后调用；正在使用的连接池在最后一个使用方结束后关闭
+     *
+     * @param dataSourceId 数据源ID
+     * @return 连接池存在时返回true
+     */
+    public boolean evict(Long dataSourceId) {
+        boolean closeNow;
+        Route route;
+        lock.lock();
+        try {
+            route = routes.remove(dataSourceId);
+            if (route == null) {
+                return false;
+            }
+            route.retired = true;
+            closeNow = route.users.get() == 0;
+        } finally {
+            lock.unlock();
+        }
+        evicted.incrementAndGet();
+        if (closeNow) {
+            route.close();
+        }
+        log.info("移除数据源连接池: {} ({})", route.name, dataSourceId);
+        return true;
+    }
+
+    /**
+     * 路由统计信息，包含每个已创建连接池的连接数
+     */
+    public Map<String, Object> getStatistics() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> pools = new ArrayList<>();
+        for (Route route : routes.values()) {
+            Map<String, Object> pool = new HashMap<>();
+            pool.put("id", route.id);
+            pool.put("name", route.name);
+            pool.put("type", route.databaseType.name());
+            pool.put("users", route.users.get());
+            pool.put("idleSeconds", (now - route.lastUsed) / 1000);
+            if (route.dataSource instanceof HikariDataSource hikari) {
+                pool.put("maxPoolSize", hikari.getMaximumPoolSize());
+                HikariPoolMXBean mxBean = hikari.getHikariPoolMXBean();
+                if (mxBean != null) {
+                    pool.put("activeConnections", mxBean.getActiveConnections());
+                    pool.put("idleConnections", mxBean.getIdleConnections());
+                    pool.put("totalConnections", mxBean.getTotalConnections());
+                }
+            }
+            pools.add(pool);
+        }
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("pools", pools);
+        statistics.put("created", created.get());
+        statistics.put("evicted", evicted.get());
+        statistics.put("idleTimeoutMinutes", idleTimeoutMinutes);
+        return statistics;
+    }
+
+    /**
+     * 关闭空闲超时且没有使用方的连接池
+     */
+    void evictIdle() {
+        long threshold = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(idleTimeoutMinutes);
+        List<Route> closing = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<Route> iterator = routes.values().iterator();
+            while (iterator.hasNext()) {
+                Route route = iterator.next();
+                if (route.users.get() == 0 && route.lastUsed < threshold && route.activeConnections() == 0) {
+                    iterator.remove();
+                    route.retired = true;
+                    closing.add(route);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Route route : closing) {
+            evicted.incrementAndGet();
+            route.close();
+            log.info("关闭空闲数据源连接池: {} ({})", route.name, route.id);
+        }
+    }
+
+    private Route acquire(Long dataSourceId) {
+        lock.lock();
+        try {
+            Route route = routes.get(dataSourceId);
+            if (route != null) {
+                route.retain();
+                return route;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        ConnectionEntity entity = connectionMapper.selectById(dataSourceId);
+        if (entity == null) {
+            throw new IllegalArgumentException("数据源不存在: " + dataSourceId);
+        }
+        if (!StringUtils.hasText(entity.getUrl())) {
+            throw new IllegalArgumentException("数据源未配置连接地址: " + entity.getName());
+        }
+
+        Route route;
+        lock.lock();
+        try {
+            route = routes.get(dataSourceId);
+            if (route == null) {
+                // 初始化时不建立连接，创建连接池不会在锁内阻塞
+                route = createRoute(entity);
+                routes.put(dataSourceId, route);
+                created.incrementAndGet();
+                startEvictor();
+                log.info("创建数据源连接池: {} ({}), 最大连接数 {}", entity.getName(), dataSourceId,
+                        ((HikariDataSource) route.dataSource).getMaximumPoolSize());
+            }
+            route.retain();
+        } finally {
+            lock.unlock();
+        }
+        return route;
+    }
+
+    private void release(Route route) {
+        if (route == null || route.id == null) {
+            return;
+        }
+        boolean closeNow;
+        lock.lock();
+        try {
+            route.lastUsed = System.currentTimeMillis();
+            closeNow = route.users.decrementAndGet() == 0 && route.retired;
+        } finally {
+            lock.unlock();
+        }
+        if (closeNow) {
+            route.close();
+        }
+    }
+
+    private void restore(Route previous) {
+        if (previous != null) {
+            CURRENT_ROUTE.set(previous);
+        } else {
+            CURRENT_ROUTE.remove();
+        }
+    }
+
+    private Route createRoute(ConnectionEntity entity) {
+        // 打开连接前重新校验，库中已有的旧记录同样受白名单约束；驱动只由数据库类型决定
+        DatabaseConfig.DatabaseType type = JdbcUrlValidator.validate(entity.getDbType(), entity.getUrl());
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("route-" + entity.getName());
+        config.setJdbcUrl(entity.getUrl());
+        config.setUsername(entity.getUsername());
+        config.setPassword(dataSourcePasswordCipher.decrypt(entity.getPassword()));
+        config.setDriverClassName(type.getDriverClassName());
+        config.setMaximumPoolSize(entity.getMaxPoolSize() != null && entity.getMaxPoolSize() > 0
+                ? entity.getMaxPoolSize() : Math.max(1, defaultMaxPoolSize));
+        config.setMinimumIdle(0);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setInitializationFailTimeout(-1);
+        try {
+            HikariDataSource pool = new HikariDataSource(config);
+            return new Route(entity.getId(), entity.getName(), type, pool, new JdbcTemplate(pool));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("创建数据源连接池失败: " + entity.getName() + " - " + e.getMessage(), e);
+        }
+    }
+
+    private Route getDefaultRoute() {
+        Route current = defaultRoute;
+        if (current == null) {
+            current = new Route(null, "default", databaseConfig.getType(), dataSource, jdbcTemplate);
+            defaultRoute = current;
+        }
+        return current;
+    }
+
+    private void startEvictor() {
+        if (evictor != null) {
+            return;
+        }
+        // 调用方已持有lock
+        ScheduledExecutorService current = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datasource-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, evictionIntervalSeconds);
+        current.scheduleWithFixedDelay(() -> {
+            try {
+                evictIdle();
+            } catch (Exception e) {
+                log.warn("回收空闲数据源连接池失败: {}", e.getMessage());
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+        evictor = current;
+    }
+
+    /**
+     * 一个数据源的连接池与数据库类型
+     */
+    public static class Route {
+        private final Long id;
+        private final String name;
+        private final DatabaseConfig.DatabaseType databaseType;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final AtomicInteger users = new AtomicInteger();
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile boolean retired;
+        private volatile TransactionTemplate transactionTemplate;
+
+        /**
+         * 表名目录及其代数，由 TableCatalogCache 按路由维护，连接池关闭时随之丢弃
+         */
+        final AtomicReference<TableCatalogCache.Catalog> tableCatalog = new AtomicReference<>(TableCatalogCache.Catalog.EMPTY);
+
+        /**
+         * 加载本路由的表名目录时持有，不同数据源的目录查询互不阻塞
+         */
+        final ReentrantLock catalogLock = new ReentrantLock();
+
+        Route(Long id, String name, DatabaseConfig.DatabaseType databaseType, DataSource dataSource, JdbcTemplate jdbcTemplate) {
+            this.id = id;
+            this.name = name;
+            this.databaseType = databaseType;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        /**
+         * 数据源ID，主数据源为null
+         */
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DatabaseConfig.DatabaseType getDatabaseType() {
+            return databaseType;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public JdbcTemplate getJdbcTemplate() {
+            return jdbcTemplate;
+        }
+
+        /**
+         * 绑定到本路由连接池的事务模板。@Transactional 使用的是主数据源的事务管理器，
+         * 路由到其他数据源的操作需要通过该模板开启事务，事务内的 JdbcTemplate 操作使用同一个连接
+         */
+        public TransactionTemplate getTransactionTemplate() {
+            TransactionTemplate current = transactionTemplate;
+            if (current == null) {
+                // 事务管理器无状态，并发时重复创建也无妨
+                current = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+                transactionTemplate = current;
+            }
+            return current;
+        }
+
+        private void retain() {
+            users.incrementAndGet();
+            lastUsed = System.currentTimeMillis();
+        }
+
+        private int activeConnections() {
+            if (dataSource instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null) {
+                return hikari.getHikariPoolMXBean().getActiveConnections();
+            }
+            return 0;
+        }
+
+        private void close() {
+            if (dataSource instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        }
+    }
+}
@@ -1,28 +1,54 @@
 package cn.com.traninfo.fastlcdp.erdesigner.service;
 
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlEmissionModeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
 import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import cn.com.traninfo.fastlcdp.erdesigner.model.IndexDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.RelationDefinition;
 import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.util.SchemaCopyUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * 数据库执行服务
- * 负责连接数据库并执行SQL语句
+ * 负责连接数据库并执行SQL语句，目标数据库由 DataSourceRouter 按当前线程绑定的数据源决定。
+ * 事务通过当前路由的事务模板开启，而不是 @Transactional：后者只管理主数据源的连接
  */
 @Slf4j
 @Service
 public class DatabaseExecutorService {
     
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private SqlGeneratorService sqlGeneratorService;
     
     @Autowired
-    private SqlGeneratorService sqlGeneratorService;
+    private DdlBatchExecutor ddlBatchExecutor;
+    
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+    
+    @Autowired
+    private DdlScheduler ddlScheduler;
+    
+    @Autowired
+    private TableCatalogCache tableCatalogCache;
+    
+    /**
+     * 是否按依赖层次在多个连接上并发建表
+     */
+    @Value("${ddl.scheduler.enabled:false}")
+    private boolean schedulerEnabled;
     
     /**
      * 创建数据库模式
@@ -30,21 +56,18 @@ public class DatabaseExecutorService {
      * @param schema 数据库模式定义
      * @return 执行结果
      */
-    @Transactional
     public boolean createDatabaseSchema(DatabaseSchema schema) {
         try {
             log.info("开始创建数据库模式: {}", schema.getName());
             
-            // 生成并执行创建数据库的SQL
-            if (schema.getName() != null && !schema.getName().isEmpty()) {
-                String createDbSql = sqlGeneratorService.generateCreateDatabaseSql(schema);
-                log.debug("执行创建数据库SQL: {}", createDbSql);
-                jdbcTemplate.execute(createDbSql);
-            }
-            
-            // 创建所有表
-            for (TableDefinition table : schema.getTables()) {
-                createTable(table);
+            // 创建所有表；调度器在各自的连接上并发执行，不在外层事务中
+            if (schedulerEnabled) {
+                List<DdlStatement> statements = new ArrayList<>();
+                addCreateDatabaseStatement(schema, statements);
+                executeStatements(statements);
+                ddlScheduler.createTables(schema.getTables());
+            } else {
+                executeStatements(buildSchemaStatements(schema, null));
             }
             
             log.info("数据库模式创建完成: {}", schema.getName());
@@ -62,7 +85,6 @@ public class DatabaseExecutorService {
      * @param table 表定义
      * @return 执行结果
      */
-    @Transactional
     public boolean createTable(TableDefinition table) {
         try {
             log.info("开始创建表: {}", table.getName());
@@ -70,7 +92,8 @@ public class DatabaseExecutorService {
             String createTableSql = sqlGeneratorService.generateCreateTableSql(table);
             log.debug("执行创建表SQL: {}", createTableSql);
             
-            jdbcTemplate.execute(createTableSql);
+            // 经批量执行引擎执行，语句结果以DDL事件发布
+            executeStatements(List.of(new DdlStatement(DdlStatementTypeEnum.CREATE_TABLE, table.getName(), createTableSql)));
             
             log.info("表创建完成: {}", table.getName());
             return true;
@@ -87,13 +110,14 @@ public class DatabaseExecutorService {
      * @param tables 表定义列表
      * @return 执行结果
      */
-    @Transactional
     public boolean createTables(List<TableDefinition> tables) {
         try {
             log.info("开始批量创建 {} 个表", tables.size());
             
-            for (TableDefinition table : tables) {
-                createTable(table);
+            if (schedulerEnabled) {
+                ddlScheduler.createTables(tables);
+            } else {
+                executeStatements(buildCreateTableStatements(tables));
             }
             
             log.info("批量创建表完成");
@@ -105,6 +129,89 @@ public class DatabaseExecutorService {
         }
     }
     
+    /**
+     * 以JDBC批处理执行DDL语句
+     * 
+     * @param statements 按执行顺序排列的语句
+     * @return 执行报告，包含逐条结果和耗时
+     */
+    public DdlBatchExecutor.ExecutionReport executeStatements(List<DdlStatement> statements) {
+        return inTransaction(() -> {
+            DdlBatchExecutor.ExecutionReport report = ddlBatchExecutor.execute(statements,
+                    DatabaseDialectFactory.createDialect(dataSourceRouter.currentType()));
+            if (!report.isSuccess()) {
+                throw new RuntimeException("执行DDL失败: " + report.getFailedStatement().getTarget() + " - " + report.getErrorMessage());
+            }
+            return report;
+        });
+    }
+    
+    /**
+     * 按执行顺序生成创建整个模式的DDL语句（建库、建表，两阶段模式下还有索引和外键），不执行
+     * 
+     * @param schema 数据库模式定义
+     * @param onTableGenerated 每张表的建表语句生成后回调，可为null
+     * @return 语句列表
+     */
+    public List<DdlStatement> buildSchemaStatements(DatabaseSchema schema, Consumer<TableDefinition> onTableGenerated) {
+        List<DdlStatement> statements = new ArrayList<>(schema.getTables().size() + 1);
+        addCreateDatabaseStatement(schema, statements);
+        statements.addAll(buildCreateTableStatements(schema.getTables(), onTableGenerated));
+        return statements;
+    }
+    
+    private void addCreateDatabaseStatement(DatabaseSchema schema, List<DdlStatement> statements) {
+        // 创建数据库的SQL
+        if (schema.getName() != null && !schema.getName().isEmpty()) {
+            statements.add(new DdlStatement(DdlStatementTypeEnum.CREATE_DATABASE, schema.getName(),
+                    sqlGeneratorService.generateCreateDatabaseSql(schema)));
+        }
+    }
+    
+    private List<DdlStatement> buildCreateTableStatements(List<TableDefinition> tables) {
+        return buildCreateTableStatements(tables, null);
+    }
+    
+    private List<DdlStatement> buildCreateTableStatements(List<TableDefinition> tables, Consumer<TableDefinition> onTableGenerated) {
+        List<DdlStatement> statements = new ArrayList<>(tables.size());
+        if (sqlGeneratorService.getEmissionMode() != DdlEmissionModeEnum.TWO_PHASE) {
+            for (TableDefinition table : tables) {
+                statements.add(new DdlStatement(DdlStatementTypeEnum.CREATE_TABLE, table.getName(),
+                        sqlGeneratorService.generateCreateTableSql(table)));
+                if (onTableGenerated != null) {
+                    onTableGenerated.accept(table);
+                }
+            }
+            return statements;
+        }
+        
+        // 两阶段：先建所有表，再建索引，最后添加外键，表之间的引用顺序不再影响执行
+        for (TableDefinition table : tables) {
+            statements.add(new DdlStatement(DdlStatementTypeEnum.CREATE_TABLE, table.getName(),
+                    sqlGeneratorService.generateCreateTableSql(SchemaCopyUtils.withoutConstraints(table))));
+            if (onTableGenerated != null) {
+                onTableGenerated.accept(table);
+            }
+        }
+        for (TableDefinition table : tables) {
+            if (table.getIndexes() != null) {
+                for (IndexDefinition index : table.getIndexes()) {
+                    statements.add(new DdlStatement(DdlStatementTypeEnum.CREATE_INDEX, table.getName() + "." + index.getName(),
+                            sqlGeneratorService.generateCreateIndexSql(table.getName(), index)));
+                }
+            }
+        }
+        for (TableDefinition table : tables) {
+            if (table.getRelations() != null) {
+                for (RelationDefinition relation : table.getRelations()) {
+                    statements.add(new DdlStatement(DdlStatementTypeEnum.ADD_FOREIGN_KEY, table.getName() + "." + relation.getName(),
+                            sqlGeneratorService.generateAddForeignKeySql(table.getName(), relation)));
+                }
+            }
+        }
+        return statements;
+    }
+    
     /**
      * 检查表是否存在
      * 
@@ -113,9 +220,8 @@ public class DatabaseExecutorService {
      */
     public boolean tableExists(String tableName) {
         try {
-            String sql = "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = ? AND table_schema = DATABASE()";
-            Integer count = jdbcTemplate.queryForObject(sql, Integer.class, tableName);
-            return count != null && count > 0;
+            // 首次检查时一次取回全部表名，之后只查缓存
+            return tableCatalogCache.exists(tableName);
         } catch (Exception e) {
             log.warn("检查表是否存在时发生异常: {}", tableName, e);
             return false;
@@ -128,13 +234,17 @@ public class DatabaseExecutorService {
      * @param tableName 表名
      * @return 执行结果
      */
-    @Transactional
     public boolean dropTable(String tableName) {
         try {
             log.info("开始删除表: {}", tableName);
             
-            String dropSql = "DROP TABLE IF EXISTS `" + tableName + "`";
-            jdbcTemplate.execute(dropSql);
+            // 按当前路由数据源的方言生成，标识符由方言转义
+            String dropSql = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType()).generateDropTableSql(tableName);
+            inTransaction(() -> {
+                dataSourceRouter.current().getJdbcTemplate().execute(dropSql);
+                return null;
+            });
+            tableCatalogCache.invalidate();
             
             log.info("表删除完成: {}", tableName);
             return true;
@@ -151,11 +261,14 @@ public class DatabaseExecutorService {
      * @param sql SQL语句
      * @return 执行结果
      */
-    @Transactional
     public boolean executeSql(String sql) {
         try {
             log.debug("执行自定义SQL: {}", sql);
-            jdbcTemplate.execute(sql);
+            inTransaction(() -> {
+                dataSourceRouter.current().getJdbcTemplate().execute(sql);
+                return null;
+            });
+            tableCatalogCache.invalidate();
             return true;
         } catch (Exception e) {
             log.error("执行SQL失败: {}", sql, e);
@@ -163,6 +276,13 @@ public class DatabaseExecutorService {
         }
     }
     
+    /**
+     * 在当前路由数据源的事务中执行，抛出异常时回滚
+     */
+    private <T> T inTransaction(Supplier<T> action) {
+        return dataSourceRouter.current().getTransactionTemplate().execute(status -> action.get());
+    }
+    
     /**
      * 获取数据库连接信息
      * 
@@ -170,9 +290,10 @@ public class DatabaseExecutorService {
      */
     public String getDatabaseInfo() {
         try {
-            String version = jdbcTemplate.queryForObject("SELECT VERSION()", String.class);
-            String database = jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
-            return String.format("数据库版本: %s, 当前数据库: %s", version, database);
+            JdbcTemplate jdbcTemplate = dataSourceRouter.current().getJdbcTemplate();
+            String infoSql = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType()).generateDatabaseInfoSql();
+            return jdbcTemplate.queryForObject(infoSql, (rs, rowNum) ->
+                    String.format("数据库版本: %s, 当前数据库: %s", rs.getString(1), rs.getString(2)));
         } catch (Exception e) {
             log.warn("获取数据库信息失败", e);
             return "无法获取数据库信息";
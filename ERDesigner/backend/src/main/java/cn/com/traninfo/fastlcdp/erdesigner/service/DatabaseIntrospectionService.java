@@ -0,0 +1,432 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.enums.IndexSortOrderEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.IndexTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.RelationActionEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.IndexColumnDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.IndexDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.RelationDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.util.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 数据库反向工程服务
+ * 通过JDBC DatabaseMetaData把现有数据库读回 DatabaseSchema，适用于所有支持的数据库。
+ * 表和字段按模式一次性批量读取；主键、索引和外键的元数据接口只能按表查询，
+ * 这部分把表分组后在多个连接上并发读取
+ */
+@Slf4j
+@Service
+public class DatabaseIntrospectionService {
+
+    private static final String[] TABLE_TYPES = {"TABLE"};
+
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+
+    /**
+     * 并发读取按表元数据的连接数，1表示在同一连接上顺序读取
+     */
+    @Value("${database.introspection.parallelism:4}")
+    private int parallelism = 4;
+
+    /**
+     * 虚拟线程模式下以虚拟线程执行，线程池大小仍是并发连接数上限
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile ExecutorService executor;
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 读取当前连接默认catalog/schema下的所有表
+     */
+    public DatabaseSchema introspect() {
+        return introspect(null, null);
+    }
+
+    /**
+     * 读取指定catalog/schema下的所有表
+     *
+     * @param catalog catalog名称，为空时使用连接的当前catalog
+     * @param schemaName schema名称，为空时使用连接的当前schema
+     * @return 模式定义
+     */
+    public DatabaseSchema introspect(String catalog, String schemaName) {
+        long start = System.nanoTime();
+        DatabaseSchema schema = new DatabaseSchema();
+        Map<String, TableDefinition> tables;
+        String effectiveCatalog;
+        String effectiveSchema;
+        // 按表读取的并发连接同样取自当前数据源
+        DataSource dataSource = dataSourceRouter.current().getDataSource();
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            effectiveCatalog = StringUtils.hasText(catalog) ? catalog : connection.getCatalog();
+            effectiveSchema = StringUtils.hasText(schemaName) ? normalizeIdentifier(metaData, schemaName) : currentSchema(connection);
+            schema.setName(effectiveSchema != null ? effectiveSchema : effectiveCatalog);
+
+            tables = readTables(metaData, effectiveCatalog, effectiveSchema);
+            readColumns(metaData, effectiveCatalog, effectiveSchema, tables);
+        } catch (SQLException e) {
+            throw new RuntimeException("读取数据库元数据失败: " + e.getMessage(), e);
+        }
+
+        readPerTableMetadata(dataSource, effectiveCatalog, effectiveSchema, new ArrayList<>(tables.values()));
+        schema.setTables(new ArrayList<>(tables.values()));
+
+        log.info("数据库反向工程完成: {}, {} 张表, 耗时 {} ms", schema.getName(), tables.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return schema;
+    }
+
+    /**
+     * 检查当前schema下是否存在指定表，按数据库的标识符大小写规则匹配
+     */
+    public boolean tableExists(String tableName) {
+        try (Connection connection = dataSourceRouter.current().getDataSource().getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet resultSet = metaData.getTables(connection.getCatalog(), currentSchema(connection),
+                    normalizeIdentifier(metaData, tableName), TABLE_TYPES)) {
+                return resultSet.next();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("读取数据库元数据失败: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<String, TableDefinition> readTables(DatabaseMetaData metaData, String catalog, String schemaName) throws SQLException {
+        Map<String, TableDefinition> tables = new LinkedHashMap<>();
+        try (ResultSet resultSet = metaData.getTables(catalog, schemaName, "%", TABLE_TYPES)) {
+            while (resultSet.next()) {
+                TableDefinition table = new TableDefinition();
+                table.setName(resultSet.getString("TABLE_NAME"));
+                table.setComment(emptyToNull(resultSet.getString("REMARKS")));
+                tables.put(table.getName(), table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * 一次调用读取整个schema的字段，按表名分配
+     */
+    private void readColumns(DatabaseMetaData metaData, String catalog, String schemaName,
+                             Map<String, TableDefinition> tables) throws SQLException {
+        try (ResultSet resultSet = metaData.getColumns(catalog, schemaName, "%", "%")) {
+            while (resultSet.next()) {
+                TableDefinition table = tables.get(resultSet.getString("TABLE_NAME"));
+                if (table == null) {
+                    // 视图等非表对象
+                    continue;
+                }
+                FieldDefinition field = new FieldDefinition();
+                field.setName(resultSet.getString("COLUMN_NAME"));
+                applyColumnType(field, resultSet.getInt("DATA_TYPE"), resultSet.getString("TYPE_NAME"),
+                        resultSet.getInt("COLUMN_SIZE"), resultSet.getInt("DECIMAL_DIGITS"));
+                field.setNullable(resultSet.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls);
+                field.setDefaultValue(emptyToNull(resultSet.getString("COLUMN_DEF")));
+                field.setComment(emptyToNull(resultSet.getString("REMARKS")));
+                if ("YES".equalsIgnoreCase(resultSet.getString("IS_AUTOINCREMENT"))) {
+                    field.setPrimaryKey(PrimaryKeyTypeEnum.AUTO_INCREMENT);
+                }
+                table.getFields().add(field);
+            }
+        }
+    }
+
+    /**
+     * 主键、索引、外键只能按表查询：表按轮转分组，每组在独立连接上读取
+     */
+    private void readPerTableMetadata(DataSource dataSource, String catalog, String schemaName, List<TableDefinition> tables) {
+        if (tables.isEmpty()) {
+            return;
+        }
+        int groupCount = Math.max(1, Math.min(parallelism, tables.size()));
+        List<List<TableDefinition>> groups = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (int i = 0; i < tables.size(); i++) {
+            groups.get(i % groupCount).add(tables.get(i));
+        }
+
+        if (groupCount == 1) {
+            readGroup(dataSource, catalog, schemaName, groups.get(0));
+            return;
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(groupCount);
+        for (List<TableDefinition> group : groups) {
+            futures.add(CompletableFuture.runAsync(() -> readGroup(dataSource, catalog, schemaName, group), getExecutor()));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("读取数据库元数据失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void readGroup(DataSource dataSource, String catalog, String schemaName, List<TableDefinition> tables) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (TableDefinition table : tables) {
+                String primaryKeyName = readPrimaryKey(metaData, catalog, schemaName, table);
+                readIndexes(metaData, catalog, schemaName, table, primaryKeyName);
+                readForeignKeys(metaData, catalog, schemaName, table);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return 主键约束名，没有主键时为null
+     */
+    private String readPrimaryKey(DatabaseMetaData metaData, String catalog, String schemaName,
+                                  TableDefinition table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        String primaryKeyName = null;
+        try (ResultSet resultSet = metaData.getPrimaryKeys(catalog, schemaName, table.getName())) {
+            while (resultSet.next()) {
+                columns.add(resultSet.getString("COLUMN_NAME"));
+                primaryKeyName = resultSet.getString("PK_NAME");
+            }
+        }
+        PrimaryKeyTypeEnum keyType = columns.size() > 1 ? PrimaryKeyTypeEnum.COMPOSITE : PrimaryKeyTypeEnum.SINGLE;
+        for (FieldDefinition field : table.getFields()) {
+            if (columns.contains(field.getName())) {
+                field.setNullable(false);
+                if (field.getPrimaryKey() != PrimaryKeyTypeEnum.AUTO_INCREMENT) {
+                    field.setPrimaryKey(keyType);
+                }
+            } else if (field.getPrimaryKey() == PrimaryKeyTypeEnum.AUTO_INCREMENT) {
+                // 非主键的自增列（如SQL Server的IDENTITY）模型中无法表达
+                field.setPrimaryKey(PrimaryKeyTypeEnum.NONE);
+            }
+        }
+        return primaryKeyName;
+    }
+
+    private void readIndexes(DatabaseMetaData metaData, String catalog, String schemaName,
+                             TableDefinition table, String primaryKeyName) throws SQLException {
+        Map<String, IndexDefinition> indexes = new LinkedHashMap<>();
+        try (ResultSet resultSet = metaData.getIndexInfo(catalog, schemaName, table.getName(), false, true)) {
+            while (resultSet.next()) {
+                String indexName = resultSet.getString("INDEX_NAME");
+                if (indexName == null || resultSet.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic
+                        || indexName.equals(primaryKeyName) || "PRIMARY".equalsIgnoreCase(indexName)) {
+                    continue;
+                }
+                boolean nonUnique = resultSet.getBoolean("NON_UNIQUE");
+                IndexDefinition index = indexes.computeIfAbsent(indexName, name -> {
+                    IndexDefinition definition = new IndexDefinition();
+                    definition.setName(name);
+                    definition.setType(nonUnique ? IndexTypeEnum.NORMAL : IndexTypeEnum.UNIQUE);
+                    return definition;
+                });
+                IndexColumnDefinition column = new IndexColumnDefinition();
+                column.setName(resultSet.getString("COLUMN_NAME"));
+                column.setOrder("D".equals(resultSet.getString("ASC_OR_DESC")) ? IndexSortOrderEnum.DESC : IndexSortOrderEnum.ASC);
+                index.getColumns().add(column);
+            }
+        }
+        table.getIndexes().addAll(indexes.values());
+    }
+
+    private void readForeignKeys(DatabaseMetaData metaData, String catalog, String schemaName,
+                                 TableDefinition table) throws SQLException {
+        Map<String, RelationDefinition> relations = new LinkedHashMap<>();
+        try (ResultSet resultSet = metaData.getImportedKeys(catalog, schemaName, table.getName())) {
+            while (resultSet.next()) {
+                String column = resultSet.getString("FKCOLUMN_NAME");
+                String name = resultSet.getString("FK_NAME");
+                String key = name != null ? name : column;
+                if (relations.containsKey(key)) {
+                    // 模型中的外键只有单列，复合外键只保留第一列
+                    continue;
+                }
+                RelationDefinition relation = new RelationDefinition();
+                relation.setName(name);
+                relation.setColumn(column);
+                relation.setReferenceTable(resultSet.getString("PKTABLE_NAME"));
+                relation.setReferenceColumn(resultSet.getString("PKCOLUMN_NAME"));
+                relation.setOnUpdate(toRelationAction(resultSet.getShort("UPDATE_RULE")));
+                relation.setOnDelete(toRelationAction(resultSet.getShort("DELETE_RULE")));
+                relations.put(key, relation);
+            }
+        }
+        table.getRelations().addAll(relations.values());
+    }
+
+    /**
+     * JDBC类型映射为模型中的通用字段类型
+     */
+    private void applyColumnType(FieldDefinition field, int dataType, String typeName, int columnSize, int decimalDigits) {
+        switch (dataType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                field.setType("BOOLEAN");
+                break;
+            case Types.TINYINT:
+                field.setType("TINYINT");
+                break;
+            case Types.SMALLINT:
+                field.setType("SMALLINT");
+                break;
+            case Types.INTEGER:
+                field.setType("INT");
+                break;
+            case Types.BIGINT:
+                field.setType("LONG");
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                field.setType("DECIMAL");
+                field.setPrecision(columnSize);
+                field.setScale(decimalDigits);
+                break;
+            case Types.REAL:
+            case Types.FLOAT:
+                field.setType("FLOAT");
+                break;
+            case Types.DOUBLE:
+                field.setType("DOUBLE");
+                break;
+            case Types.CHAR:
+            case Types.NCHAR:
+                field.setType("CHAR");
+                field.setLength(columnSize);
+                break;
+            case Types.VARCHAR:
+            case Types.NVARCHAR:
+                field.setType("STRING");
+                field.setLength(columnSize);
+                break;
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                field.setType("TEXT");
+                break;
+            case Types.DATE:
+                field.setType("DATE");
+                break;
+            case Types.TIME:
+            case Types.TIME_WITH_TIMEZONE:
+                field.setType("TIME");
+                break;
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                field.setType("TIMESTAMP");
+                break;
+            case Types.BINARY:
+            case Types.VARBINARY:
+                field.setType("BINARY");
+                field.setLength(columnSize);
+                break;
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                field.setType("BLOB");
+                break;
+            default:
+                if (typeName != null && typeName.toUpperCase().startsWith("JSON")) {
+                    field.setType("JSON");
+                } else {
+                    field.setType(typeName != null ? typeName.toUpperCase() : "STRING");
+                }
+                break;
+        }
+    }
+
+    private RelationActionEnum toRelationAction(short rule) {
+        switch (rule) {
+            case DatabaseMetaData.importedKeyCascade:
+                return RelationActionEnum.CASCADE;
+            case DatabaseMetaData.importedKeySetNull:
+                return RelationActionEnum.SET_NULL;
+            case DatabaseMetaData.importedKeyNoAction:
+                return RelationActionEnum.NO_ACTION;
+            default:
+                return RelationActionEnum.RESTRICT;
+        }
+    }
+
+    /**
+     * 按数据库保存未加引号标识符的大小写规则转换名称
+     */
+    private String normalizeIdentifier(DatabaseMetaData metaData, String identifier) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return identifier.toUpperCase();
+        }
+        if (metaData.storesLowerCaseIdentifiers()) {
+            return identifier.toLowerCase();
+        }
+        return identifier;
+    }
+
+    private String currentSchema(Connection connection) {
+        try {
+            return connection.getSchema();
+        } catch (SQLException | AbstractMethodError e) {
+            // 旧驱动未实现JDBC 4.1的getSchema
+            return null;
+        }
+    }
+
+    private String emptyToNull(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+
+    private ExecutorService getExecutor() {
+        ExecutorService current = executor;
+        if (current == null) {
+            lock.lock();
+            try {
+                current = executor;
+                if (current == null) {
+                    current = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                            WorkerThreads.factory("db-introspection", virtualThreads));
+                    executor = current;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+}
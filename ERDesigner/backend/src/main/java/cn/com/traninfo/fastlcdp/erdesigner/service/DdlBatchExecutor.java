@@ -0,0 +1,222 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.stereotype.Service;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DDL批量执行引擎
+ * 方言支持时把连续的可批处理语句合并为JDBC批次，一个批次一次往返；
+ * 不支持批处理的方言或语句逐条执行。遇到第一条失败的语句即停止，并在报告中给出逐条结果和耗时；
+ * 每条语句的结果同时发布到 DdlEventBus
+ */
+@Slf4j
+@Service
+public class DdlBatchExecutor {
+
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+
+    @Autowired
+    private TableCatalogCache tableCatalogCache;
+
+    @Autowired
+    private DdlEventBus ddlEventBus;
+
+    @Value("${ddl.batch-size:200}")
+    private int batchSize = 200;
+
+    /**
+     * 在当前数据源的当前事务（或新获取）的连接上执行DDL语句
+     *
+     * @param statements 按执行顺序排列的语句
+     * @param dialect 目标数据库方言
+     * @return 执行报告
+     */
+    public ExecutionReport execute(List<DdlStatement> statements, DatabaseDialect dialect) {
+        try {
+            return dataSourceRouter.current().getJdbcTemplate().execute((ConnectionCallback<ExecutionReport>) connection -> execute(connection, statements, dialect));
+        } finally {
+            // 即使部分失败，已执行的语句也可能改变了表结构
+            tableCatalogCache.invalidate();
+        }
+    }
+
+    /**
+     * 在指定连接上执行DDL语句，连接由调用方管理
+     */
+    public ExecutionReport execute(Connection connection, List<DdlStatement> statements, DatabaseDialect dialect) throws SQLException {
+        ExecutionReport report = new ExecutionReport();
+        long start = System.nanoTime();
+        boolean batchSupported = dialect.supportsBatchDdl();
+
+        try (Statement jdbcStatement = connection.createStatement()) {
+            List<DdlStatement> pending = new ArrayList<>();
+            for (DdlStatement statement : statements) {
+                if (batchSupported && statement.getType().isBatchable()) {
+                    pending.add(statement);
+                    if (pending.size() >= batchSize) {
+                        executeBatch(jdbcStatement, pending, report);
+                        pending.clear();
+                    }
+                } else {
+                    if (!pending.isEmpty()) {
+                        executeBatch(jdbcStatement, pending, report);
+                        pending.clear();
+                    }
+                    if (report.isSuccess()) {
+                        executeSingle(jdbcStatement, statement, report);
+                    }
+                }
+                if (!report.isSuccess()) {
+                    break;
+                }
+            }
+            if (!pending.isEmpty() && report.isSuccess()) {
+                executeBatch(jdbcStatement, pending, report);
+            }
+        }
+
+        report.elapsedNanos = System.nanoTime() - start;
+        log.info("DDL执行完成: {} 条语句, {} 次往返, 耗时 {} ms, 结果: {}",
+                report.results.size(), report.roundTrips, report.elapsedNanos / 1_000_000, report.isSuccess() ? "成功" : "失败");
+        return report;
+    }
+
+    private void executeBatch(Statement jdbcStatement, List<DdlStatement> batch, ExecutionReport report) throws SQLException {
+        if (batch.size() == 1) {
+            executeSingle(jdbcStatement, batch.get(0), report);
+            return;
+        }
+
+        int batchNumber = ++report.batchCount;
+        long start = System.nanoTime();
+        for (DdlStatement statement : batch) {
+            jdbcStatement.addBatch(statement.getSql());
+        }
+        try {
+            int[] updateCounts = jdbcStatement.executeBatch();
+            long elapsed = System.nanoTime() - start;
+            report.roundTrips++;
+            for (int i = 0; i < batch.size(); i++) {
+                int updateCount = i < updateCounts.length ? updateCounts[i] : Statement.SUCCESS_NO_INFO;
+                record(report, new StatementResult(batch.get(i), true, updateCount, elapsed / batch.size(), batchNumber, null));
+            }
+        } catch (BatchUpdateException e) {
+            long elapsed = System.nanoTime() - start;
+            report.roundTrips++;
+            jdbcStatement.clearBatch();
+
+            // 驱动要么在第一条失败处停止（计数数组较短），要么继续执行并用EXECUTE_FAILED标记失败项
+            int[] updateCounts = e.getUpdateCounts() != null ? e.getUpdateCounts() : new int[0];
+            boolean failureRecorded = false;
+            for (int i = 0; i < batch.size(); i++) {
+                DdlStatement statement = batch.get(i);
+                if (i < updateCounts.length && updateCounts[i] != Statement.EXECUTE_FAILED) {
+                    record(report, new StatementResult(statement, true, updateCounts[i], elapsed / batch.size(), batchNumber, null));
+                } else if (i < updateCounts.length || !failureRecorded) {
+                    record(report, new StatementResult(statement, false, Statement.EXECUTE_FAILED, elapsed / batch.size(), batchNumber, e.getMessage()));
+                    report.fail(statement, e.getMessage());
+                    failureRecorded = true;
+                }
+                // 驱动停止后的语句未执行，不记录结果
+            }
+            log.error("DDL批次 {} 执行失败: {}", batchNumber, e.getMessage());
+        }
+    }
+
+    private void executeSingle(Statement jdbcStatement, DdlStatement statement, ExecutionReport report) {
+        long start = System.nanoTime();
+        try {
+            log.debug("执行DDL: {}", statement.getSql());
+            jdbcStatement.execute(statement.getSql());
+            report.roundTrips++;
+            record(report, new StatementResult(statement, true, jdbcStatement.getUpdateCount(), System.nanoTime() - start, 0, null));
+        } catch (SQLException e) {
+            report.roundTrips++;
+            record(report, new StatementResult(statement, false, Statement.EXECUTE_FAILED, System.nanoTime() - start, 0, e.getMessage()));
+            report.fail(statement, e.getMessage());
+            log.error("DDL执行失败: {} - {}", statement.getTarget(), e.getMessage());
+        }
+    }
+
+    private void record(ExecutionReport report, StatementResult result) {
+        report.add(result);
+        ddlEventBus.publishStatement(result.getStatement(), result.isSuccess(), result.getUpdateCount(),
+                result.getElapsedNanos(), result.getBatchNumber(), result.getErrorMessage());
+    }
+
+    /**
+     * 单条语句执行结果
+     */
+    @Getter
+    public static class StatementResult {
+        private final DdlStatement statement;
+        private final boolean success;
+        private final int updateCount;
+        /**
+         * 耗时（纳秒），批处理中为批次耗时的平均值
+         */
+        private final long elapsedNanos;
+        /**
+         * 所属批次序号，0表示单独执行
+         */
+        private final int batchNumber;
+        private final String errorMessage;
+
+        public StatementResult(DdlStatement statement, boolean success, int updateCount, long elapsedNanos,
+                               int batchNumber, String errorMessage) {
+            this.statement = statement;
+            this.success = success;
+            this.updateCount = updateCount;
+            this.elapsedNanos = elapsedNanos;
+            this.batchNumber = batchNumber;
+            this.errorMessage = errorMessage;
+        }
+    }
+
+    /**
+     * 执行报告
+     */
+    @Getter
+    public static class ExecutionReport {
+        private final List<StatementResult> results = new ArrayList<>();
+        private int roundTrips;
+        private int batchCount;
+        private long elapsedNanos;
+        private DdlStatement failedStatement;
+        private String errorMessage;
+
+        public boolean isSuccess() {
+            return failedStatement == null;
+        }
+
+        public List<StatementResult> getResults() {
+            return Collections.unmodifiableList(results);
+        }
+
+        private void add(StatementResult result) {
+            results.add(result);
+        }
+
+        private void fail(DdlStatement statement, String message) {
+            if (failedStatement == null) {
+                failedStatement = statement;
+                errorMessage = message;
+            }
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlEventTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlEvent;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import cn.com.traninfo.fastlcdp.erdesigner.util.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * DDL执行事件总线（进程内）
+ * 执行线程只把事件放入各订阅方的无锁有界队列，队列满时丢弃并计数，从不等待；
+ * 没有订阅方时只创建执行结束事件。分发线程按固定间隔为每个SSE连接提交一次批量发送，
+ * 发送在各连接自己的发送任务上进行，上一批未发完时跳过，客户端慢或断开只影响自身连接，不影响DDL执行。
+ * 最近结束的执行保留结束事件，执行结束后才订阅的客户端立即收到该事件并关闭连接
+ */
+@Slf4j
+@Component
+public class DdlEventBus {
+
+    private static final ThreadLocal<Execution> CURRENT_EXECUTION = new ThreadLocal<>();
+
+    /**
+     * 每个订阅方最多缓存的事件数
+     */
+    @Value("${ddl.events.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    /**
+     * SSE分发间隔（毫秒）
+     */
+    @Value("${ddl.events.dispatch-interval-ms:100}")
+    private long dispatchIntervalMs = 100;
+
+    /**
+     * SSE连接超时（毫秒）
+     */
+    @Value("${ddl.events.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs = 1800000;
+
+    /**
+     * 保留结束事件的最近执行数
+     */
+    @Value("${ddl.events.finished-retention:1000}")
+    private int finishedRetention = 1000;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * 最近结束的执行的结束事件，按结束顺序淘汰，读写都持有 lock
+     */
+    private final Map<String, DdlEvent> finishedExecutions = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DdlEvent> eldest) {
+            return size() > finishedRetention;
+        }
+    };
+
+    private volatile ScheduledExecutorService dispatcher;
+
+    private volatile ExecutorService sender;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+        if (sender != null) {
+            sender.shutdownNow();
+        }
+    }
+
+    /**
+     * 在一次DDL执行中运行，期间本线程（及经 propagate 包装的任务）执行的语句都带上该执行ID
+     *
+     * @param executionId 执行ID，为空时自动生成
+     * @param action 执行内容
+     * @return 执行结果
+     */
+    public <T> T runInExecution(String executionId, Supplier<T> action) {
+        Execution execution = new Execution(executionId != null && !executionId.isBlank()
+                ? executionId : UUID.randomUUID().toString());
+        Execution previous = CURRENT_EXECUTION.get();
+        CURRENT_EXECUTION.set(execution);
+        if (!subscriptions.isEmpty()) {
+            dispatch(new DdlEvent(execution.id, sequence.incrementAndGet(), DdlEventTypeEnum.EXECUTION_STARTED,
+                    null, null, true, 0, 0, 0, 0, 0, null, System.currentTimeMillis()));
+        }
+        try {
+            T result = action.get();
+            publishFinished(execution, null);
+            return result;
+        } catch (RuntimeException e) {
+            publishFinished(execution, e.getMessage());
+            throw e;
+        } finally {
+            if (previous != null) {
+                CURRENT_EXECUTION.set(previous);
+            } else {
+                CURRENT_EXECUTION.remove();
+            }
+        }
+    }
+
+    /**
+     * 当前线程所在的执行ID，不在执行中时返回null
+     */
+    public String currentExecutionId() {
+        Execution execution = CURRENT_EXECUTION.get();
+        return execution != null ? execution.id : null;
+    }
+
+    /**
+     * 把当前执行上下文带到其他线程上运行的任务中
+     *
+     * @param task 任务
+     * @return 包装后的任务，不在执行中时原样返回
+     */
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        Execution execution = CURRENT_EXECUTION.get();
+        if (execution == null) {
+            return task;
+        }
+        return () -> {
+            Execution previous = CURRENT_EXECUTION.get();
+            CURRENT_EXECUTION.set(execution);
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    CURRENT_EXECUTION.set(previous);
+                } else {
+                    CURRENT_EXECUTION.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * 发布单条语句的执行结果，由执行线程调用，不阻塞
+     *
+     * @param statement 语句
+     * @param success 是否成功
+     * @param updateCount JDBC更新计数
+     * @param elapsedNanos 耗时（纳秒）
+     * @param batchNumber 批次序号，0表示单独执行
+     * @param errorMessage 错误信息
+     */
+    public void publishStatement(DdlStatement statement, boolean success, int updateCount, long elapsedNanos,
+                                 int batchNumber, String errorMessage) {
+        Execution execution = CURRENT_EXECUTION.get();
+        if (execution != null) {
+            execution.statements.incrementAndGet();
+            if (!success) {
+                execution.failed.incrementAndGet();
+            }
+            if (updateCount > 0) {
+                execution.updateCount.addAndGet(updateCount);
+            }
+        }
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        dispatch(new DdlEvent(execution != null ? execution.id : null, sequence.incrementAndGet(),
+                DdlEventTypeEnum.STATEMENT, statement.getTarget(), statement.getType(), success, updateCount,
+                elapsedNanos / 1_000, batchNumber, 0, 0, errorMessage, System.currentTimeMillis()));
+    }
+
+    /**
+     * 订阅事件，由调用方自行取出并在不再需要时关闭
+     * 指定的执行已结束且结束事件仍在保留期内时，订阅中只有该结束事件
+     *
+     * @param executionId 只接收该执行的事件，为null时接收全部
+     * @return 订阅
+     */
+    public Subscription subscribe(String executionId) {
+        Subscription subscription = new Subscription(executionId);
+        // 与 publishFinished 互斥，结束事件或经分发、或经回放进入队列，恰好一次
+        lock.lock();
+        try {
+            subscriptions.add(subscription);
+            DdlEvent finished = executionId != null ? finishedExecutions.get(executionId) : null;
+            if (finished != null) {
+                subscription.offer(finished);
+                subscription.finished = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return subscription;
+    }
+
+    /**
+     * 以SSE订阅事件，指定执行ID时在该执行结束后关闭连接；该执行已结束时立即推送结束事件并关闭
+     *
+     * @param executionId 执行ID，为null时推送全部执行的事件
+     * @return SSE发送器
+     */
+    public SseEmitter stream(String executionId) {
+        return stream(executionId, new SseEmitter(streamTimeoutMs));
+    }
+
+    SseEmitter stream(String executionId, SseEmitter emitter) {
+        Subscription subscription = subscribe(executionId);
+        EmitterStream stream = new EmitterStream(subscription, emitter);
+        if (subscription.finished) {
+            // 处理方法返回前的发送由 SseEmitter 缓存，不会阻塞请求线程
+            stream.drain();
+            return emitter;
+        }
+        emitter.onCompletion(stream::stop);
+        emitter.onTimeout(stream::stop);
+        emitter.onError(error -> stream.stop());
+        stream.future = getDispatcher().scheduleWithFixedDelay(stream, 0, dispatchIntervalMs, TimeUnit.MILLISECONDS);
+        return emitter;
+    }
+
+    /**
+     * 事件总线统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("subscribers", subscriptions.size());
+        statistics.put("published", sequence.get());
+        statistics.put("dropped", dropped.get());
+        lock.lock();
+        try {
+            statistics.put("retainedExecutions", finishedExecutions.size());
+        } finally {
+            lock.unlock();
+        }
+        return statistics;
+    }
+
+    /**
+     * 结束事件总是创建，供执行结束后才订阅的客户端回放
+     */
+    private void publishFinished(Execution execution, String errorMessage) {
+        int failed = execution.failed.get();
+        DdlEvent event = new DdlEvent(execution.id, sequence.incrementAndGet(), DdlEventTypeEnum.EXECUTION_FINISHED,
+                null, null, errorMessage == null && failed == 0, execution.updateCount.get(),
+                (System.nanoTime() - execution.startNanos) / 1_000, 0, execution.statements.get(), failed,
+                errorMessage, System.currentTimeMillis());
+        lock.lock();
+        try {
+            finishedExecutions.put(execution.id, event);
+            dispatch(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch(DdlEvent event) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    private ScheduledExecutorService getDispatcher() {
+        ScheduledExecutorService current = dispatcher;
+        if (current == null) {
+            lock.lock();
+            try {
+                current = dispatcher;
+                if (current == null) {
+                    current = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "ddl-event-dispatch");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    dispatcher = current;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private ExecutorService getSender() {
+        ExecutorService current = sender;
+        if (current == null) {
+            lock.lock();
+            try {
+                current = sender;
+                if (current == null) {
+                    current = Executors.newCachedThreadPool(WorkerThreads.factory("ddl-event-send", virtualThreads));
+                    sender = current;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 执行上下文，调度器的并发连接共享同一实例
+     */
+    private static class Execution {
+        private final String id;
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger statements = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicLong updateCount = new AtomicLong();
+
+        private Execution(String id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * 事件订阅，发布方只做无锁入队，队列满时丢弃
+     */
+    public class Subscription {
+        private final String executionId;
+        private final Queue<DdlEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicLong droppedCount = new AtomicLong();
+        private volatile boolean finished;
+
+        private Subscription(String executionId) {
+            this.executionId = executionId;
+        }
+
+        private void offer(DdlEvent event) {
+            if (executionId != null && !executionId.equals(event.getExecutionId())) {
+                return;
+            }
+            if (size.incrementAndGet() > queueCapacity) {
+                size.decrementAndGet();
+                droppedCount.incrementAndGet();
+                dropped.incrementAndGet();
+                return;
+            }
+            queue.offer(event);
+        }
+
+        /**
+         * 取出下一个事件，没有时返回null
+         */
+        public DdlEvent poll() {
+            DdlEvent event = queue.poll();
+            if (event != null) {
+                size.decrementAndGet();
+            }
+            return event;
+        }
+
+        /**
+         * 取出并清零自上次调用以来丢弃的事件数
+         */
+        public long takeDropped() {
+            return droppedCount.getAndSet(0);
+        }
+
+        /**
+         * 取消订阅
+         */
+        public void close() {
+            subscriptions.remove(this);
+        }
+    }
+
+    /**
+     * 单个SSE连接的事件推送，分发线程定时触发，发送在该连接自己的发送任务上进行
+     */
+    private class EmitterStream implements Runnable {
+        private final Subscription subscription;
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean stopped;
+
+        private EmitterStream(Subscription subscription, SseEmitter emitter) {
+            this.subscription = subscription;
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void run() {
+            if (stopped) {
+                stop();
+                return;
+            }
+            // 上一批仍在发送（客户端慢）时跳过本次，事件留在有界队列中
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                getSender().execute(() -> {
+                    try {
+                        drain();
+                    } finally {
+                        draining.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                stop();
+            }
+        }
+
+        private void drain() {
+            try {
+                long droppedEvents = subscription.takeDropped();
+                if (droppedEvents > 0) {
+                    emitter.send(SseEmitter.event().name("dropped").data(Map.of("count", droppedEvents)));
+                }
+                DdlEvent event;
+                while ((event = subscription.poll()) != null) {
+                    emitter.send(SseEmitter.event().id(String.valueOf(event.getSequence()))
+                            .name(event.getType().getEventName()).data(event));
+                    if (subscription.executionId != null && event.getType() == DdlEventTypeEnum.EXECUTION_FINISHED) {
+                        emitter.complete();
+                        stop();
+                        return;
+                    }
+                }
+            } catch (Exception e) {
+                // 客户端断开
+                log.debug("DDL事件推送结束: {}", e.getMessage());
+                stop();
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+            subscription.close();
+            ScheduledFuture<?> current = future;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+}
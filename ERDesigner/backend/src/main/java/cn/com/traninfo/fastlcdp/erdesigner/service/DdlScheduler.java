@@ -0,0 +1,348 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlEmissionModeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import cn.com.traninfo.fastlcdp.erdesigner.model.IndexDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.RelationDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.util.SchemaCopyUtils;
+import cn.com.traninfo.fastlcdp.erdesigner.util.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DDL调度器
+ * 根据外键引用表（referenceTable）和继承父表（extendsTable）构建依赖图，按层并发建表：
+ * 同一层的表互不依赖，分组后在多个连接上并行批量执行，总耗时取决于依赖图深度而非表数量。
+ * 无法按顺序满足的循环外键从建表语句中剥离，所有表建完后以 ALTER TABLE ADD CONSTRAINT 补齐。
+ * 两阶段输出模式下依次为：按继承分层建表、建索引、添加全部外键
+ */
+@Slf4j
+@Service
+public class DdlScheduler {
+
+    @Autowired
+    private DdlBatchExecutor ddlBatchExecutor;
+
+    @Autowired
+    private SqlGeneratorService sqlGeneratorService;
+
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+
+    @Autowired
+    private DdlEventBus ddlEventBus;
+
+    /**
+     * 并发建表使用的连接（线程）数
+     */
+    @Value("${ddl.scheduler.parallelism:4}")
+    private int parallelism = 4;
+
+    /**
+     * 虚拟线程模式下以虚拟线程执行，线程池大小仍是并发连接数上限
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile ExecutorService executor;
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 按依赖层次并发创建表
+     *
+     * @param tables 表定义
+     * @return 执行计划与统计
+     */
+    public SchedulePlan createTables(List<TableDefinition> tables) {
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType());
+        // 两阶段模式下外键全部在建表之后添加，只有继承关系决定建表顺序
+        boolean twoPhase = sqlGeneratorService.getEmissionMode() == DdlEmissionModeEnum.TWO_PHASE;
+        SchedulePlan plan = plan(tables, twoPhase);
+        long start = System.nanoTime();
+
+        for (int level = 0; level < plan.levels.size(); level++) {
+            List<TableDefinition> levelTables = plan.levels.get(level);
+            int groups = executeInGroups(buildCreateStatements(levelTables, plan, twoPhase), dialect,
+                    "第 " + (level + 1) + " 层建表失败: ");
+            log.debug("第 {} 层建表完成: {} 张表, {} 组", level + 1, levelTables.size(), groups);
+        }
+
+        // 两阶段模式下建表语句不含索引，所有表建完后统一建索引；不同表的索引互不依赖，同样分组并发
+        if (twoPhase) {
+            List<DdlStatement> indexes = buildCreateIndexStatements(tables);
+            if (!indexes.isEmpty()) {
+                executeInGroups(indexes, dialect, "创建索引失败: ");
+            }
+        }
+
+        // 最后补齐被推迟的外键
+        if (!plan.deferredRelations.isEmpty()) {
+            List<DdlStatement> foreignKeys = new ArrayList<>();
+            for (Map.Entry<String, List<RelationDefinition>> entry : plan.deferredRelations.entrySet()) {
+                for (RelationDefinition relation : entry.getValue()) {
+                    foreignKeys.add(new DdlStatement(DdlStatementTypeEnum.ADD_FOREIGN_KEY, entry.getKey(),
+                            dialect.generateAddForeignKeySql(entry.getKey(), relation)));
+                }
+            }
+            DdlBatchExecutor.ExecutionReport report = ddlBatchExecutor.execute(foreignKeys, dialect);
+            if (!report.isSuccess()) {
+                throw new RuntimeException("添加外键失败: " + report.getFailedStatement().getTarget() + " - " + report.getErrorMessage());
+            }
+        }
+
+        log.info("按依赖调度建表完成: {} 张表, {} 层, 推迟外键 {} 个, 耗时 {} ms", tables.size(), plan.levels.size(),
+                plan.getDeferredRelationCount(), (System.nanoTime() - start) / 1_000_000);
+        return plan;
+    }
+
+    /**
+     * 把互不依赖的语句分组，在当前数据源的多个连接上并发执行，任一组失败即抛出异常
+     *
+     * @return 实际分组数
+     */
+    private int executeInGroups(List<DdlStatement> statements, DatabaseDialect dialect, String failurePrefix) {
+        List<List<DdlStatement>> groups = splitIntoGroups(statements, parallelism);
+        List<CompletableFuture<DdlBatchExecutor.ExecutionReport>> futures = new ArrayList<>();
+        for (List<DdlStatement> group : groups) {
+            // 每组在当前数据源的独立连接上执行，事件仍归属当前执行
+            futures.add(CompletableFuture.supplyAsync(dataSourceRouter.propagate(
+                    ddlEventBus.propagate(() -> ddlBatchExecutor.execute(group, dialect))), getExecutor()));
+        }
+        for (CompletableFuture<DdlBatchExecutor.ExecutionReport> future : futures) {
+            DdlBatchExecutor.ExecutionReport report;
+            try {
+                report = future.join();
+            } catch (CompletionException e) {
+                throw new RuntimeException(failurePrefix + e.getCause().getMessage(), e.getCause());
+            }
+            if (!report.isSuccess()) {
+                throw new RuntimeException(failurePrefix
+                        + report.getFailedStatement().getTarget() + " - " + report.getErrorMessage());
+            }
+        }
+        return groups.size();
+    }
+
+    /**
+     * 构建执行计划：按依赖分层，并找出需要推迟的循环外键
+     *
+     * @param tables 表定义
+     * @return 执行计划
+     */
+    public SchedulePlan plan(List<TableDefinition> tables) {
+        return plan(tables, false);
+    }
+
+    /**
+     * 构建执行计划
+     *
+     * @param tables 表定义
+     * @param deferAllForeignKeys 是否把所有外键推迟到建表之后
+     * @return 执行计划
+     */
+    public SchedulePlan plan(List<TableDefinition> tables, boolean deferAllForeignKeys) {
+        Map<String, TableDefinition> tableMap = new LinkedHashMap<>();
+        for (TableDefinition table : tables) {
+            tableMap.put(table.getName(), table);
+        }
+
+        // 表 -> 依赖的表（只统计本次要创建的表，自引用不构成依赖）
+        Map<String, Set<String>> dependencies = new HashMap<>();
+        SchedulePlan plan = new SchedulePlan();
+        for (TableDefinition table : tables) {
+            Set<String> required = new HashSet<>();
+            String parent = table.getExtendsTable();
+            if (parent != null && tableMap.containsKey(parent) && !parent.equals(table.getName())) {
+                required.add(parent);
+            }
+            if (table.getRelations() != null && !table.getRelations().isEmpty()) {
+                if (deferAllForeignKeys) {
+                    plan.deferredRelations.put(table.getName(), new ArrayList<>(table.getRelations()));
+                } else {
+                    for (RelationDefinition relation : table.getRelations()) {
+                        String referenced = relation.getReferenceTable();
+                        if (referenced != null && tableMap.containsKey(referenced) && !referenced.equals(table.getName())) {
+                            required.add(referenced);
+                        }
+                    }
+                }
+            }
+            dependencies.put(table.getName(), required);
+        }
+
+        Set<String> created = new HashSet<>();
+        while (created.size() < tableMap.size()) {
+            List<TableDefinition> level = new ArrayList<>();
+            for (TableDefinition table : tableMap.values()) {
+                if (!created.contains(table.getName()) && created.containsAll(dependencies.get(table.getName()))) {
+                    level.add(table);
+                }
+            }
+            if (level.isEmpty()) {
+                breakCycle(tableMap, created, dependencies, plan);
+                continue;
+            }
+            for (TableDefinition table : level) {
+                created.add(table.getName());
+            }
+            plan.levels.add(level);
+        }
+        return plan;
+    }
+
+    /**
+     * 剩余的表互相依赖时，选声明顺序最靠前且带有外键依赖的表，把它指向未创建表的外键推迟到最后
+     */
+    private void breakCycle(Map<String, TableDefinition> tableMap, Set<String> created,
+                            Map<String, Set<String>> dependencies, SchedulePlan plan) {
+        for (TableDefinition table : tableMap.values()) {
+            if (created.contains(table.getName()) || table.getRelations() == null) {
+                continue;
+            }
+            List<RelationDefinition> alreadyDeferred = plan.deferredRelations.getOrDefault(table.getName(), List.of());
+            List<RelationDefinition> deferred = new ArrayList<>();
+            for (RelationDefinition relation : table.getRelations()) {
+                String referenced = relation.getReferenceTable();
+                if (referenced != null && tableMap.containsKey(referenced) && !referenced.equals(table.getName())
+                        && !created.contains(referenced) && !alreadyDeferred.contains(relation)) {
+                    deferred.add(relation);
+                }
+            }
+            if (deferred.isEmpty()) {
+                continue;
+            }
+            plan.deferredRelations.computeIfAbsent(table.getName(), key -> new ArrayList<>()).addAll(deferred);
+            Set<String> required = dependencies.get(table.getName());
+            for (RelationDefinition relation : deferred) {
+                required.remove(relation.getReferenceTable());
+            }
+            // 继承父表仍是硬依赖
+            String parent = table.getExtendsTable();
+            if (parent != null && tableMap.containsKey(parent) && !parent.equals(table.getName())) {
+                required.add(parent);
+            }
+            log.warn("检测到循环外键，推迟表 '{}' 的 {} 个外键到建表之后添加", table.getName(), deferred.size());
+            return;
+        }
+        throw new IllegalStateException("无法解析的表依赖（继承关系存在循环）");
+    }
+
+    private List<DdlStatement> buildCreateStatements(List<TableDefinition> tables, SchedulePlan plan, boolean twoPhase) {
+        List<DdlStatement> statements = new ArrayList<>(tables.size());
+        for (TableDefinition table : tables) {
+            TableDefinition target = table;
+            List<RelationDefinition> deferred = plan.deferredRelations.get(table.getName());
+            if (twoPhase) {
+                // 两阶段：建表语句不含索引和外键（MySQL的内联索引也去掉），不修改原始定义
+                target = SchemaCopyUtils.withoutConstraints(table);
+            } else if (deferred != null) {
+                // 建表语句中去掉推迟的外键，不修改原始定义
+                target = SchemaCopyUtils.copy(table);
+                target.getRelations().removeIf(relation -> deferred.stream()
+                        .anyMatch(item -> isSameRelation(item, relation)));
+            }
+            statements.add(new DdlStatement(DdlStatementTypeEnum.CREATE_TABLE, table.getName(),
+                    sqlGeneratorService.generateCreateTableSql(target)));
+        }
+        return statements;
+    }
+
+    private List<DdlStatement> buildCreateIndexStatements(List<TableDefinition> tables) {
+        List<DdlStatement> statements = new ArrayList<>();
+        for (TableDefinition table : tables) {
+            if (table.getIndexes() == null) {
+                continue;
+            }
+            for (IndexDefinition index : table.getIndexes()) {
+                statements.add(new DdlStatement(DdlStatementTypeEnum.CREATE_INDEX, table.getName() + "." + index.getName(),
+                        sqlGeneratorService.generateCreateIndexSql(table.getName(), index)));
+            }
+        }
+        return statements;
+    }
+
+    private boolean isSameRelation(RelationDefinition left, RelationDefinition right) {
+        return Objects.equals(left.getName(), right.getName())
+                && Objects.equals(left.getColumn(), right.getColumn())
+                && Objects.equals(left.getReferenceTable(), right.getReferenceTable());
+    }
+
+    private List<List<DdlStatement>> splitIntoGroups(List<DdlStatement> statements, int groupCount) {
+        int groups = Math.max(1, Math.min(groupCount, statements.size()));
+        List<List<DdlStatement>> result = new ArrayList<>(groups);
+        for (int i = 0; i < groups; i++) {
+            result.add(new ArrayList<>());
+        }
+        for (int i = 0; i < statements.size(); i++) {
+            result.get(i % groups).add(statements.get(i));
+        }
+        return result;
+    }
+
+    private ExecutorService getExecutor() {
+        ExecutorService current = executor;
+        if (current == null) {
+            lock.lock();
+            try {
+                current = executor;
+                if (current == null) {
+                    current = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                            WorkerThreads.factory("ddl-scheduler", virtualThreads));
+                    executor = current;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 执行计划
+     */
+    @Getter
+    public static class SchedulePlan {
+        /**
+         * 按层排列的表，同层的表可以并发创建
+         */
+        private final List<List<TableDefinition>> levels = new ArrayList<>();
+        /**
+         * 表名 -> 建表后再添加的外键
+         */
+        private final Map<String, List<RelationDefinition>> deferredRelations = new LinkedHashMap<>();
+
+        public int getDeferredRelationCount() {
+            return deferredRelations.values().stream().mapToInt(List::size).sum();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import cn.com.traninfo.fastlcdp.erdesigner.entity.MetadataEntity;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.IndexTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.mapper.MetadataMapper;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.IndexDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.RelationDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.repository.MetadataRepository;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 元数据迁移服务
+ * 将旧的单表 metadata 存储一次性迁移到规范化的元数据仓库。
+ * 元数据的读写都已经由元数据仓库承担，旧表只作为迁移来源
+ */
+@Slf4j
+@Service
+public class MetadataMigrationService {
+
+    private static final String LEGACY_METADATA_TABLE = "metadata";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseConfig databaseConfig;
+
+    @Autowired
+    private MetadataMapper metadataMapper;
+
+    @Autowired
+    private MetadataRepository metadataRepository;
+
+    /**
+     * 迁移旧元数据
+     * 已存在于元数据仓库中的模式会被跳过，重复执行是安全的
+     *
+     * @return 本次迁移的模式名列表
+     */
+    public List<String> migrateLegacyMetadata() {
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(databaseConfig.getType());
+        createStoreTablesIfMissing(dialect);
+
+        List<String> migrated = new ArrayList<>();
+        if (!tableExists(dialect, LEGACY_METADATA_TABLE)) {
+            log.info("旧元数据表不存在，无需迁移");
+            return migrated;
+        }
+
+        List<String> schemaNames = jdbcTemplate.queryForList(
+                "SELECT DISTINCT schema_name FROM " + LEGACY_METADATA_TABLE, String.class);
+        for (String schemaName : schemaNames) {
+            if (metadataRepository.schemaExists(schemaName)) {
+                log.info("模式已迁移，跳过: {}", schemaName);
+                continue;
+            }
+            // 直接通过 Mapper 读取旧行，只有未删除的行参与迁移
+            List<MetadataEntity> rows = metadataMapper.selectList(new QueryWrapper<MetadataEntity>()
+                    .eq("schema_name", schemaName)
+                    .orderByAsc("id"));
+            if (rows.isEmpty()) {
+                continue;
+            }
+            DatabaseSchema schema = convertLegacyRows(schemaName, rows);
+            metadataRepository.saveSchema(schema);
+            migrated.add(schemaName);
+        }
+
+        log.info("元数据迁移完成，共迁移 {} 个模式", migrated.size());
+        return migrated;
+    }
+
+    /**
+     * 创建缺失的元数据仓库表
+     */
+    public void createStoreTablesIfMissing(DatabaseDialect dialect) {
+        for (TableDefinition table : metadataRepository.getStoreTableDefinitions()) {
+            if (tableExists(dialect, table.getName())) {
+                continue;
+            }
+            log.info("创建元数据仓库表: {}", table.getName());
+            jdbcTemplate.execute(dialect.generateCreateTableSql(table));
+            for (IndexDefinition index : table.getIndexes()) {
+                jdbcTemplate.execute(dialect.generateCreateIndexSql(table.getName(), index));
+            }
+        }
+    }
+
+    /**
+     * 将旧元数据行转换为模式定义
+     * 按表名分组（保持表首次出现的顺序）
+     */
+    private DatabaseSchema convertLegacyRows(String schemaName, List<MetadataEntity> rows) {
+        Map<String, List<MetadataEntity>> rowsByTable = new LinkedHashMap<>();
+        for (MetadataEntity row : rows) {
+            rowsByTable.computeIfAbsent(row.getTableName(), k -> new ArrayList<>()).add(row);
+        }
+
+        List<TableDefinition> tables = new ArrayList<>(rowsByTable.size());
+        for (Map.Entry<String, List<MetadataEntity>> entry : rowsByTable.entrySet()) {
+            tables.add(convertLegacyTable(entry.getKey(), entry.getValue()));
+        }
+
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName(schemaName);
+        schema.setTables(tables);
+        return schema;
+    }
+
+    /**
+     * 将同一张表的旧元数据行转换为表定义
+     * 行类型由非空列区分：relation_type 或 reference_table → 关系（未命名的关系只有引用表），
+     * index_name → 索引，field_name → 字段，其余为表本身
+     */
+    private TableDefinition convertLegacyTable(String tableName, List<MetadataEntity> rows) {
+        TableDefinition table = new TableDefinition();
+        table.setName(tableName);
+
+        List<FieldDefinition> fields = new ArrayList<>();
+        List<IndexDefinition> indexes = new ArrayList<>();
+        List<RelationDefinition> relations = new ArrayList<>();
+
+        for (MetadataEntity row : rows) {
+            if (row.getRelationType() != null || row.getReferenceTable() != null) {
+                RelationDefinition relation = new RelationDefinition();
+                relation.setColumn(row.getFieldName());
+                relation.setName(row.getRelationType());
+                relation.setReferenceTable(row.getReferenceTable());
+                relation.setReferenceColumn(row.getReferenceField());
+                relations.add(relation);
+            } else if (row.getIndexName() != null) {
+                IndexDefinition index = new IndexDefinition();
+                index.setName(row.getIndexName());
+                index.setType(row.getIndexType() != null ? IndexTypeEnum.valueOf(row.getIndexType()) : null);
+                index.setComment(row.getComment());
+                indexes.add(index);
+            } else if (row.getFieldName() != null) {
+                FieldDefinition field = new FieldDefinition();
+                field.setName(row.getFieldName());
+                field.setType(row.getFieldType());
+                field.setLength(row.getFieldLength());
+                field.setScale(row.getFieldScale());
+                field.setNullable(row.getIsNullable());
+                field.setPrimaryKey(row.getPrimaryKeyType() != null
+                        ? PrimaryKeyTypeEnum.valueOf(row.getPrimaryKeyType()) : PrimaryKeyTypeEnum.NONE);
+                field.setDefaultValue(row.getDefaultValue());
+                field.setComment(row.getComment());
+                fields.add(field);
+            } else if (StringUtils.hasText(row.getComment()) && table.getComment() == null) {
+                table.setComment(row.getComment());
+            }
+        }
+
+        table.setFields(fields);
+        table.setIndexes(indexes);
+        table.setRelations(relations);
+        return table;
+    }
+
+    private boolean tableExists(DatabaseDialect dialect, String tableName) {
+        try {
+            Integer count = jdbcTemplate.queryForObject(dialect.generateTableExistsSql(tableName), Integer.class);
+            return count != null && count > 0;
+        } catch (Exception e) {
+            log.warn("检查表是否存在时发生异常: {}", tableName, e);
+            return false;
+        }
+    }
+}
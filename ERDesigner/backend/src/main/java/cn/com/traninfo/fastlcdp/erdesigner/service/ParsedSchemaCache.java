@@ -0,0 +1,178 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.util.SchemaCopyUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 已解析模式缓存
+ * 以XML字节的SHA-256摘要为键，缓存完成继承与主键处理后的 DatabaseSchema；
+ * 按XML字节数计重量，超过容量时按最近最少使用淘汰。存取均为深拷贝，调用方修改不会污染缓存
+ */
+@Slf4j
+@Component
+public class ParsedSchemaCache {
+
+    private final boolean enabled;
+
+    private final long maxBytes;
+
+    private final int maxEntries;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long currentBytes;
+
+    /**
+     * 保护 entries 与 currentBytes，临界区内只做内存操作，深拷贝在锁外进行
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ParsedSchemaCache(@Value("${xml.cache.enabled:true}") boolean enabled,
+                             @Value("${xml.cache.max-bytes:67108864}") long maxBytes,
+                             @Value("${xml.cache.max-entries:128}") int maxEntries) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 计算XML内容摘要
+     */
+    public String digest(byte[] xmlBytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(xmlBytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 查询缓存，命中时返回副本
+     */
+    public DatabaseSchema get(String key) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return SchemaCopyUtils.copy(entry.schema);
+    }
+
+    /**
+     * 放入缓存，缓存保存的是副本
+     *
+     * @param key 内容摘要
+     * @param schema 已处理的模式定义
+     * @param weight XML字节数
+     */
+    public void put(String key, DatabaseSchema schema, long weight) {
+        if (weight > maxBytes) {
+            log.debug("XML过大，不进入缓存: {} bytes", weight);
+            return;
+        }
+        Entry entry = new Entry(SchemaCopyUtils.copy(schema), weight);
+        lock.lock();
+        try {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                currentBytes -= previous.weight;
+            }
+            currentBytes += weight;
+
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while ((currentBytes > maxBytes || entries.size() > maxEntries) && iterator.hasNext()) {
+                Map.Entry<String, Entry> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                currentBytes -= eldest.getValue().weight;
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            currentBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        lock.lock();
+        try {
+            statistics.put("entries", entries.size());
+            statistics.put("bytes", currentBytes);
+        } finally {
+            lock.unlock();
+        }
+        statistics.put("enabled", enabled);
+        statistics.put("maxBytes", maxBytes);
+        statistics.put("hits", hits.get());
+        statistics.put("misses", misses.get());
+        statistics.put("evictions", evictions.get());
+        return statistics;
+    }
+
+    private static final class Entry {
+        private final DatabaseSchema schema;
+        private final long weight;
+
+        private Entry(DatabaseSchema schema, long weight) {
+            this.schema = schema;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.MySQLDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.IndexDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.RelationDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.util.SchemaCopyUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 模式差异服务
+ * 比较当前模式与目标模式，只为发生变化的字段、索引和外键生成 ALTER 语句，
+ * 迁移耗时取决于变更数量而不是表的规模。
+ * 对象按名称（不区分大小写）匹配，定义是否变化以目标方言渲染出的SQL判断；字段改名会表现为删除加新增。
+ * 未命名的外键无法按名称删除，定义发生变化时拒绝生成迁移
+ */
+@Slf4j
+@Service
+public class SchemaDiffService {
+
+    @Autowired
+    private MetadataService metadataService;
+
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+
+    /**
+     * 以已保存的元数据为当前模式，生成迁移到目标模式的语句；未保存过的模式视为空模式
+     *
+     * @param target 目标模式
+     * @param databaseType 数据库类型，为空时使用当前数据源的数据库类型
+     * @return 按执行顺序排列的语句
+     */
+    public List<DdlStatement> diffAgainstStored(DatabaseSchema target, String databaseType) {
+        if (target == null || !StringUtils.hasText(target.getName())) {
+            throw new IllegalArgumentException("Schema name cannot be null or empty");
+        }
+        DatabaseSchema current = metadataService.getSchemaDefinition(target.getName());
+        if (current == null) {
+            current = new DatabaseSchema();
+            current.setName(target.getName());
+        }
+        DatabaseConfig.DatabaseType dbType = dataSourceRouter.currentType();
+        if (StringUtils.hasText(databaseType)) {
+            try {
+                dbType = DatabaseConfig.DatabaseType.valueOf(databaseType.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("不支持的数据库类型: " + databaseType);
+            }
+        }
+        return diff(current, target, DatabaseDialectFactory.createDialect(dbType));
+    }
+
+    /**
+     * 使用当前数据源的数据库方言比较两个模式
+     */
+    public List<DdlStatement> diff(DatabaseSchema current, DatabaseSchema target) {
+        return diff(current, target, DatabaseDialectFactory.createDialect(dataSourceRouter.currentType()));
+    }
+
+    /**
+     * 比较两个模式，生成从 current 迁移到 target 的语句
+     * 执行顺序：删除外键、删除索引、删除表、建表、增改删字段、建索引、添加外键；
+     * 被删除的表之间按引用关系排序，引用方先删除
+     *
+     * @param current 当前模式
+     * @param target 目标模式
+     * @param dialect 目标数据库方言
+     * @return 按执行顺序排列的语句，没有差异时为空列表
+     */
+    public List<DdlStatement> diff(DatabaseSchema current, DatabaseSchema target, DatabaseDialect dialect) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target schema cannot be null");
+        }
+        Map<String, TableDefinition> currentTables = byName(current != null ? current.getTables() : null, TableDefinition::getName);
+        Map<String, TableDefinition> targetTables = byName(target.getTables(), TableDefinition::getName);
+
+        List<DdlStatement> dropForeignKeys = new ArrayList<>();
+        List<DdlStatement> dropIndexes = new ArrayList<>();
+        List<DdlStatement> dropTables = new ArrayList<>();
+        List<DdlStatement> createTables = new ArrayList<>();
+        List<DdlStatement> alterColumns = new ArrayList<>();
+        List<DdlStatement> createIndexes = new ArrayList<>();
+        List<DdlStatement> addForeignKeys = new ArrayList<>();
+
+        diffDroppedTables(currentTables, targetTables, dialect, dropForeignKeys, dropTables);
+
+        for (TableDefinition targetTable : targetTables.values()) {
+            TableDefinition currentTable = currentTables.get(key(targetTable.getName()));
+            String tableName = targetTable.getName();
+
+            if (currentTable == null) {
+                // 新表不带约束创建，索引和外键与其他变更一起在后面添加
+                TableDefinition bareTable = SchemaCopyUtils.withoutConstraints(targetTable);
+                String createSql = dialect instanceof MySQLDialect mysqlDialect
+                        ? mysqlDialect.generateCreateTableSql(bareTable, target)
+                        : dialect.generateCreateTableSql(bareTable);
+                createTables.add(new DdlStatement(DdlStatementTypeEnum.CREATE_TABLE, tableName, createSql));
+                diffIndexes(tableName, null, targetTable, dialect, dropIndexes, createIndexes);
+                diffForeignKeys(tableName, null, targetTable, dialect, dropForeignKeys, addForeignKeys);
+                continue;
+            }
+
+            diffColumns(tableName, currentTable, targetTable, dialect, alterColumns);
+            diffIndexes(tableName, currentTable, targetTable, dialect, dropIndexes, createIndexes);
+            diffForeignKeys(tableName, currentTable, targetTable, dialect, dropForeignKeys, addForeignKeys);
+        }
+
+        List<DdlStatement> statements = new ArrayList<>();
+        statements.addAll(dropForeignKeys);
+        statements.addAll(dropIndexes);
+        statements.addAll(dropTables);
+        statements.addAll(createTables);
+        statements.addAll(alterColumns);
+        statements.addAll(createIndexes);
+        statements.addAll(addForeignKeys);
+
+        log.info("模式差异比较完成: {}, 共 {} 条语句（新建表 {}, 删除表 {}, 字段变更 {}, 索引变更 {}, 外键变更 {}）",
+                target.getName(), statements.size(), createTables.size(), dropTables.size(), alterColumns.size(),
+                dropIndexes.size() + createIndexes.size(), dropForeignKeys.size() + addForeignKeys.size());
+        return statements;
+    }
+
+    /**
+     * 将语句拼接为迁移脚本
+     */
+    public String toSql(List<DdlStatement> statements) {
+        StringBuilder sql = new StringBuilder();
+        for (DdlStatement statement : statements) {
+            sql.append(statement.getSql()).append(";\n");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * 删除目标模式中不存在的表：被其他待删除表引用的表排在引用方之后；
+     * 互相引用的表先删除它们之间的外键，再按原顺序删除
+     */
+    private void diffDroppedTables(Map<String, TableDefinition> currentTables, Map<String, TableDefinition> targetTables,
+                                   DatabaseDialect dialect, List<DdlStatement> dropForeignKeys, List<DdlStatement> dropTables) {
+        Map<String, TableDefinition> dropped = new LinkedHashMap<>();
+        for (Map.Entry<String, TableDefinition> entry : currentTables.entrySet()) {
+            if (!targetTables.containsKey(entry.getKey())) {
+                dropped.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // 每张待删除表被多少张其他待删除表引用
+        Map<String, Integer> referencedBy = new HashMap<>();
+        for (Map.Entry<String, TableDefinition> entry : dropped.entrySet()) {
+            for (String referenced : droppedReferences(entry.getKey(), entry.getValue(), dropped)) {
+                referencedBy.merge(referenced, 1, Integer::sum);
+            }
+        }
+        Deque<String> ready = new ArrayDeque<>();
+        for (String name : dropped.keySet()) {
+            if (!referencedBy.containsKey(name)) {
+                ready.add(name);
+            }
+        }
+        Set<String> remaining = new LinkedHashSet<>(dropped.keySet());
+        while (!ready.isEmpty()) {
+            String name = ready.poll();
+            remaining.remove(name);
+            String tableName = dropped.get(name).getName();
+            dropTables.add(new DdlStatement(DdlStatementTypeEnum.DROP_TABLE, tableName, dialect.generateDropTableSql(tableName)));
+            for (String referenced : droppedReferences(name, dropped.get(name), dropped)) {
+                if (referencedBy.merge(referenced, -1, Integer::sum) == 0) {
+                    ready.add(referenced);
+                }
+            }
+        }
+
+        // 剩下的表存在循环引用
+        for (String name : remaining) {
+            TableDefinition table = dropped.get(name);
+            if (table.getRelations() == null) {
+                continue;
+            }
+            for (RelationDefinition relation : table.getRelations()) {
+                String referenced = key(relation.getReferenceTable());
+                if (referenced.equals(name) || !remaining.contains(referenced)) {
+                    continue;
+                }
+                if (!StringUtils.hasText(relation.getName())) {
+                    throw new IllegalArgumentException("待删除的表 '" + table.getName() + "' 与 '" + relation.getReferenceTable()
+                            + "' 循环引用，且外键 (" + relation.getColumn() + ") 未命名，无法先删除外键");
+                }
+                dropForeignKeys.add(new DdlStatement(DdlStatementTypeEnum.DROP_FOREIGN_KEY, table.getName() + "." + relation.getName(),
+                        dialect.generateDropForeignKeySql(table.getName(), relation.getName())));
+            }
+        }
+        for (String name : remaining) {
+            String tableName = dropped.get(name).getName();
+            dropTables.add(new DdlStatement(DdlStatementTypeEnum.DROP_TABLE, tableName, dialect.generateDropTableSql(tableName)));
+        }
+    }
+
+    /**
+     * 表引用的其他待删除表，不含自身
+     */
+    private Set<String> droppedReferences(String name, TableDefinition table, Map<String, TableDefinition> dropped) {
+        Set<String> references = new LinkedHashSet<>();
+        if (table.getRelations() != null) {
+            for (RelationDefinition relation : table.getRelations()) {
+                String referenced = key(relation.getReferenceTable());
+                if (!referenced.equals(name) && dropped.containsKey(referenced)) {
+                    references.add(referenced);
+                }
+            }
+        }
+        return references;
+    }
+
+    private void diffColumns(String tableName, TableDefinition currentTable, TableDefinition targetTable,
+                             DatabaseDialect dialect, List<DdlStatement> statements) {
+        Map<String, FieldDefinition> currentFields = byName(currentTable.getFields(), FieldDefinition::getName);
+        Map<String, FieldDefinition> targetFields = byName(targetTable.getFields(), FieldDefinition::getName);
+
+        for (FieldDefinition targetField : targetFields.values()) {
+            FieldDefinition currentField = currentFields.get(key(targetField.getName()));
+            if (currentField == null) {
+                statements.add(new DdlStatement(DdlStatementTypeEnum.ALTER_TABLE, tableName + "." + targetField.getName(),
+                        dialect.generateAddColumnSql(tableName, targetField)));
+            } else if (!dialect.generateFieldDefinition(currentField).equals(dialect.generateFieldDefinition(targetField))) {
+                // 方言按当前定义只修改变化的属性，可能拆成多条语句
+                for (String sql : dialect.generateModifyColumnStatements(tableName, currentField, targetField)) {
+                    statements.add(new DdlStatement(DdlStatementTypeEnum.ALTER_TABLE, tableName + "." + targetField.getName(), sql));
+                }
+            }
+        }
+        for (Map.Entry<String, FieldDefinition> entry : currentFields.entrySet()) {
+            if (!targetFields.containsKey(entry.getKey())) {
+                String columnName = entry.getValue().getName();
+                statements.add(new DdlStatement(DdlStatementTypeEnum.ALTER_TABLE, tableName + "." + columnName,
+                        dialect.generateDropColumnSql(tableName, columnName)));
+            }
+        }
+    }
+
+    private void diffIndexes(String tableName, TableDefinition currentTable, TableDefinition targetTable,
+                             DatabaseDialect dialect, List<DdlStatement> drops, List<DdlStatement> creates) {
+        Map<String, IndexDefinition> currentIndexes = currentTable != null
+                ? byName(currentTable.getIndexes(), IndexDefinition::getName) : new LinkedHashMap<>();
+        Map<String, IndexDefinition> targetIndexes = byName(targetTable.getIndexes(), IndexDefinition::getName);
+
+        for (Map.Entry<String, IndexDefinition> entry : currentIndexes.entrySet()) {
+            IndexDefinition targetIndex = targetIndexes.get(entry.getKey());
+            if (targetIndex == null || !dialect.generateCreateIndexSql(tableName, entry.getValue())
+                    .equals(dialect.generateCreateIndexSql(tableName, targetIndex))) {
+                String indexName = entry.getValue().getName();
+                drops.add(new DdlStatement(DdlStatementTypeEnum.DROP_INDEX, tableName + "." + indexName,
+                        dialect.generateDropIndexSql(tableName, indexName)));
+            }
+        }
+        for (Map.Entry<String, IndexDefinition> entry : targetIndexes.entrySet()) {
+            IndexDefinition currentIndex = currentIndexes.get(entry.getKey());
+            if (currentIndex == null || !dialect.generateCreateIndexSql(tableName, currentIndex)
+                    .equals(dialect.generateCreateIndexSql(tableName, entry.getValue()))) {
+                creates.add(new DdlStatement(DdlStatementTypeEnum.CREATE_INDEX, tableName + "." + entry.getValue().getName(),
+                        dialect.generateCreateIndexSql(tableName, entry.getValue())));
+            }
+        }
+    }
+
+    private void diffForeignKeys(String tableName, TableDefinition currentTable, TableDefinition targetTable,
+                                 DatabaseDialect dialect, List<DdlStatement> drops, List<DdlStatement> adds) {
+        Map<String, RelationDefinition> currentRelations = currentTable != null
+                ? byName(currentTable.getRelations(), this::relationKey) : new LinkedHashMap<>();
+        Map<String, RelationDefinition> targetRelations = byName(targetTable.getRelations(), this::relationKey);
+
+        for (Map.Entry<String, RelationDefinition> entry : currentRelations.entrySet()) {
+            RelationDefinition targetRelation = targetRelations.get(entry.getKey());
+            if (targetRelation == null || !dialect.generateForeignKeyConstraint(entry.getValue())
+                    .equals(dialect.generateForeignKeyConstraint(targetRelation))) {
+                String constraintName = entry.getValue().getName();
+                if (!StringUtils.hasText(constraintName)) {
+                    if (targetRelation != null) {
+                        // 旧外键删不掉时不能再添加新定义，否则同一字段上会留下两个外键
+                        throw new IllegalArgumentException("表 '" + tableName + "' 中未命名的外键 (" + entry.getValue().getColumn()
+                                + ") 定义发生变化，无法按名称删除，请为外键指定名称");
+                    }
+                    log.warn("表 '{}' 中未命名的外键 ({}) 无法按名称删除，已跳过", tableName, entry.getValue().getColumn());
+                    continue;
+                }
+                drops.add(new DdlStatement(DdlStatementTypeEnum.DROP_FOREIGN_KEY, tableName + "." + constraintName,
+                        dialect.generateDropForeignKeySql(tableName, constraintName)));
+            }
+        }
+        for (Map.Entry<String, RelationDefinition> entry : targetRelations.entrySet()) {
+            RelationDefinition currentRelation = currentRelations.get(entry.getKey());
+            if (currentRelation == null || !dialect.generateForeignKeyConstraint(currentRelation)
+                    .equals(dialect.generateForeignKeyConstraint(entry.getValue()))) {
+                adds.add(new DdlStatement(DdlStatementTypeEnum.ADD_FOREIGN_KEY, tableName + "." + entry.getKey(),
+                        dialect.generateAddForeignKeySql(tableName, entry.getValue())));
+            }
+        }
+    }
+
+    /**
+     * 外键优先按约束名匹配，未命名时按 字段->引用表 匹配
+     */
+    private String relationKey(RelationDefinition relation) {
+        if (StringUtils.hasText(relation.getName())) {
+            return relation.getName();
+        }
+        return relation.getColumn() + "->" + relation.getReferenceTable();
+    }
+
+    private <T> Map<String, T> byName(List<T> items, Function<T, String> nameGetter) {
+        Map<String, T> map = new LinkedHashMap<>();
+        if (items != null) {
+            for (T item : items) {
+                map.put(key(nameGetter.apply(item)), item);
+            }
+        }
+        return map;
+    }
+
+    private String key(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,418 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.SchemaJobStatusEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlEvent;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import cn.com.traninfo.fastlcdp.erdesigner.model.SchemaJob;
+import cn.com.traninfo.fastlcdp.erdesigner.util.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 异步建表任务服务
+ * 上传内容在请求线程内读取后立即返回任务ID，解析、生成、执行DDL在独立的有界线程池中进行，
+ * 不再占用HTTP工作线程。进度按表统计，可轮询或通过SSE订阅，任务可在表与语句段之间取消；
+ * 任务在提交时请求所绑定的数据源上执行
+ */
+@Slf4j
+@Service
+public class SchemaJobService {
+
+    @Autowired
+    private XmlParserService xmlParserService;
+
+    @Autowired
+    private DatabaseExecutorService databaseExecutorService;
+
+    @Autowired
+    private DdlEventBus ddlEventBus;
+
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+
+    /**
+     * 同时执行的任务数
+     */
+    @Value("${schema.job.parallelism:2}")
+    private int parallelism = 2;
+
+    /**
+     * 排队任务上限，超出时拒绝提交
+     */
+    @Value("${schema.job.queue-capacity:16}")
+    private int queueCapacity = 16;
+
+    /**
+     * 每段执行的语句数，段与段之间检查取消
+     */
+    @Value("${schema.job.chunk-size:50}")
+    private int chunkSize = 50;
+
+    /**
+     * 已结束任务的保留时间（分钟）
+     */
+    @Value("${schema.job.retention-minutes:60}")
+    private long retentionMinutes = 60;
+
+    /**
+     * SSE状态推送间隔（毫秒）
+     */
+    @Value("${schema.job.stream-interval-ms:500}")
+    private long streamIntervalMs = 500;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final Map<String, SchemaJob> jobs = new ConcurrentHashMap<>();
+
+    private volatile ThreadPoolExecutor executor;
+
+    private volatile ScheduledExecutorService statusTicker;
+
+    private volatile ExecutorService sender;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (statusTicker != null) {
+            statusTicker.shutdownNow();
+        }
+        if (sender != null) {
+            sender.shutdownNow();
+        }
+    }
+
+    /**
+     * 提交建表任务，目标数据源取当前线程绑定的数据源
+     *
+     * @param source 任务来源
+     * @param fileName 上传文件名
+     * @param xmlBytes XML内容
+     * @return 任务
+     * @throws RejectedExecutionException 排队任务已满
+     */
+    public SchemaJob submit(String source, String fileName, byte[] xmlBytes) {
+        purgeExpired();
+        SchemaJob job = new SchemaJob(UUID.randomUUID().toString(), source, fileName,
+                dataSourceRouter.currentDataSourceId());
+        jobs.put(job.getId(), job);
+        try {
+            job.attach(getExecutor().submit(() -> run(job, xmlBytes)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        log.info("提交建表任务: {} ({}), 来源: {}", job.getId(), fileName, source);
+        return job;
+    }
+
+    /**
+     * 查询任务
+     *
+     * @param jobId 任务ID
+     * @return 任务，不存在时返回null
+     */
+    public SchemaJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * 全部任务，按提交时间倒序
+     */
+    public List<SchemaJob> listJobs() {
+        purgeExpired();
+        List<SchemaJob> result = new ArrayList<>(jobs.values());
+        result.sort(Comparator.comparing(SchemaJob::getSubmittedAt).reversed());
+        return result;
+    }
+
+    /**
+     * 取消任务，正在执行的语句段会先执行完，已执行的DDL不会回滚
+     *
+     * @param jobId 任务ID
+     * @return 任务存在且尚未结束时返回true
+     */
+    public boolean cancel(String jobId) {
+        SchemaJob job = jobs.get(jobId);
+        if (job == null || !job.requestCancel()) {
+            return false;
+        }
+        if (job.getFuture() != null && job.getFuture().isCancelled()) {
+            // 排队中被移除的任务不会再进入run
+            job.finish(SchemaJobStatusEnum.CANCELLED, "任务已取消");
+        }
+        log.info("请求取消建表任务: {}", jobId);
+        return true;
+    }
+
+    /**
+     * 订阅任务状态，状态变化时推送 status 事件，执行阶段逐条推送语句事件，任务结束后关闭连接
+     *
+     * @param job 任务
+     * @return SSE发送器
+     */
+    public SseEmitter stream(SchemaJob job) {
+        return stream(job, new SseEmitter(0L));
+    }
+
+    SseEmitter stream(SchemaJob job, SseEmitter emitter) {
+        StatusStream stream = new StatusStream(job, emitter, ddlEventBus.subscribe(job.getId()));
+        emitter.onCompletion(stream::stop);
+        emitter.onTimeout(stream::stop);
+        emitter.onError(error -> stream.stop());
+        stream.future = getStatusTicker().scheduleWithFixedDelay(stream, 0, streamIntervalMs, TimeUnit.MILLISECONDS);
+        return emitter;
+    }
+
+    private void run(SchemaJob job, byte[] xmlBytes) {
+        if (job.getDataSourceId() == null) {
+            execute(job, xmlBytes);
+            return;
+        }
+        try {
+            // 排队期间连接池可能已被回收，执行时重新获取
+            dataSourceRouter.runOn(job.getDataSourceId(), () -> {
+                execute(job, xmlBytes);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            job.finish(SchemaJobStatusEnum.FAILED, "生成数据库表失败: " + e.getMessage());
+            log.error("建表任务失败: {}", job.getId(), e);
+        }
+    }
+
+    private void execute(SchemaJob job, byte[] xmlBytes) {
+        if (job.isCancelRequested()) {
+            job.finish(SchemaJobStatusEnum.CANCELLED, "任务已取消");
+            return;
+        }
+        job.start();
+        try {
+            // 解析：每反序列化完一张表计数一次
+            DatabaseSchema schema = xmlParserService.parseFromStream(new ByteArrayInputStream(xmlBytes), table -> {
+                checkCancelled(job);
+                job.setCurrentTable(table.getName());
+                job.getParsedTables().incrementAndGet();
+            });
+            job.setDatabaseName(schema.getName());
+            job.setTotalTables(schema.getTables().size());
+
+            // 生成
+            List<DdlStatement> statements = databaseExecutorService.buildSchemaStatements(schema, table -> {
+                checkCancelled(job);
+                job.setCurrentTable(table.getName());
+                job.getGeneratedTables().incrementAndGet();
+            });
+            job.setTotalStatements(statements.size());
+
+            // 分段执行，逐条语句的事件以任务ID为执行ID发布
+            ddlEventBus.runInExecution(job.getId(), () -> {
+                for (int from = 0; from < statements.size(); from += chunkSize) {
+                    checkCancelled(job);
+                    List<DdlStatement> chunk = statements.subList(from, Math.min(from + chunkSize, statements.size()));
+                    job.setCurrentTable(chunk.get(0).getTarget());
+                    DdlBatchExecutor.ExecutionReport report = databaseExecutorService.executeStatements(chunk);
+                    for (DdlBatchExecutor.StatementResult result : report.getResults()) {
+                        job.getExecutedStatements().incrementAndGet();
+                        if (result.getStatement().getType() == DdlStatementTypeEnum.CREATE_TABLE) {
+                            job.getExecutedTables().incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            });
+
+            job.finish(SchemaJobStatusEnum.SUCCEEDED, String.format("成功生成 %d 个表", schema.getTables().size()));
+            log.info("建表任务完成: {}, {} 张表", job.getId(), schema.getTables().size());
+        } catch (Exception e) {
+            if (job.isCancelRequested()) {
+                job.finish(SchemaJobStatusEnum.CANCELLED, "任务已取消，已执行 " + job.getExecutedStatements().get() + " 条语句");
+                log.info("建表任务已取消: {}", job.getId());
+            } else {
+                job.finish(SchemaJobStatusEnum.FAILED, "生成数据库表失败: " + e.getMessage());
+                log.error("建表任务失败: {}", job.getId(), e);
+            }
+        }
+    }
+
+    private void checkCancelled(SchemaJob job) {
+        if (job.isCancelRequested()) {
+            throw new CancellationException("任务已取消");
+        }
+    }
+
+    private void purgeExpired() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.getStatus().isFinished()
+                && job.getFinishedAt() != null && job.getFinishedAt().isBefore(threshold));
+    }
+
+    private ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor current = executor;
+        if (current == null) {
+            lock.lock();
+            try {
+                current = executor;
+                if (current == null) {
+                    // 虚拟线程模式下线程池大小仍限制同时执行的任务数，队列仍用于拒绝过多的提交
+                    int threads = Math.max(1, parallelism);
+                    current = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                            WorkerThreads.factory("schema-job", virtualThreads), new ThreadPoolExecutor.AbortPolicy());
+                    executor = current;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private ScheduledExecutorService getStatusTicker() {
+        ScheduledExecutorService current = statusTicker;
+        if (current == null) {
+            lock.lock();
+            try {
+                current = statusTicker;
+                if (current == null) {
+                    current = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "schema-job-status");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    statusTicker = current;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private ExecutorService getSender() {
+        ExecutorService current = sender;
+        if (current == null) {
+            lock.lock();
+            try {
+                current = sender;
+                if (current == null) {
+                    current = Executors.newCachedThreadPool(WorkerThreads.factory("schema-job-send", virtualThreads));
+                    sender = current;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 单个订阅的状态推送，推送线程定时触发，发送在该连接自己的发送任务上进行，
+     * 慢客户端不影响其他订阅，也不影响任务执行线程
+     */
+    private class StatusStream implements Runnable {
+        private final SchemaJob job;
+        private final SseEmitter emitter;
+        private final DdlEventBus.Subscription events;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean stopped;
+        private Map<String, Object> lastStatus;
+
+        private StatusStream(SchemaJob job, SseEmitter emitter, DdlEventBus.Subscription events) {
+            this.job = job;
+            this.emitter = emitter;
+            this.events = events;
+        }
+
+        @Override
+        public void run() {
+            if (stopped) {
+                stop();
+                return;
+            }
+            // 上一批仍在发送（客户端慢）时跳过本次，下次发送最新状态
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                getSender().execute(() -> {
+                    try {
+                        drain();
+                    } finally {
+                        draining.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                stop();
+            }
+        }
+
+        private void drain() {
+            if (stopped) {
+                return;
+            }
+            boolean finished = job.getStatus().isFinished();
+            Map<String, Object> status = job.toStatus();
+            try {
+                // 任务结束前发布的语句事件都已入队，先于最终状态发出
+                DdlEvent event;
+                while ((event = events.poll()) != null) {
+                    emitter.send(SseEmitter.event().name(event.getType().getEventName()).data(event));
+                }
+                if (!status.equals(lastStatus)) {
+                    emitter.send(SseEmitter.event().name("status").data(status));
+                    lastStatus = status;
+                }
+                if (finished) {
+                    emitter.complete();
+                    stop();
+                }
+            } catch (Exception e) {
+                // 客户端断开
+                log.debug("任务状态推送结束: {} - {}", job.getId(), e.getMessage());
+                stop();
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+            events.close();
+            ScheduledFuture<?> current = future;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * SQL归档写入器
+ * 生成的SQL脚本放入有界队列，由后台线程以UTF-8写入归档目录，请求线程从不等待磁盘；
+ * 队列同时受脚本个数和待写入字节数限制（按每字符2字节估算内存占用），任一超出时直接丢弃并计数。每次写入后按文件年龄和目录总大小清理旧归档
+ */
+@Slf4j
+@Component
+public class SqlArchiveWriter {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private static final DateTimeFormatter HEADER_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final boolean enabled;
+
+    private final Path directory;
+
+    private final boolean gzip;
+
+    private final Duration maxAge;
+
+    private final long maxTotalBytes;
+
+    private final BlockingQueue<ArchiveTask> queue;
+
+    private final int queueCapacity;
+
+    private final long maxQueuedBytes;
+
+    private final AtomicLong queuedBytes = new AtomicLong();
+
+    private final AtomicLong submitted = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong deleted = new AtomicLong();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private volatile boolean running;
+
+    private Thread worker;
+
+    public SqlArchiveWriter(@Value("${sql.archive.enabled:true}") boolean enabled,
+                            @Value("${sql.archive.directory:sqls}") String directory,
+                            @Value("${sql.archive.queue-capacity:256}") int queueCapacity,
+                            @Value("${sql.archive.max-queued-bytes:67108864}") long maxQueuedBytes,
+                            @Value("${sql.archive.gzip:false}") boolean gzip,
+                            @Value("${sql.archive.max-age-days:30}") int maxAgeDays,
+                            @Value("${sql.archive.max-total-bytes:1073741824}") long maxTotalBytes) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.gzip = gzip;
+        this.maxAge = Duration.ofDays(maxAgeDays);
+        this.maxTotalBytes = maxTotalBytes;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "sql-archive-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 停止写入线程，已入队的脚本会在超时前尽量写完
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!queue.isEmpty()) {
+                log.warn("SQL归档写入器关闭时仍有 {} 个脚本未写入", queue.size());
+            }
+        }
+    }
+
+    /**
+     * 提交SQL脚本归档，不阻塞
+     *
+     * @return 是否已入队；未启用、队列已满或超出待写入字节上限时返回false
+     */
+    public boolean submit(String schemaName, String databaseType, String sqlContent) {
+        if (!enabled) {
+            return false;
+        }
+        submitted.incrementAndGet();
+        long bytes = (long) sqlContent.length() * Character.BYTES;
+        if (!reserve(bytes)) {
+            dropped.incrementAndGet();
+            log.warn("SQL归档待写入字节超出上限 {}，丢弃脚本: {} ({}, {} 字节)", maxQueuedBytes, schemaName, databaseType, bytes);
+            return false;
+        }
+        if (!queue.offer(new ArchiveTask(schemaName, databaseType, sqlContent, LocalDateTime.now(), bytes))) {
+            queuedBytes.addAndGet(-bytes);
+            dropped.incrementAndGet();
+            log.warn("SQL归档队列已满，丢弃脚本: {} ({})", schemaName, databaseType);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 在字节预算内为脚本预留空间，超出上限时不预留
+     */
+    private boolean reserve(long bytes) {
+        while (true) {
+            long current = queuedBytes.get();
+            if (current + bytes > maxQueuedBytes) {
+                return false;
+            }
+            if (queuedBytes.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 等待队列中的脚本全部写完
+     *
+     * @return 超时前是否已写完
+     */
+    public boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (processed.get() < submitted.get() - dropped.get()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            ArchiveTask task;
+            try {
+                task = queue.poll(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                continue;
+            }
+            try {
+                Path file = write(task);
+                written.incrementAndGet();
+                log.info("SQL已保存到文件: {}", file.toAbsolutePath());
+            } catch (IOException | RuntimeException e) {
+                failed.incrementAndGet();
+                log.error("保存SQL文件失败: {}", e.getMessage(), e);
+            }
+            try {
+                applyRetention();
+            } catch (IOException | RuntimeException e) {
+                log.warn("清理SQL归档失败: {}", e.getMessage(), e);
+            } finally {
+                queuedBytes.addAndGet(-task.bytes);
+                processed.incrementAndGet();
+            }
+        }
+    }
+
+    private Path write(ArchiveTask task) throws IOException {
+        if (!Files.exists(directory)) {
+            Files.createDirectories(directory);
+            log.info("创建sqls目录: {}", directory.toAbsolutePath());
+        }
+
+        byte[] content = (
+                "-- Generated SQL for schema: " + task.schemaName + "\n" +
+                "-- Database type: " + task.databaseType + "\n" +
+                "-- Generated at: " + task.createdAt.format(HEADER_TIMESTAMP) + "\n\n" +
+                task.sqlContent).getBytes(StandardCharsets.UTF_8);
+
+        // 文件名：schema名称_数据库类型_时间戳[_序号].sql[.gz]，同一秒内的重复生成不互相覆盖
+        String baseName = String.format("%s_%s_%s", task.schemaName,
+                task.databaseType.toLowerCase(), task.createdAt.format(FILE_TIMESTAMP));
+        String extension = gzip ? ".sql.gz" : ".sql";
+        for (int sequence = 0; ; sequence++) {
+            Path file = directory.resolve(sequence == 0 ? baseName + extension : baseName + "_" + sequence + extension);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                if (gzip) {
+                    // 不关闭GZIP流，由外层try关闭通道
+                    GZIPOutputStream gzipStream = new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+                    gzipStream.write(content);
+                    gzipStream.finish();
+                    gzipStream.flush();
+                } else {
+                    ByteBuffer buffer = ByteBuffer.wrap(content);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                return file;
+            } catch (FileAlreadyExistsException e) {
+                // 换下一个序号
+            }
+        }
+    }
+
+    /**
+     * 清理归档：先删除超过保留期的文件，再按最旧优先删除直到总大小不超过上限
+     */
+    private void applyRetention() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<ArchiveFile> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) stream::iterator) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".sql") || name.endsWith(".sql.gz")) {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    files.add(new ArchiveFile(path, attributes.lastModifiedTime().toInstant(), attributes.size()));
+                }
+            }
+        }
+        files.sort(Comparator.comparing((ArchiveFile file) -> file.modifiedAt).thenComparing(file -> file.path));
+
+        Instant expireBefore = Instant.now().minus(maxAge);
+        long totalBytes = files.stream().mapToLong(file -> file.size).sum();
+        for (ArchiveFile file : files) {
+            // 至少保留最新的一个文件
+            if (file == files.get(files.size() - 1)) {
+                break;
+            }
+            if (file.modifiedAt.isBefore(expireBefore) || totalBytes > maxTotalBytes) {
+                if (Files.deleteIfExists(file.path)) {
+                    deleted.incrementAndGet();
+                    log.debug("删除过期SQL归档: {}", file.path);
+                }
+                totalBytes -= file.size;
+            }
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDeletedCount() {
+        return deleted.get();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getQueuedBytes() {
+        return queuedBytes.get();
+    }
+
+    /**
+     * 归档写入统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("gzip", gzip);
+        statistics.put("queueDepth", queue.size());
+        statistics.put("queueCapacity", queueCapacity);
+        statistics.put("queuedBytes", queuedBytes.get());
+        statistics.put("maxQueuedBytes", maxQueuedBytes);
+        statistics.put("written", written.get());
+        statistics.put("dropped", dropped.get());
+        statistics.put("failed", failed.get());
+        statistics.put("deleted", deleted.get());
+        return statistics;
+    }
+
+    private static final class ArchiveTask {
+        private final String schemaName;
+        private final String databaseType;
+        private final String sqlContent;
+        private final LocalDateTime createdAt;
+        private final long bytes;
+
+        private ArchiveTask(String schemaName, String databaseType, String sqlContent, LocalDateTime createdAt, long bytes) {
+            this.schemaName = schemaName;
+            this.databaseType = databaseType;
+            this.sqlContent = sqlContent;
+            this.createdAt = createdAt;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class ArchiveFile {
+        private final Path path;
+        private final Instant modifiedAt;
+        private final long size;
+
+        private ArchiveFile(Path path, Instant modifiedAt, long size) {
+            this.path = path;
+            this.modifiedAt = modifiedAt;
+            this.size = size;
+        }
+    }
+}
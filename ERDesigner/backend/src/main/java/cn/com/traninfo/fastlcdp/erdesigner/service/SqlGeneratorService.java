@@ -4,23 +4,34 @@ import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
 import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialect;
 import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
 import cn.com.traninfo.fastlcdp.erdesigner.dialect.MySQLDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlEmissionModeEnum;
 import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
 import cn.com.traninfo.fastlcdp.erdesigner.model.*;
+import cn.com.traninfo.fastlcdp.erdesigner.util.SchemaCopyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -34,12 +45,59 @@ public class SqlGeneratorService {
     @Autowired
     private DatabaseConfig databaseConfig;
     
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+    
     @Autowired
     private MetadataService metadataService;
     
     @Autowired
     private XmlParserService xmlParserService;
     
+    @Autowired
+    private SqlArchiveWriter sqlArchiveWriter;
+    
+    /**
+     * 是否按表并行生成DDL，输出与串行模式逐字节一致
+     */
+    @Value("${sql.generation.parallel:false}")
+    private boolean parallelGeneration;
+    
+    /**
+     * 并行生成的线程数，0表示使用CPU核数
+     */
+    @Value("${sql.generation.parallelism:0}")
+    private int parallelism;
+    
+    /**
+     * DDL输出方式：INLINE 外键内联在建表语句中；TWO_PHASE 先建表，再建索引，最后添加外键
+     */
+    @Value("${sql.generation.emission-mode:INLINE}")
+    private DdlEmissionModeEnum emissionMode = DdlEmissionModeEnum.INLINE;
+    
+    private volatile ForkJoinPool generationPool;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    public void setParallelGeneration(boolean parallelGeneration) {
+        this.parallelGeneration = parallelGeneration;
+    }
+    
+    public DdlEmissionModeEnum getEmissionMode() {
+        return emissionMode;
+    }
+    
+    public void setEmissionMode(DdlEmissionModeEnum emissionMode) {
+        this.emissionMode = emissionMode != null ? emissionMode : DdlEmissionModeEnum.INLINE;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (generationPool != null) {
+            generationPool.shutdown();
+        }
+    }
+    
     /**
      * 生成创建数据库的SQL语句
      */
@@ -50,7 +108,7 @@ public class SqlGeneratorService {
         
         logger.info("生成创建数据库SQL: {}", schema.getName());
         
-        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(databaseConfig.getType());
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType());
         return dialect.generateCreateDatabaseSql(schema.getName(), databaseConfig.getCharset(), databaseConfig.getCollation());
     }
     
@@ -75,7 +133,7 @@ public class SqlGeneratorService {
         
         logger.info("生成创建表SQL: {}", table.getName());
         
-        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(databaseConfig.getType());
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType());
         
         // 如果是MySQL方言且支持数据库模式继承，则使用扩展方法
         if (dialect instanceof MySQLDialect) {
@@ -91,7 +149,7 @@ public class SqlGeneratorService {
      * 生成字段定义
      */
     private String generateFieldDefinition(FieldDefinition field) {
-        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(databaseConfig.getType());
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType());
         return dialect.generateFieldDefinition(field);
     }
     
@@ -99,7 +157,7 @@ public class SqlGeneratorService {
      * 生成字段类型
      */
     private String generateFieldType(FieldDefinition field) {
-        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(databaseConfig.getType());
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType());
         return dialect.generateFieldType(field);
     }
     
@@ -205,15 +263,27 @@ public class SqlGeneratorService {
         
         logger.info("生成创建索引SQL: {} on {}", index.getName(), tableName);
         
-        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(databaseConfig.getType());
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType());
         return dialect.generateCreateIndexSql(tableName, index);
     }
     
+    /**
+     * 生成添加外键约束的SQL语句（ALTER TABLE ... ADD CONSTRAINT）
+     */
+    public String generateAddForeignKeySql(String tableName, RelationDefinition relation) {
+        if (!StringUtils.hasText(tableName) || relation == null) {
+            throw new IllegalArgumentException("Table name and relation definition cannot be null");
+        }
+        
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType());
+        return dialect.generateAddForeignKeySql(tableName, relation);
+    }
+    
     /**
      * 转义标识符
      */
     private String escapeIdentifier(String identifier) {
-        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(databaseConfig.getType());
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType());
         return dialect.escapeIdentifier(identifier);
     }
     
@@ -221,77 +291,167 @@ public class SqlGeneratorService {
      * 生成完整的模式SQL（包括数据库、表、索引等）
      */
     public String generateFullSchemaSql(DatabaseSchema schema) {
+        StringWriter writer = new StringWriter();
+        try {
+            writeFullSchemaSql(schema, writer);
+        } catch (IOException e) {
+            // StringWriter 不会抛出IO异常
+            throw new UncheckedIOException(e);
+        }
+        String sqlContent = writer.toString();
+        
+        // 保存SQL到文件
+        saveSqlToFile(schema.getName(), sqlContent, dataSourceRouter.currentType().name());
+        
+        return sqlContent;
+    }
+    
+    /**
+     * 将完整的模式SQL直接写入输出流（UTF-8），不在内存中拼接整个脚本
+     * 写入完成后刷新但不关闭输出流
+     */
+    public void writeFullSchemaSql(DatabaseSchema schema, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writeFullSchemaSql(schema, writer);
+        writer.flush();
+    }
+    
+    /**
+     * 将完整的模式SQL逐表写入Writer，输出内容与 generateFullSchemaSql 一致
+     */
+    public void writeFullSchemaSql(DatabaseSchema schema, Writer writer) throws IOException {
         if (schema == null) {
             throw new IllegalArgumentException("Schema definition cannot be null");
         }
         
         logger.info("生成完整模式SQL: {}", schema.getName());
         
-        StringBuilder sql = new StringBuilder();
-        
         // 生成数据库创建语句
-        sql.append("-- 创建数据库\n");
-        sql.append(generateCreateDatabaseSql(schema));
-        sql.append("\n\n");
+        writer.write("-- 创建数据库\n");
+        writer.write(generateCreateDatabaseSql(schema));
+        writer.write("\n\n");
         
-        // 生成表创建语句
+        // 生成表创建语句和索引创建语句
         if (schema.getTables() != null && !schema.getTables().isEmpty()) {
-            sql.append("-- 创建表\n");
-            for (TableDefinition table : schema.getTables()) {
-                sql.append(generateCreateTableSql(table, schema));
-                sql.append("\n\n");
-            }
+            writeTableSql(writer, schema.getTables(),
+                    table -> generateCreateTableSql(table, schema),
+                    (table, index) -> generateCreateIndexSql(table.getName(), index),
+                    (table, relation) -> generateAddForeignKeySql(table.getName(), relation));
+        }
+    }
+    
+    /**
+     * 写入建表语句和索引语句
+     * 串行模式逐表渲染并立即写出；并行模式在独立的ForkJoinPool中渲染，
+     * 结果按表定义顺序写出，保证与串行输出逐字节一致。
+     * 两阶段模式下建表语句不含索引和外键，外键在所有建表、建索引语句之后以 ALTER TABLE 添加
+     */
+    private void writeTableSql(Writer writer, List<TableDefinition> tables,
+                               Function<TableDefinition, String> tableRenderer,
+                               BiFunction<TableDefinition, IndexDefinition, String> indexRenderer,
+                               BiFunction<TableDefinition, RelationDefinition, String> foreignKeyRenderer) throws IOException {
+        boolean twoPhase = emissionMode == DdlEmissionModeEnum.TWO_PHASE;
+        Function<TableDefinition, String> createTableRenderer = twoPhase
+                ? table -> tableRenderer.apply(SchemaCopyUtils.withoutConstraints(table))
+                : tableRenderer;
+        
+        if (parallelGeneration && tables.size() > 1) {
+            long start = System.nanoTime();
+            // 渲染任务在调用线程上创建，带上当前数据源，工作线程按同一方言渲染
+            List<Supplier<RenderedTable>> renderTasks = tables.stream()
+                    .map(table -> dataSourceRouter.propagate(() -> new RenderedTable(createTableRenderer.apply(table),
+                            renderIndexes(table, indexRenderer),
+                            twoPhase ? renderForeignKeys(table, foreignKeyRenderer) : "")))
+                    .collect(Collectors.toList());
+            List<RenderedTable> renderedTables = getGenerationPool()
+                    .submit(() -> renderTasks.parallelStream()
+                            .map(Supplier::get)
+                            .collect(Collectors.toList()))
+                    .join();
+            logger.info("并行生成 {} 张表的DDL，耗时 {} ms", tables.size(), (System.nanoTime() - start) / 1_000_000);
             
-            // 生成索引创建语句
-            sql.append("-- 创建索引\n");
-            for (TableDefinition table : schema.getTables()) {
-                if (table.getIndexes() != null && !table.getIndexes().isEmpty()) {
-                    for (IndexDefinition index : table.getIndexes()) {
-                        sql.append(generateCreateIndexSql(table.getName(), index));
-                        sql.append("\n");
-                    }
+            writer.write("-- 创建表\n");
+            for (RenderedTable rendered : renderedTables) {
+                writer.write(rendered.createTableSql);
+                writer.write("\n\n");
+            }
+            writer.write("-- 创建索引\n");
+            for (RenderedTable rendered : renderedTables) {
+                writer.write(rendered.createIndexSql);
+            }
+            if (twoPhase) {
+                writer.write("\n-- 添加外键\n");
+                for (RenderedTable rendered : renderedTables) {
+                    writer.write(rendered.foreignKeySql);
                 }
             }
+            return;
         }
         
-        String sqlContent = sql.toString();
-        
-        // 保存SQL到文件
-        saveSqlToFile(schema.getName(), sqlContent, databaseConfig.getType().name());
-        
-        return sqlContent;
+        writer.write("-- 创建表\n");
+        for (TableDefinition table : tables) {
+            writer.write(createTableRenderer.apply(table));
+            writer.write("\n\n");
+        }
+        writer.write("-- 创建索引\n");
+        for (TableDefinition table : tables) {
+            writer.write(renderIndexes(table, indexRenderer));
+        }
+        if (twoPhase) {
+            writer.write("\n-- 添加外键\n");
+            for (TableDefinition table : tables) {
+                writer.write(renderForeignKeys(table, foreignKeyRenderer));
+            }
+        }
+    }
+    
+    private String renderIndexes(TableDefinition table, BiFunction<TableDefinition, IndexDefinition, String> renderer) {
+        if (table.getIndexes() == null || table.getIndexes().isEmpty()) {
+            return "";
+        }
+        StringBuilder sql = new StringBuilder();
+        for (IndexDefinition index : table.getIndexes()) {
+            sql.append(renderer.apply(table, index));
+            sql.append("\n");
+        }
+        return sql.toString();
+    }
+    
+    private String renderForeignKeys(TableDefinition table, BiFunction<TableDefinition, RelationDefinition, String> renderer) {
+        if (table.getRelations() == null || table.getRelations().isEmpty()) {
+            return "";
+        }
+        StringBuilder sql = new StringBuilder();
+        for (RelationDefinition relation : table.getRelations()) {
+            sql.append(renderer.apply(table, relation));
+            sql.append("\n");
+        }
+        return sql.toString();
+    }
+    
+    private ForkJoinPool getGenerationPool() {
+        ForkJoinPool pool = generationPool;
+        if (pool == null) {
+            lock.lock();
+            try {
+                pool = generationPool;
+                if (pool == null) {
+                    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+                    pool = new ForkJoinPool(threads);
+                    generationPool = pool;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return pool;
     }
     
     /**
-     * 保存SQL到sqls目录
+     * 保存SQL到sqls目录，由归档写入器异步完成
      */
     private void saveSqlToFile(String schemaName, String sqlContent, String databaseType) {
-        try {
-            // 创建sqls目录
-            Path sqlsDir = Paths.get("sqls");
-            if (!Files.exists(sqlsDir)) {
-                Files.createDirectories(sqlsDir);
-                logger.info("创建sqls目录: {}", sqlsDir.toAbsolutePath());
-            }
-            
-            // 生成文件名：schema名称_数据库类型_时间戳.sql
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String fileName = String.format("%s_%s_%s.sql", schemaName, databaseType.toLowerCase(), timestamp);
-            Path sqlFile = sqlsDir.resolve(fileName);
-            
-            // 写入SQL内容
-            try (FileWriter writer = new FileWriter(sqlFile.toFile())) {
-                writer.write("-- Generated SQL for schema: " + schemaName + "\n");
-                writer.write("-- Database type: " + databaseType + "\n");
-                writer.write("-- Generated at: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + "\n\n");
-                writer.write(sqlContent);
-            }
-            
-            logger.info("SQL已保存到文件: {}", sqlFile.toAbsolutePath());
-            
-        } catch (IOException e) {
-            logger.error("保存SQL文件失败: {}", e.getMessage(), e);
-        }
+        sqlArchiveWriter.submit(schemaName, databaseType, sqlContent);
     }
     
     /**
@@ -357,59 +517,98 @@ public class SqlGeneratorService {
         
         try {
             // 解析XML文件
-            DatabaseSchema schema = xmlParserService.parseFromFile(xmlFile);
-            
-            // 使用指定的数据库方言生成SQL
-            DatabaseConfig.DatabaseType dbType = DatabaseConfig.DatabaseType.valueOf(databaseType.toUpperCase());
-            DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dbType);
-            
-            StringBuilder sql = new StringBuilder();
-            
-            // 生成数据库创建语句
-            sql.append("-- 创建数据库 (").append(databaseType).append(")\n");
-            sql.append(dialect.generateCreateDatabaseSql(schema.getName(), databaseConfig.getCharset(), databaseConfig.getCollation()));
-            sql.append("\n\n");
-            
-            // 生成表创建语句
-            if (schema.getTables() != null && !schema.getTables().isEmpty()) {
-                sql.append("-- 创建表\n");
-                for (TableDefinition table : schema.getTables()) {
-                    // 如果是MySQL方言且支持数据库模式继承，则使用扩展方法
-                    if (dialect instanceof MySQLDialect) {
-                MySQLDialect mysqlDialect = (MySQLDialect) dialect;
-                        sql.append(mysqlDialect.generateCreateTableSql(table, schema));
-                    } else {
-                        sql.append(dialect.generateCreateTableSql(table));
-                    }
-                    sql.append("\n\n");
-                }
-                
-                // 生成索引创建语句
-                sql.append("-- 创建索引\n");
-                for (TableDefinition table : schema.getTables()) {
-                    if (table.getIndexes() != null && !table.getIndexes().isEmpty()) {
-                        for (IndexDefinition index : table.getIndexes()) {
-                            sql.append(dialect.generateCreateIndexSql(table.getName(), index));
-                            sql.append("\n");
-                        }
-                    }
-                }
-            }
-            
-            String sqlContent = sql.toString();
-            
-            // 保存SQL到文件
-            saveSqlToFile(schema.getName(), sqlContent, databaseType);
-            
-            logger.info("SQL生成完成，数据库类型: {}", databaseType);
-            return sqlContent;
-            
+            return generateSqlForDatabase(xmlParserService.parseFromFile(xmlFile), databaseType);
         } catch (Exception e) {
             logger.error("生成SQL失败，数据库类型: {}, 文件: {}", databaseType, xmlFile.getName(), e);
             throw new RuntimeException("Failed to generate SQL for database type: " + databaseType, e);
         }
     }
     
+    /**
+     * 为指定数据库类型生成SQL，XML直接从输入流解析
+     * 
+     * @param inputStream XML输入流，由调用方关闭
+     * @param contentLength 内容字节数，未知时传-1；较大的内容直接流式解析
+     * @param databaseType 数据库类型
+     * @return 生成的SQL
+     */
+    public String generateSqlForDatabase(InputStream inputStream, long contentLength, String databaseType) {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("XML input stream cannot be null");
+        }
+        
+        if (!StringUtils.hasText(databaseType)) {
+            throw new IllegalArgumentException("Database type cannot be null or empty");
+        }
+        
+        logger.info("为数据库类型 {} 生成SQL，输入流长度: {}", databaseType, contentLength);
+        
+        try {
+            return generateSqlForDatabase(xmlParserService.parseUpload(inputStream, contentLength), databaseType);
+        } catch (Exception e) {
+            logger.error("生成SQL失败，数据库类型: {}", databaseType, e);
+            throw new RuntimeException("Failed to generate SQL for database type: " + databaseType, e);
+        }
+    }
+    
+    private String generateSqlForDatabase(DatabaseSchema schema, String databaseType) throws IOException {
+        StringWriter writer = new StringWriter();
+        writeSqlForDatabase(schema, databaseType, writer);
+        String sqlContent = writer.toString();
+        
+        // 保存SQL到文件
+        saveSqlToFile(schema.getName(), sqlContent, databaseType);
+        
+        logger.info("SQL生成完成，数据库类型: {}", databaseType);
+        return sqlContent;
+    }
+    
+    /**
+     * 使用指定数据库方言将SQL直接写入输出流（UTF-8），写入完成后刷新但不关闭输出流
+     * 
+     * @param schema 已解析的数据库模式
+     * @param databaseType 数据库类型
+     * @param outputStream 输出流
+     */
+    public void writeSqlForDatabase(DatabaseSchema schema, String databaseType, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writeSqlForDatabase(schema, databaseType, writer);
+        writer.flush();
+    }
+    
+    /**
+     * 使用指定数据库方言将SQL逐表写入Writer
+     * 
+     * @param schema 已解析的数据库模式
+     * @param databaseType 数据库类型
+     * @param writer 输出
+     */
+    public void writeSqlForDatabase(DatabaseSchema schema, String databaseType, Writer writer) throws IOException {
+        if (!StringUtils.hasText(databaseType)) {
+            throw new IllegalArgumentException("Database type cannot be null or empty");
+        }
+        
+        // 使用指定的数据库方言生成SQL
+        DatabaseConfig.DatabaseType dbType = DatabaseConfig.DatabaseType.valueOf(databaseType.toUpperCase());
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dbType);
+        
+        // 生成数据库创建语句
+        writer.write("-- 创建数据库 (" + databaseType + ")\n");
+        writer.write(dialect.generateCreateDatabaseSql(schema.getName(), databaseConfig.getCharset(), databaseConfig.getCollation()));
+        writer.write("\n\n");
+        
+        // 生成表创建语句和索引创建语句
+        if (schema.getTables() != null && !schema.getTables().isEmpty()) {
+            writeTableSql(writer, schema.getTables(),
+                    // 如果是MySQL方言且支持数据库模式继承，则使用扩展方法
+                    table -> dialect instanceof MySQLDialect mysqlDialect
+                            ? mysqlDialect.generateCreateTableSql(table, schema)
+                            : dialect.generateCreateTableSql(table),
+                    (table, index) -> dialect.generateCreateIndexSql(table.getName(), index),
+                    (table, relation) -> dialect.generateAddForeignKeySql(table.getName(), relation));
+        }
+    }
+    
     /**
      * 生成序列创建SQL
      * 
@@ -417,7 +616,7 @@ public class SqlGeneratorService {
      * @return 序列创建SQL列表
      */
     public List<String> generateCreateSequencesSql(DatabaseSchema schema) {
-        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(databaseConfig.getType());
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType());
         
         return schema.getTables().stream()
                 .flatMap(table -> table.getFields().stream())
@@ -436,7 +635,7 @@ public class SqlGeneratorService {
      * @return 序列删除SQL列表
      */
     public List<String> generateDropSequencesSql(DatabaseSchema schema) {
-        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(databaseConfig.getType());
+        DatabaseDialect dialect = DatabaseDialectFactory.createDialect(dataSourceRouter.currentType());
         
         return schema.getTables().stream()
                 .flatMap(table -> table.getFields().stream())
@@ -460,4 +659,19 @@ public class SqlGeneratorService {
         }
         return str.replace("'", "\\'").replace("\\", "\\\\");
     }
-}
\ No newline at end of file
+    
+    /**
+     * 单表渲染结果
+     */
+    private static final class RenderedTable {
+        private final String createTableSql;
+        private final String createIndexSql;
+        private final String foreignKeySql;
+        
+        private RenderedTable(String createTableSql, String createIndexSql, String foreignKeySql) {
+            this.createTableSql = createTableSql;
+            this.createIndexSql = createIndexSql;
+            this.foreignKeySql = foreignKeySql;
+        }
+    }
+}
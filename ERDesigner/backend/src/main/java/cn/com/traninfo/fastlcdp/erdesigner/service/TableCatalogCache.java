@@ -0,0 +1,127 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 表名目录缓存
+ * 一条目录查询取回当前模式下的全部表名，之后的存在性检查只查内存；
+ * 通过本服务执行DDL后调用 invalidate，下次检查时重新加载。表名比较不区分大小写；
+ * 目录按当前线程的数据源路由分别缓存，每个路由有自己的加载锁和代数：
+ * invalidate 使代数加一，加载期间代数发生变化时结果不再安装，避免旧目录覆盖失效
+ */
+@Slf4j
+@Component
+public class TableCatalogCache {
+
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+
+    private final AtomicLong loads = new AtomicLong();
+
+    private final AtomicLong lookups = new AtomicLong();
+
+    private final AtomicLong discardedLoads = new AtomicLong();
+
+    /**
+     * 表是否存在
+     */
+    public boolean exists(String tableName) {
+        lookups.incrementAndGet();
+        return tableName != null && getTableNames().contains(tableName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 当前数据源当前模式下的全部表名（小写）
+     */
+    public Set<String> getTableNames() {
+        DataSourceRouter.Route route = dataSourceRouter.current();
+        Catalog catalog = route.tableCatalog.get();
+        if (catalog.names != null) {
+            return catalog.names;
+        }
+        // 加载期间阻塞在JDBC上，使用可重入锁避免虚拟线程被钉住
+        route.catalogLock.lock();
+        try {
+            catalog = route.tableCatalog.get();
+            if (catalog.names != null) {
+                return catalog.names;
+            }
+            Set<String> names = load(route);
+            // 只有加载期间没有失效时才安装；否则本次结果只返回给调用方，下次检查重新加载
+            if (!route.tableCatalog.compareAndSet(catalog, new Catalog(catalog.generation, names))) {
+                discardedLoads.incrementAndGet();
+                log.debug("表名目录加载期间已失效，丢弃加载结果: {}", route.getName());
+            }
+            return names;
+        } finally {
+            route.catalogLock.unlock();
+        }
+    }
+
+    /**
+     * 当前数据源的表结构发生变化后清空缓存
+     */
+    public void invalidate() {
+        DataSourceRouter.Route route = dataSourceRouter.current();
+        route.tableCatalog.updateAndGet(catalog -> new Catalog(catalog.generation + 1, null));
+    }
+
+    private Set<String> load(DataSourceRouter.Route route) {
+        long start = System.nanoTime();
+        String sql = DatabaseDialectFactory.createDialect(route.getDatabaseType()).generateListTablesSql();
+        List<String> names = route.getJdbcTemplate().queryForList(sql, String.class);
+        Set<String> result = new HashSet<>(names.size() * 2);
+        for (String name : names) {
+            if (name != null) {
+                result.add(name.toLowerCase(Locale.ROOT));
+            }
+        }
+        loads.incrementAndGet();
+        log.debug("加载表名目录: {}, {} 张表, 耗时 {} ms", route.getName(), result.size(), (System.nanoTime() - start) / 1_000_000);
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * 当前数据源的缓存统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Catalog catalog = dataSourceRouter.current().tableCatalog.get();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("loaded", catalog.names != null);
+        statistics.put("tableCount", catalog.names != null ? catalog.names.size() : 0);
+        statistics.put("generation", catalog.generation);
+        statistics.put("loads", loads.get());
+        statistics.put("discardedLoads", discardedLoads.get());
+        statistics.put("lookups", lookups.get());
+        return statistics;
+    }
+
+    /**
+     * 某一代的表名目录，names 为 null 表示尚未加载；不可变，整体替换
+     */
+    static final class Catalog {
+
+        static final Catalog EMPTY = new Catalog(0, null);
+
+        private final long generation;
+
+        private final Set<String> names;
+
+        private Catalog(long generation, Set<String> names) {
+            this.generation = generation;
+            this.names = names;
+        }
+    }
+}
@@ -2,14 +2,18 @@ package cn.com.traninfo.fastlcdp.erdesigner.service;
 
 import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
 import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.util.XmlValidationResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.xml.bind.JAXBException;
 import java.io.File;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 表生成器服务
@@ -28,6 +32,15 @@ public class TableGeneratorService {
     @Autowired
     private DatabaseExecutorService databaseExecutorService;
     
+    @Autowired
+    private DdlEventBus ddlEventBus;
+    
+    /**
+     * 上传内容超过该字节数时边解析边建表，不在内存中保留整个模式；0表示不启用
+     */
+    @Value("${xml.upload.pipeline-threshold:67108864}")
+    private long pipelineThreshold = 64L * 1024 * 1024;
+    
     /**
      * 从XML文件生成数据库表
      * 
@@ -48,6 +61,7 @@ public class TableGeneratorService {
             boolean success = databaseExecutorService.createDatabaseSchema(schema);
             result.setSuccess(success);
             
+            result.setTableCount(schema.getTables().size());
             if (success) {
                 result.setMessage(String.format("成功生成 %d 个表", schema.getTables().size()));
                 log.info("数据库表生成完成: {}", xmlFile.getAbsolutePath());
@@ -75,18 +89,49 @@ public class TableGeneratorService {
      * @return 生成结果
      */
     public GenerationResult generateFromStream(InputStream inputStream) {
+        return generateFromStream(inputStream, -1);
+    }
+    
+    /**
+     * 从输入流生成数据库表
+     * 
+     * @param inputStream 输入流，由调用方关闭
+     * @param contentLength 内容字节数，未知时传-1；较大的内容直接流式解析
+     * @return 生成结果
+     */
+    public GenerationResult generateFromStream(InputStream inputStream, long contentLength) {
+        return generateFromStream(inputStream, contentLength, null);
+    }
+    
+    /**
+     * 从输入流生成数据库表，执行过程中的每条语句以DDL事件发布
+     * 内容超过 pipelineThreshold 时改用 generateFromStreamPipelined 边解析边建表
+     * 
+     * @param inputStream 输入流，由调用方关闭
+     * @param contentLength 内容字节数，未知时传-1；较大的内容直接流式解析
+     * @param executionId 执行ID，客户端可先以该ID订阅事件流；为空时自动生成
+     * @return 生成结果
+     */
+    public GenerationResult generateFromStream(InputStream inputStream, long contentLength, String executionId) {
+        if (pipelineThreshold > 0 && contentLength > pipelineThreshold) {
+            return generateFromStreamPipelined(inputStream, executionId);
+        }
         GenerationResult result = new GenerationResult();
         
         try {
             log.info("开始从输入流生成数据库表");
             
             // 解析XML
-            DatabaseSchema schema = xmlParserService.parseFromStream(inputStream);
+            DatabaseSchema schema = xmlParserService.parseUpload(inputStream, contentLength);
             result.setSchema(schema);
             
             // 生成并执行SQL
-            boolean success = databaseExecutorService.createDatabaseSchema(schema);
+            boolean success = ddlEventBus.runInExecution(executionId, () -> {
+                result.setExecutionId(ddlEventBus.currentExecutionId());
+                return databaseExecutorService.createDatabaseSchema(schema);
+            });
             result.setSuccess(success);
+            result.setTableCount(schema.getTables().size());
             
             if (success) {
                 result.setMessage(String.format("成功生成 %d 个表", schema.getTables().size()));
@@ -108,6 +153,73 @@ public class TableGeneratorService {
         return result;
     }
     
+    /**
+     * 从大型XML输入流流式生成数据库表
+     * 每解析出一张表立即建表，不在内存中保留整个模式；目标数据库需已存在
+     * 
+     * @param inputStream 输入流
+     * @return 生成结果（schema只包含数据库属性）
+     */
+    public GenerationResult generateFromStreamPipelined(InputStream inputStream) {
+        return generateFromStreamPipelined(inputStream, null);
+    }
+    
+    /**
+     * 从大型XML输入流流式生成数据库表，建表语句以DDL事件发布
+     * 外键引用的表由解析器保证先于引用方建好；失败时已建的表保留，结果中给出已建表数
+     * 
+     * @param inputStream 输入流，由调用方关闭
+     * @param executionId 执行ID，为空时自动生成
+     * @return 生成结果（schema只包含数据库属性）
+     */
+    public GenerationResult generateFromStreamPipelined(InputStream inputStream, String executionId) {
+        GenerationResult result = new GenerationResult();
+        AtomicInteger tableCount = new AtomicInteger();
+        
+        try {
+            log.info("开始从输入流流式生成数据库表");
+            
+            DatabaseSchema header = ddlEventBus.runInExecution(executionId, () -> {
+                result.setExecutionId(ddlEventBus.currentExecutionId());
+                try {
+                    return xmlParserService.parseStreaming(inputStream, table -> {
+                        databaseExecutorService.createTable(table);
+                        tableCount.incrementAndGet();
+                    });
+                } catch (JAXBException e) {
+                    throw new StreamingParseException(e);
+                }
+            });
+            result.setSchema(header);
+            result.setSuccess(true);
+            result.setMessage(String.format("成功生成 %d 个表", tableCount.get()));
+            log.info("流式生成数据库表完成: {}", header.getName());
+            
+        } catch (StreamingParseException e) {
+            String errorMsg = "XML解析失败: " + e.getCause().getMessage();
+            result.setSuccess(false);
+            result.setMessage(errorMsg);
+            log.error(errorMsg, e.getCause());
+        } catch (Exception e) {
+            String errorMsg = "生成数据库表失败: " + e.getMessage();
+            result.setSuccess(false);
+            result.setMessage(errorMsg);
+            log.error(errorMsg, e);
+        }
+        
+        result.setTableCount(tableCount.get());
+        return result;
+    }
+    
+    /**
+     * 在执行上下文中传递流式解析的 JAXBException
+     */
+    private static class StreamingParseException extends RuntimeException {
+        private StreamingParseException(JAXBException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+    
     /**
      * 预览生成的SQL语句（不执行）
      * 
@@ -122,28 +234,42 @@ public class TableGeneratorService {
             
             // 解析XML文件
             DatabaseSchema schema = xmlParserService.parseFromFile(xmlFile);
-            result.setSchema(schema);
+            fillPreview(result, schema);
             
-            // 生成SQL语句
-            StringBuilder allSql = new StringBuilder();
-            
-            // 生成创建数据库的SQL
-            if (schema.getName() != null && !schema.getName().isEmpty()) {
-                String createDbSql = sqlGeneratorService.generateCreateDatabaseSql(schema);
-                allSql.append(createDbSql).append("\n");
-            }
+            log.info("SQL预览完成: {}", xmlFile.getAbsolutePath());
             
-            // 生成创建表的SQL
-            for (TableDefinition table : schema.getTables()) {
-                String createTableSql = sqlGeneratorService.generateCreateTableSql(table);
-                allSql.append(createTableSql).append("\n");
-            }
+        } catch (JAXBException e) {
+            String errorMsg = "XML解析失败: " + e.getMessage();
+            result.setSuccess(false);
+            result.setMessage(errorMsg);
+            log.error(errorMsg, e);
+        } catch (Exception e) {
+            String errorMsg = "SQL预览失败: " + e.getMessage();
+            result.setSuccess(false);
+            result.setMessage(errorMsg);
+            log.error(errorMsg, e);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * 预览生成的SQL语句（不执行）
+     * 
+     * @param inputStream 输入流，由调用方关闭
+     * @param contentLength 内容字节数，未知时传-1；较大的内容直接流式解析
+     * @return SQL预览结果
+     */
+    public SqlPreviewResult previewSql(InputStream inputStream, long contentLength) {
+        SqlPreviewResult result = new SqlPreviewResult();
+        
+        try {
+            log.info("开始从输入流预览SQL");
             
-            result.setSql(allSql.toString());
-            result.setSuccess(true);
-            result.setMessage("SQL预览生成成功");
+            DatabaseSchema schema = xmlParserService.parseUpload(inputStream, contentLength);
+            fillPreview(result, schema);
             
-            log.info("SQL预览完成: {}", xmlFile.getAbsolutePath());
+            log.info("SQL预览完成: {}", schema.getName());
             
         } catch (JAXBException e) {
             String errorMsg = "XML解析失败: " + e.getMessage();
@@ -160,6 +286,29 @@ public class TableGeneratorService {
         return result;
     }
     
+    private void fillPreview(SqlPreviewResult result, DatabaseSchema schema) {
+        result.setSchema(schema);
+        
+        // 生成SQL语句
+        StringBuilder allSql = new StringBuilder();
+        
+        // 生成创建数据库的SQL
+        if (schema.getName() != null && !schema.getName().isEmpty()) {
+            String createDbSql = sqlGeneratorService.generateCreateDatabaseSql(schema);
+            allSql.append(createDbSql).append("\n");
+        }
+        
+        // 生成创建表的SQL
+        for (TableDefinition table : schema.getTables()) {
+            String createTableSql = sqlGeneratorService.generateCreateTableSql(table);
+            allSql.append(createTableSql).append("\n");
+        }
+        
+        result.setSql(allSql.toString());
+        result.setSuccess(true);
+        result.setMessage("SQL预览生成成功");
+    }
+    
     /**
      * 验证XML文件格式
      * 
@@ -218,6 +367,57 @@ public class TableGeneratorService {
         return result;
     }
     
+    /**
+     * 验证XML输入流
+     * XSD校验与解析在同一次读取中完成，不落临时文件
+     * 
+     * @param inputStream 输入流
+     * @return 验证结果，包含XSD校验错误明细
+     */
+    public ValidationResult validateXml(InputStream inputStream) {
+        ValidationResult result = new ValidationResult();
+        
+        try {
+            log.info("开始验证XML输入流");
+            
+            XmlValidationResult validation = new XmlValidationResult();
+            DatabaseSchema schema = xmlParserService.validateAndParse(inputStream, validation);
+            result.setErrors(validation.getErrors());
+            result.setWarnings(validation.getWarnings());
+            
+            if (!Boolean.TRUE.equals(validation.isValid())) {
+                result.setValid(false);
+                result.setMessage(String.format("XML Schema 校验失败，共 %d 个错误", validation.getErrors().size()));
+                return result;
+            }
+            
+            if (schema.getTables() == null || schema.getTables().isEmpty()) {
+                result.setValid(false);
+                result.setMessage("XML文件中没有定义任何表");
+                return result;
+            }
+            
+            result.setValid(true);
+            result.setMessage(String.format("XML文件验证通过，包含 %d 个表定义", schema.getTables().size()));
+            result.setSchema(schema);
+            
+            log.info("XML输入流验证完成");
+            
+        } catch (JAXBException e) {
+            String errorMsg = "XML格式错误: " + e.getMessage();
+            result.setValid(false);
+            result.setMessage(errorMsg);
+            log.error(errorMsg, e);
+        } catch (Exception e) {
+            String errorMsg = "XML验证失败: " + e.getMessage();
+            result.setValid(false);
+            result.setMessage(errorMsg);
+            log.error(errorMsg, e);
+        }
+        
+        return result;
+    }
+    
     /**
      * 生成结果类
      */
@@ -225,6 +425,8 @@ public class TableGeneratorService {
         private boolean success;
         private String message;
         private DatabaseSchema schema;
+        private String executionId;
+        private int tableCount;
         
         // Getters and Setters
         public boolean isSuccess() { return success; }
@@ -233,6 +435,10 @@ public class TableGeneratorService {
         public void setMessage(String message) { this.message = message; }
         public DatabaseSchema getSchema() { return schema; }
         public void setSchema(DatabaseSchema schema) { this.schema = schema; }
+        public String getExecutionId() { return executionId; }
+        public void setExecutionId(String executionId) { this.executionId = executionId; }
+        public int getTableCount() { return tableCount; }
+        public void setTableCount(int tableCount) { this.tableCount = tableCount; }
     }
     
     /**
@@ -262,6 +468,8 @@ public class TableGeneratorService {
         private boolean valid;
         private String message;
         private DatabaseSchema schema;
+        private List<String> errors = new ArrayList<>();
+        private List<String> warnings = new ArrayList<>();
         
         // Getters and Setters
         public boolean isValid() { return valid; }
@@ -270,5 +478,9 @@ public class TableGeneratorService {
         public void setMessage(String message) { this.message = message; }
         public DatabaseSchema getSchema() { return schema; }
         public void setSchema(DatabaseSchema schema) { this.schema = schema; }
+        public List<String> getErrors() { return errors; }
+        public void setErrors(List<String> errors) { this.errors = errors; }
+        public List<String> getWarnings() { return warnings; }
+        public void setWarnings(List<String> warnings) { this.warnings = warnings; }
     }
 }
\ No newline at end of file
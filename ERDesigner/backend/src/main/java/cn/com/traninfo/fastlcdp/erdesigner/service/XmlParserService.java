@@ -1,16 +1,33 @@
 package cn.com.traninfo.fastlcdp.erdesigner.service;
 
 import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.TableTypeEnum;
 import cn.com.traninfo.fastlcdp.erdesigner.model.*;
+import cn.com.traninfo.fastlcdp.erdesigner.util.InheritanceResolver;
+import cn.com.traninfo.fastlcdp.erdesigner.util.ObjectPool;
+import cn.com.traninfo.fastlcdp.erdesigner.util.XmlSchemaValidator;
+import cn.com.traninfo.fastlcdp.erdesigner.util.XmlValidationErrorHandler;
+import cn.com.traninfo.fastlcdp.erdesigner.util.XmlValidationResult;
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.UnmarshalException;
 import jakarta.xml.bind.Unmarshaller;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * XML解析服务
@@ -20,10 +37,61 @@ import java.util.*;
 @Service
 public class XmlParserService {
     
+    public static final int DEFAULT_POOL_MAX_IDLE = 32;
+    
     private final JAXBContext jaxbContext;
+    
+    private final XMLInputFactory xmlInputFactory;
+    
+    /**
+     * Unmarshaller 非线程安全且创建成本高，按需创建并在归还时重置后复用
+     */
+    @Getter
+    private final ObjectPool<Unmarshaller> unmarshallerPool;
+    
+    @Autowired
+    private ParsedSchemaCache parsedSchemaCache;
+    
+    @Autowired
+    private XmlSchemaValidator xmlSchemaValidator;
 
     public XmlParserService() throws JAXBException {
         jaxbContext = JAXBContext.newInstance(DatabaseSchema.class, TableDefinition.class);
+        xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        unmarshallerPool = new ObjectPool<>("unmarshaller", this::createUnmarshaller,
+                XmlParserService::resetUnmarshaller, DEFAULT_POOL_MAX_IDLE);
+    }
+    
+    @Value("${xml.pool.max-idle:" + DEFAULT_POOL_MAX_IDLE + "}")
+    public void setPoolMaxIdle(int maxIdle) {
+        unmarshallerPool.setMaxIdle(maxIdle);
+    }
+    
+    /**
+     * 上传内容超过该字节数时直接从输入流解析，不读入内存
+     */
+    @Value("${xml.upload.streaming-threshold:8388608}")
+    private long streamingThreshold = 8L * 1024 * 1024;
+    
+    private Unmarshaller createUnmarshaller() {
+        try {
+            return jaxbContext.createUnmarshaller();
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Failed to create JAXB unmarshaller", e);
+        }
+    }
+    
+    private static boolean resetUnmarshaller(Unmarshaller unmarshaller) {
+        try {
+            unmarshaller.setSchema(null);
+            unmarshaller.setEventHandler(null);
+            unmarshaller.setListener(null);
+            return true;
+        } catch (JAXBException e) {
+            return false;
+        }
     }
 
     /**
@@ -36,19 +104,64 @@ public class XmlParserService {
     public DatabaseSchema parseFromFile(File xmlFile) throws JAXBException {
         log.info("Start parsing XML file: {}", xmlFile.getAbsolutePath());
         
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-        DatabaseSchema schema = (DatabaseSchema) unmarshaller.unmarshal(xmlFile);
-        
-        // 处理表继承关系
-        processTableInheritance(schema);
+        byte[] xmlBytes;
+        try {
+            xmlBytes = Files.readAllBytes(xmlFile.toPath());
+        } catch (IOException e) {
+            throw new JAXBException("Failed to read XML file: " + xmlFile.getAbsolutePath(), e);
+        }
+        return parseFromBytes(xmlBytes);
+    }
+    
+    /**
+     * 从字节内容解析数据库模式
+     * 相同内容的重复解析直接命中缓存，返回的是独立副本
+     * 
+     * @param xmlBytes XML字节内容
+     * @return 数据库模式对象
+     * @throws JAXBException 解析异常
+     */
+    public DatabaseSchema parseFromBytes(byte[] xmlBytes) throws JAXBException {
+        if (parsedSchemaCache == null || !parsedSchemaCache.isEnabled()) {
+            return parseFromStream(new ByteArrayInputStream(xmlBytes));
+        }
         
-        // 处理主键类型
-        processPrimaryKeyTypes(schema);
+        String key = parsedSchemaCache.digest(xmlBytes);
+        DatabaseSchema cached = parsedSchemaCache.get(key);
+        if (cached != null) {
+            log.info("Parsed schema cache hit: {}, {} table definitions", key, cached.getTables().size());
+            return cached;
+        }
         
-        log.info("XML parsing completed, found {} table definitions", schema.getTables().size());
+        DatabaseSchema schema = parseFromStream(new ByteArrayInputStream(xmlBytes));
+        parsedSchemaCache.put(key, schema, xmlBytes.length);
         return schema;
     }
     
+    /**
+     * 解析上传的XML内容
+     * 长度已知且不超过 streamingThreshold 时一次读入内存，复用 parseFromBytes 的解析缓存；
+     * 长度未知或更大的上传直接从请求体解析，不产生整份副本
+     * 
+     * @param inputStream 上传内容输入流，由调用方关闭
+     * @param contentLength 内容字节数，未知时传-1
+     * @return 数据库模式对象
+     * @throws JAXBException 解析异常
+     */
+    public DatabaseSchema parseUpload(InputStream inputStream, long contentLength) throws JAXBException {
+        if (contentLength < 0 || contentLength > streamingThreshold) {
+            return parseFromStream(inputStream);
+        }
+        
+        byte[] xmlBytes;
+        try {
+            xmlBytes = inputStream.readNBytes((int) contentLength);
+        } catch (IOException e) {
+            throw new JAXBException("Failed to read XML upload", e);
+        }
+        return parseFromBytes(xmlBytes);
+    }
+    
     /**
      * 从输入流解析数据库模式
      * 
@@ -57,10 +170,37 @@ public class XmlParserService {
      * @throws JAXBException 解析异常
      */
     public DatabaseSchema parseFromStream(InputStream inputStream) throws JAXBException {
+        return parseFromStream(inputStream, null);
+    }
+    
+    /**
+     * 从输入流解析数据库模式，每反序列化完一张表即回调，用于报告解析进度
+     * 回调发生在继承处理之前，回调中抛出的运行时异常会中止解析
+     * 
+     * @param inputStream 输入流
+     * @param tableListener 表解析完成回调，可为null
+     * @return 数据库模式对象
+     * @throws JAXBException 解析异常
+     */
+    public DatabaseSchema parseFromStream(InputStream inputStream, Consumer<TableDefinition> tableListener) throws JAXBException {
         log.info("Start parsing XML from the input stream");
         
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-        DatabaseSchema schema = (DatabaseSchema) unmarshaller.unmarshal(inputStream);
+        DatabaseSchema schema;
+        try (ObjectPool<Unmarshaller>.Lease lease = unmarshallerPool.borrow()) {
+            Unmarshaller unmarshaller = lease.get();
+            if (tableListener != null) {
+                // 归还到池中时 resetUnmarshaller 会清除监听器
+                unmarshaller.setListener(new Unmarshaller.Listener() {
+                    @Override
+                    public void afterUnmarshal(Object target, Object parent) {
+                        if (target instanceof TableDefinition table) {
+                            tableListener.accept(table);
+                        }
+                    }
+                });
+            }
+            schema = (DatabaseSchema) unmarshaller.unmarshal(inputStream);
+        }
         
         // 处理表继承关系
         processTableInheritance(schema);
@@ -73,104 +213,312 @@ public class XmlParserService {
     }
     
     /**
-     * 处理表继承关系
-     * 将父表的字段、索引、关联关系合并到子表中
+     * 校验并解析数据库模式
+     * 通过 Unmarshaller.setSchema 在同一次SAX解析中完成XSD校验与反序列化，输入流只读取一次；
+     * 校验错误收集到 validationResult 中，超过 maxErrorCount 或出现严重错误时中止解析
      * 
-     * @param schema 数据库模式
+     * @param inputStream 输入流
+     * @param validationResult 校验结果，由调用方创建
+     * @return 校验通过时返回数据库模式对象，否则返回null
+     * @throws JAXBException 非校验原因导致的解析异常
      */
-    private void processTableInheritance(DatabaseSchema schema) {
-        Map<String, TableDefinition> tableMap = new HashMap<>();
-        
-        // 构建表名到表定义的映射
-        for (TableDefinition table : schema.getTables()) {
-            tableMap.put(table.getName(), table);
+    public DatabaseSchema validateAndParse(InputStream inputStream, XmlValidationResult validationResult) throws JAXBException {
+        if (xmlSchemaValidator == null || xmlSchemaValidator.getSchema() == null) {
+            throw new IllegalStateException("XML Schema 未加载，无法校验");
         }
+        log.info("Start validating and parsing XML from the input stream");
         
-        // 处理每个表的继承关系
-        for (TableDefinition table : schema.getTables()) {
-            if (table.getExtendsTable() != null && !table.getExtendsTable().isEmpty()) {
-                processTableInheritance(table, tableMap, new ArrayList<>());
+        XmlValidationErrorHandler errorHandler = new XmlValidationErrorHandler(xmlSchemaValidator.getMaxErrorCount());
+        DatabaseSchema schema = null;
+        try (ObjectPool<Unmarshaller>.Lease lease = unmarshallerPool.borrow()) {
+            Unmarshaller unmarshaller = lease.get();
+            unmarshaller.setSchema(xmlSchemaValidator.getSchema());
+            unmarshaller.setEventHandler(errorHandler);
+            schema = (DatabaseSchema) unmarshaller.unmarshal(inputStream);
+        } catch (UnmarshalException e) {
+            // 事件处理器中止解析，或XML本身不是良构文档
+            if (!errorHandler.hasErrors()) {
+                errorHandler.getErrors().add("XML stream validation failed: " + e.getMessage());
             }
         }
+        
+        validationResult.getErrors().addAll(errorHandler.getErrors());
+        validationResult.getWarnings().addAll(errorHandler.getWarnings());
+        if (errorHandler.hasErrors() || schema == null) {
+            validationResult.setValid(false);
+            log.warn("XML validation failed with {} errors", errorHandler.getErrors().size());
+            return null;
+        }
+        validationResult.setValid(true);
+        
+        // 处理表继承关系
+        processTableInheritance(schema);
+        
+        // 处理主键类型
+        processPrimaryKeyTypes(schema);
+        
+        log.info("XML validation and parsing is completed, and a total of {} table definitions are parsed.", schema.getTables().size());
+        return schema;
     }
     
     /**
-     * 递归处理单个表的继承关系
+     * 流式解析数据库模式
+     * 基于StAX逐个读取table元素，每张表完成继承与主键处理后立即交给consumer，
+     * 无需等待整个文档解析完成。父表尚未出现的子表会暂存，待父表到达后再处理；
+     * 外键引用的表尚未输出时同样暂存，保证consumer逐表建表时被引用的表已经存在。
+     * 表输出后解析器不再引用该表定义，只为它保留可继承部分（字段、索引、关联关系列表的副本，元素与输出的表共享）；
+     * 单遍读取时后面任何一张表都可能继承前面的表，这部分无法提前释放，
+     * 因此峰值内存仍与已解析的字段、索引、关系总数成正比，只是不再驻留表本身和文档。
+     * 文档结束时仍缺少父表或被引用表（不存在或循环引用）的表按文档顺序输出
      * 
-     * @param table 当前表
-     * @param tableMap 表映射
-     * @param processedTables 已处理的表列表（防止循环继承）
+     * @param inputStream 输入流
+     * @param tableConsumer 表定义消费者，按可输出的顺序回调
+     * @return 只包含数据库属性的模式对象（tables为空）
+     * @throws JAXBException 解析异常
      */
-    private void processTableInheritance(TableDefinition table, Map<String, TableDefinition> tableMap, List<String> processedTables) {
-        if (processedTables.contains(table.getName())) {
-            log.warn("Circular inheritance detected for table: {}", table.getName());
-            return;
+    public DatabaseSchema parseStreaming(InputStream inputStream, Consumer<TableDefinition> tableConsumer) throws JAXBException {
+        log.info("Start streaming XML parsing");
+        
+        DatabaseSchema header = new DatabaseSchema();
+        StreamingResolver resolver = new StreamingResolver(tableConsumer);
+        XMLStreamReader reader = null;
+        try (ObjectPool<Unmarshaller>.Lease lease = unmarshallerPool.borrow()) {
+            reader = xmlInputFactory.createXMLStreamReader(inputStream);
+            Unmarshaller unmarshaller = lease.get();
+            
+            // 定位到根元素并读取数据库属性
+            while (reader.hasNext() && !reader.isStartElement()) {
+                reader.next();
+            }
+            if (!reader.isStartElement() || !"database".equals(reader.getLocalName())) {
+                throw new JAXBException("Root element <database> not found");
+            }
+            readDatabaseAttributes(reader, header);
+            
+            while (reader.hasNext()) {
+                if (reader.isStartElement() && "table".equals(reader.getLocalName())) {
+                    // 局部反序列化后reader已位于</table>之后，不再调用next()
+                    TableDefinition table = unmarshaller.unmarshal(reader, TableDefinition.class).getValue();
+                    resolver.accept(table);
+                } else {
+                    reader.next();
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new JAXBException("Streaming XML parsing failed: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    log.debug("Failed to close XML stream reader", e);
+                }
+            }
         }
         
-        processedTables.add(table.getName());
+        resolver.flushUnresolved();
+        log.info("Streaming XML parsing completed, {} table definitions emitted", resolver.emittedCount);
+        return header;
+    }
+    
+    private void readDatabaseAttributes(XMLStreamReader reader, DatabaseSchema header) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String value = reader.getAttributeValue(i);
+            switch (reader.getAttributeLocalName(i)) {
+                case "name" -> header.setName(value);
+                case "version" -> header.setVersion(value);
+                case "charset" -> header.setCharset(value);
+                case "collation" -> header.setCollation(value);
+                case "engine" -> header.setEngine(value);
+                case "comment" -> header.setComment(value);
+                default -> {
+                }
+            }
+        }
+    }
+    
+    /**
+     * 流式解析中的继承与外键依赖处理状态
+     */
+    private class StreamingResolver {
+        
+        private final Consumer<TableDefinition> tableConsumer;
+        
+        /** 已完成继承处理的表的可继承部分，供后续子表合并；只含名称、字段、索引、关联关系 */
+        private final Map<String, TableDefinition> inheritableTables = new HashMap<>();
+        
+        /** 已输出的表名 */
+        private final Set<String> emittedTables = new HashSet<>();
+        
+        /** 按父表名暂存的子表 */
+        private final Map<String, List<TableDefinition>> waitingChildren = new LinkedHashMap<>();
         
-        String parentTableName = table.getExtendsTable();
-        if (parentTableName != null && !parentTableName.isEmpty()) {
-            TableDefinition parentTable = tableMap.get(parentTableName);
-            if (parentTable == null) {
-                log.warn("Parent table '{}' not found for child table '{}'", parentTableName, table.getName());
+        /** 按被引用表名暂存的表 */
+        private final Map<String, List<PendingTable>> waitingReferences = new HashMap<>();
+        
+        /** 因外键引用暂存的表，按到达顺序排列 */
+        private final Set<PendingTable> pendingTables = new LinkedHashSet<>();
+        
+        private int emittedCount;
+        
+        private StreamingResolver(Consumer<TableDefinition> tableConsumer) {
+            this.tableConsumer = tableConsumer;
+        }
+        
+        private void accept(TableDefinition table) {
+            String parentName = table.getExtendsTable();
+            if (parentName == null || parentName.isEmpty()) {
+                resolve(table);
                 return;
             }
-            
-            // 递归处理父表的继承关系
-            if (parentTable.getExtendsTable() != null && !parentTable.getExtendsTable().isEmpty()) {
-                processTableInheritance(parentTable, tableMap, new ArrayList<>(processedTables));
+            TableDefinition parent = inheritableTables.get(parentName);
+            if (parent != null) {
+                InheritanceResolver.mergeParent(table, parent);
+                resolve(table);
+            } else {
+                waitingChildren.computeIfAbsent(parentName, k -> new ArrayList<>()).add(table);
             }
-            
-            // 合并父表的字段（在子表字段之前），使用LinkedHashMap确保顺序并去重
-            Map<String, FieldDefinition> fieldMap = new LinkedHashMap<>();
-            
-            // 先添加父表字段
-            for (FieldDefinition field : parentTable.getFields()) {
-                fieldMap.put(field.getName(), field);
+        }
+        
+        /**
+         * 登记已完成继承处理的表，并处理等待该表的子表
+         */
+        private void resolve(TableDefinition table) {
+            Deque<TableDefinition> ready = new ArrayDeque<>();
+            ready.push(table);
+            while (!ready.isEmpty()) {
+                TableDefinition current = ready.pop();
+                processPrimaryKeyTypes(current);
+                inheritableTables.put(current.getName(), inheritableSnapshot(current));
+                
+                List<TableDefinition> children = waitingChildren.remove(current.getName());
+                if (children != null) {
+                    for (int i = children.size() - 1; i >= 0; i--) {
+                        TableDefinition child = children.get(i);
+                        InheritanceResolver.mergeParent(child, current);
+                        log.debug("Inheritance processed: child table '{}', parent table '{}'", child.getName(), current.getName());
+                        ready.push(child);
+                    }
+                }
+                // 子表先入栈、父表先输出，父表输出后子表依次处理
+                submit(current);
             }
-            
-            // 再添加子表字段（如果同名则覆盖父表字段）
-            for (FieldDefinition field : table.getFields()) {
-                fieldMap.put(field.getName(), field);
+        }
+        
+        /**
+         * 只保留继承合并用到的部分，表输出后其余属性随表定义一起释放；
+         * 列表为副本，consumer 之后修改输出的表不会影响子表继承的内容
+         */
+        private TableDefinition inheritableSnapshot(TableDefinition table) {
+            TableDefinition snapshot = new TableDefinition();
+            snapshot.setName(table.getName());
+            snapshot.setFields(new ArrayList<>(table.getFields()));
+            snapshot.setIndexes(new ArrayList<>(table.getIndexes()));
+            snapshot.setRelations(new ArrayList<>(table.getRelations()));
+            return snapshot;
+        }
+        
+        /**
+         * 外键引用的表都已输出时输出，否则暂存到被引用表输出
+         */
+        private void submit(TableDefinition table) {
+            Set<String> missing = new LinkedHashSet<>();
+            if (table.getRelations() != null) {
+                for (RelationDefinition relation : table.getRelations()) {
+                    String referenced = relation.getReferenceTable();
+                    if (referenced != null && !referenced.equals(table.getName()) && !emittedTables.contains(referenced)) {
+                        missing.add(referenced);
+                    }
+                }
             }
-            
-            table.setFields(new ArrayList<>(fieldMap.values()));
-            
-            // 合并父表的索引，使用LinkedHashMap去重
-            Map<String, IndexDefinition> indexMap = new LinkedHashMap<>();
-            
-            // 先添加父表索引
-            for (IndexDefinition index : parentTable.getIndexes()) {
-                indexMap.put(index.getName(), index);
+            if (missing.isEmpty()) {
+                emit(table);
+                return;
             }
-            
-            // 再添加子表索引（如果同名则覆盖父表索引）
-            for (IndexDefinition index : table.getIndexes()) {
-                indexMap.put(index.getName(), index);
+            PendingTable pending = new PendingTable(table, missing);
+            pendingTables.add(pending);
+            for (String referenced : missing) {
+                waitingReferences.computeIfAbsent(referenced, k -> new ArrayList<>()).add(pending);
             }
-            
-            table.setIndexes(new ArrayList<>(indexMap.values()));
-            
-            // 合并父表的关联关系，使用LinkedHashMap去重
-            Map<String, RelationDefinition> relationMap = new LinkedHashMap<>();
-            
-            // 先添加父表关联关系
-            for (RelationDefinition relation : parentTable.getRelations()) {
-                relationMap.put(relation.getName(), relation);
+        }
+        
+        /**
+         * 输出表，并输出因此不再缺少被引用表的暂存表
+         */
+        private void emit(TableDefinition table) {
+            Deque<TableDefinition> ready = new ArrayDeque<>();
+            ready.add(table);
+            while (!ready.isEmpty()) {
+                TableDefinition current = ready.poll();
+                tableConsumer.accept(current);
+                emittedTables.add(current.getName());
+                emittedCount++;
+                
+                List<PendingTable> dependents = waitingReferences.remove(current.getName());
+                if (dependents != null) {
+                    for (PendingTable dependent : dependents) {
+                        if (dependent.missing.remove(current.getName()) && dependent.missing.isEmpty()
+                                && pendingTables.remove(dependent)) {
+                            ready.add(dependent.table);
+                        }
+                    }
+                }
             }
-            
-            // 再添加子表关联关系（如果同名则覆盖父表关联关系）
-            for (RelationDefinition relation : table.getRelations()) {
-                relationMap.put(relation.getName(), relation);
+        }
+        
+        /**
+         * 文档结束后仍在等待的表：父表不存在或存在循环继承的子表按原样处理；
+         * 被引用表不存在或外键循环引用的表按到达顺序输出
+         */
+        private void flushUnresolved() {
+            List<TableDefinition> orphans = new ArrayList<>();
+            for (Map.Entry<String, List<TableDefinition>> entry : waitingChildren.entrySet()) {
+                for (TableDefinition child : entry.getValue()) {
+                    log.warn("Parent table '{}' not found for child table '{}'", entry.getKey(), child.getName());
+                    orphans.add(child);
+                }
+            }
+            waitingChildren.clear();
+            for (TableDefinition orphan : orphans) {
+                resolve(orphan);
             }
             
-            table.setRelations(new ArrayList<>(relationMap.values()));
-            
-            log.debug("Inheritance processed: child table '{}', parent table '{}'", table.getName(), parentTableName);
+            while (!pendingTables.isEmpty()) {
+                PendingTable first = pendingTables.iterator().next();
+                pendingTables.remove(first);
+                log.warn("Referenced tables {} not emitted before table '{}'", first.missing, first.table.getName());
+                emit(first.table);
+            }
+            waitingReferences.clear();
         }
     }
     
+    /**
+     * 等待被引用表输出的表，按对象身份比较
+     */
+    private static class PendingTable {
+        
+        private final TableDefinition table;
+        
+        /** 尚未输出的被引用表名 */
+        private final Set<String> missing;
+        
+        private PendingTable(TableDefinition table, Set<String> missing) {
+            this.table = table;
+            this.missing = missing;
+        }
+    }
+    
+    /**
+     * 处理表继承关系
+     * 将父表的字段、索引、关联关系合并到子表中，存在循环继承时抛出异常
+     * 
+     * @param schema 数据库模式
+     */
+    private void processTableInheritance(DatabaseSchema schema) {
+        InheritanceResolver.resolve(schema.getTables());
+    }
+    
     /**
      * 处理主键类型
      * 根据primaryKey和autoIncrement属性的组合设置正确的PrimaryKeyType
@@ -179,14 +527,18 @@ public class XmlParserService {
      */
     private void processPrimaryKeyTypes(DatabaseSchema schema) {
         for (TableDefinition table : schema.getTables()) {
-            for (FieldDefinition field : table.getFields()) {
-                // 如果primaryKey属性为true且autoIncrement为true，设置为AUTO_INCREMENT
-                if (PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(field.getPrimaryKey())) {
-                    field.setPrimaryKey(PrimaryKeyTypeEnum.AUTO_INCREMENT);
-                }
-                // 如果只有primaryKey为true但autoIncrement为false或null，保持原有逻辑
-                // 这里可以根据需要扩展其他主键类型的处理逻辑
+            processPrimaryKeyTypes(table);
+        }
+    }
+    
+    private void processPrimaryKeyTypes(TableDefinition table) {
+        for (FieldDefinition field : table.getFields()) {
+            // 如果primaryKey属性为true且autoIncrement为true，设置为AUTO_INCREMENT
+            if (PrimaryKeyTypeEnum.AUTO_INCREMENT.equals(field.getPrimaryKey())) {
+                field.setPrimaryKey(PrimaryKeyTypeEnum.AUTO_INCREMENT);
             }
+            // 如果只有primaryKey为true但autoIncrement为false或null，保持原有逻辑
+            // 这里可以根据需要扩展其他主键类型的处理逻辑
         }
     }
 }
\ No newline at end of file
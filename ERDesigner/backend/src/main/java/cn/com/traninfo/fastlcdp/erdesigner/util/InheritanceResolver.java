@@ -0,0 +1,145 @@
+package cn.com.traninfo.fastlcdp.erdesigner.util;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.IndexDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.RelationDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 表继承解析工具类
+ * 按父表到子表的拓扑顺序处理继承，每张表只合并一次：
+ * 父表先完成合并，其字段、索引、关联关系即为子表可直接复用的结果，不再重复回溯祖先链
+ */
+@Slf4j
+public final class InheritanceResolver {
+
+    private InheritanceResolver() {
+    }
+
+    /**
+     * 解析表继承关系，结果直接写回各表定义
+     *
+     * @param tables 表定义列表
+     * @throws IllegalArgumentException 存在循环继承时抛出，消息中包含完整的循环路径
+     */
+    public static void resolve(List<TableDefinition> tables) {
+        Map<String, TableDefinition> tableMap = new HashMap<>();
+        for (TableDefinition table : tables) {
+            tableMap.put(table.getName(), table);
+        }
+
+        // 父表名 -> 直接子表；父表为空或不存在的表作为起点
+        Map<String, List<TableDefinition>> childrenMap = new HashMap<>();
+        Deque<TableDefinition> queue = new ArrayDeque<>();
+        for (TableDefinition table : tables) {
+            String parentName = table.getExtendsTable();
+            if (parentName == null || parentName.isEmpty()) {
+                queue.add(table);
+            } else if (!tableMap.containsKey(parentName)) {
+                log.warn("Parent table '{}' not found for child table '{}'", parentName, table.getName());
+                queue.add(table);
+            } else {
+                childrenMap.computeIfAbsent(parentName, key -> new ArrayList<>()).add(table);
+            }
+        }
+
+        int resolvedCount = 0;
+        while (!queue.isEmpty()) {
+            TableDefinition parent = queue.poll();
+            resolvedCount++;
+            List<TableDefinition> children = childrenMap.remove(parent.getName());
+            if (children == null) {
+                continue;
+            }
+            for (TableDefinition child : children) {
+                mergeParent(child, parent);
+                log.debug("Inheritance processed: child table '{}', parent table '{}'", child.getName(), parent.getName());
+                queue.add(child);
+            }
+        }
+
+        if (resolvedCount < tables.size()) {
+            throw new IllegalArgumentException("检测到循环继承: " + findCyclePath(tables, tableMap, childrenMap));
+        }
+    }
+
+    /**
+     * 将父表的字段、索引、关联关系合并到子表，父表在前，子表同名项覆盖父表
+     *
+     * @param table 子表
+     * @param parentTable 已完成继承处理的父表
+     */
+    public static void mergeParent(TableDefinition table, TableDefinition parentTable) {
+        // 合并父表的字段（在子表字段之前），使用LinkedHashMap确保顺序并去重
+        Map<String, FieldDefinition> fieldMap = new LinkedHashMap<>();
+        for (FieldDefinition field : parentTable.getFields()) {
+            fieldMap.put(field.getName(), field);
+        }
+        for (FieldDefinition field : table.getFields()) {
+            fieldMap.put(field.getName(), field);
+        }
+        table.setFields(new ArrayList<>(fieldMap.values()));
+
+        // 合并父表的索引
+        Map<String, IndexDefinition> indexMap = new LinkedHashMap<>();
+        for (IndexDefinition index : parentTable.getIndexes()) {
+            indexMap.put(index.getName(), index);
+        }
+        for (IndexDefinition index : table.getIndexes()) {
+            indexMap.put(index.getName(), index);
+        }
+        table.setIndexes(new ArrayList<>(indexMap.values()));
+
+        // 合并父表的关联关系
+        Map<String, RelationDefinition> relationMap = new LinkedHashMap<>();
+        for (RelationDefinition relation : parentTable.getRelations()) {
+            relationMap.put(relation.getName(), relation);
+        }
+        for (RelationDefinition relation : table.getRelations()) {
+            relationMap.put(relation.getName(), relation);
+        }
+        table.setRelations(new ArrayList<>(relationMap.values()));
+    }
+
+    /**
+     * 从仍未处理的表出发沿父表链查找循环，返回形如 a -> b -> c -> a 的路径
+     */
+    private static String findCyclePath(List<TableDefinition> tables, Map<String, TableDefinition> tableMap,
+                                        Map<String, List<TableDefinition>> unresolvedChildren) {
+        Set<String> unresolved = new HashSet<>();
+        for (List<TableDefinition> children : unresolvedChildren.values()) {
+            for (TableDefinition child : children) {
+                unresolved.add(child.getName());
+            }
+        }
+        for (TableDefinition table : tables) {
+            if (!unresolved.contains(table.getName())) {
+                continue;
+            }
+            // 未处理的表沿父表链必然进入一个循环
+            List<String> path = new ArrayList<>();
+            Map<String, Integer> positions = new HashMap<>();
+            String current = table.getName();
+            while (!positions.containsKey(current)) {
+                positions.put(current, path.size());
+                path.add(current);
+                current = tableMap.get(current).getExtendsTable();
+            }
+            List<String> cycle = new ArrayList<>(path.subList(positions.get(current), path.size()));
+            cycle.add(current);
+            return String.join(" -> ", cycle);
+        }
+        return "";
+    }
+}
@@ -0,0 +1,141 @@
+package cn.com.traninfo.fastlcdp.erdesigner.util;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 数据源连接地址校验工具类
+ * 登记的连接地址由服务端直接打开，只接受各数据库类型的标准前缀和白名单中的连接参数：
+ * MySQL 的 allowLoadLocalInfile、autoDeserialize，PostgreSQL 的 socketFactory、sslfactory，
+ * H2 的 INIT、文件库和远程库等会在服务端读写文件或执行代码的参数一律拒绝
+ */
+public final class JdbcUrlValidator {
+
+    private static final Pattern PARAMETER_NAME = Pattern.compile("[A-Za-z0-9_]+");
+
+    /**
+     * 各数据库类型的连接地址前缀，H2 只允许内存库
+     */
+    private static final Map<DatabaseConfig.DatabaseType, String> PREFIXES = Map.of(
+            DatabaseConfig.DatabaseType.H2, "jdbc:h2:mem:",
+            DatabaseConfig.DatabaseType.MYSQL, "jdbc:mysql://",
+            DatabaseConfig.DatabaseType.POSTGRESQL, "jdbc:postgresql://",
+            DatabaseConfig.DatabaseType.ORACLE, "jdbc:oracle:thin:@",
+            DatabaseConfig.DatabaseType.SQLSERVER, "jdbc:sqlserver://");
+
+    /**
+     * 各数据库类型允许的连接参数（不区分大小写），Oracle 不接受连接参数
+     */
+    private static final Map<DatabaseConfig.DatabaseType, Set<String>> PARAMETERS = Map.of(
+            DatabaseConfig.DatabaseType.H2, lowerCase(Set.of(
+                    "DB_CLOSE_DELAY", "DB_CLOSE_ON_EXIT", "MODE", "DATABASE_TO_LOWER", "DATABASE_TO_UPPER",
+                    "CASE_INSENSITIVE_IDENTIFIERS", "LOCK_TIMEOUT")),
+            DatabaseConfig.DatabaseType.MYSQL, lowerCase(Set.of(
+                    "useUnicode", "characterEncoding", "useSSL", "sslMode", "requireSSL", "serverTimezone",
+                    "connectTimeout", "socketTimeout", "zeroDateTimeBehavior", "rewriteBatchedStatements",
+                    "useServerPrepStmts", "cachePrepStmts", "tinyInt1isBit", "allowPublicKeyRetrieval")),
+            DatabaseConfig.DatabaseType.POSTGRESQL, lowerCase(Set.of(
+                    "ssl", "sslmode", "currentSchema", "connectTimeout", "socketTimeout", "loginTimeout",
+                    "ApplicationName", "reWriteBatchedInserts", "stringtype", "targetServerType")),
+            DatabaseConfig.DatabaseType.ORACLE, Set.of(),
+            DatabaseConfig.DatabaseType.SQLSERVER, lowerCase(Set.of(
+                    "databaseName", "database", "encrypt", "trustServerCertificate", "hostNameInCertificate",
+                    "loginTimeout", "applicationName", "sendStringParametersAsUnicode", "lockTimeout")));
+
+    private JdbcUrlValidator() {
+    }
+
+    /**
+     * 校验连接地址并确定数据库类型，数据库类型为空时按连接地址推断
+     *
+     * @param dbType 数据库类型，可为空
+     * @param url 连接地址
+     * @return 数据库类型，连接驱动由该类型决定
+     * @throws IllegalArgumentException 数据库类型不支持，或连接地址的前缀、参数不在白名单中
+     */
+    public static DatabaseConfig.DatabaseType validate(String dbType, String url) {
+        if (!StringUtils.hasText(url)) {
+            throw new IllegalArgumentException("连接地址不能为空");
+        }
+        String trimmed = url.trim();
+        DatabaseConfig.DatabaseType type = StringUtils.hasText(dbType) ? parseType(dbType) : inferType(trimmed);
+        String prefix = PREFIXES.get(type);
+        if (!trimmed.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            throw new IllegalArgumentException("连接地址必须以 " + prefix + " 开头: " + type.name());
+        }
+        String rest = trimmed.substring(prefix.length());
+        switch (type) {
+            case MYSQL:
+            case POSTGRESQL:
+                int query = rest.indexOf('?');
+                String address = query >= 0 ? rest.substring(0, query) : rest;
+                // MySQL 的 (host=...,key=value) 和 address=(...) 写法可以在主机部分携带连接参数
+                if (address.indexOf('(') >= 0 || address.indexOf(';') >= 0) {
+                    throw new IllegalArgumentException("连接地址的主机部分不能包含连接参数");
+                }
+                if (query >= 0) {
+                    checkParameters(type, rest.substring(query + 1), "&");
+                }
+                break;
+            case SQLSERVER:
+            case H2:
+                int separator = rest.indexOf(';');
+                String name = separator >= 0 ? rest.substring(0, separator) : rest;
+                if (name.indexOf('?') >= 0 || (type == DatabaseConfig.DatabaseType.H2 && (name.contains("/") || name.contains("\\")))) {
+                    throw new IllegalArgumentException("连接地址格式不正确: " + type.name());
+                }
+                if (separator >= 0) {
+                    checkParameters(type, rest.substring(separator + 1), ";");
+                }
+                break;
+            default:
+                if (rest.indexOf('?') >= 0) {
+                    throw new IllegalArgumentException("连接地址不能包含连接参数: " + type.name());
+                }
+                break;
+        }
+        return type;
+    }
+
+    private static void checkParameters(DatabaseConfig.DatabaseType type, String parameters, String separator) {
+        Set<String> allowed = PARAMETERS.get(type);
+        for (String parameter : parameters.split(Pattern.quote(separator))) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            int equals = parameter.indexOf('=');
+            String name = (equals >= 0 ? parameter.substring(0, equals) : parameter).trim();
+            if (!PARAMETER_NAME.matcher(name).matches() || !allowed.contains(name.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("不允许的连接参数: " + name);
+            }
+        }
+    }
+
+    private static DatabaseConfig.DatabaseType parseType(String dbType) {
+        try {
+            return DatabaseConfig.DatabaseType.valueOf(dbType.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的数据库类型: " + dbType);
+        }
+    }
+
+    private static DatabaseConfig.DatabaseType inferType(String url) {
+        String lowerCase = url.toLowerCase(Locale.ROOT);
+        for (DatabaseConfig.DatabaseType type : DatabaseConfig.DatabaseType.values()) {
+            if (lowerCase.startsWith("jdbc:" + type.name().toLowerCase(Locale.ROOT) + ":")) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("无法从连接地址识别数据库类型，请配置 dbType");
+    }
+
+    private static Set<String> lowerCase(Set<String> names) {
+        return names.stream().map(name -> name.toLowerCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+    }
+}
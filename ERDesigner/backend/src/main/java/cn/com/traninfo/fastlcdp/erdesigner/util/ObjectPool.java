@@ -0,0 +1,173 @@
+package cn.com.traninfo.fastlcdp.erdesigner.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 线程安全的轻量对象池
+ * 用于复用创建成本较高、非线程安全的对象（如 Unmarshaller、Validator）。
+ * 池为空时直接新建，不会阻塞；归还时先重置，重置失败或空闲数已满则丢弃。
+ * clear() 之后借出的旧对象归还时会被丢弃，保证配置变更后不再复用旧实例
+ *
+ * @param <T> 池化对象类型
+ */
+@Slf4j
+public class ObjectPool<T> {
+
+    private final String name;
+
+    private final Supplier<T> factory;
+
+    private final Predicate<T> resetter;
+
+    private final ConcurrentLinkedDeque<T> idle = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private final AtomicInteger inUse = new AtomicInteger();
+
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private final AtomicLong created = new AtomicLong();
+
+    private final AtomicLong borrowed = new AtomicLong();
+
+    private final AtomicLong discarded = new AtomicLong();
+
+    private volatile int maxIdle;
+
+    /**
+     * @param name 池名称，用于日志和统计
+     * @param factory 对象创建方法
+     * @param resetter 归还时的重置方法，返回false表示对象不可复用
+     * @param maxIdle 最大空闲对象数
+     */
+    public ObjectPool(String name, Supplier<T> factory, Predicate<T> resetter, int maxIdle) {
+        this.name = name;
+        this.factory = factory;
+        this.resetter = resetter;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * 借出对象，配合 try-with-resources 使用
+     */
+    public Lease borrow() {
+        T object = idle.pollFirst();
+        if (object != null) {
+            idleCount.decrementAndGet();
+        } else {
+            object = factory.get();
+            created.incrementAndGet();
+        }
+        borrowed.incrementAndGet();
+        inUse.incrementAndGet();
+        return new Lease(object, generation.get());
+    }
+
+    private void release(T object, int leaseGeneration) {
+        inUse.decrementAndGet();
+        boolean reusable;
+        try {
+            reusable = leaseGeneration == generation.get() && resetter.test(object);
+        } catch (RuntimeException e) {
+            log.debug("Failed to reset pooled object in {}", name, e);
+            reusable = false;
+        }
+        if (reusable && idleCount.incrementAndGet() <= maxIdle) {
+            idle.offerFirst(object);
+        } else {
+            if (reusable) {
+                idleCount.decrementAndGet();
+            }
+            discarded.incrementAndGet();
+        }
+    }
+
+    /**
+     * 清空空闲对象，已借出的对象归还时丢弃
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        T object;
+        while ((object = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            discarded.incrementAndGet();
+        }
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    public int getInUseCount() {
+        return inUse.get();
+    }
+
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    public long getBorrowedCount() {
+        return borrowed.get();
+    }
+
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    /**
+     * 池统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("name", name);
+        statistics.put("maxIdle", maxIdle);
+        statistics.put("idle", idleCount.get());
+        statistics.put("inUse", inUse.get());
+        statistics.put("created", created.get());
+        statistics.put("borrowed", borrowed.get());
+        statistics.put("discarded", discarded.get());
+        return statistics;
+    }
+
+    /**
+     * 借出凭证，关闭时自动归还
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final T object;
+
+        private final int leaseGeneration;
+
+        private boolean released;
+
+        private Lease(T object, int leaseGeneration) {
+            this.object = object;
+            this.leaseGeneration = leaseGeneration;
+        }
+
+        public T get() {
+            return object;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(object, leaseGeneration);
+            }
+        }
+    }
+}
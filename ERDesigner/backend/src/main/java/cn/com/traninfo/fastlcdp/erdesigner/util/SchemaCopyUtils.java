@@ -0,0 +1,150 @@
+package cn.com.traninfo.fastlcdp.erdesigner.util;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模式定义深拷贝工具类
+ * 缓存中的模式对象不对外暴露，调用方拿到的都是独立副本
+ */
+public final class SchemaCopyUtils {
+
+    private SchemaCopyUtils() {
+    }
+
+    public static DatabaseSchema copy(DatabaseSchema source) {
+        if (source == null) {
+            return null;
+        }
+        DatabaseSchema target = new DatabaseSchema();
+        target.setName(source.getName());
+        target.setVersion(source.getVersion());
+        target.setCharset(source.getCharset());
+        target.setCollation(source.getCollation());
+        target.setEngine(source.getEngine());
+        target.setComment(source.getComment());
+        target.setTables(copyTables(source.getTables()));
+        return target;
+    }
+
+    public static TableDefinition copy(TableDefinition source) {
+        if (source == null) {
+            return null;
+        }
+        TableDefinition target = new TableDefinition();
+        target.setName(source.getName());
+        target.setType(source.getType());
+        target.setComment(source.getComment());
+        target.setExtendsTable(source.getExtendsTable());
+        target.setEngine(source.getEngine());
+        target.setCharset(source.getCharset());
+
+        List<FieldDefinition> fields = new ArrayList<>();
+        if (source.getFields() != null) {
+            for (FieldDefinition field : source.getFields()) {
+                fields.add(copy(field));
+            }
+        }
+        target.setFields(fields);
+
+        List<IndexDefinition> indexes = new ArrayList<>();
+        if (source.getIndexes() != null) {
+            for (IndexDefinition index : source.getIndexes()) {
+                indexes.add(copy(index));
+            }
+        }
+        target.setIndexes(indexes);
+
+        List<RelationDefinition> relations = new ArrayList<>();
+        if (source.getRelations() != null) {
+            for (RelationDefinition relation : source.getRelations()) {
+                relations.add(copy(relation));
+            }
+        }
+        target.setRelations(relations);
+        return target;
+    }
+
+    /**
+     * 浅拷贝表定义并去掉索引和外键，字段列表与原表共享，只用于生成不含约束的建表语句
+     */
+    public static TableDefinition withoutConstraints(TableDefinition source) {
+        if (source == null) {
+            return null;
+        }
+        TableDefinition target = new TableDefinition();
+        target.setName(source.getName());
+        target.setType(source.getType());
+        target.setComment(source.getComment());
+        target.setExtendsTable(source.getExtendsTable());
+        target.setEngine(source.getEngine());
+        target.setCharset(source.getCharset());
+        target.setFields(source.getFields());
+        target.setIndexes(new ArrayList<>());
+        target.setRelations(new ArrayList<>());
+        return target;
+    }
+
+    public static FieldDefinition copy(FieldDefinition source) {
+        FieldDefinition target = new FieldDefinition();
+        target.setName(source.getName());
+        target.setType(source.getType());
+        target.setLength(source.getLength());
+        target.setPrecision(source.getPrecision());
+        target.setScale(source.getScale());
+        target.setNullable(source.getNullable());
+        target.setPrimaryKey(source.getPrimaryKey());
+        target.setDefaultValue(source.getDefaultValue());
+        target.setComment(source.getComment());
+        target.setUnique(source.getUnique());
+        target.setCharset(source.getCharset());
+        target.setCollation(source.getCollation());
+        return target;
+    }
+
+    public static IndexDefinition copy(IndexDefinition source) {
+        IndexDefinition target = new IndexDefinition();
+        target.setName(source.getName());
+        target.setType(source.getType());
+        target.setMethod(source.getMethod());
+        target.setComment(source.getComment());
+        List<IndexColumnDefinition> columns = new ArrayList<>();
+        if (source.getColumns() != null) {
+            for (IndexColumnDefinition column : source.getColumns()) {
+                IndexColumnDefinition columnCopy = new IndexColumnDefinition();
+                columnCopy.setName(column.getName());
+                columnCopy.setLength(column.getLength());
+                columnCopy.setOrder(column.getOrder());
+                columnCopy.setComment(column.getComment());
+                columns.add(columnCopy);
+            }
+        }
+        target.setColumns(columns);
+        return target;
+    }
+
+    public static RelationDefinition copy(RelationDefinition source) {
+        RelationDefinition target = new RelationDefinition();
+        target.setName(source.getName());
+        target.setColumn(source.getColumn());
+        target.setReferenceTable(source.getReferenceTable());
+        target.setReferenceColumn(source.getReferenceColumn());
+        target.setOnDelete(source.getOnDelete());
+        target.setOnUpdate(source.getOnUpdate());
+        target.setType(source.getType());
+        target.setComment(source.getComment());
+        return target;
+    }
+
+    private static List<TableDefinition> copyTables(List<TableDefinition> tables) {
+        List<TableDefinition> copies = new ArrayList<>();
+        if (tables != null) {
+            for (TableDefinition table : tables) {
+                copies.add(copy(table));
+            }
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,26 @@
+package cn.com.traninfo.fastlcdp.erdesigner.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 后台工作线程工厂
+ * 执行阻塞JDBC的线程池在虚拟线程模式下改用虚拟线程，线程池大小仍作为并发连接数上限；
+ * 平台线程均为守护线程，线程名为 前缀-序号
+ */
+public final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    /**
+     * @param prefix 线程名前缀
+     * @param virtual 是否使用虚拟线程
+     * @return 线程工厂
+     */
+    public static ThreadFactory factory(String prefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix + "-", 1).factory();
+        }
+        return Thread.ofPlatform().name(prefix + "-", 1).daemon(true).factory();
+    }
+}
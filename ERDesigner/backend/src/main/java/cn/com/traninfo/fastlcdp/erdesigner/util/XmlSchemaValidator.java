@@ -17,6 +17,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Map;
 
 /**
  * XML Schema 校验工具类
@@ -37,6 +39,12 @@ public class XmlSchemaValidator {
 
     private Schema schema;
 
+    /**
+     * 校验器与错误处理器成对池化，归还时重置
+     */
+    private final ObjectPool<PooledValidator> validatorPool =
+            new ObjectPool<>("validator", this::createPooledValidator, XmlSchemaValidator::resetPooledValidator, 32);
+
     /**:
      * 默认构造校验器
      *
@@ -58,6 +66,7 @@ public class XmlSchemaValidator {
             throw new IllegalArgumentException("Schema resource not found: " + schemaPath);
         }
         this.schema = factory.newSchema(new StreamSource(schemaStream));
+        validatorPool.clear();
         logger.info("XML Schema validator initialized with schema: {}", schemaPath);
     }
     
@@ -69,6 +78,7 @@ public class XmlSchemaValidator {
     public void loadValidator(File schemaFile) throws SAXException {
         SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
         this.schema = factory.newSchema(schemaFile);
+        validatorPool.clear();
         logger.info("XML Schema validator initialized with schema file: {}", schemaFile.getAbsolutePath());
     }
     
@@ -80,6 +90,7 @@ public class XmlSchemaValidator {
     public void loadValidator(URL schemaUrl) throws SAXException {
         SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
         this.schema = factory.newSchema(schemaUrl);
+        validatorPool.clear();
         logger.info("XML Schema validator initialized with schema URL: {}", schemaUrl.toString());
     }
     
@@ -94,17 +105,16 @@ public class XmlSchemaValidator {
         XmlValidationResult result = XmlValidationResult.success();
         result.setFilePath(xmlFile.getAbsolutePath());
 
-        try {
-            Validator validator = schema.newValidator();
-            XmlValidationErrorHandler errorHandler = new XmlValidationErrorHandler(maxErrorCount);
-            validator.setErrorHandler(errorHandler);
+        try (ObjectPool<PooledValidator>.Lease lease = validatorPool.borrow()) {
+            Validator validator = lease.get().validator;
+            XmlValidationErrorHandler errorHandler = lease.get().errorHandler;
 
             validator.validate(new StreamSource(xmlFile));
 
             if (errorHandler.hasErrors()) {
                 result.setValid(false);
-                result.setErrors(errorHandler.getErrors());
-                result.setWarnings(errorHandler.getWarnings());
+                result.setErrors(new ArrayList<>(errorHandler.getErrors()));
+                result.setWarnings(new ArrayList<>(errorHandler.getWarnings()));
             }
 
             logger.debug("XML file validation successful: {}", xmlFile.getAbsolutePath());
@@ -130,17 +140,16 @@ public class XmlSchemaValidator {
         XmlValidationResult result = XmlValidationResult.success();
         result.setFilePath("<string>");
 
-        try {
-            Validator validator = schema.newValidator();
-            XmlValidationErrorHandler errorHandler = new XmlValidationErrorHandler(maxErrorCount);
-            validator.setErrorHandler(errorHandler);
+        try (ObjectPool<PooledValidator>.Lease lease = validatorPool.borrow()) {
+            Validator validator = lease.get().validator;
+            XmlValidationErrorHandler errorHandler = lease.get().errorHandler;
 
             validator.validate(new StreamSource(new StringReader(xmlContent)));
 
             if (errorHandler.hasErrors()) {
                 result.setValid(false);
-                result.setErrors(errorHandler.getErrors());
-                result.setWarnings(errorHandler.getWarnings());
+                result.setErrors(new ArrayList<>(errorHandler.getErrors()));
+                result.setWarnings(new ArrayList<>(errorHandler.getWarnings()));
             }
 
             logger.debug("XML file validation successful: {}", xmlContent);
@@ -177,15 +186,14 @@ public class XmlSchemaValidator {
         XmlValidationResult result = XmlValidationResult.success();
         result.setFilePath("<stream>");
 
-        try {
-            Validator validator = schema.newValidator();
-            XmlValidationErrorHandler errorHandler = new XmlValidationErrorHandler(maxErrorCount);
-            validator.setErrorHandler(errorHandler);
+        try (ObjectPool<PooledValidator>.Lease lease = validatorPool.borrow()) {
+            Validator validator = lease.get().validator;
+            XmlValidationErrorHandler errorHandler = lease.get().errorHandler;
             validator.validate(new StreamSource(xmlStream));
             if (errorHandler.hasErrors()) {
                 result.setValid(false);
-                result.setErrors(errorHandler.getErrors());
-                result.setWarnings(errorHandler.getWarnings());
+                result.setErrors(new ArrayList<>(errorHandler.getErrors()));
+                result.setWarnings(new ArrayList<>(errorHandler.getWarnings()));
             }
             logger.debug("XML stream validation successful");
 
@@ -200,4 +208,52 @@ public class XmlSchemaValidator {
         }
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * 当前加载的Schema，供 Unmarshaller.setSchema 在解析时同步校验
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public Integer getMaxErrorCount() {
+        return maxErrorCount;
+    }
+
+    @Value("${xml.pool.max-idle:32}")
+    public void setPoolMaxIdle(int maxIdle) {
+        validatorPool.setMaxIdle(maxIdle);
+    }
+
+    /**
+     * 校验器池统计信息
+     */
+    public Map<String, Object> getPoolStatistics() {
+        return validatorPool.getStatistics();
+    }
+
+    private PooledValidator createPooledValidator() {
+        Validator validator = schema.newValidator();
+        XmlValidationErrorHandler errorHandler = new XmlValidationErrorHandler(maxErrorCount);
+        validator.setErrorHandler(errorHandler);
+        return new PooledValidator(validator, errorHandler);
+    }
+
+    private static boolean resetPooledValidator(PooledValidator pooled) {
+        // reset() 会清除 ErrorHandler，需要重新设置
+        pooled.validator.reset();
+        pooled.errorHandler.reset();
+        pooled.validator.setErrorHandler(pooled.errorHandler);
+        return true;
+    }
+
+    private static final class PooledValidator {
+        private final Validator validator;
+        private final XmlValidationErrorHandler errorHandler;
+
+        private PooledValidator(Validator validator, XmlValidationErrorHandler errorHandler) {
+            this.validator = validator;
+            this.errorHandler = errorHandler;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package cn.com.traninfo.fastlcdp.erdesigner.util;
 
+import jakarta.xml.bind.ValidationEvent;
+import jakarta.xml.bind.ValidationEventHandler;
+import jakarta.xml.bind.ValidationEventLocator;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.xml.sax.ErrorHandler;
@@ -11,7 +14,7 @@ import java.util.List;
 
 @Getter
 @Slf4j
-public class XmlValidationErrorHandler implements ErrorHandler {
+public class XmlValidationErrorHandler implements ErrorHandler, ValidationEventHandler {
 
     private final Integer maxErrorCount;
     private final List<String> errors = new ArrayList<>();
@@ -46,16 +49,52 @@ public class XmlValidationErrorHandler implements ErrorHandler {
         throw exception;
     }
 
+    /**
+     * JAXB 校验事件回调，用于 Unmarshaller.setSchema 的边解析边校验
+     * 返回false时 unmarshal 立即终止并抛出 UnmarshalException
+     */
+    @Override
+    public boolean handleEvent(ValidationEvent event) {
+        ValidationEventLocator locator = event.getLocator();
+        int line = locator != null ? locator.getLineNumber() : -1;
+        int column = locator != null ? locator.getColumnNumber() : -1;
+        switch (event.getSeverity()) {
+            case ValidationEvent.WARNING:
+                String warning = formatMessage("警告", line, column, event.getMessage());
+                warnings.add(warning);
+                log.warn(warning);
+                return true;
+            case ValidationEvent.ERROR:
+                String error = formatMessage("错误", line, column, event.getMessage());
+                errors.add(error);
+                log.error(error);
+                return null == maxErrorCount || errors.size() <= maxErrorCount;
+            default:
+                String fatal = formatMessage("严重错误", line, column, event.getMessage());
+                errors.add(fatal);
+                log.error(fatal);
+                return false;
+        }
+    }
+
     private String formatMessage(String level, SAXParseException exception) {
-        return String.format("%s [行:%d, 列:%d]: %s",
-                level,
-                exception.getLineNumber(),
-                exception.getColumnNumber(),
-                exception.getMessage());
+        return formatMessage(level, exception.getLineNumber(), exception.getColumnNumber(), exception.getMessage());
+    }
+
+    private String formatMessage(String level, int line, int column, String message) {
+        return String.format("%s [行:%d, 列:%d]: %s", level, line, column, message);
     }
 
     public boolean hasErrors() {
         return !errors.isEmpty();
     }
 
+    /**
+     * 清空已收集的错误和警告，便于处理器复用
+     */
+    public void reset() {
+        errors.clear();
+        warnings.clear();
+    }
+
 }
@@ -1,7 +1,9 @@
 package cn.com.traninfo.fastlcdp.erdesigner;
 
 import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
-import cn.com.traninfo.fastlcdp.erdesigner.entity.MetadataEntity;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
 import cn.com.traninfo.fastlcdp.erdesigner.service.MetadataService;
 import cn.com.traninfo.fastlcdp.erdesigner.service.SqlGeneratorService;
 import org.junit.jupiter.api.Test;
@@ -148,16 +150,18 @@ public class IntegrationTest {
                 metadataService.saveSchemaFromXml(xmlFile);
                 
                 // 查询元数据
-                List<MetadataEntity> metadataList = metadataService.findBySchemaName("test_db");
-                assertNotNull(metadataList);
-                assertFalse(metadataList.isEmpty());
+                DatabaseSchema saved = metadataService.getSchemaDefinition("test_db");
+                assertNotNull(saved);
+                assertFalse(saved.getTables().isEmpty());
                 
                 System.out.println("=== 保存的元数据 ===");
-                for (MetadataEntity metadata : metadataList) {
-                    System.out.println("Schema: " + metadata.getSchemaName() + 
-                                     ", Table: " + metadata.getTableName() + 
-                                     ", Field: " + metadata.getFieldName() + 
-                                     ", Type: " + metadata.getFieldType());
+                for (TableDefinition table : saved.getTables()) {
+                    for (FieldDefinition field : table.getFields()) {
+                        System.out.println("Schema: " + saved.getName() + 
+                                         ", Table: " + table.getName() + 
+                                         ", Field: " + field.getName() + 
+                                         ", Type: " + field.getType());
+                    }
                 }
                 
                 // 清理测试数据
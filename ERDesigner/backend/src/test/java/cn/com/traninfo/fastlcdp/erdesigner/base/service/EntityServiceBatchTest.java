@@ -0,0 +1,109 @@
+package cn.com.traninfo.fastlcdp.erdesigner.base.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.entity.MetadataEntity;
+import cn.com.traninfo.fastlcdp.erdesigner.mapper.MetadataMapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EntityService 批量写入测试
+ * 使用容器中按实体类型声明的 EntityService / SearchService，在H2上验证分批写入；吞吐对比见 benchmark 包
+ */
+@SpringBootTest(classes = cn.com.traninfo.fastlcdp.erdesigner.FastLcdpApplication.class)
+@ActiveProfiles("test")
+@Sql("classpath:metadata-h2.sql")
+class EntityServiceBatchTest {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private EntityService<MetadataEntity> entityService;
+
+    @Autowired
+    private SearchService<MetadataEntity> searchService;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testSaveBatch_ChunkCounts() {
+        // Given
+        List<MetadataEntity> rows = createRows("chunk_schema", 2500);
+
+        // When
+        List<Integer> chunkCounts = entityService.saveBatch(rows, sqlSessionFactory, MetadataMapper.class, BATCH_SIZE);
+
+        // Then: 1000 + 1000 + 500
+        assertEquals(List.of(1000, 1000, 500), chunkCounts);
+        assertEquals(2500, countRows("chunk_schema"));
+        assertTrue(rows.stream().allMatch(row -> row.getId() != null));
+    }
+
+    @Test
+    void testSaveBatch_InsertOrUpdatePath() {
+        // Given
+        List<MetadataEntity> rows = createRows("single_schema", 30);
+
+        // When
+        boolean saved = entityService.saveBatch(rows);
+
+        // Then
+        assertTrue(saved);
+        assertEquals(30, countRows("single_schema"));
+    }
+
+    @Test
+    void testSaveBatch_RowsReadableAndUpdatable() {
+        // Given
+        entityService.saveBatch(createRows("update_schema", 3), sqlSessionFactory, MetadataMapper.class, BATCH_SIZE);
+        MetadataEntity stored = entityService.getOne(new QueryWrapper<MetadataEntity>()
+                .eq("schema_name", "update_schema").eq("field_name", "field_1"));
+
+        // When
+        stored.setFieldLength(255);
+        boolean updated = entityService.updateById(stored);
+
+        // Then: 乐观锁版本递增
+        assertTrue(updated);
+        assertEquals(3L, searchService.count(new QueryWrapper<MetadataEntity>().eq("schema_name", "update_schema")));
+        assertEquals(255, jdbcTemplate.queryForObject(
+                "SELECT field_length FROM metadata WHERE id = ?", Integer.class, stored.getId()));
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT version FROM metadata WHERE id = ?", Long.class, stored.getId()));
+    }
+
+    private int countRows(String schemaName) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM metadata WHERE schema_name = ?", Integer.class, schemaName);
+        return count != null ? count : 0;
+    }
+
+    private List<MetadataEntity> createRows(String schemaName, int count) {
+        List<MetadataEntity> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MetadataEntity row = new MetadataEntity(schemaName, "table_" + (i / 20));
+            row.setFieldName("field_" + i);
+            row.setFieldType("STRING");
+            row.setFieldLength(100);
+            row.setIsNullable(true);
+            row.setPrimaryKeyType("NONE");
+            row.setComment("字段" + i);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,50 @@
+package cn.com.traninfo.fastlcdp.erdesigner.benchmark;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.TableTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.util.InheritanceResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各方言建表语句生成基准，每次调用渲染整个模式的 CREATE TABLE
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DdlGenerationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int tables;
+
+    @Param({"H2", "MYSQL", "POSTGRESQL", "ORACLE", "SQLSERVER"})
+    private String databaseType;
+
+    private DatabaseDialect dialect;
+
+    private List<TableDefinition> tableDefinitions;
+
+    @Setup
+    public void setUp() throws Exception {
+        dialect = DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.valueOf(databaseType));
+        List<TableDefinition> all = SyntheticSchemas.schema(tables).getTables();
+        InheritanceResolver.resolve(all);
+        tableDefinitions = all.stream().filter(table -> table.getType() != TableTypeEnum.ABSTRACT).toList();
+    }
+
+    @Benchmark
+    public void generateCreateTableSql(Blackhole blackhole) {
+        for (TableDefinition table : tableDefinitions) {
+            blackhole.consume(dialect.generateCreateTableSql(table));
+        }
+    }
+}
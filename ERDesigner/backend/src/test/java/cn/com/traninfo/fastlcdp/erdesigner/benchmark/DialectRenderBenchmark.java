@@ -0,0 +1,83 @@
+package cn.com.traninfo.fastlcdp.erdesigner.benchmark;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 方言列定义渲染基准
+ * 结果单位为每秒渲染的列数；加上 -prof gc 可查看每列的内存分配
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DialectRenderBenchmark {
+
+    private static final int COLUMNS = 1000;
+
+    @Param({"H2", "MYSQL", "POSTGRESQL", "ORACLE", "SQLSERVER"})
+    private String databaseType;
+
+    private DatabaseDialect dialect;
+
+    private List<FieldDefinition> fields;
+
+    @Setup
+    public void setUp() {
+        dialect = DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.valueOf(databaseType));
+        fields = new ArrayList<>(COLUMNS);
+        String[] types = {"STRING", "INTEGER", "LONG", "DECIMAL", "BOOLEAN", "DATETIME", "TEXT", "DATE", "VARCHAR", "BIGINT"};
+        for (int i = 0; i < COLUMNS; i++) {
+            FieldDefinition field = new FieldDefinition();
+            // 列名在表之间重复出现，与真实模型一致
+            field.setName("column_" + (i % 50));
+            field.setType(types[i % types.length]);
+            if (i % 3 == 0) {
+                field.setLength(64);
+            }
+            if (i % 4 == 0) {
+                field.setNullable(false);
+            }
+            if (i % 50 == 0) {
+                field.setPrimaryKey(PrimaryKeyTypeEnum.AUTO_INCREMENT);
+            }
+            if (i % 7 == 0) {
+                field.setDefaultValue("DATETIME".equals(field.getType()) ? "CURRENT_TIMESTAMP" : "0");
+            }
+            if (i % 5 == 0) {
+                field.setComment("字段" + i);
+            }
+            fields.add(field);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COLUMNS)
+    public void renderColumns(Blackhole blackhole) {
+        for (FieldDefinition field : fields) {
+            blackhole.consume(dialect.generateFieldDefinition(field));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DialectRenderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,94 @@
+package cn.com.traninfo.fastlcdp.erdesigner.benchmark;
+
+import cn.com.traninfo.fastlcdp.erdesigner.FastLcdpApplication;
+import cn.com.traninfo.fastlcdp.erdesigner.base.service.EntityService;
+import cn.com.traninfo.fastlcdp.erdesigner.entity.MetadataEntity;
+import cn.com.traninfo.fastlcdp.erdesigner.mapper.MetadataMapper;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EntityService 批量写入基准，使用 test 配置下的嵌入式H2
+ * 对比 insertOrUpdate 逐条路径与 BATCH 执行器路径；每轮写入前清空 metadata 表并重新生成实体
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EntityServiceBatchBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1000", "20000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private EntityService<MetadataEntity> entityService;
+
+    private SqlSessionFactory sqlSessionFactory;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private List<MetadataEntity> entities;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = new SpringApplicationBuilder(FastLcdpApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        new ResourceDatabasePopulator(new ClassPathResource("metadata-h2.sql")).execute(context.getBean(DataSource.class));
+        entityService = (EntityService<MetadataEntity>) context.getBeanProvider(
+                ResolvableType.forClassWithGenerics(EntityService.class, MetadataEntity.class)).getObject();
+        sqlSessionFactory = context.getBean(SqlSessionFactory.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareRows() {
+        jdbcTemplate.execute("TRUNCATE TABLE metadata");
+        entities = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            MetadataEntity row = new MetadataEntity("batch_benchmark", "table_" + (i / 20));
+            row.setFieldName("field_" + i);
+            row.setFieldType("STRING");
+            row.setFieldLength(100);
+            row.setIsNullable(true);
+            row.setPrimaryKeyType("NONE");
+            row.setComment("字段" + i);
+            entities.add(row);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public boolean insertOrUpdate() {
+        return entityService.saveBatch(entities);
+    }
+
+    @Benchmark
+    public List<Integer> batchExecutor() {
+        return entityService.saveBatch(entities, sqlSessionFactory, MetadataMapper.class, BATCH_SIZE);
+    }
+}
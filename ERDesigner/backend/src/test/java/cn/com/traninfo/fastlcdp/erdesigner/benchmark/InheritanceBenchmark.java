@@ -0,0 +1,37 @@
+package cn.com.traninfo.fastlcdp.erdesigner.benchmark;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.util.InheritanceResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 表继承解析基准
+ * resolve 按名称去重合并，对已解析的表重复执行时工作量不变，因此可在同一组表上反复测量
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InheritanceBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int tables;
+
+    private List<TableDefinition> tableDefinitions;
+
+    @Setup
+    public void setUp() throws Exception {
+        tableDefinitions = SyntheticSchemas.schema(tables).getTables();
+    }
+
+    @Benchmark
+    public List<TableDefinition> resolve() {
+        InheritanceResolver.resolve(tableDefinitions);
+        return tableDefinitions;
+    }
+}
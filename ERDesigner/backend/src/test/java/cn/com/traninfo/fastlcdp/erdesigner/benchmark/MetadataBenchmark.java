@@ -0,0 +1,79 @@
+package cn.com.traninfo.fastlcdp.erdesigner.benchmark;
+
+import cn.com.traninfo.fastlcdp.erdesigner.FastLcdpApplication;
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.repository.MetadataRepository;
+import cn.com.traninfo.fastlcdp.erdesigner.service.MetadataMigrationService;
+import cn.com.traninfo.fastlcdp.erdesigner.service.XmlParserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 元数据保存与加载基准，使用 test 配置下的嵌入式H2
+ * 比较整体替换保存、未变化模式的增量保存和整体加载。
+ * 仓库表由H2方言带引号创建，库设置 DATABASE_TO_LOWER 使 Mapper 的不带引号的SQL能够命中
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class MetadataBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int tables;
+
+    private ConfigurableApplicationContext context;
+
+    private MetadataRepository metadataRepository;
+
+    private DatabaseSchema schema;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(FastLcdpApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN", "database.type=H2",
+                        "spring.datasource.url=jdbc:h2:mem:metadata_benchmark;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .run();
+        context.getBean(MetadataMigrationService.class).createStoreTablesIfMissing(
+                DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.H2));
+        metadataRepository = context.getBean(MetadataRepository.class);
+        schema = context.getBean(XmlParserService.class).parseFromStream(new ByteArrayInputStream(SyntheticSchemas.xml(tables)));
+        metadataRepository.saveSchema(schema);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            metadataRepository.deleteSchema(schema.getName());
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public DatabaseSchema saveStore() {
+        metadataRepository.saveSchema(schema);
+        return schema;
+    }
+
+    /**
+     * 模式未变化时只有读取和比对，没有写入
+     */
+    @Benchmark
+    public MetadataRepository.SaveStatistics saveStoreIncremental() {
+        return metadataRepository.saveSchemaIncremental(schema);
+    }
+
+    @Benchmark
+    public DatabaseSchema loadStore() {
+        return metadataRepository.loadSchema(schema.getName());
+    }
+}
@@ -0,0 +1,91 @@
+package cn.com.traninfo.fastlcdp.erdesigner.benchmark;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 基准测试用的合成模式
+ * 一张 ABSTRACT 基表加 tableCount 张实体表：实体表继承基表，各带唯一索引、普通索引，
+ * 并以十张表为一段形成外键链，覆盖继承、索引、外键三类处理路径。生成的XML符合 database-schema.xsd
+ */
+final class SyntheticSchemas {
+
+    static final String BASE_TABLE = "base_entity";
+
+    private SyntheticSchemas() {
+    }
+
+    /**
+     * 生成模式XML
+     *
+     * @param tableCount 实体表数量
+     * @return UTF-8编码的XML
+     */
+    static byte[] xml(int tableCount) {
+        StringBuilder xml = new StringBuilder(tableCount * 1024);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<database name=\"bench_").append(tableCount).append("\" version=\"1.0\" comment=\"基准测试模式\">\n");
+        xml.append("  <tables>\n");
+
+        xml.append("    <table name=\"").append(BASE_TABLE).append("\" type=\"ABSTRACT\" comment=\"公共基表\">\n");
+        xml.append("      <fields>\n");
+        xml.append("        <field name=\"id\" type=\"LONG\" primaryKey=\"AUTO_INCREMENT\" comment=\"主键\"/>\n");
+        xml.append("        <field name=\"created_at\" type=\"DATETIME\" nullable=\"false\" defaultValue=\"CURRENT_TIMESTAMP\" comment=\"创建时间\"/>\n");
+        xml.append("        <field name=\"updated_at\" type=\"DATETIME\" comment=\"更新时间\"/>\n");
+        xml.append("        <field name=\"deleted\" type=\"BOOLEAN\" nullable=\"false\" defaultValue=\"0\" comment=\"删除标记\"/>\n");
+        xml.append("      </fields>\n");
+        xml.append("    </table>\n");
+
+        for (int i = 0; i < tableCount; i++) {
+            String table = tableName(i);
+            xml.append("    <table name=\"").append(table).append("\" extends=\"").append(BASE_TABLE)
+                    .append("\" comment=\"实体表").append(i).append("\">\n");
+            xml.append("      <fields>\n");
+            xml.append("        <field name=\"code\" type=\"STRING\" length=\"64\" nullable=\"false\" comment=\"编码\"/>\n");
+            xml.append("        <field name=\"name\" type=\"STRING\" length=\"128\" comment=\"名称\"/>\n");
+            xml.append("        <field name=\"amount\" type=\"DECIMAL\" precision=\"18\" scale=\"2\" comment=\"金额\"/>\n");
+            xml.append("        <field name=\"status\" type=\"INTEGER\" defaultValue=\"0\" comment=\"状态\"/>\n");
+            xml.append("        <field name=\"description\" type=\"TEXT\" comment=\"描述\"/>\n");
+            xml.append("        <field name=\"parent_id\" type=\"LONG\" comment=\"上级\"/>\n");
+            xml.append("      </fields>\n");
+            xml.append("      <indexes>\n");
+            xml.append("        <index name=\"uk_").append(table).append("_code\" type=\"UNIQUE\">\n");
+            xml.append("          <columns><column name=\"code\"/></columns>\n");
+            xml.append("        </index>\n");
+            xml.append("        <index name=\"idx_").append(table).append("_status\" type=\"NORMAL\">\n");
+            xml.append("          <columns><column name=\"status\"/><column name=\"created_at\" order=\"DESC\"/></columns>\n");
+            xml.append("        </index>\n");
+            xml.append("      </indexes>\n");
+            if (i % 10 != 0) {
+                xml.append("      <relations>\n");
+                xml.append("        <relation name=\"fk_").append(table).append("_parent\" column=\"parent_id\" referenceTable=\"")
+                        .append(tableName(i - 1)).append("\" referenceColumn=\"id\" onDelete=\"CASCADE\"/>\n");
+                xml.append("      </relations>\n");
+            }
+            xml.append("    </table>\n");
+        }
+
+        xml.append("  </tables>\n");
+        xml.append("</database>\n");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 直接反序列化得到的模式，未经过继承和主键处理
+     *
+     * @param tableCount 实体表数量
+     * @return 模式对象
+     */
+    static DatabaseSchema schema(int tableCount) throws JAXBException {
+        JAXBContext context = JAXBContext.newInstance(DatabaseSchema.class);
+        return (DatabaseSchema) context.createUnmarshaller().unmarshal(new ByteArrayInputStream(xml(tableCount)));
+    }
+
+    static String tableName(int index) {
+        return "entity_" + index;
+    }
+}
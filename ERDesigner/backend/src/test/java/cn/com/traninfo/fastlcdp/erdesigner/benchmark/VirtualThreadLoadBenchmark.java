@@ -0,0 +1,149 @@
+package cn.com.traninfo.fastlcdp.erdesigner.benchmark;
+
+import cn.com.traninfo.fastlcdp.erdesigner.FastLcdpApplication;
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import cn.com.traninfo.fastlcdp.erdesigner.service.MetadataMigrationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 阻塞JDBC负载下的HTTP并发吞吐基准
+ * 在 test 配置下启动完整应用，每次获取连接时模拟远程数据库的往返延迟，
+ * 以 CLIENTS 个并发请求压 /metadata/list，比较平台线程（Undertow固定工作线程）与虚拟线程模式的每秒请求数。
+ * 连接池足够大，瓶颈只在请求线程上。元数据仓库表由H2方言带引号创建，库设置 DATABASE_TO_LOWER 使 Mapper 的SQL能够命中。
+ * 尚无实测结果，虚拟线程模式因此默认关闭
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+
+    private static final int CLIENTS = 256;
+
+    private static final String USER = "bench";
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"5", "20"})
+    private long latencyMs;
+
+    private ConfigurableApplicationContext context;
+
+    private ExecutorService clientExecutor;
+
+    private HttpClient httpClient;
+
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        long latency = latencyMs;
+        context = new SpringApplicationBuilder(FastLcdpApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN", "database.type=H2",
+                        "spring.datasource.url=jdbc:h2:mem:vt_benchmark;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.hikari.maximum-pool-size=" + (CLIENTS + 16),
+                        // 使用Spring Security默认的HTTP Basic认证
+                        "springdoc.swagger-ui.enabled=false",
+                        "spring.security.user.name=" + USER, "spring.security.user.password=" + USER)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new LatencyInjector(latency)))
+                .run();
+        context.getBean(MetadataMigrationService.class).createStoreTablesIfMissing(
+                DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.H2));
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + contextPath + "/api/table-generator/metadata/list"))
+                .header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString((USER + ":" + USER).getBytes(StandardCharsets.UTF_8)))
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        if (clientExecutor != null) {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 一轮并发请求，结果按单个请求计（requests/s）
+     */
+    @Benchmark
+    @OperationsPerInvocation(CLIENTS)
+    public int concurrentRequests() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            futures[i] = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("请求失败: HTTP " + response.statusCode());
+                        }
+                    });
+        }
+        CompletableFuture.allOf(futures).join();
+        return futures.length;
+    }
+
+    /**
+     * 为数据源加上固定的获取连接延迟，模拟远程数据库上的阻塞等待
+     */
+    private static final class LatencyInjector implements BeanPostProcessor {
+
+        private final long latencyMs;
+
+        private LatencyInjector(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    try {
+                        Thread.sleep(latencyMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("interrupted", e);
+                    }
+                    return super.getConnection();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package cn.com.traninfo.fastlcdp.erdesigner.benchmark;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.service.XmlParserService;
+import cn.com.traninfo.fastlcdp.erdesigner.util.XmlSchemaValidator;
+import cn.com.traninfo.fastlcdp.erdesigner.util.XmlValidationResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * XML解析与XSD校验基准
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlParsingBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int tables;
+
+    private byte[] xml;
+
+    private XmlParserService xmlParserService;
+
+    private XmlSchemaValidator xmlSchemaValidator;
+
+    @Setup
+    public void setUp() throws Exception {
+        xml = SyntheticSchemas.xml(tables);
+        // 不经过Spring容器，解析结果缓存不参与
+        xmlParserService = new XmlParserService();
+        xmlSchemaValidator = new XmlSchemaValidator("/database-schema.xsd");
+        XmlValidationResult result = xmlSchemaValidator.validate(new ByteArrayInputStream(xml));
+        if (!Boolean.TRUE.equals(result.isValid())) {
+            throw new IllegalStateException("合成模式未通过XSD校验: " + result.getErrorMessage());
+        }
+    }
+
+    @Benchmark
+    public DatabaseSchema parseFromStream() throws Exception {
+        return xmlParserService.parseFromStream(new ByteArrayInputStream(xml));
+    }
+
+    @Benchmark
+    public XmlValidationResult validate() {
+        return xmlSchemaValidator.validate(new ByteArrayInputStream(xml));
+    }
+}
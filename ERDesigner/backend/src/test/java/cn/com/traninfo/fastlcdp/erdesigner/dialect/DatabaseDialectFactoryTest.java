@@ -0,0 +1,100 @@
+package cn.com.traninfo.fastlcdp.erdesigner.dialect;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DatabaseDialectFactory 与方言预计算片段测试
+ */
+class DatabaseDialectFactoryTest {
+
+    private static final String[] TYPES = {
+            "INTEGER", "LONG", "DECIMAL", "BOOLEAN", "CHAR", "STRING", "TEXT", "BINARY", "BLOB", "DATETIME", "JSON",
+            "VARCHAR", "LONGTEXT", "INT", "BIGINT", "TINYINT", "SMALLINT", "NUMERIC", "FLOAT", "DOUBLE", "DATE",
+            "TIME", "TIMESTAMP", "LONGBLOB"
+    };
+
+    @Test
+    void testCreateDialect_ReturnsSharedInstance() {
+        for (DatabaseConfig.DatabaseType type : DatabaseConfig.DatabaseType.values()) {
+            assertSame(DatabaseDialectFactory.createDialect(type), DatabaseDialectFactory.createDialect(type));
+        }
+    }
+
+    @Test
+    void testCreateDialect_NullTypeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DatabaseDialectFactory.createDialect(null));
+    }
+
+    @Test
+    void testFieldTypeFragment_MatchesGeneratedType() {
+        for (DatabaseConfig.DatabaseType type : DatabaseConfig.DatabaseType.values()) {
+            AbstractDatabaseDialect dialect = (AbstractDatabaseDialect) DatabaseDialectFactory.createDialect(type);
+            for (String fieldType : TYPES) {
+                // Given
+                FieldDefinition plain = createField(fieldType.toLowerCase(), null, PrimaryKeyTypeEnum.NONE);
+                FieldDefinition sized = createField(fieldType, 20, PrimaryKeyTypeEnum.AUTO_INCREMENT);
+
+                // When & Then
+                assertEquals(dialect.generateFieldType(plain), dialect.fieldTypeFragment(plain), type + " " + fieldType);
+                assertEquals(dialect.generateFieldType(sized), dialect.fieldTypeFragment(sized), type + " " + fieldType);
+            }
+        }
+    }
+
+    @Test
+    void testListTablesSql_ScopedToConnectionSchema() {
+        // Given
+        DatabaseDialect postgreSQL = DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.POSTGRESQL);
+        DatabaseDialect sqlServer = DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.SQLSERVER);
+
+        // When & Then: 按连接的当前模式查询，而不是固定的 public/dbo
+        assertTrue(postgreSQL.generateListTablesSql().endsWith("table_schema = current_schema()"));
+        assertTrue(postgreSQL.generateTableExistsSql("user").contains("table_schema = current_schema()"));
+        assertTrue(sqlServer.generateListTablesSql().endsWith("TABLE_SCHEMA = SCHEMA_NAME()"));
+        assertTrue(sqlServer.generateTableExistsSql("user").contains("TABLE_SCHEMA = SCHEMA_NAME()"));
+    }
+
+    @Test
+    void testEscapeIdentifier_CachedResultIsStable() {
+        // Given
+        DatabaseDialect sqlServer = DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.SQLSERVER);
+        DatabaseDialect mysql = DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.MYSQL);
+
+        // When & Then
+        assertEquals("[a]]b]", sqlServer.escapeIdentifier("a]b"));
+        assertEquals("[a]]b]", sqlServer.escapeIdentifier("a]b"));
+        assertEquals("`user`", mysql.escapeIdentifier("user"));
+        assertEquals("`user`", mysql.escapeIdentifier("user"));
+        assertNull(mysql.escapeIdentifier(null));
+        assertEquals("", mysql.escapeIdentifier(""));
+    }
+
+    @Test
+    void testDropTableAndDatabaseInfoSql_FollowDialect() {
+        // Given
+        DatabaseDialect postgreSQL = DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.POSTGRESQL);
+        DatabaseDialect sqlServer = DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.SQLSERVER);
+        DatabaseDialect mysql = DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.MYSQL);
+
+        // When & Then: 不使用MySQL专有的反引号和 VERSION()/DATABASE()
+        assertFalse(postgreSQL.generateDropTableSql("user").contains("`"));
+        assertEquals("DROP TABLE [user]", sqlServer.generateDropTableSql("user"));
+        assertEquals("SELECT version(), current_database()", postgreSQL.generateDatabaseInfoSql());
+        assertEquals("SELECT @@VERSION, DB_NAME()", sqlServer.generateDatabaseInfoSql());
+        assertEquals("SELECT VERSION(), DATABASE()", mysql.generateDatabaseInfoSql());
+    }
+
+    private FieldDefinition createField(String type, Integer length, PrimaryKeyTypeEnum primaryKey) {
+        FieldDefinition field = new FieldDefinition();
+        field.setName("col");
+        field.setType(type);
+        field.setLength(length);
+        field.setPrimaryKey(primaryKey);
+        return field;
+    }
+}
@@ -0,0 +1,247 @@
+package cn.com.traninfo.fastlcdp.erdesigner.repository;
+
+import cn.com.traninfo.fastlcdp.erdesigner.entity.*;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.IndexSortOrderEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.mapper.*;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.IndexColumnDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.RelationDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * MetadataRepository单元测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class MetadataRepositoryTest {
+
+    @Mock
+    private DataSourceMapper dataSourceMapper;
+
+    @Mock
+    private TableMapper tableMapper;
+
+    @Mock
+    private FieldMapper fieldMapper;
+
+    @Mock
+    private IndexMapper indexMapper;
+
+    @Mock
+    private RelationMapper relationMapper;
+
+    @InjectMocks
+    private MetadataRepository metadataRepository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLoadSchema_FixedQueryCount() {
+        // Given: 300张表
+        DataSourceEntity dataSource = new DataSourceEntity();
+        dataSource.setId(1L);
+        dataSource.setName("shop");
+        when(dataSourceMapper.selectOne(any(Wrapper.class))).thenReturn(dataSource);
+
+        List<TableEntity> tables = new ArrayList<>();
+        List<FieldEntity> fields = new ArrayList<>();
+        for (long i = 0; i < 300; i++) {
+            TableEntity table = new TableEntity();
+            table.setId(100 + i);
+            table.setDatabaseId(1L);
+            table.setName("table_" + i);
+            table.setType("ENTITY");
+            if (i > 0) {
+                table.setExtendsTableId(100L);
+            }
+            tables.add(table);
+
+            FieldEntity field = new FieldEntity();
+            field.setTableId(100 + i);
+            field.setName("id");
+            field.setType("LONG");
+            field.setPrimaryKeyType("SINGLE");
+            fields.add(field);
+        }
+        when(tableMapper.selectList(any(Wrapper.class))).thenReturn(tables);
+        when(fieldMapper.selectList(any(Wrapper.class))).thenReturn(fields);
+        when(indexMapper.selectList(any(Wrapper.class))).thenReturn(new ArrayList<>());
+        when(relationMapper.selectList(any(Wrapper.class))).thenReturn(new ArrayList<>());
+
+        // When
+        DatabaseSchema schema = metadataRepository.loadSchema("shop");
+
+        // Then: 数据源、表、字段、索引、关系各一条查询
+        verify(dataSourceMapper, times(1)).selectOne(any(Wrapper.class));
+        verify(tableMapper, times(1)).selectList(any(Wrapper.class));
+        verify(fieldMapper, times(1)).selectList(any(Wrapper.class));
+        verify(indexMapper, times(1)).selectList(any(Wrapper.class));
+        verify(relationMapper, times(1)).selectList(any(Wrapper.class));
+        verifyNoMoreInteractions(tableMapper);
+
+        assertEquals(300, schema.getTables().size());
+        TableDefinition last = schema.getTables().get(299);
+        assertEquals("table_299", last.getName());
+        assertEquals("table_0", last.getExtendsTable());
+        assertEquals(1, last.getFields().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSaveSchema_ExistingSchemaPurgesReplacedRows() {
+        // Given
+        DataSourceEntity dataSource = new DataSourceEntity();
+        dataSource.setId(7L);
+        dataSource.setName("shop");
+        when(dataSourceMapper.selectOne(any(Wrapper.class))).thenReturn(dataSource);
+
+        FieldDefinition id = new FieldDefinition();
+        id.setName("id");
+        id.setType("LONG");
+        TableDefinition table = new TableDefinition();
+        table.setName("product");
+        table.setFields(new ArrayList<>(List.of(id)));
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName("shop");
+        schema.setTables(new ArrayList<>(List.of(table)));
+
+        // When
+        metadataRepository.saveSchema(schema);
+
+        // Then: 旧行物理删除，子表先于表删除，不走逻辑删除
+        var order = inOrder(fieldMapper, indexMapper, relationMapper, tableMapper);
+        order.verify(fieldMapper).purgeByDatabaseId(7L);
+        order.verify(indexMapper).purgeByDatabaseId(7L);
+        order.verify(relationMapper).purgeByDatabaseId(7L);
+        order.verify(tableMapper).purgeByDatabaseId(7L);
+        verify(fieldMapper, never()).delete(any(Wrapper.class));
+        verify(tableMapper, never()).delete(any(Wrapper.class));
+        verify(tableMapper).insert(anyList(), anyInt());
+        verify(fieldMapper).insert(anyList(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSaveSchemaIncremental_OnlyChangedRowsWritten() {
+        // Given: 已存储 product 表，两个字段和一个未命名的外键
+        DataSourceEntity dataSource = new DataSourceEntity();
+        dataSource.setId(7L);
+        dataSource.setName("shop");
+        dataSource.setCharset("utf8mb4");
+        dataSource.setCollation("utf8mb4_unicode_ci");
+        dataSource.setEngine("InnoDB");
+        when(dataSourceMapper.selectOne(any(Wrapper.class))).thenReturn(dataSource);
+
+        TableEntity storedTable = new TableEntity();
+        storedTable.setId(100L);
+        storedTable.setDatabaseId(7L);
+        storedTable.setName("product");
+        storedTable.setType("ENTITY");
+        when(tableMapper.selectList(any(Wrapper.class))).thenReturn(List.of(storedTable));
+        when(fieldMapper.selectList(any(Wrapper.class))).thenReturn(List.of(
+                storedField(1L, "id"), storedField(2L, "category_id")));
+        when(indexMapper.selectList(any(Wrapper.class))).thenReturn(new ArrayList<>());
+
+        RelationEntity storedRelation = new RelationEntity();
+        storedRelation.setId(3L);
+        storedRelation.setTableId(100L);
+        storedRelation.setType("MANY_TO_ONE");
+        storedRelation.setColumnName("category_id");
+        storedRelation.setReferenceTable("category");
+        storedRelation.setReferenceField("id");
+        storedRelation.setOnDelete("RESTRICT");
+        storedRelation.setOnUpdate("RESTRICT");
+        when(relationMapper.selectList(any(Wrapper.class))).thenReturn(List.of(storedRelation));
+        when(fieldMapper.update(isNull(), any(Wrapper.class))).thenReturn(1);
+
+        // 只修改 category_id 的注释
+        FieldDefinition id = new FieldDefinition();
+        id.setName("id");
+        id.setType("LONG");
+        FieldDefinition categoryId = new FieldDefinition();
+        categoryId.setName("category_id");
+        categoryId.setType("LONG");
+        categoryId.setComment("分类");
+        RelationDefinition relation = new RelationDefinition();
+        relation.setColumn("category_id");
+        relation.setReferenceTable("category");
+        relation.setReferenceColumn("id");
+        TableDefinition table = new TableDefinition();
+        table.setName("product");
+        table.setFields(new ArrayList<>(List.of(id, categoryId)));
+        table.setRelations(new ArrayList<>(List.of(relation)));
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName("shop");
+        schema.setTables(new ArrayList<>(List.of(table)));
+
+        // When
+        MetadataRepository.SaveStatistics statistics = metadataRepository.saveSchemaIncremental(schema);
+
+        // Then: 只更新一个字段，未命名的外键不被当作新行重建
+        assertEquals(0, statistics.getInserted());
+        assertEquals(1, statistics.getUpdated());
+        assertEquals(0, statistics.getDeleted());
+        verify(fieldMapper, times(1)).update(isNull(), any(Wrapper.class));
+        verify(fieldMapper, never()).insert(anyList(), anyInt());
+        verify(fieldMapper, never()).purgeByIds(anyCollection());
+        verify(relationMapper, never()).update(any(), any(Wrapper.class));
+        verify(relationMapper, never()).insert(anyList(), anyInt());
+        verify(relationMapper, never()).purgeByIds(anyCollection());
+        verify(tableMapper, never()).insert(anyList(), anyInt());
+        verify(tableMapper, never()).purgeByIds(anyCollection());
+        verify(dataSourceMapper, never()).update(any(), any(Wrapper.class));
+    }
+
+    @Test
+    void testIndexColumns_RoundTrip() {
+        // Given
+        IndexColumnDefinition name = new IndexColumnDefinition();
+        name.setName("name");
+        name.setLength(20);
+        IndexColumnDefinition created = new IndexColumnDefinition();
+        created.setName("created_time");
+        created.setOrder(IndexSortOrderEnum.DESC);
+
+        // When
+        String encoded = MetadataRepository.encodeIndexColumns(List.of(name, created));
+        List<IndexColumnDefinition> decoded = MetadataRepository.decodeIndexColumns(encoded);
+
+        // Then
+        assertEquals("name(20),created_time DESC", encoded);
+        assertEquals(2, decoded.size());
+        assertEquals("name", decoded.get(0).getName());
+        assertEquals(20, decoded.get(0).getLength());
+        assertEquals(IndexSortOrderEnum.ASC, decoded.get(0).getOrder());
+        assertEquals("created_time", decoded.get(1).getName());
+        assertEquals(IndexSortOrderEnum.DESC, decoded.get(1).getOrder());
+    }
+
+    private FieldEntity storedField(Long id, String name) {
+        FieldEntity field = new FieldEntity();
+        field.setId(id);
+        field.setTableId(100L);
+        field.setName(name);
+        field.setType("LONG");
+        field.setNullable(true);
+        field.setPrimaryKeyType("NONE");
+        field.setUniqueField(false);
+        field.setVersion(0L);
+        return field;
+    }
+}
@@ -0,0 +1,56 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DataSourcePasswordCipher 单元测试
+ */
+class DataSourcePasswordCipherTest {
+
+    @Test
+    void testEncrypt_RoundTripWithRandomIv() {
+        // Given
+        DataSourcePasswordCipher cipher = cipher("first-key");
+
+        // When
+        String first = cipher.encrypt("p@ssw0rd");
+        String second = cipher.encrypt("p@ssw0rd");
+
+        // Then: 密文不含明文，同一密码每次加密结果不同
+        assertTrue(first.startsWith(DataSourcePasswordCipher.PREFIX));
+        assertFalse(first.contains("p@ssw0rd"));
+        assertNotEquals(first, second);
+        assertEquals("p@ssw0rd", cipher.decrypt(first));
+        assertEquals("p@ssw0rd", cipher.decrypt(second));
+    }
+
+    @Test
+    void testDecrypt_WrongKeyRejected() {
+        // Given
+        String encrypted = cipher("first-key").encrypt("p@ssw0rd");
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> cipher("second-key").decrypt(encrypted));
+    }
+
+    @Test
+    void testEncrypt_MissingKeyRejected() {
+        // Given
+        DataSourcePasswordCipher cipher = new DataSourcePasswordCipher();
+
+        // When & Then: 空密码和旧的明文记录不需要密钥
+        assertThrows(IllegalStateException.class, () -> cipher.encrypt("p@ssw0rd"));
+        assertEquals("", cipher.encrypt(""));
+        assertNull(cipher.decrypt(null));
+        assertEquals("legacy", cipher.decrypt("legacy"));
+    }
+
+    private static DataSourcePasswordCipher cipher(String key) {
+        DataSourcePasswordCipher cipher = new DataSourcePasswordCipher();
+        ReflectionTestUtils.setField(cipher, "credentialKey", key);
+        return cipher;
+    }
+}
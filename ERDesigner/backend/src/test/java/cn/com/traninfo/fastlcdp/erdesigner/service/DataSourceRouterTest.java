@@ -0,0 +1,171 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.entity.ConnectionEntity;
+import cn.com.traninfo.fastlcdp.erdesigner.mapper.ConnectionMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * DataSourceRouter 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class DataSourceRouterTest {
+
+    @Mock
+    private ConnectionMapper connectionMapper;
+
+    @Mock
+    private DatabaseConfig databaseConfig;
+
+    @Spy
+    private DataSourcePasswordCipher dataSourcePasswordCipher = new DataSourcePasswordCipher();
+
+    @InjectMocks
+    private DataSourceRouter dataSourceRouter;
+
+    @AfterEach
+    void tearDown() {
+        dataSourceRouter.shutdown();
+    }
+
+    @Test
+    void testRunOn_BindsRouteAndReusesPool() {
+        // Given
+        when(connectionMapper.selectById(1L)).thenReturn(entity(1L, "route_a"));
+        when(databaseConfig.getType()).thenReturn(DatabaseConfig.DatabaseType.MYSQL);
+
+        // When
+        Integer first = dataSourceRouter.runOn(1L, () -> {
+            assertEquals(1L, dataSourceRouter.currentDataSourceId());
+            assertEquals(DatabaseConfig.DatabaseType.H2, dataSourceRouter.currentType());
+            return dataSourceRouter.current().getJdbcTemplate().queryForObject("SELECT 1", Integer.class);
+        });
+        Integer second = dataSourceRouter.runOn(1L, () ->
+                dataSourceRouter.current().getJdbcTemplate().queryForObject("SELECT 2", Integer.class));
+
+        // Then: 同一数据源只创建一个连接池，离开后回到主数据源
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertNull(dataSourceRouter.currentDataSourceId());
+        assertEquals(DatabaseConfig.DatabaseType.MYSQL, dataSourceRouter.currentType());
+        verify(connectionMapper, times(1)).selectById(1L);
+        assertEquals(1L, dataSourceRouter.getStatistics().get("created"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEvictIdle_ClosesIdlePoolAndRecreatesOnNextUse() {
+        // Given: 空闲超时为负，任何未被使用的连接池都已超时
+        ReflectionTestUtils.setField(dataSourceRouter, "idleTimeoutMinutes", -1L);
+        when(connectionMapper.selectById(2L)).thenReturn(entity(2L, "route_b"));
+        dataSourceRouter.runOn(2L, () -> dataSourceRouter.current().getJdbcTemplate().queryForObject("SELECT 1", Integer.class));
+
+        // When
+        dataSourceRouter.runOn(2L, () -> {
+            // 使用中的连接池不回收
+            dataSourceRouter.evictIdle();
+            return null;
+        });
+        List<Map<String, Object>> poolsInUse = (List<Map<String, Object>>) dataSourceRouter.getStatistics().get("pools");
+        dataSourceRouter.evictIdle();
+        List<Map<String, Object>> poolsAfterEviction = (List<Map<String, Object>>) dataSourceRouter.getStatistics().get("pools");
+        dataSourceRouter.runOn(2L, () -> dataSourceRouter.current().getJdbcTemplate().queryForObject("SELECT 1", Integer.class));
+
+        // Then
+        assertEquals(1, poolsInUse.size());
+        assertTrue(poolsAfterEviction.isEmpty());
+        assertEquals(1L, dataSourceRouter.getStatistics().get("evicted"));
+        assertEquals(2L, dataSourceRouter.getStatistics().get("created"));
+        verify(connectionMapper, times(2)).selectById(2L);
+    }
+
+    @Test
+    void testRunOn_UnknownDataSourceRejected() {
+        // Given
+        when(connectionMapper.selectById(99L)).thenReturn(null);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> dataSourceRouter.runOn(99L, () -> null));
+        assertNull(dataSourceRouter.currentDataSourceId());
+    }
+
+    @Test
+    void testRunOn_RejectedUrlNotOpened() {
+        // Given: 库中已有的文件库地址，驱动类名不由记录决定
+        ConnectionEntity entity = entity(3L, "route_c");
+        entity.setUrl("jdbc:h2:file:/tmp/route_c");
+        entity.setDriverClassName("org.example.Driver");
+        when(connectionMapper.selectById(3L)).thenReturn(entity);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> dataSourceRouter.runOn(3L, () -> null));
+        assertEquals(0L, dataSourceRouter.getStatistics().get("created"));
+    }
+
+    @Test
+    void testRunOn_DecryptsStoredPassword() {
+        // Given: 密码以密文保存
+        ReflectionTestUtils.setField(dataSourcePasswordCipher, "credentialKey", "router-test-key");
+        ConnectionEntity entity = entity(4L, "route_d");
+        entity.setPassword(dataSourcePasswordCipher.encrypt("secret"));
+        when(connectionMapper.selectById(4L)).thenReturn(entity);
+
+        // When
+        String password = dataSourceRouter.runOn(4L, () ->
+                ((HikariDataSource) dataSourceRouter.current().getDataSource()).getPassword());
+
+        // Then: 连接池使用解密后的密码
+        assertTrue(entity.getPassword().startsWith("{aes-gcm}"));
+        assertEquals("secret", password);
+    }
+
+    @Test
+    void testTransactionTemplate_BindsRouteConnectionAndRollsBack() {
+        // Given
+        when(connectionMapper.selectById(5L)).thenReturn(entity(5L, "route_e"));
+        dataSourceRouter.runOn(5L, () -> {
+            dataSourceRouter.current().getJdbcTemplate().execute("CREATE TABLE item (id INT)");
+            return null;
+        });
+
+        // When: 事务内插入后失败
+        assertThrows(IllegalStateException.class, () -> dataSourceRouter.runOn(5L, () ->
+                dataSourceRouter.current().getTransactionTemplate().execute(status -> {
+                    DataSourceRouter.Route route = dataSourceRouter.current();
+                    assertTrue(TransactionSynchronizationManager.hasResource(route.getDataSource()));
+                    route.getJdbcTemplate().update("INSERT INTO item (id) VALUES (1)");
+                    throw new IllegalStateException("rollback");
+                })));
+        Integer count = dataSourceRouter.runOn(5L, () ->
+                dataSourceRouter.current().getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM item", Integer.class));
+
+        // Then: 事务绑定在路由的连接池上，插入被回滚
+        assertEquals(0, count);
+    }
+
+    private static ConnectionEntity entity(Long id, String name) {
+        ConnectionEntity entity = new ConnectionEntity();
+        entity.setId(id);
+        entity.setName(name);
+        entity.setUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        entity.setUsername("sa");
+        entity.setPassword("");
+        entity.setMaxPoolSize(2);
+        return entity;
+    }
+}
@@ -0,0 +1,86 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.enums.IndexTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.RelationActionEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.RelationDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 数据库反向工程测试
+ */
+@SpringBootTest(classes = cn.com.traninfo.fastlcdp.erdesigner.FastLcdpApplication.class)
+@ActiveProfiles("test")
+class DatabaseIntrospectionServiceTest {
+
+    @Autowired
+    private DatabaseIntrospectionService databaseIntrospectionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS introspect_test");
+        jdbcTemplate.execute("CREATE TABLE introspect_test.app_user (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "username VARCHAR(50) NOT NULL, balance DECIMAL(12, 2))");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX uk_app_user_name ON introspect_test.app_user (username)");
+        jdbcTemplate.execute("CREATE TABLE introspect_test.app_order (id BIGINT PRIMARY KEY, user_id BIGINT, "
+                + "CONSTRAINT fk_order_user FOREIGN KEY (user_id) REFERENCES introspect_test.app_user (id) ON DELETE CASCADE)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS introspect_test CASCADE");
+    }
+
+    @Test
+    void testIntrospect_ReadsTablesColumnsIndexesAndForeignKeys() {
+        // When
+        DatabaseSchema schema = databaseIntrospectionService.introspect(null, "introspect_test");
+
+        // Then
+        assertEquals(2, schema.getTables().size());
+        TableDefinition user = findTable(schema, "APP_USER");
+        assertEquals(3, user.getFields().size());
+        assertEquals(PrimaryKeyTypeEnum.AUTO_INCREMENT, findField(user, "ID").getPrimaryKey());
+        FieldDefinition username = findField(user, "USERNAME");
+        assertEquals("STRING", username.getType());
+        assertEquals(50, username.getLength());
+        assertFalse(username.getNullable());
+        FieldDefinition balance = findField(user, "BALANCE");
+        assertEquals("DECIMAL", balance.getType());
+        assertEquals(12, balance.getPrecision());
+        assertEquals(2, balance.getScale());
+        assertTrue(user.getIndexes().stream().anyMatch(index ->
+                "UK_APP_USER_NAME".equals(index.getName()) && index.getType() == IndexTypeEnum.UNIQUE));
+
+        TableDefinition order = findTable(schema, "APP_ORDER");
+        assertEquals(PrimaryKeyTypeEnum.SINGLE, findField(order, "ID").getPrimaryKey());
+        assertEquals(1, order.getRelations().size());
+        RelationDefinition relation = order.getRelations().get(0);
+        assertEquals("FK_ORDER_USER", relation.getName());
+        assertEquals("USER_ID", relation.getColumn());
+        assertEquals("APP_USER", relation.getReferenceTable());
+        assertEquals(RelationActionEnum.CASCADE, relation.getOnDelete());
+    }
+
+    private TableDefinition findTable(DatabaseSchema schema, String name) {
+        return schema.getTables().stream().filter(table -> name.equals(table.getName())).findFirst().orElseThrow();
+    }
+
+    private FieldDefinition findField(TableDefinition table, String name) {
+        return table.getFields().stream().filter(field -> name.equals(field.getName())).findFirst().orElseThrow();
+    }
+}
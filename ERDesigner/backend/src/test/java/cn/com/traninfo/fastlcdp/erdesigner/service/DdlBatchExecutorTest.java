@@ -0,0 +1,130 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.H2Dialect;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.OracleDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * DdlBatchExecutor 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class DdlBatchExecutorTest {
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private DdlEventBus ddlEventBus;
+
+    @InjectMocks
+    private DdlBatchExecutor ddlBatchExecutor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ReflectionTestUtils.setField(ddlBatchExecutor, "batchSize", 2);
+        when(connection.createStatement()).thenReturn(statement);
+    }
+
+    @Test
+    void testExecute_GroupsStatementsIntoBatches() throws SQLException {
+        // Given: 1条建库 + 5条建表，每批2条
+        List<DdlStatement> statements = new ArrayList<>();
+        statements.add(new DdlStatement(DdlStatementTypeEnum.CREATE_DATABASE, "db", "CREATE DATABASE db"));
+        statements.addAll(createTables(5));
+        when(statement.executeBatch()).thenReturn(new int[]{0, 0});
+
+        // When
+        DdlBatchExecutor.ExecutionReport report = ddlBatchExecutor.execute(connection, statements, new H2Dialect());
+
+        // Then: 建库单独执行1次，建表2+2批处理，最后1条单独执行
+        assertTrue(report.isSuccess());
+        assertEquals(6, report.getResults().size());
+        assertEquals(4, report.getRoundTrips());
+        assertEquals(2, report.getBatchCount());
+        verify(statement, times(2)).executeBatch();
+        verify(statement).execute("CREATE DATABASE db");
+        verify(statement).execute("CREATE TABLE t4 (id INT)");
+        verify(ddlEventBus, times(6)).publishStatement(any(), eq(true), anyInt(), anyLong(), anyInt(), isNull());
+    }
+
+    @Test
+    void testExecute_BatchFailureReportsFailedStatement() throws SQLException {
+        // Given: 第二条语句失败，驱动在失败处停止
+        List<DdlStatement> statements = createTables(4);
+        when(statement.executeBatch()).thenThrow(new BatchUpdateException("table t1 exists", new int[]{0}));
+
+        // When
+        DdlBatchExecutor.ExecutionReport report = ddlBatchExecutor.execute(connection, statements, new H2Dialect());
+
+        // Then: 第一批失败后不再执行后续批次
+        assertFalse(report.isSuccess());
+        assertEquals("t1", report.getFailedStatement().getTarget());
+        assertEquals(2, report.getResults().size());
+        assertTrue(report.getResults().get(0).isSuccess());
+        assertFalse(report.getResults().get(1).isSuccess());
+        verify(statement, times(1)).executeBatch();
+        verify(statement).clearBatch();
+    }
+
+    @Test
+    void testExecute_DialectWithoutBatchSupportRunsIndividually() throws SQLException {
+        // Given
+        List<DdlStatement> statements = createTables(3);
+        when(statement.execute(anyString())).thenReturn(false);
+
+        // When
+        DdlBatchExecutor.ExecutionReport report = ddlBatchExecutor.execute(connection, statements, new OracleDialect());
+
+        // Then
+        assertTrue(report.isSuccess());
+        assertEquals(3, report.getRoundTrips());
+        assertEquals(0, report.getBatchCount());
+        verify(statement, never()).addBatch(anyString());
+    }
+
+    @Test
+    void testExecute_SingleStatementFailureStops() throws SQLException {
+        // Given
+        List<DdlStatement> statements = createTables(3);
+        when(statement.execute("CREATE TABLE t0 (id INT)")).thenThrow(new SQLException("syntax error"));
+
+        // When
+        DdlBatchExecutor.ExecutionReport report = ddlBatchExecutor.execute(connection, statements, new OracleDialect());
+
+        // Then
+        assertFalse(report.isSuccess());
+        assertEquals("syntax error", report.getErrorMessage());
+        assertEquals(1, report.getResults().size());
+        verify(statement, times(1)).execute(anyString());
+    }
+
+    private List<DdlStatement> createTables(int count) {
+        List<DdlStatement> statements = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            statements.add(new DdlStatement(DdlStatementTypeEnum.CREATE_TABLE, "t" + i, "CREATE TABLE t" + i + " (id INT)"));
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,224 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlEventTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlEvent;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DdlEventBus 单元测试
+ */
+class DdlEventBusTest {
+
+    private final DdlEventBus ddlEventBus = new DdlEventBus();
+
+    @AfterEach
+    void tearDown() {
+        ddlEventBus.shutdown();
+    }
+
+    @Test
+    void testRunInExecution_PublishesStatementEventsWithTotals() {
+        // Given
+        DdlEventBus.Subscription subscription = ddlEventBus.subscribe("exec-1");
+
+        // When
+        ddlEventBus.runInExecution("exec-1", () -> {
+            ddlEventBus.publishStatement(statement("user"), true, 0, 2_000_000, 1, null);
+            ddlEventBus.publishStatement(statement("order"), false, -3, 1_000_000, 1, "table exists");
+            return null;
+        });
+
+        // Then
+        List<DdlEvent> events = drain(subscription);
+        assertEquals(4, events.size());
+        assertEquals(DdlEventTypeEnum.EXECUTION_STARTED, events.get(0).getType());
+        DdlEvent first = events.get(1);
+        assertEquals("exec-1", first.getExecutionId());
+        assertEquals("user", first.getTarget());
+        assertEquals(DdlStatementTypeEnum.CREATE_TABLE, first.getStatementType());
+        assertEquals(2_000, first.getElapsedMicros());
+        assertEquals("table exists", events.get(2).getErrorMessage());
+        DdlEvent finished = events.get(3);
+        assertEquals(DdlEventTypeEnum.EXECUTION_FINISHED, finished.getType());
+        assertEquals(2, finished.getStatementCount());
+        assertEquals(1, finished.getFailedCount());
+        assertFalse(finished.isSuccess());
+        assertNull(ddlEventBus.currentExecutionId());
+    }
+
+    @Test
+    void testSubscribe_FiltersByExecutionId() {
+        // Given
+        DdlEventBus.Subscription all = ddlEventBus.subscribe(null);
+        DdlEventBus.Subscription other = ddlEventBus.subscribe("exec-2");
+
+        // When
+        ddlEventBus.runInExecution("exec-1", () -> {
+            ddlEventBus.publishStatement(statement("user"), true, 0, 0, 0, null);
+            return null;
+        });
+
+        // Then
+        assertEquals(3, drain(all).size());
+        assertTrue(drain(other).isEmpty());
+    }
+
+    @Test
+    void testPropagate_CarriesExecutionToPoolThreads() {
+        // Given
+        DdlEventBus.Subscription subscription = ddlEventBus.subscribe("exec-1");
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        // When
+        try {
+            ddlEventBus.runInExecution("exec-1", () -> {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (String table : List.of("a", "b")) {
+                    futures.add(CompletableFuture.supplyAsync(ddlEventBus.propagate(() -> {
+                        ddlEventBus.publishStatement(statement(table), true, 0, 0, 0, null);
+                        return null;
+                    }), pool));
+                }
+                futures.forEach(CompletableFuture::join);
+                return null;
+            });
+        } finally {
+            pool.shutdown();
+        }
+
+        // Then: 并发连接上的语句计入同一次执行
+        List<DdlEvent> events = drain(subscription);
+        assertEquals(4, events.size());
+        assertEquals(2, events.get(3).getStatementCount());
+    }
+
+    @Test
+    void testPublish_FullQueueDropsInsteadOfBlocking() {
+        // Given
+        ReflectionTestUtils.setField(ddlEventBus, "queueCapacity", 2);
+        DdlEventBus.Subscription subscription = ddlEventBus.subscribe(null);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            ddlEventBus.publishStatement(statement("t" + i), true, 0, 0, 0, null);
+        }
+
+        // Then
+        assertEquals(3, subscription.takeDropped());
+        assertEquals(2, drain(subscription).size());
+        assertEquals(3L, ddlEventBus.getStatistics().get("dropped"));
+    }
+
+    @Test
+    void testSubscribe_FinishedExecutionReplaysFinishEvent() {
+        // Given: 执行时没有订阅方
+        ddlEventBus.runInExecution("exec-1", () -> {
+            ddlEventBus.publishStatement(statement("user"), true, 0, 0, 0, null);
+            return null;
+        });
+
+        // When
+        DdlEventBus.Subscription subscription = ddlEventBus.subscribe("exec-1");
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        ddlEventBus.stream("exec-1", emitter);
+
+        // Then: 订阅收到结束事件，SSE立即发送并关闭
+        List<DdlEvent> events = drain(subscription);
+        assertEquals(1, events.size());
+        assertEquals(DdlEventTypeEnum.EXECUTION_FINISHED, events.get(0).getType());
+        assertEquals(1, events.get(0).getStatementCount());
+        assertEquals(1, emitter.sent.get());
+        assertEquals(0, emitter.completed.getCount());
+        assertTrue(drain(ddlEventBus.subscribe("exec-2")).isEmpty());
+    }
+
+    @Test
+    void testStream_SlowEmitterDoesNotBlockOthers() throws Exception {
+        // Given: 一个客户端的发送一直阻塞
+        ReflectionTestUtils.setField(ddlEventBus, "dispatchIntervalMs", 10L);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        ddlEventBus.stream("exec-1", slow);
+        ddlEventBus.stream("exec-1", fast);
+
+        try {
+            // When
+            ddlEventBus.runInExecution("exec-1", () -> {
+                ddlEventBus.publishStatement(statement("user"), true, 0, 0, 0, null);
+                return null;
+            });
+
+            // Then: 另一个客户端照常收到全部事件并关闭
+            assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+            assertTrue(fast.completed.await(5, TimeUnit.SECONDS));
+            assertEquals(3, fast.sent.get());
+            assertEquals(1, slow.completed.getCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static DdlStatement statement(String table) {
+        return new DdlStatement(DdlStatementTypeEnum.CREATE_TABLE, table, "CREATE TABLE " + table + " (id INT)");
+    }
+
+    private static List<DdlEvent> drain(DdlEventBus.Subscription subscription) {
+        List<DdlEvent> events = new ArrayList<>();
+        DdlEvent event;
+        while ((event = subscription.poll()) != null) {
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * 记录发送次数的SSE发送器，release 不为空时每次发送都等待放行
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final AtomicInteger sent = new AtomicInteger();
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
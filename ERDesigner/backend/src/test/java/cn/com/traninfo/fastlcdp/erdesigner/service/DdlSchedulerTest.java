@@ -0,0 +1,190 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.PostgreSQLDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlEmissionModeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import cn.com.traninfo.fastlcdp.erdesigner.model.IndexColumnDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.IndexDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.RelationDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * DdlScheduler 执行计划测试
+ */
+class DdlSchedulerTest {
+
+    private final DdlScheduler ddlScheduler = new DdlScheduler();
+
+    @Test
+    void testPlan_IndependentTablesShareOneLevel() {
+        // Given
+        List<TableDefinition> tables = List.of(table("a"), table("b"), table("c"));
+
+        // When
+        DdlScheduler.SchedulePlan plan = ddlScheduler.plan(tables);
+
+        // Then
+        assertEquals(1, plan.getLevels().size());
+        assertEquals(3, plan.getLevels().get(0).size());
+        assertEquals(0, plan.getDeferredRelationCount());
+    }
+
+    @Test
+    void testPlan_LevelsFollowForeignKeysAndInheritance() {
+        // Given: order -> user, order_item -> order, vip_user 继承 user
+        TableDefinition vipUser = table("vip_user");
+        vipUser.setExtendsTable("user");
+        List<TableDefinition> tables = List.of(
+                table("order_item", relation("order")),
+                table("order", relation("user")),
+                vipUser,
+                table("user"),
+                table("log", relation("missing_table")));
+
+        // When
+        DdlScheduler.SchedulePlan plan = ddlScheduler.plan(tables);
+
+        // Then: 引用不在本次创建范围内的表不构成依赖
+        assertEquals(3, plan.getLevels().size());
+        assertEquals(List.of("user", "log"), names(plan.getLevels().get(0)));
+        assertEquals(List.of("order", "vip_user"), names(plan.getLevels().get(1)));
+        assertEquals(List.of("order_item"), names(plan.getLevels().get(2)));
+    }
+
+    @Test
+    void testPlan_CyclicForeignKeysAreDeferred() {
+        // Given: a -> b -> a，c 自引用
+        List<TableDefinition> tables = List.of(
+                table("a", relation("b")),
+                table("b", relation("a")),
+                table("c", relation("c")));
+
+        // When
+        DdlScheduler.SchedulePlan plan = ddlScheduler.plan(tables);
+
+        // Then: c 自引用不构成依赖先建；推迟 a 的外键后依次建 a、b
+        assertEquals(1, plan.getDeferredRelationCount());
+        assertTrue(plan.getDeferredRelations().containsKey("a"));
+        assertEquals(List.of("c"), names(plan.getLevels().get(0)));
+        assertEquals(List.of("a"), names(plan.getLevels().get(1)));
+        assertEquals(List.of("b"), names(plan.getLevels().get(2)));
+    }
+
+    @Test
+    void testPlan_InheritanceCycleFails() {
+        // Given
+        TableDefinition a = table("a");
+        a.setExtendsTable("b");
+        TableDefinition b = table("b");
+        b.setExtendsTable("a");
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> ddlScheduler.plan(List.of(a, b)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateTables_TwoPhaseEmitsIndexPhaseForPostgreSQL() {
+        // Given: PostgreSQL 的建表语句不含索引，两阶段模式必须单独建索引
+        PostgreSQLDialect dialect = new PostgreSQLDialect();
+        SqlGeneratorService sqlGeneratorService = mock(SqlGeneratorService.class);
+        when(sqlGeneratorService.getEmissionMode()).thenReturn(DdlEmissionModeEnum.TWO_PHASE);
+        when(sqlGeneratorService.generateCreateTableSql(any(TableDefinition.class)))
+                .thenAnswer(invocation -> dialect.generateCreateTableSql(invocation.getArgument(0)));
+        when(sqlGeneratorService.generateCreateIndexSql(anyString(), any(IndexDefinition.class)))
+                .thenAnswer(invocation -> dialect.generateCreateIndexSql(invocation.getArgument(0), invocation.getArgument(1)));
+        DataSourceRouter dataSourceRouter = mock(DataSourceRouter.class);
+        when(dataSourceRouter.currentType()).thenReturn(DatabaseConfig.DatabaseType.POSTGRESQL);
+        when(dataSourceRouter.propagate(any(Supplier.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        DdlEventBus ddlEventBus = mock(DdlEventBus.class);
+        when(ddlEventBus.propagate(any(Supplier.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        List<DdlStatement> executed = Collections.synchronizedList(new ArrayList<>());
+        DdlBatchExecutor ddlBatchExecutor = mock(DdlBatchExecutor.class);
+        when(ddlBatchExecutor.execute(anyList(), any(DatabaseDialect.class))).thenAnswer(invocation -> {
+            executed.addAll(invocation.getArgument(0));
+            return new DdlBatchExecutor.ExecutionReport();
+        });
+
+        DdlScheduler scheduler = new DdlScheduler();
+        ReflectionTestUtils.setField(scheduler, "sqlGeneratorService", sqlGeneratorService);
+        ReflectionTestUtils.setField(scheduler, "dataSourceRouter", dataSourceRouter);
+        ReflectionTestUtils.setField(scheduler, "ddlEventBus", ddlEventBus);
+        ReflectionTestUtils.setField(scheduler, "ddlBatchExecutor", ddlBatchExecutor);
+
+        TableDefinition user = table("app_user");
+        user.getIndexes().add(index("uk_app_user_name", "username"));
+        TableDefinition order = table("app_order", relation("app_user"));
+        order.getIndexes().add(index("idx_app_order_user", "app_user_id"));
+
+        // When
+        try {
+            scheduler.createTables(List.of(order, user));
+        } finally {
+            scheduler.shutdown();
+        }
+
+        // Then: 建表、建索引、加外键依次进行，建表语句中不含索引
+        List<DdlStatementTypeEnum> types = executed.stream().map(DdlStatement::getType).collect(Collectors.toList());
+        assertEquals(List.of(DdlStatementTypeEnum.CREATE_TABLE, DdlStatementTypeEnum.CREATE_TABLE,
+                DdlStatementTypeEnum.CREATE_INDEX, DdlStatementTypeEnum.CREATE_INDEX,
+                DdlStatementTypeEnum.ADD_FOREIGN_KEY), types);
+        List<String> indexSql = executed.stream()
+                .filter(statement -> statement.getType() == DdlStatementTypeEnum.CREATE_INDEX)
+                .map(DdlStatement::getSql)
+                .collect(Collectors.toList());
+        assertTrue(indexSql.stream().anyMatch(sql -> sql.contains("\"uk_app_user_name\"")));
+        assertTrue(indexSql.stream().anyMatch(sql -> sql.contains("\"idx_app_order_user\"")));
+        assertTrue(executed.stream()
+                .filter(statement -> statement.getType() == DdlStatementTypeEnum.CREATE_TABLE)
+                .noneMatch(statement -> statement.getSql().contains("INDEX")));
+    }
+
+    private IndexDefinition index(String name, String column) {
+        IndexColumnDefinition indexColumn = new IndexColumnDefinition();
+        indexColumn.setName(column);
+        IndexDefinition index = new IndexDefinition();
+        index.setName(name);
+        index.getColumns().add(indexColumn);
+        return index;
+    }
+
+    private TableDefinition table(String name, RelationDefinition... relations) {
+        TableDefinition table = new TableDefinition();
+        table.setName(name);
+        for (RelationDefinition relation : relations) {
+            table.getRelations().add(relation);
+        }
+        return table;
+    }
+
+    private RelationDefinition relation(String referenceTable) {
+        RelationDefinition relation = new RelationDefinition();
+        relation.setName("fk_" + referenceTable);
+        relation.setColumn(referenceTable + "_id");
+        relation.setReferenceTable(referenceTable);
+        relation.setReferenceColumn("id");
+        return relation;
+    }
+
+    private List<String> names(List<TableDefinition> tables) {
+        return tables.stream().map(TableDefinition::getName).collect(Collectors.toList());
+    }
+}
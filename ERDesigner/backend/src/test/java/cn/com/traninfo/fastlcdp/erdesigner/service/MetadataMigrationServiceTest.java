@@ -0,0 +1,111 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.repository.MetadataRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 元数据迁移测试
+ * 元数据仓库表由H2方言带引号创建，库设置 DATABASE_TO_LOWER 使 Mapper 的不带引号的SQL能够命中
+ */
+@SpringBootTest(classes = cn.com.traninfo.fastlcdp.erdesigner.FastLcdpApplication.class,
+        properties = {
+                "database.type=H2",
+                "spring.datasource.url=jdbc:h2:mem:migration_test;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+        })
+@ActiveProfiles("test")
+@Sql("classpath:metadata-h2.sql")
+class MetadataMigrationServiceTest {
+
+    @Autowired
+    private MetadataMigrationService metadataMigrationService;
+
+    @Autowired
+    private MetadataRepository metadataRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of(MetadataRepository.RELATION_TABLE, MetadataRepository.INDEX_TABLE,
+                MetadataRepository.FIELD_TABLE, MetadataRepository.TABLE_TABLE, MetadataRepository.DATASOURCE_TABLE,
+                MetadataRepository.CONNECTION_TABLE)) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table + " CASCADE");
+        }
+    }
+
+    @Test
+    void testMigrateLegacyMetadata_CopiesRowsIntoStore() {
+        // Given: 旧表中一个模式，另有一条已逻辑删除的字段
+        insertLegacyRow(1L, "legacy_shop", "product", null, null, null, 0);
+        insertLegacyRow(2L, "legacy_shop", "product", "id", "LONG", null, 0);
+        insertLegacyRow(3L, "legacy_shop", "product", "title", "STRING", 120, 0);
+        insertLegacyRow(4L, "legacy_shop", "product", "obsolete", "STRING", 10, 1);
+        jdbcTemplate.update("INSERT INTO metadata (id, version, is_deleted, schema_name, table_name, index_name, index_type) "
+                + "VALUES (5, 0, 0, 'legacy_shop', 'product', 'idx_product_title', 'NORMAL')");
+
+        // When
+        List<String> migrated = metadataMigrationService.migrateLegacyMetadata();
+        List<String> migratedAgain = metadataMigrationService.migrateLegacyMetadata();
+        DatabaseSchema schema = metadataRepository.loadSchema("legacy_shop");
+
+        // Then
+        assertEquals(List.of("legacy_shop"), migrated);
+        assertTrue(migratedAgain.isEmpty());
+        assertEquals(1, schema.getTables().size());
+        TableDefinition product = schema.getTables().get(0);
+        assertEquals("product", product.getName());
+        assertEquals(List.of("id", "title"), product.getFields().stream().map(FieldDefinition::getName).toList());
+        assertEquals(120, product.getFields().get(1).getLength());
+        assertEquals(1, product.getIndexes().size());
+        assertEquals("idx_product_title", product.getIndexes().get(0).getName());
+    }
+
+    @Test
+    void testMigrateLegacyMetadata_UnnamedRelationStaysRelation() {
+        // Given: 未命名的外键行只有本表字段和引用表
+        insertLegacyRow(1L, "legacy_crm", "orders", "customer_id", "LONG", null, 0);
+        jdbcTemplate.update("INSERT INTO metadata (id, version, is_deleted, schema_name, table_name, field_name, "
+                + "reference_table, reference_field) VALUES (2, 0, 0, 'legacy_crm', 'orders', 'customer_id', 'customer', 'id')");
+
+        // When
+        metadataMigrationService.migrateLegacyMetadata();
+        TableDefinition orders = metadataRepository.loadTable("legacy_crm", "orders");
+
+        // Then
+        assertEquals(List.of("customer_id"), orders.getFields().stream().map(FieldDefinition::getName).toList());
+        assertEquals(1, orders.getRelations().size());
+        assertEquals("customer", orders.getRelations().get(0).getReferenceTable());
+    }
+
+    @Test
+    void testMigrateLegacyMetadata_NothingToMigrate() {
+        // When
+        List<String> migrated = metadataMigrationService.migrateLegacyMetadata();
+
+        // Then
+        assertTrue(migrated.isEmpty());
+        assertTrue(metadataRepository.listSchemaNames().isEmpty());
+    }
+
+    private void insertLegacyRow(long id, String schemaName, String tableName, String fieldName, String fieldType,
+                                 Integer fieldLength, int deleted) {
+        jdbcTemplate.update("INSERT INTO metadata (id, version, is_deleted, schema_name, table_name, field_name, "
+                        + "field_type, field_length, is_nullable, primary_key_type) VALUES (?, 0, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, deleted, schemaName, tableName, fieldName, fieldType, fieldLength, true,
+                fieldName != null ? "NONE" : null);
+    }
+}
@@ -0,0 +1,211 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import cn.com.traninfo.fastlcdp.erdesigner.entity.ConnectionEntity;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.IndexTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.mapper.ConnectionMapper;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.IndexDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.RelationDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.repository.MetadataRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MetadataService 存储测试
+ * 在H2上走真实的 Mapper 装配：保存 → 修改 → 增量保存 → 读回，数据落在元数据仓库表中。
+ * 仓库表由H2方言带引号创建，库设置 DATABASE_TO_LOWER 使 Mapper 的不带引号的SQL能够命中
+ */
+@SpringBootTest(classes = cn.com.traninfo.fastlcdp.erdesigner.FastLcdpApplication.class,
+        properties = {
+                "database.type=H2",
+                "spring.datasource.url=jdbc:h2:mem:metadata_store_test;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+        })
+@ActiveProfiles("test")
+class MetadataServiceStoreTest {
+
+    private static final String SCHEMA_NAME = "store_test";
+
+    @Autowired
+    private MetadataService metadataService;
+
+    @Autowired
+    private MetadataMigrationService metadataMigrationService;
+
+    @Autowired
+    private ConnectionMapper connectionMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        metadataMigrationService.createStoreTablesIfMissing(DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.H2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of(MetadataRepository.RELATION_TABLE, MetadataRepository.INDEX_TABLE,
+                MetadataRepository.FIELD_TABLE, MetadataRepository.TABLE_TABLE, MetadataRepository.DATASOURCE_TABLE,
+                MetadataRepository.CONNECTION_TABLE)) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table + " CASCADE");
+        }
+    }
+
+    @Test
+    void testSaveIncremental_ModifiedSchemaReadBack() {
+        // Given
+        metadataService.saveSchemaDefinition(createSchema());
+        DatabaseSchema modified = createSchema();
+        TableDefinition orders = modified.getTables().get(0);
+        orders.getFields().get(1).setLength(100);
+        orders.getFields().add(field("amount", "DECIMAL", null));
+        orders.setIndexes(new ArrayList<>());
+
+        // When
+        MetadataRepository.SaveStatistics statistics = metadataService.saveSchemaDefinitionIncremental(modified);
+        DatabaseSchema loaded = metadataService.getSchemaDefinition(SCHEMA_NAME);
+
+        // Then
+        assertEquals(1, statistics.getInserted());
+        assertEquals(1, statistics.getUpdated());
+        assertEquals(1, statistics.getDeleted());
+        assertEquals(1, loaded.getTables().size());
+        TableDefinition table = loaded.getTables().get(0);
+        assertEquals("orders", table.getName());
+        assertEquals(List.of("id", "name", "amount"), table.getFields().stream().map(FieldDefinition::getName).toList());
+        assertEquals(100, table.getFields().get(1).getLength());
+        assertTrue(table.getIndexes() == null || table.getIndexes().isEmpty());
+        // 被移除的索引行已物理删除，修改的字段行版本递增
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM meta_index WHERE name = 'idx_orders_name'", Integer.class));
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT version FROM meta_field WHERE name = 'name' AND is_deleted = 0", Long.class));
+        assertEquals(List.of(SCHEMA_NAME), metadataService.listSchemaNames());
+        assertEquals(100, metadataService.getTableDefinition(SCHEMA_NAME, "orders").getFields().get(1).getLength());
+    }
+
+    @Test
+    void testSaveIncremental_UnchangedSchemaWritesNothing() {
+        // Given
+        metadataService.saveSchemaDefinition(createSchema());
+
+        // When
+        MetadataRepository.SaveStatistics statistics = metadataService.saveSchemaDefinitionIncremental(createSchema());
+
+        // Then
+        assertEquals(0, statistics.getInserted());
+        assertEquals(0, statistics.getUpdated());
+        assertEquals(0, statistics.getDeleted());
+        assertTrue(metadataService.schemaExists(SCHEMA_NAME));
+    }
+
+    @Test
+    void testSaveIncremental_UnnamedRelationKeptApartFromField() {
+        // Given: 未命名的外键与本表字段同名
+        DatabaseSchema schema = createSchema();
+        schema.getTables().get(0).getFields().add(field("customer_id", "LONG", null));
+        RelationDefinition relation = new RelationDefinition();
+        relation.setColumn("customer_id");
+        relation.setReferenceTable("customer");
+        relation.setReferenceColumn("id");
+        schema.getTables().get(0).getRelations().add(relation);
+        metadataService.saveSchemaDefinitionIncremental(schema);
+
+        // When
+        MetadataRepository.SaveStatistics statistics = metadataService.saveSchemaDefinitionIncremental(schema);
+        TableDefinition loaded = metadataService.getTableDefinition(SCHEMA_NAME, "orders");
+
+        // Then: 再次保存不重建关系，读回后仍是一个关系和三个字段
+        assertEquals(0, statistics.getInserted());
+        assertEquals(0, statistics.getUpdated());
+        assertEquals(0, statistics.getDeleted());
+        assertEquals(1, loaded.getRelations().size());
+        assertNull(loaded.getRelations().get(0).getName());
+        assertEquals(3, loaded.getFields().size());
+    }
+
+    @Test
+    void testDeleteSchema_RemovesStoredRows() {
+        // Given
+        metadataService.saveSchemaDefinition(createSchema());
+
+        // When
+        metadataService.deleteBySchemaName(SCHEMA_NAME);
+
+        // Then
+        assertFalse(metadataService.schemaExists(SCHEMA_NAME));
+        assertNull(metadataService.getSchemaDefinition(SCHEMA_NAME));
+    }
+
+    @Test
+    void testSchemaAndConnectionWithSameName_StayIndependent() {
+        // Given: 登记一个与模式同名的数据源连接
+        ConnectionEntity connection = new ConnectionEntity();
+        connection.setName(SCHEMA_NAME);
+        connection.setUrl("jdbc:h2:mem:target");
+        connection.setPassword("secret");
+        connectionMapper.insert(connection);
+
+        // When: 保存并删除同名模式
+        metadataService.saveSchemaDefinition(createSchema());
+        metadataService.saveSchemaDefinitionIncremental(createSchema());
+        metadataService.deleteBySchemaName(SCHEMA_NAME);
+
+        // Then: 连接登记和密码不受影响，同名连接不能重复登记
+        ConnectionEntity stored = connectionMapper.selectById(connection.getId());
+        assertEquals("jdbc:h2:mem:target", stored.getUrl());
+        assertEquals("secret", stored.getPassword());
+        ConnectionEntity duplicate = new ConnectionEntity();
+        duplicate.setName(SCHEMA_NAME);
+        assertThrows(DuplicateKeyException.class, () -> connectionMapper.insert(duplicate));
+    }
+
+    private DatabaseSchema createSchema() {
+        TableDefinition table = new TableDefinition();
+        table.setName("orders");
+        table.setComment("订单");
+        List<FieldDefinition> fields = new ArrayList<>();
+        FieldDefinition id = field("id", "LONG", null);
+        id.setPrimaryKey(PrimaryKeyTypeEnum.SINGLE);
+        id.setNullable(false);
+        fields.add(id);
+        fields.add(field("name", "STRING", 50));
+        table.setFields(fields);
+
+        IndexDefinition index = new IndexDefinition();
+        index.setName("idx_orders_name");
+        index.setType(IndexTypeEnum.NORMAL);
+        List<IndexDefinition> indexes = new ArrayList<>();
+        indexes.add(index);
+        table.setIndexes(indexes);
+
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName(SCHEMA_NAME);
+        schema.setTables(new ArrayList<>(List.of(table)));
+        return schema;
+    }
+
+    private FieldDefinition field(String name, String type, Integer length) {
+        FieldDefinition field = new FieldDefinition();
+        field.setName(name);
+        field.setType(type);
+        field.setLength(length);
+        return field;
+    }
+}
@@ -0,0 +1,108 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.repository.MetadataRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * MetadataService单元测试类
+ * 模式定义的读写都经由元数据仓库
+ */
+@ExtendWith(MockitoExtension.class)
+class MetadataServiceTest {
+
+    private static final String SCHEMA_NAME = "shop";
+
+    @Mock
+    private MetadataRepository metadataRepository;
+
+    @Mock
+    private XmlParserService xmlParserService;
+
+    @InjectMocks
+    private MetadataService metadataService;
+
+    @Test
+    void testGetSchemaDefinition_LoadsFromRepository() {
+        // Given
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName(SCHEMA_NAME);
+        when(metadataRepository.loadSchema(SCHEMA_NAME)).thenReturn(schema);
+
+        // When
+        DatabaseSchema loaded = metadataService.getSchemaDefinition(SCHEMA_NAME);
+
+        // Then
+        assertSame(schema, loaded);
+        verify(metadataRepository, times(1)).loadSchema(SCHEMA_NAME);
+    }
+
+    @Test
+    void testGetSchemaDefinition_NotFound() {
+        // Given
+        when(metadataRepository.loadSchema(SCHEMA_NAME)).thenReturn(null);
+
+        // When & Then
+        assertNull(metadataService.getSchemaDefinition(SCHEMA_NAME));
+    }
+
+    @Test
+    void testGetTableDefinition_SeesEverySavedSchema() {
+        // Given
+        TableDefinition table = new TableDefinition();
+        table.setName("product");
+        when(metadataRepository.loadTable(SCHEMA_NAME, "product")).thenReturn(table);
+
+        // When & Then
+        assertSame(table, metadataService.getTableDefinition(SCHEMA_NAME, "product"));
+    }
+
+    @Test
+    void testSaveSchemaFromStream_SavesIncrementally() throws Exception {
+        // Given
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName(SCHEMA_NAME);
+        InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+        when(xmlParserService.parseUpload(any(InputStream.class), anyLong())).thenReturn(schema);
+        when(metadataRepository.saveSchemaIncremental(schema)).thenReturn(new MetadataRepository.SaveStatistics(1, 0, 0));
+
+        // When
+        metadataService.saveSchemaFromStream(inputStream, 0);
+
+        // Then
+        verify(metadataRepository).saveSchemaIncremental(schema);
+        verify(metadataRepository, never()).saveSchema(any());
+    }
+
+    @Test
+    void testDeleteBySchemaName_DeletesFromRepository() {
+        // When
+        metadataService.deleteBySchemaName(SCHEMA_NAME);
+
+        // Then
+        verify(metadataRepository).deleteSchema(SCHEMA_NAME);
+    }
+
+    @Test
+    void testListSchemaNames() {
+        // Given
+        when(metadataRepository.listSchemaNames()).thenReturn(List.of("crm", SCHEMA_NAME));
+
+        // When & Then
+        assertEquals(List.of("crm", SCHEMA_NAME), metadataService.listSchemaNames());
+    }
+}
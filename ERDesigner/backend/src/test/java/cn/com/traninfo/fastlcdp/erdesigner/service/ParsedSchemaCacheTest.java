@@ -0,0 +1,98 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ParsedSchemaCache单元测试类
+ */
+class ParsedSchemaCacheTest {
+
+    @Test
+    void testGet_MissThenHit() {
+        // Given
+        ParsedSchemaCache cache = new ParsedSchemaCache(true, 1024, 10);
+        String key = cache.digest("<database/>".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        DatabaseSchema missed = cache.get(key);
+        cache.put(key, createSchema("db"), 100);
+        DatabaseSchema hit = cache.get(key);
+
+        // Then
+        assertNull(missed);
+        assertNotNull(hit);
+        assertEquals("db", hit.getName());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void testGet_ReturnsDefensiveCopy() {
+        // Given
+        ParsedSchemaCache cache = new ParsedSchemaCache(true, 1024, 10);
+        DatabaseSchema schema = createSchema("db");
+        cache.put("k", schema, 100);
+
+        // When: 修改放入的对象和取出的副本
+        schema.getTables().clear();
+        cache.get("k").getTables().get(0).getFields().clear();
+
+        // Then
+        DatabaseSchema cached = cache.get("k");
+        assertEquals(1, cached.getTables().size());
+        assertEquals(1, cached.getTables().get(0).getFields().size());
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsedByWeight() {
+        // Given: 容量300字节
+        ParsedSchemaCache cache = new ParsedSchemaCache(true, 300, 10);
+        cache.put("a", createSchema("a"), 100);
+        cache.put("b", createSchema("b"), 100);
+        cache.put("c", createSchema("c"), 100);
+        cache.get("a");
+
+        // When: 超出容量，最久未使用的 b 被淘汰
+        cache.put("d", createSchema("d"), 100);
+
+        // Then
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertNotNull(cache.get("d"));
+    }
+
+    @Test
+    void testPut_SkipsOversizedEntry() {
+        // Given
+        ParsedSchemaCache cache = new ParsedSchemaCache(true, 100, 10);
+
+        // When
+        cache.put("big", createSchema("big"), 101);
+
+        // Then
+        assertNull(cache.get("big"));
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    private DatabaseSchema createSchema(String name) {
+        FieldDefinition field = new FieldDefinition();
+        field.setName("id");
+        field.setType("LONG");
+        TableDefinition table = new TableDefinition();
+        table.setName("t_" + name);
+        table.getFields().add(field);
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName(name);
+        schema.getTables().add(table);
+        return schema;
+    }
+}
@@ -0,0 +1,117 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.DatabaseDialectFactory;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.repository.MetadataRepository;
+import cn.com.traninfo.fastlcdp.erdesigner.util.SchemaCopyUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SchemaDiffService 存储测试
+ * 当前模式从H2上元数据仓库中真实保存的元数据读取
+ */
+@SpringBootTest(classes = cn.com.traninfo.fastlcdp.erdesigner.FastLcdpApplication.class,
+        properties = {
+                "database.type=H2",
+                "spring.datasource.url=jdbc:h2:mem:diff_store_test;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+        })
+@ActiveProfiles("test")
+class SchemaDiffServiceStoreTest {
+
+    @Autowired
+    private SchemaDiffService schemaDiffService;
+
+    @Autowired
+    private MetadataService metadataService;
+
+    @Autowired
+    private MetadataMigrationService metadataMigrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        metadataMigrationService.createStoreTablesIfMissing(DatabaseDialectFactory.createDialect(DatabaseConfig.DatabaseType.H2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of(MetadataRepository.RELATION_TABLE, MetadataRepository.INDEX_TABLE,
+                MetadataRepository.FIELD_TABLE, MetadataRepository.TABLE_TABLE, MetadataRepository.DATASOURCE_TABLE,
+                MetadataRepository.CONNECTION_TABLE)) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table + " CASCADE");
+        }
+    }
+
+    @Test
+    void testDiffAgainstStored_OnlyChangedColumnsAreAltered() {
+        // Given
+        DatabaseSchema stored = createSchema("diff_store");
+        metadataService.saveSchemaDefinition(stored);
+        DatabaseSchema target = SchemaCopyUtils.copy(stored);
+        target.getTables().get(0).getFields().get(1).setLength(200);
+        target.getTables().get(0).getFields().add(field("email", "STRING", 100));
+
+        // When
+        List<DdlStatement> unchanged = schemaDiffService.diffAgainstStored(SchemaCopyUtils.copy(stored), "MYSQL");
+        List<DdlStatement> statements = schemaDiffService.diffAgainstStored(target, "MYSQL");
+
+        // Then
+        assertTrue(unchanged.isEmpty());
+        assertEquals(2, statements.size());
+        String sql = schemaDiffService.toSql(statements);
+        assertTrue(sql.contains("MODIFY COLUMN `name` VARCHAR(200)"));
+        assertTrue(sql.contains("ADD COLUMN `email` VARCHAR(100)"));
+        assertFalse(sql.contains("CREATE TABLE"));
+    }
+
+    @Test
+    void testDiffAgainstStored_UnsavedSchemaCreatesTables() {
+        // When
+        List<DdlStatement> statements = schemaDiffService.diffAgainstStored(createSchema("diff_unsaved"), "MYSQL");
+
+        // Then
+        assertEquals(1, statements.size());
+        assertEquals(DdlStatementTypeEnum.CREATE_TABLE, statements.get(0).getType());
+    }
+
+    private DatabaseSchema createSchema(String name) {
+        FieldDefinition id = field("id", "LONG", null);
+        id.setPrimaryKey(PrimaryKeyTypeEnum.SINGLE);
+        id.setNullable(false);
+        TableDefinition customer = new TableDefinition();
+        customer.setName("customer");
+        customer.setFields(new ArrayList<>(List.of(id, field("name", "STRING", 50))));
+
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName(name);
+        schema.setTables(new ArrayList<>(List.of(customer)));
+        return schema;
+    }
+
+    private FieldDefinition field(String name, String type, Integer length) {
+        FieldDefinition field = new FieldDefinition();
+        field.setName(name);
+        field.setType(type);
+        field.setLength(length);
+        return field;
+    }
+}
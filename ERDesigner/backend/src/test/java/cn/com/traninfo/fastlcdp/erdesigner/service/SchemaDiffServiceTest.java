@@ -0,0 +1,328 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.MySQLDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.OracleDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.PostgreSQLDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.dialect.SqlServerDialect;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.IndexTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.RelationActionEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.*;
+import cn.com.traninfo.fastlcdp.erdesigner.util.SchemaCopyUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SchemaDiffService 单元测试
+ */
+class SchemaDiffServiceTest {
+
+    private final SchemaDiffService schemaDiffService = new SchemaDiffService();
+
+    private final MySQLDialect dialect = new MySQLDialect();
+
+    @Test
+    void testDiff_IdenticalSchemasProduceNoStatements() {
+        // Given
+        DatabaseSchema current = createSchema();
+        DatabaseSchema target = SchemaCopyUtils.copy(current);
+
+        // When
+        List<DdlStatement> statements = schemaDiffService.diff(current, target, dialect);
+
+        // Then
+        assertTrue(statements.isEmpty());
+    }
+
+    @Test
+    void testDiff_OnlyChangedColumnsAreAltered() {
+        // Given: 新增 phone，加长 username，删除 age
+        DatabaseSchema current = createSchema();
+        DatabaseSchema target = SchemaCopyUtils.copy(current);
+        TableDefinition user = target.getTables().get(0);
+        user.getFields().add(field("phone", "STRING", 20));
+        user.getFields().get(1).setLength(100);
+        user.getFields().removeIf(field -> "age".equals(field.getName()));
+
+        // When
+        List<DdlStatement> statements = schemaDiffService.diff(current, target, dialect);
+
+        // Then
+        assertEquals(3, statements.size());
+        assertTrue(statements.stream().allMatch(statement -> statement.getType() == DdlStatementTypeEnum.ALTER_TABLE));
+        String sql = schemaDiffService.toSql(statements);
+        assertTrue(sql.contains("ADD COLUMN `phone`"));
+        assertTrue(sql.contains("MODIFY COLUMN `username` VARCHAR(100)"));
+        assertTrue(sql.contains("DROP COLUMN `age`"));
+        assertFalse(sql.contains("CREATE TABLE"));
+    }
+
+    @Test
+    void testDiff_IndexAndForeignKeyChangesAreOrdered() {
+        // Given: 唯一索引改为普通索引，新增订单表及外键
+        DatabaseSchema current = createSchema();
+        DatabaseSchema target = SchemaCopyUtils.copy(current);
+        target.getTables().get(0).getIndexes().get(0).setType(IndexTypeEnum.NORMAL);
+
+        TableDefinition order = new TableDefinition();
+        order.setName("order");
+        order.setFields(new ArrayList<>(List.of(primaryKey(), field("user_id", "LONG", null))));
+        RelationDefinition relation = new RelationDefinition();
+        relation.setName("fk_order_user");
+        relation.setColumn("user_id");
+        relation.setReferenceTable("user");
+        relation.setReferenceColumn("id");
+        order.setRelations(new ArrayList<>(List.of(relation)));
+        target.getTables().add(order);
+
+        // When
+        List<DdlStatement> statements = schemaDiffService.diff(current, target, dialect);
+
+        // Then: 先删旧索引，再建表，再建新索引，最后添加外键
+        List<DdlStatementTypeEnum> types = statements.stream().map(DdlStatement::getType).collect(Collectors.toList());
+        assertEquals(List.of(DdlStatementTypeEnum.DROP_INDEX, DdlStatementTypeEnum.CREATE_TABLE,
+                DdlStatementTypeEnum.CREATE_INDEX, DdlStatementTypeEnum.ADD_FOREIGN_KEY), types);
+        assertFalse(statements.get(1).getSql().contains("FOREIGN KEY"));
+        assertTrue(statements.get(3).getSql().startsWith("ALTER TABLE `order` ADD CONSTRAINT `fk_order_user`"));
+    }
+
+    @Test
+    void testDiff_RemovedTableIsDropped() {
+        // Given
+        DatabaseSchema current = createSchema();
+        DatabaseSchema target = new DatabaseSchema();
+        target.setName(current.getName());
+
+        // When
+        List<DdlStatement> statements = schemaDiffService.diff(current, target, dialect);
+
+        // Then
+        assertEquals(1, statements.size());
+        assertEquals(DdlStatementTypeEnum.DROP_TABLE, statements.get(0).getType());
+    }
+
+    @Test
+    void testDiff_DroppedTablesOrderedByReferences() {
+        // Given: user 在前、order 在后，order 引用 user，两张表都被删除
+        DatabaseSchema current = createSchema();
+        current.getTables().add(createOrderTable("fk_order_user"));
+        DatabaseSchema target = new DatabaseSchema();
+        target.setName(current.getName());
+
+        // When
+        List<DdlStatement> statements = schemaDiffService.diff(current, target, dialect);
+
+        // Then: 引用方先删除
+        assertEquals(List.of("order", "user"), statements.stream().map(DdlStatement::getTarget).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testDiff_DroppedTablesWithCycleDropForeignKeysFirst() {
+        // Given: user 与 order 互相引用，两张表都被删除
+        DatabaseSchema current = createSchema();
+        current.getTables().add(createOrderTable("fk_order_user"));
+        RelationDefinition back = new RelationDefinition();
+        back.setName("fk_user_order");
+        back.setColumn("id");
+        back.setReferenceTable("order");
+        back.setReferenceColumn("id");
+        current.getTables().get(0).setRelations(new ArrayList<>(List.of(back)));
+        DatabaseSchema target = new DatabaseSchema();
+        target.setName(current.getName());
+
+        // When
+        List<DdlStatement> statements = schemaDiffService.diff(current, target, dialect);
+
+        // Then
+        List<DdlStatementTypeEnum> types = statements.stream().map(DdlStatement::getType).collect(Collectors.toList());
+        assertEquals(List.of(DdlStatementTypeEnum.DROP_FOREIGN_KEY, DdlStatementTypeEnum.DROP_FOREIGN_KEY,
+                DdlStatementTypeEnum.DROP_TABLE, DdlStatementTypeEnum.DROP_TABLE), types);
+    }
+
+    @Test
+    void testDiff_ChangedUnnamedForeignKeyRejected() {
+        // Given: 未命名外键的级联规则变化
+        DatabaseSchema current = createSchema();
+        current.getTables().add(createOrderTable(null));
+        DatabaseSchema target = SchemaCopyUtils.copy(current);
+        target.getTables().get(1).getRelations().get(0).setOnDelete(RelationActionEnum.CASCADE);
+
+        // When & Then: 旧外键删不掉，不能只添加新外键
+        assertThrows(IllegalArgumentException.class, () -> schemaDiffService.diff(current, target, dialect));
+    }
+
+    @Test
+    void testDiff_OracleModifiesOnlyChangedAttributes() {
+        // Given: 加长 username（可空性不变），age 改为非空并加默认值
+        DatabaseSchema current = createSchema();
+        DatabaseSchema target = SchemaCopyUtils.copy(current);
+        TableDefinition user = target.getTables().get(0);
+        user.getFields().get(1).setLength(100);
+        user.getFields().get(2).setNullable(false);
+        user.getFields().get(2).setDefaultValue("0");
+
+        // When
+        List<String> sql = schemaDiffService.diff(current, target, new OracleDialect()).stream()
+                .map(DdlStatement::getSql)
+                .collect(Collectors.toList());
+
+        // Then: 未变化的可空性不重复声明，避免 ORA-01442/ORA-01451
+        assertEquals(List.of(
+                "ALTER TABLE \"user\" MODIFY (\"username\" VARCHAR2(100))",
+                "ALTER TABLE \"user\" MODIFY (\"age\" DEFAULT '0' NOT NULL)"), sql);
+    }
+
+    @Test
+    void testDiff_OracleIdentityChanges() {
+        // Given
+        DatabaseSchema current = createSchema();
+        DatabaseSchema dropIdentity = SchemaCopyUtils.copy(current);
+        dropIdentity.getTables().get(0).getFields().get(0).setPrimaryKey(PrimaryKeyTypeEnum.SINGLE);
+        DatabaseSchema addIdentity = SchemaCopyUtils.copy(current);
+        addIdentity.getTables().get(0).getFields().get(2).setPrimaryKey(PrimaryKeyTypeEnum.AUTO_INCREMENT);
+
+        // When
+        List<DdlStatement> statements = schemaDiffService.diff(current, dropIdentity, new OracleDialect());
+
+        // Then: 去掉 IDENTITY 单独执行；不能把普通字段改为 IDENTITY
+        assertEquals(1, statements.size());
+        assertEquals("ALTER TABLE \"user\" MODIFY \"id\" DROP IDENTITY", statements.get(0).getSql());
+        assertThrows(UnsupportedOperationException.class,
+                () -> schemaDiffService.diff(current, addIdentity, new OracleDialect()));
+    }
+
+    @Test
+    void testDiff_PostgreSQLModifiesOnlyChangedAttributes() {
+        // Given: 加长 username 并加默认值，自增主键 id 的长度变化不影响类型
+        DatabaseSchema current = createSchema();
+        DatabaseSchema target = SchemaCopyUtils.copy(current);
+        TableDefinition user = target.getTables().get(0);
+        user.getFields().get(0).setLength(20);
+        user.getFields().get(1).setLength(100);
+        user.getFields().get(1).setDefaultValue("guest");
+
+        // When
+        List<String> sql = schemaDiffService.diff(current, target, new PostgreSQLDialect()).stream()
+                .map(DdlStatement::getSql)
+                .collect(Collectors.toList());
+
+        // Then: 默认值沿用建表时的渲染
+        assertEquals(List.of("ALTER TABLE \"user\" ALTER COLUMN \"username\" TYPE VARCHAR(100), "
+                + "ALTER COLUMN \"username\" SET DEFAULT 'guest'"), sql);
+        assertFalse(String.join(";", sql).contains("SERIAL"));
+    }
+
+    @Test
+    void testDiff_PostgreSQLIdentityChanges() {
+        // Given
+        DatabaseSchema current = createSchema();
+        DatabaseSchema addIdentity = SchemaCopyUtils.copy(current);
+        addIdentity.getTables().get(0).getFields().get(2).setPrimaryKey(PrimaryKeyTypeEnum.AUTO_INCREMENT);
+        DatabaseSchema dropIdentity = SchemaCopyUtils.copy(current);
+        dropIdentity.getTables().get(0).getFields().get(0).setPrimaryKey(PrimaryKeyTypeEnum.SINGLE);
+
+        // When
+        List<String> added = schemaDiffService.diff(current, addIdentity, new PostgreSQLDialect()).stream()
+                .map(DdlStatement::getSql)
+                .collect(Collectors.toList());
+        List<String> dropped = schemaDiffService.diff(current, dropIdentity, new PostgreSQLDialect()).stream()
+                .map(DdlStatement::getSql)
+                .collect(Collectors.toList());
+
+        // Then: SERIAL 不能用于 ALTER COLUMN TYPE，改为 IDENTITY
+        assertEquals(List.of(
+                "ALTER TABLE \"user\" ALTER COLUMN \"age\" SET NOT NULL, ALTER COLUMN \"age\" DROP DEFAULT",
+                "ALTER TABLE \"user\" ALTER COLUMN \"age\" ADD GENERATED BY DEFAULT AS IDENTITY"), added);
+        assertEquals(List.of(
+                "ALTER TABLE \"user\" ALTER COLUMN \"id\" DROP IDENTITY IF EXISTS",
+                "ALTER TABLE \"user\" ALTER COLUMN \"id\" DROP DEFAULT"), dropped);
+    }
+
+    @Test
+    void testDiff_SqlServerRecreatesDefaultConstraint() {
+        // Given: age 加默认值，username 只加长
+        DatabaseSchema current = createSchema();
+        DatabaseSchema target = SchemaCopyUtils.copy(current);
+        TableDefinition user = target.getTables().get(0);
+        user.getFields().get(1).setLength(100);
+        user.getFields().get(2).setDefaultValue("0");
+
+        // When
+        List<String> sql = schemaDiffService.diff(current, target, new SqlServerDialect()).stream()
+                .map(DdlStatement::getSql)
+                .collect(Collectors.toList());
+
+        // Then: 原默认值约束按系统视图查找删除，再用 ADD DEFAULT ... FOR 重建
+        assertEquals(3, sql.size());
+        assertEquals("ALTER TABLE [user] ALTER COLUMN [username] VARCHAR(100) NULL", sql.get(0));
+        assertTrue(sql.get(1).startsWith("EXEC sp_executesql N'DECLARE @sql NVARCHAR(MAX); "));
+        assertTrue(sql.get(1).contains("sys.default_constraints"));
+        assertTrue(sql.get(1).contains("OBJECT_ID(N''[user]'') AND c.name = N''age''"));
+        assertEquals("ALTER TABLE [user] ADD DEFAULT '0' FOR [age]", sql.get(2));
+    }
+
+    @Test
+    void testDiff_SqlServerIdentityChangeRejected() {
+        // Given
+        DatabaseSchema current = createSchema();
+        DatabaseSchema target = SchemaCopyUtils.copy(current);
+        target.getTables().get(0).getFields().get(2).setPrimaryKey(PrimaryKeyTypeEnum.AUTO_INCREMENT);
+
+        // When & Then
+        assertThrows(UnsupportedOperationException.class,
+                () -> schemaDiffService.diff(current, target, new SqlServerDialect()));
+    }
+
+    private TableDefinition createOrderTable(String foreignKeyName) {
+        TableDefinition order = new TableDefinition();
+        order.setName("order");
+        order.setFields(new ArrayList<>(List.of(primaryKey(), field("user_id", "LONG", null))));
+        RelationDefinition relation = new RelationDefinition();
+        relation.setName(foreignKeyName);
+        relation.setColumn("user_id");
+        relation.setReferenceTable("user");
+        relation.setReferenceColumn("id");
+        order.setRelations(new ArrayList<>(List.of(relation)));
+        return order;
+    }
+
+    private DatabaseSchema createSchema() {
+        TableDefinition user = new TableDefinition();
+        user.setName("user");
+        user.setFields(new ArrayList<>(List.of(primaryKey(), field("username", "STRING", 50), field("age", "INT", null))));
+
+        IndexColumnDefinition column = new IndexColumnDefinition();
+        column.setName("username");
+        IndexDefinition index = new IndexDefinition();
+        index.setName("uk_username");
+        index.setType(IndexTypeEnum.UNIQUE);
+        index.setColumns(new ArrayList<>(List.of(column)));
+        user.setIndexes(new ArrayList<>(List.of(index)));
+
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName("diff_db");
+        schema.setTables(new ArrayList<>(List.of(user)));
+        return schema;
+    }
+
+    private FieldDefinition primaryKey() {
+        FieldDefinition field = field("id", "LONG", null);
+        field.setPrimaryKey(PrimaryKeyTypeEnum.AUTO_INCREMENT);
+        field.setNullable(false);
+        return field;
+    }
+
+    private FieldDefinition field(String name, String type, Integer length) {
+        FieldDefinition field = new FieldDefinition();
+        field.setName(name);
+        field.setType(type);
+        field.setLength(length);
+        return field;
+    }
+}
@@ -0,0 +1,209 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlStatementTypeEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.enums.SchemaJobStatusEnum;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.DdlStatement;
+import cn.com.traninfo.fastlcdp.erdesigner.model.SchemaJob;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * SchemaJobService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class SchemaJobServiceTest {
+
+    @Mock
+    private XmlParserService xmlParserService;
+
+    @Mock
+    private DatabaseExecutorService databaseExecutorService;
+
+    @Spy
+    private DdlEventBus ddlEventBus = new DdlEventBus();
+
+    @Mock
+    private DataSourceRouter dataSourceRouter;
+
+    @InjectMocks
+    private SchemaJobService schemaJobService;
+
+    @AfterEach
+    void tearDown() {
+        schemaJobService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSubmit_RunsInBackgroundAndTracksPerTableProgress() throws Exception {
+        // Given: 3 张表，每张表一条建表语句和一条索引语句，每段执行 2 条
+        ReflectionTestUtils.setField(schemaJobService, "chunkSize", 2);
+        DatabaseSchema schema = schema("demo", "a", "b", "c");
+        when(xmlParserService.parseFromStream(any(InputStream.class), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<TableDefinition> listener = invocation.getArgument(1);
+            schema.getTables().forEach(listener);
+            return schema;
+        });
+        List<DdlStatement> statements = new ArrayList<>();
+        when(databaseExecutorService.buildSchemaStatements(eq(schema), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<TableDefinition> listener = invocation.getArgument(1);
+            for (TableDefinition table : schema.getTables()) {
+                statements.add(new DdlStatement(DdlStatementTypeEnum.CREATE_TABLE, table.getName(), "CREATE TABLE " + table.getName()));
+                statements.add(new DdlStatement(DdlStatementTypeEnum.CREATE_INDEX, "idx_" + table.getName(), "CREATE INDEX idx_" + table.getName()));
+                listener.accept(table);
+            }
+            return statements;
+        });
+        when(databaseExecutorService.executeStatements(anyList())).thenAnswer(invocation -> report(invocation.getArgument(0)));
+
+        // When
+        SchemaJob job = schemaJobService.submit("generate", "demo.xml", new byte[0]);
+        job.getFuture().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(SchemaJobStatusEnum.SUCCEEDED, job.getStatus());
+        assertEquals("demo", job.getDatabaseName());
+        assertEquals(3, job.getParsedTables().get());
+        assertEquals(3, job.getGeneratedTables().get());
+        assertEquals(3, job.getExecutedTables().get());
+        assertEquals(6, job.getExecutedStatements().get());
+        verify(databaseExecutorService, times(3)).executeStatements(anyList());
+        assertSame(job, schemaJobService.getJob(job.getId()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCancel_QueuedJobNeverRuns() throws Exception {
+        // Given: 单线程执行，第一个任务阻塞在解析阶段，第二个任务排队
+        ReflectionTestUtils.setField(schemaJobService, "parallelism", 1);
+        CountDownLatch parsing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(xmlParserService.parseFromStream(any(InputStream.class), any(Consumer.class))).thenAnswer(invocation -> {
+            parsing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new RuntimeException("解析失败");
+        });
+        SchemaJob running = schemaJobService.submit("generate", "first.xml", new byte[0]);
+        assertTrue(parsing.await(5, TimeUnit.SECONDS));
+        SchemaJob queued = schemaJobService.submit("generate", "second.xml", new byte[0]);
+
+        // When
+        boolean cancelled = schemaJobService.cancel(queued.getId());
+        release.countDown();
+        try {
+            running.getFuture().get(5, TimeUnit.SECONDS);
+        } catch (Exception ignored) {
+            // 第一个任务的失败记录在任务状态中
+        }
+
+        // Then
+        assertTrue(cancelled);
+        assertEquals(SchemaJobStatusEnum.CANCELLED, queued.getStatus());
+        assertEquals(SchemaJobStatusEnum.FAILED, running.getStatus());
+        assertFalse(schemaJobService.cancel(running.getId()));
+        verify(xmlParserService, times(1)).parseFromStream(any(InputStream.class), any(Consumer.class));
+    }
+
+    @Test
+    void testStream_SlowSubscriberDoesNotBlockOthers() throws Exception {
+        // Given: 已结束的任务，一个订阅的发送一直阻塞
+        ReflectionTestUtils.setField(schemaJobService, "streamIntervalMs", 10L);
+        SchemaJob job = new SchemaJob("job-1", "generate", "demo.xml", null);
+        job.finish(SchemaJobStatusEnum.SUCCEEDED, "done");
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+
+        try {
+            // When
+            schemaJobService.stream(job, slow);
+            assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+            schemaJobService.stream(job, fast);
+
+            // Then: 另一个订阅照常收到最终状态并关闭
+            assertTrue(fast.completed.await(5, TimeUnit.SECONDS));
+            assertEquals(1, fast.sent.get());
+            assertEquals(1, slow.completed.getCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static DatabaseSchema schema(String name, String... tableNames) {
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName(name);
+        List<TableDefinition> tables = new ArrayList<>();
+        for (String tableName : tableNames) {
+            TableDefinition table = new TableDefinition();
+            table.setName(tableName);
+            tables.add(table);
+        }
+        schema.setTables(tables);
+        return schema;
+    }
+
+    private static DdlBatchExecutor.ExecutionReport report(List<DdlStatement> chunk) {
+        List<DdlBatchExecutor.StatementResult> results = new ArrayList<>();
+        for (DdlStatement statement : chunk) {
+            results.add(new DdlBatchExecutor.StatementResult(statement, true, 0, 0, 0, null));
+        }
+        DdlBatchExecutor.ExecutionReport report = mock(DdlBatchExecutor.ExecutionReport.class);
+        when(report.getResults()).thenReturn(results);
+        return report;
+    }
+
+    /**
+     * 记录发送次数的SSE发送器，release 不为空时每次发送都等待放行
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final AtomicInteger sent = new AtomicInteger();
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SqlArchiveWriter 单元测试
+ */
+class SqlArchiveWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SqlArchiveWriter archiveWriter;
+
+    @AfterEach
+    void tearDown() {
+        if (archiveWriter != null) {
+            archiveWriter.shutdown();
+        }
+    }
+
+    @Test
+    void testSubmit_WritesUtf8File() throws Exception {
+        // Given
+        archiveWriter = new SqlArchiveWriter(true, tempDir.toString(), 16, Long.MAX_VALUE, false, 30, Long.MAX_VALUE);
+        archiveWriter.start();
+
+        // When
+        assertTrue(archiveWriter.submit("test_db", "MYSQL", "CREATE TABLE `用户` (id BIGINT);"));
+        assertTrue(archiveWriter.awaitIdle(5000));
+
+        // Then
+        List<Path> files = listFiles();
+        assertEquals(1, files.size());
+        assertTrue(files.get(0).getFileName().toString().startsWith("test_db_mysql_"));
+        String content = Files.readString(files.get(0), StandardCharsets.UTF_8);
+        assertTrue(content.startsWith("-- Generated SQL for schema: test_db"));
+        assertTrue(content.endsWith("CREATE TABLE `用户` (id BIGINT);"));
+    }
+
+    @Test
+    void testSubmit_SameSecondDoesNotOverwrite() throws Exception {
+        // Given
+        archiveWriter = new SqlArchiveWriter(true, tempDir.toString(), 16, Long.MAX_VALUE, false, 30, Long.MAX_VALUE);
+        archiveWriter.start();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            archiveWriter.submit("test_db", "H2", "SELECT " + i + ";");
+        }
+        assertTrue(archiveWriter.awaitIdle(5000));
+
+        // Then
+        assertEquals(3, listFiles().size());
+        assertEquals(3, archiveWriter.getWrittenCount());
+    }
+
+    @Test
+    void testSubmit_Gzip() throws Exception {
+        // Given
+        archiveWriter = new SqlArchiveWriter(true, tempDir.toString(), 16, Long.MAX_VALUE, true, 30, Long.MAX_VALUE);
+        archiveWriter.start();
+
+        // When
+        archiveWriter.submit("gzip_db", "POSTGRESQL", "CREATE TABLE t (id INT);");
+        assertTrue(archiveWriter.awaitIdle(5000));
+
+        // Then
+        Path file = listFiles().get(0);
+        assertTrue(file.getFileName().toString().endsWith(".sql.gz"));
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(file))) {
+            String content = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(content.endsWith("CREATE TABLE t (id INT);"));
+        }
+    }
+
+    @Test
+    void testSubmit_QueueFullDropsWithoutBlocking() {
+        // Given: 未启动写入线程，容量为1
+        archiveWriter = new SqlArchiveWriter(true, tempDir.toString(), 1, Long.MAX_VALUE, false, 30, Long.MAX_VALUE);
+
+        // When
+        boolean first = archiveWriter.submit("db", "H2", "SELECT 1;");
+        boolean second = archiveWriter.submit("db", "H2", "SELECT 2;");
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(1, archiveWriter.getDroppedCount());
+        assertEquals(1, archiveWriter.getQueueDepth());
+        assertEquals(1L, archiveWriter.getStatistics().get("dropped"));
+    }
+
+    @Test
+    void testSubmit_QueuedBytesLimitDropsLargeScripts() {
+        // Given: 未启动写入线程，队列容量足够，待写入字节上限100（50个字符）
+        archiveWriter = new SqlArchiveWriter(true, tempDir.toString(), 16, 100, false, 30, Long.MAX_VALUE);
+
+        // When
+        boolean small = archiveWriter.submit("db", "H2", "SELECT 1;");
+        boolean large = archiveWriter.submit("db", "H2", "SELECT '" + "x".repeat(100) + "';");
+        boolean another = archiveWriter.submit("db", "H2", "SELECT 2;");
+
+        // Then: 超出字节预算的脚本被丢弃并计数，后续小脚本仍可入队
+        assertTrue(small);
+        assertFalse(large);
+        assertTrue(another);
+        assertEquals(1, archiveWriter.getDroppedCount());
+        assertEquals(2, archiveWriter.getQueueDepth());
+        assertEquals(36L, archiveWriter.getQueuedBytes());
+    }
+
+    @Test
+    void testRetention_TotalSizeLimit() throws Exception {
+        // Given: 每个文件超过100字节，总大小上限150字节
+        archiveWriter = new SqlArchiveWriter(true, tempDir.toString(), 16, Long.MAX_VALUE, false, 30, 150);
+        archiveWriter.start();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            archiveWriter.submit("size_db", "H2", "SELECT " + i + ";");
+            assertTrue(archiveWriter.awaitIdle(5000));
+        }
+
+        // Then: 只保留最新的文件
+        List<Path> files = listFiles();
+        assertEquals(1, files.size());
+        assertTrue(Files.readString(files.get(0)).endsWith("SELECT 2;"));
+        assertEquals(2, archiveWriter.getDeletedCount());
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> stream = Files.list(tempDir)) {
+            return stream.sorted().toList();
+        }
+    }
+}
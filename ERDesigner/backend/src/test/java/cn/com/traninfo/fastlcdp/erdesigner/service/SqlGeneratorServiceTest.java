@@ -1,5 +1,6 @@
 package cn.com.traninfo.fastlcdp.erdesigner.service;
 
+import cn.com.traninfo.fastlcdp.erdesigner.enums.DdlEmissionModeEnum;
 import cn.com.traninfo.fastlcdp.erdesigner.enums.IndexSortOrderEnum;
 import cn.com.traninfo.fastlcdp.erdesigner.enums.IndexTypeEnum;
 import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
@@ -9,8 +10,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -235,6 +242,84 @@ class SqlGeneratorServiceTest {
         // 只验证基本的表结构生成正确
     }
     
+    @Test
+    void testGenerateFullSchemaSql_ParallelMatchesSequential() {
+        // Given: 3000张表
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName("parallel_db");
+        List<TableDefinition> tables = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            TableDefinition table = createSampleTable();
+            table.setName("user_" + i);
+            table.getIndexes().get(0).setName("uk_username_" + i);
+            tables.add(table);
+        }
+        schema.setTables(tables);
+        
+        try {
+            // When
+            sqlGeneratorService.setParallelGeneration(false);
+            String sequentialSql = sqlGeneratorService.generateFullSchemaSql(schema);
+            
+            sqlGeneratorService.setParallelGeneration(true);
+            String parallelSql = sqlGeneratorService.generateFullSchemaSql(schema);
+            
+            // Then: 输出逐字节一致
+            assertEquals(sequentialSql, parallelSql);
+            assertTrue(parallelSql.contains("user_2999"));
+        } finally {
+            sqlGeneratorService.setParallelGeneration(false);
+        }
+    }
+    
+    @Test
+    void testWriteFullSchemaSql_MatchesGeneratedString() throws IOException {
+        // Given
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName("stream_db");
+        schema.setTables(new ArrayList<>(List.of(createSampleTable(), createComplexTable())));
+        
+        // When
+        String expected = sqlGeneratorService.generateFullSchemaSql(schema);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        sqlGeneratorService.writeFullSchemaSql(schema, outputStream);
+        
+        // Then
+        assertEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void testGenerateFullSchemaSql_TwoPhaseEmitsConstraintsAfterTables() {
+        // Given: article 引用在它之后声明的 user 表
+        TableDefinition article = createComplexTable();
+        RelationDefinition relation = new RelationDefinition();
+        relation.setName("fk_article_author");
+        relation.setColumn("author_id");
+        relation.setReferenceTable("user");
+        relation.setReferenceColumn("id");
+        article.setRelations(List.of(relation));
+        
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName("two_phase_db");
+        schema.setTables(new ArrayList<>(List.of(article, createSampleTable())));
+        
+        try {
+            // When
+            sqlGeneratorService.setEmissionMode(DdlEmissionModeEnum.TWO_PHASE);
+            String sql = sqlGeneratorService.generateFullSchemaSql(schema);
+            
+            // Then: 建表语句不含外键，外键在所有建表和索引之后以 ALTER TABLE 添加
+            String tablesSection = sql.substring(sql.indexOf("-- 创建表"), sql.indexOf("-- 创建索引"));
+            assertFalse(tablesSection.contains("FOREIGN KEY"));
+            int foreignKeyStart = sql.indexOf("-- 添加外键");
+            assertTrue(foreignKeyStart > sql.indexOf("-- 创建索引"));
+            String foreignKeySection = sql.substring(foreignKeyStart);
+            assertTrue(foreignKeySection.contains("ALTER TABLE") && foreignKeySection.contains("fk_article_author"));
+        } finally {
+            sqlGeneratorService.setEmissionMode(DdlEmissionModeEnum.INLINE);
+        }
+    }
+    
     private TableDefinition createSampleTable() {
         TableDefinition table = new TableDefinition();
         table.setName("user");
@@ -0,0 +1,91 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * TableCatalogCache 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class TableCatalogCacheTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DataSourceRouter dataSourceRouter;
+
+    @InjectMocks
+    private TableCatalogCache tableCatalogCache;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceRouter.Route route = new DataSourceRouter.Route(null, "default", DatabaseConfig.DatabaseType.H2, null, jdbcTemplate);
+        when(dataSourceRouter.current()).thenReturn(route);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("USER", "ORDER_ITEM"));
+    }
+
+    @Test
+    void testExists_SingleCatalogQueryForManyLookups() {
+        // When
+        boolean userExists = tableCatalogCache.exists("user");
+        boolean itemExists = tableCatalogCache.exists("Order_Item");
+        boolean missing = tableCatalogCache.exists("product");
+
+        // Then: 大小写不敏感，三次检查只查询一次
+        assertTrue(userExists);
+        assertTrue(itemExists);
+        assertFalse(missing);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(String.class));
+    }
+
+    @Test
+    void testInvalidate_ReloadsOnNextLookup() {
+        // Given
+        tableCatalogCache.exists("user");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("USER", "ORDER_ITEM", "PRODUCT"));
+
+        // When
+        tableCatalogCache.invalidate();
+
+        // Then
+        assertTrue(tableCatalogCache.exists("product"));
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(String.class));
+    }
+
+    @Test
+    void testInvalidate_DuringLoadDiscardsStaleCatalog() {
+        // Given: 已加载后失效，下一次加载进行中再次失效（模拟并发执行DDL）
+        tableCatalogCache.getTableNames();
+        tableCatalogCache.invalidate();
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenAnswer(invocation -> {
+                    tableCatalogCache.invalidate();
+                    return List.of("USER");
+                })
+                .thenReturn(List.of("USER", "PRODUCT"));
+
+        // When
+        boolean staleLookup = tableCatalogCache.exists("product");
+        boolean freshLookup = tableCatalogCache.exists("product");
+
+        // Then: 失效前开始的加载结果不被安装，下一次检查重新加载
+        assertFalse(staleLookup);
+        assertTrue(freshLookup);
+        assertEquals(1L, tableCatalogCache.getStatistics().get("discardedLoads"));
+        verify(jdbcTemplate, times(3)).queryForList(anyString(), eq(String.class));
+    }
+}
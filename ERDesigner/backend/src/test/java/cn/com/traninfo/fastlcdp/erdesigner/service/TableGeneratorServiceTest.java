@@ -0,0 +1,102 @@
+package cn.com.traninfo.fastlcdp.erdesigner.service;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TableGeneratorService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class TableGeneratorServiceTest {
+
+    @Mock
+    private XmlParserService xmlParserService;
+
+    @Mock
+    private SqlGeneratorService sqlGeneratorService;
+
+    @Mock
+    private DatabaseExecutorService databaseExecutorService;
+
+    @Mock
+    private DdlEventBus ddlEventBus;
+
+    @InjectMocks
+    private TableGeneratorService tableGeneratorService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tableGeneratorService, "pipelineThreshold", 1024L);
+        when(ddlEventBus.runInExecution(any(), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGenerateFromStream_LargeUploadPipelined() throws Exception {
+        // Given: 解析器每输出一张表即回调
+        InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+        DatabaseSchema header = new DatabaseSchema();
+        header.setName("large_db");
+        when(xmlParserService.parseStreaming(same(inputStream), any())).thenAnswer(invocation -> {
+            Consumer<TableDefinition> consumer = invocation.getArgument(1);
+            consumer.accept(table("orders"));
+            consumer.accept(table("order_item"));
+            return header;
+        });
+
+        // When
+        TableGeneratorService.GenerationResult result = tableGeneratorService.generateFromStream(inputStream, 4096, "exec-1");
+
+        // Then: 边解析边建表，不整体解析
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getTableCount());
+        assertEquals("large_db", result.getSchema().getName());
+        verify(databaseExecutorService, times(2)).createTable(any());
+        verify(ddlEventBus).runInExecution(eq("exec-1"), any());
+        verify(xmlParserService, never()).parseUpload(any(), anyLong());
+        verify(databaseExecutorService, never()).createDatabaseSchema(any());
+    }
+
+    @Test
+    void testGenerateFromStream_SmallUploadParsedWhole() throws Exception {
+        // Given
+        InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+        DatabaseSchema schema = new DatabaseSchema();
+        schema.setName("small_db");
+        schema.setTables(new ArrayList<>(List.of(table("orders"))));
+        when(xmlParserService.parseUpload(inputStream, 512)).thenReturn(schema);
+        when(databaseExecutorService.createDatabaseSchema(schema)).thenReturn(true);
+
+        // When
+        TableGeneratorService.GenerationResult result = tableGeneratorService.generateFromStream(inputStream, 512, null);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(1, result.getTableCount());
+        verify(xmlParserService, never()).parseStreaming(any(), any());
+    }
+
+    private static TableDefinition table(String name) {
+        TableDefinition table = new TableDefinition();
+        table.setName(name);
+        return table;
+    }
+}
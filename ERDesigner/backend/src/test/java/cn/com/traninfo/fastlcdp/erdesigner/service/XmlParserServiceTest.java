@@ -3,6 +3,7 @@ package cn.com.traninfo.fastlcdp.erdesigner.service;
 import cn.com.traninfo.fastlcdp.erdesigner.enums.PrimaryKeyTypeEnum;
 import cn.com.traninfo.fastlcdp.erdesigner.model.DatabaseSchema;
 import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.util.XmlValidationResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,8 @@ import jakarta.xml.bind.JAXBException;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,6 +27,9 @@ class XmlParserServiceTest {
     @Autowired
     private XmlParserService xmlParserService;
     
+    @Autowired
+    private ParsedSchemaCache parsedSchemaCache;
+    
     @BeforeEach
     void setUp() {
         // 移除手动创建实例的代码，使用Spring注入的实例
@@ -197,4 +203,317 @@ class XmlParserServiceTest {
         
         assertThrows(JAXBException.class, () -> xmlParserService.parseFromStream(inputStream));
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testParseFromBytes_RepeatHitsCache() throws JAXBException {
+        String xmlContent = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <database name="cache_db" version="1.0">
+                <tables>
+                    <table name="base_entity" type="ABSTRACT">
+                        <fields>
+                            <field name="id" type="LONG" primaryKey="AUTO_INCREMENT"/>
+                        </fields>
+                    </table>
+                    <table name="customer" extends="base_entity">
+                        <fields>
+                            <field name="name" type="STRING" length="50"/>
+                        </fields>
+                    </table>
+                </tables>
+            </database>
+            """;
+        byte[] xmlBytes = xmlContent.getBytes(StandardCharsets.UTF_8);
+        
+        DatabaseSchema first = xmlParserService.parseFromBytes(xmlBytes);
+        long hitsBefore = parsedSchemaCache.getHitCount();
+        
+        // 调用方修改返回结果不应影响缓存
+        first.getTables().get(1).getFields().clear();
+        
+        DatabaseSchema second = xmlParserService.parseFromBytes(xmlBytes);
+        
+        assertEquals(hitsBefore + 1, parsedSchemaCache.getHitCount());
+        assertNotSame(first, second);
+        assertEquals(2, second.getTables().get(1).getFields().size());
+        assertEquals("id", second.getTables().get(1).getFields().get(0).getName());
+    }
+    
+    @Test
+    void testParseUpload_SmallUploadUsesCacheLargeUploadStreams() throws JAXBException {
+        String xmlContent = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <database name="upload_db" version="1.0">
+                <tables>
+                    <table name="upload_item">
+                        <fields>
+                            <field name="id" type="LONG" primaryKey="AUTO_INCREMENT"/>
+                        </fields>
+                    </table>
+                </tables>
+            </database>
+            """;
+        byte[] xmlBytes = xmlContent.getBytes(StandardCharsets.UTF_8);
+        
+        // 长度已知且较小：读入内存，第二次上传命中缓存
+        xmlParserService.parseUpload(new ByteArrayInputStream(xmlBytes), xmlBytes.length);
+        long hitsBefore = parsedSchemaCache.getHitCount();
+        DatabaseSchema cached = xmlParserService.parseUpload(new ByteArrayInputStream(xmlBytes), xmlBytes.length);
+        assertEquals(hitsBefore + 1, parsedSchemaCache.getHitCount());
+        assertEquals("upload_db", cached.getName());
+        
+        // 长度未知：直接从流解析，不经过缓存
+        long missesBefore = parsedSchemaCache.getMissCount();
+        DatabaseSchema streamed = xmlParserService.parseUpload(new ByteArrayInputStream(xmlBytes), -1);
+        assertEquals(hitsBefore + 1, parsedSchemaCache.getHitCount());
+        assertEquals(missesBefore, parsedSchemaCache.getMissCount());
+        assertEquals(1, streamed.getTables().size());
+    }
+    
+    @Test
+    void testParseStreaming_EmitsTablesWithInheritance() throws JAXBException {
+        // order_item 先于其父表 audit_entity 出现，需要暂存到父表到达
+        String xmlContent = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <database name="stream_db" version="2.0" charset="utf8" comment="流式解析">
+                <tables>
+                    <table name="base_entity" type="ABSTRACT">
+                        <fields>
+                            <field name="id" type="LONG" primaryKey="AUTO_INCREMENT"/>
+                        </fields>
+                    </table>
+                    <table name="order_item" extends="audit_entity">
+                        <fields>
+                            <field name="quantity" type="INTEGER"/>
+                        </fields>
+                    </table>
+                    <table name="audit_entity" extends="base_entity" type="ABSTRACT">
+                        <fields>
+                            <field name="created_time" type="TIMESTAMP"/>
+                        </fields>
+                    </table>
+                    <table name="customer" extends="base_entity">
+                        <fields>
+                            <field name="name" type="STRING" length="50"/>
+                        </fields>
+                    </table>
+                </tables>
+            </database>
+            """;
+        byte[] xmlBytes = xmlContent.getBytes(StandardCharsets.UTF_8);
+        
+        List<TableDefinition> emitted = new ArrayList<>();
+        DatabaseSchema header = xmlParserService.parseStreaming(new ByteArrayInputStream(xmlBytes), emitted::add);
+        
+        // 数据库属性
+        assertEquals("stream_db", header.getName());
+        assertEquals("2.0", header.getVersion());
+        assertEquals("utf8", header.getCharset());
+        assertTrue(header.getTables().isEmpty());
+        
+        // 输出顺序：父表到达后立即释放等待的子表
+        assertEquals(List.of("base_entity", "audit_entity", "order_item", "customer"),
+                emitted.stream().map(TableDefinition::getName).toList());
+        
+        // 与整体解析的继承结果一致
+        DatabaseSchema full = xmlParserService.parseFromStream(new ByteArrayInputStream(xmlBytes));
+        for (TableDefinition table : emitted) {
+            TableDefinition expected = full.getTables().stream()
+                    .filter(t -> t.getName().equals(table.getName()))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(expected.getFields().stream().map(f -> f.getName()).toList(),
+                    table.getFields().stream().map(f -> f.getName()).toList());
+        }
+    }
+    
+    @Test
+    void testParseStreaming_ConcreteParentDeclaredFirst() throws JAXBException {
+        String xmlContent = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <database name="stream_db">
+                <tables>
+                    <table name="customer">
+                        <fields>
+                            <field name="id" type="LONG"/>
+                        </fields>
+                    </table>
+                    <table name="vip_customer" extends="customer">
+                        <fields>
+                            <field name="level" type="INTEGER"/>
+                        </fields>
+                    </table>
+                </tables>
+            </database>
+            """;
+        
+        List<TableDefinition> emitted = new ArrayList<>();
+        xmlParserService.parseStreaming(new ByteArrayInputStream(xmlContent.getBytes(StandardCharsets.UTF_8)), emitted::add);
+        
+        // 已输出的非抽象父表仍可被后续子表继承
+        assertEquals(List.of("customer", "vip_customer"), emitted.stream().map(TableDefinition::getName).toList());
+        assertEquals(List.of("id", "level"), emitted.get(1).getFields().stream().map(f -> f.getName()).toList());
+    }
+    
+    @Test
+    void testParseStreaming_ChildInheritsSnapshotNotConsumerChanges() throws JAXBException {
+        String xmlContent = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <database name="stream_db">
+                <tables>
+                    <table name="customer">
+                        <fields>
+                            <field name="id" type="LONG"/>
+                        </fields>
+                    </table>
+                    <table name="vip_customer" extends="customer">
+                        <fields>
+                            <field name="level" type="INTEGER"/>
+                        </fields>
+                    </table>
+                </tables>
+            </database>
+            """;
+        
+        List<List<String>> emittedFields = new ArrayList<>();
+        // consumer 处理完即清空并丢弃表定义，解析器只保留父表可继承部分的副本
+        xmlParserService.parseStreaming(new ByteArrayInputStream(xmlContent.getBytes(StandardCharsets.UTF_8)), table -> {
+            emittedFields.add(table.getFields().stream().map(f -> f.getName()).toList());
+            table.getFields().clear();
+        });
+        
+        assertEquals(List.of(List.of("id"), List.of("id", "level")), emittedFields);
+    }
+    
+    @Test
+    void testParseStreaming_BuffersTablesUntilReferencedTablesEmitted() throws JAXBException {
+        // order_item 引用后面才出现的 orders 和 product，node 引用自身
+        String xmlContent = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <database name="stream_db">
+                <tables>
+                    <table name="order_item">
+                        <fields>
+                            <field name="id" type="LONG"/>
+                            <field name="order_id" type="LONG"/>
+                            <field name="product_id" type="LONG"/>
+                        </fields>
+                        <relations>
+                            <relation name="fk_item_order" column="order_id" referenceTable="orders" referenceColumn="id"/>
+                            <relation name="fk_item_product" column="product_id" referenceTable="product" referenceColumn="id"/>
+                        </relations>
+                    </table>
+                    <table name="node">
+                        <fields>
+                            <field name="id" type="LONG"/>
+                            <field name="parent_id" type="LONG"/>
+                        </fields>
+                        <relations>
+                            <relation name="fk_node_parent" column="parent_id" referenceTable="node" referenceColumn="id"/>
+                        </relations>
+                    </table>
+                    <table name="orders">
+                        <fields>
+                            <field name="id" type="LONG"/>
+                        </fields>
+                    </table>
+                    <table name="product">
+                        <fields>
+                            <field name="id" type="LONG"/>
+                        </fields>
+                    </table>
+                    <table name="audit">
+                        <fields>
+                            <field name="id" type="LONG"/>
+                            <field name="user_id" type="LONG"/>
+                        </fields>
+                        <relations>
+                            <relation name="fk_audit_user" column="user_id" referenceTable="missing_user" referenceColumn="id"/>
+                        </relations>
+                    </table>
+                </tables>
+            </database>
+            """;
+        
+        List<TableDefinition> emitted = new ArrayList<>();
+        xmlParserService.parseStreaming(new ByteArrayInputStream(xmlContent.getBytes(StandardCharsets.UTF_8)), emitted::add);
+        
+        // 被引用表全部输出后才输出引用方，被引用表不存在时在文档结束后输出
+        assertEquals(List.of("node", "orders", "product", "order_item", "audit"),
+                emitted.stream().map(TableDefinition::getName).toList());
+    }
+
+    @Test
+    void testValidateAndParse_ValidXml() throws JAXBException {
+        // Given
+        String xmlContent = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <database name="validated_db">
+                <tables>
+                    <table name="user" comment="用户表">
+                        <fields>
+                            <field name="id" type="LONG" primaryKey="AUTO_INCREMENT"/>
+                            <field name="username" type="STRING" length="50" nullable="false"/>
+                        </fields>
+                    </table>
+                </tables>
+            </database>
+            """;
+        XmlValidationResult validation = new XmlValidationResult();
+        
+        // When
+        DatabaseSchema schema = xmlParserService.validateAndParse(
+                new ByteArrayInputStream(xmlContent.getBytes(StandardCharsets.UTF_8)), validation);
+        
+        // Then
+        assertTrue(validation.isValid());
+        assertTrue(validation.getErrors().isEmpty());
+        assertNotNull(schema);
+        assertEquals("validated_db", schema.getName());
+        assertEquals(PrimaryKeyTypeEnum.AUTO_INCREMENT, schema.getTables().get(0).getFields().get(0).getPrimaryKeyType());
+    }
+    
+    @Test
+    void testValidateAndParse_CollectsAllErrors() throws JAXBException {
+        // Given: database缺少name，两个字段缺少type
+        String xmlContent = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <database>
+                <tables>
+                    <table name="user">
+                        <fields>
+                            <field name="id"/>
+                            <field name="username"/>
+                        </fields>
+                    </table>
+                </tables>
+            </database>
+            """;
+        XmlValidationResult validation = new XmlValidationResult();
+        
+        // When
+        DatabaseSchema schema = xmlParserService.validateAndParse(
+                new ByteArrayInputStream(xmlContent.getBytes(StandardCharsets.UTF_8)), validation);
+        
+        // Then
+        assertNull(schema);
+        assertFalse(validation.isValid());
+        assertTrue(validation.getErrors().size() >= 3, "所有缺失属性都应被报告");
+        assertTrue(validation.getErrors().get(0).contains("name"));
+    }
+    
+    @Test
+    void testValidateAndParse_MalformedXml() throws JAXBException {
+        // Given
+        XmlValidationResult validation = new XmlValidationResult();
+        
+        // When
+        DatabaseSchema schema = xmlParserService.validateAndParse(
+                new ByteArrayInputStream("<database name=\"x\"><tables>".getBytes(StandardCharsets.UTF_8)), validation);
+        
+        // Then
+        assertNull(schema);
+        assertFalse(validation.isValid());
+        assertFalse(validation.getErrors().isEmpty());
+    }
+}
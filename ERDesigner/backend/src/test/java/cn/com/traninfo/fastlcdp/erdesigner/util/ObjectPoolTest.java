@@ -0,0 +1,113 @@
+package cn.com.traninfo.fastlcdp.erdesigner.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ObjectPool 单元测试
+ */
+class ObjectPoolTest {
+
+    @Test
+    void testBorrow_ReusesReleasedObject() {
+        // Given
+        AtomicInteger resets = new AtomicInteger();
+        ObjectPool<StringBuilder> pool = new ObjectPool<>("test", StringBuilder::new, sb -> {
+            resets.incrementAndGet();
+            sb.setLength(0);
+            return true;
+        }, 4);
+
+        // When
+        StringBuilder first;
+        try (ObjectPool<StringBuilder>.Lease lease = pool.borrow()) {
+            first = lease.get();
+            first.append("dirty");
+        }
+        StringBuilder second;
+        try (ObjectPool<StringBuilder>.Lease lease = pool.borrow()) {
+            second = lease.get();
+        }
+
+        // Then
+        assertSame(first, second);
+        assertEquals(0, second.length());
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(2, pool.getBorrowedCount());
+        assertEquals(2, resets.get());
+        assertEquals(0, pool.getInUseCount());
+    }
+
+    @Test
+    void testRelease_ResetFailureDiscardsObject() {
+        // Given
+        ObjectPool<StringBuilder> pool = new ObjectPool<>("test", StringBuilder::new, sb -> false, 4);
+
+        // When
+        pool.borrow().close();
+        pool.borrow().close();
+
+        // Then
+        assertEquals(2, pool.getCreatedCount());
+        assertEquals(2, pool.getDiscardedCount());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    void testClear_DiscardsOutstandingLeases() {
+        // Given
+        ObjectPool<StringBuilder> pool = new ObjectPool<>("test", StringBuilder::new, sb -> true, 4);
+        ObjectPool<StringBuilder>.Lease outstanding = pool.borrow();
+        pool.borrow().close();
+        assertEquals(1, pool.getIdleCount());
+
+        // When
+        pool.clear();
+        outstanding.close();
+
+        // Then
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(2, pool.getDiscardedCount());
+        try (ObjectPool<StringBuilder>.Lease lease = pool.borrow()) {
+            assertNotSame(outstanding.get(), lease.get());
+        }
+    }
+
+    @Test
+    void testRelease_RespectsMaxIdle() {
+        // Given
+        ObjectPool<StringBuilder> pool = new ObjectPool<>("test", StringBuilder::new, sb -> true, 2);
+        List<ObjectPool<StringBuilder>.Lease> leases = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            leases.add(pool.borrow());
+        }
+
+        // When
+        leases.forEach(lease -> lease.close());
+
+        // Then
+        assertEquals(2, pool.getIdleCount());
+        assertEquals(3, pool.getDiscardedCount());
+        assertEquals(5L, pool.getStatistics().get("created"));
+    }
+
+    @Test
+    void testLease_DoubleCloseReleasesOnce() {
+        // Given
+        ObjectPool<StringBuilder> pool = new ObjectPool<>("test", StringBuilder::new, sb -> true, 4);
+        ObjectPool<StringBuilder>.Lease lease = pool.borrow();
+
+        // When
+        lease.close();
+        lease.close();
+
+        // Then
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(0, pool.getInUseCount());
+    }
+}
@@ -0,0 +1,29 @@
+-- 旧版元数据表（metadata），列与 MetadataEntity 一致
+DROP TABLE IF EXISTS metadata;
+CREATE TABLE metadata (
+    id BIGINT PRIMARY KEY,
+    created_by BIGINT,
+    updated_by BIGINT,
+    created_time TIMESTAMP,
+    updated_time TIMESTAMP,
+    is_deleted INT DEFAULT 0,
+    version BIGINT,
+    tenant_id BIGINT,
+    project_id BIGINT,
+    schema_name VARCHAR(100),
+    table_name VARCHAR(100),
+    field_name VARCHAR(100),
+    field_type VARCHAR(50),
+    field_length INT,
+    field_scale INT,
+    is_nullable BOOLEAN,
+    primary_key_type VARCHAR(20),
+    default_value VARCHAR(255),
+    comment VARCHAR(500),
+    index_name VARCHAR(100),
+    index_type VARCHAR(20),
+    relation_type VARCHAR(100),
+    reference_table VARCHAR(100),
+    reference_field VARCHAR(100),
+    xml_content CLOB
+);